@@ -0,0 +1,130 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.api.sparql;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableMap;
+import com.metaphacts.benchmark.SyntheticData;
+
+/**
+ * Benchmarks preparing (and evaluating) a parameterized SELECT query with
+ * {@link SparqlOperationBuilder}, as done for each query of templates and
+ * components.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SparqlOperationBuilderBenchmark {
+
+    private static final String QUERY = "SELECT ?label ?related ?value WHERE {\n"
+            + "  ?? rdfs:label ?label ;\n"
+            + "     bench:related ?related .\n"
+            + "  ?related bench:value ?value .\n"
+            + "  FILTER(LANG(?label) = ?lang)\n"
+            + "}";
+
+    private SailRepository repository;
+    private RepositoryConnection connection;
+    private Map<String, String> namespaces;
+    private IRI thisResource;
+    private IRI user;
+
+    @Setup
+    public void setup() throws Exception {
+        repository = SyntheticData.createRepository(1000);
+        connection = repository.getConnection();
+        namespaces = ImmutableMap.<String, String>builder()
+                .putAll(SyntheticData.createNamespaceRegistry().getPrefixMap())
+                .put(SyntheticData.PREFIX, SyntheticData.NAMESPACE)
+                .build();
+        thisResource = SyntheticData.iri(42);
+        user = SimpleValueFactory.getInstance().createIRI("http://example.org/user/admin");
+    }
+
+    @TearDown
+    public void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    private SparqlOperationBuilder<TupleQuery> newBuilder() {
+        return SparqlOperationBuilder.<TupleQuery>create(QUERY, TupleQuery.class)
+                .setNamespaces(namespaces)
+                .resolveThis(thisResource)
+                .resolveUser(user)
+                .setBinding("lang", SimpleValueFactory.getInstance().createLiteral("en"));
+    }
+
+    @Benchmark
+    public TupleQuery build() {
+        return newBuilder().build(connection);
+    }
+
+    @Benchmark
+    public void buildAndEvaluate(Blackhole blackhole) {
+        try (TupleQueryResult result = newBuilder().build(connection).evaluate()) {
+            result.forEach(blackhole::consume);
+        }
+    }
+}
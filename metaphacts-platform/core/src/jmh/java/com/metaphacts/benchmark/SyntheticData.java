@@ -0,0 +1,117 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+
+import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.services.storage.api.PlatformStorage;
+
+/**
+ * Synthetic data shared by the benchmarks. All data is generated
+ * deterministically such that results of different runs are comparable.
+ */
+public class SyntheticData {
+
+    public static final String NAMESPACE = "http://example.org/benchmark/";
+    public static final String PREFIX = "bench";
+
+    public static final List<String> LANGUAGES = List.of("en", "de", "fr", "es", "it", "ru", "zh", "ja");
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private static final int NUMBER_OF_CLASSES = 10;
+
+    public static IRI iri(int index) {
+        return vf.createIRI(NAMESPACE, "resource" + index);
+    }
+
+    public static List<IRI> iris(int count) {
+        return IntStream.range(0, count).mapToObj(SyntheticData::iri).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates an initialized in-memory repository with the given number of
+     * resources. Each resource has a type, <code>rdfs:label</code>s in all
+     * {@link #LANGUAGES}, a <code>skos:prefLabel</code> without language tag, a
+     * numeric value and a link to the next resource.
+     */
+    public static SailRepository createRepository(int numberOfResources) {
+        SailRepository repository = new SailRepository(new MemoryStore());
+        repository.init();
+        try (RepositoryConnection con = repository.getConnection()) {
+            con.begin();
+            for (int i = 0; i < numberOfResources; i++) {
+                IRI resource = iri(i);
+                con.add(resource, RDF.TYPE, vf.createIRI(NAMESPACE, "Class" + (i % NUMBER_OF_CLASSES)));
+                for (String language : LANGUAGES) {
+                    con.add(resource, RDFS.LABEL, vf.createLiteral("Resource " + i + " (" + language + ")", language));
+                }
+                con.add(resource, SKOS.PREF_LABEL, vf.createLiteral("Resource " + i));
+                con.add(resource, vf.createIRI(NAMESPACE, "value"), vf.createLiteral(i));
+                con.add(resource, vf.createIRI(NAMESPACE, "related"), iri((i + 1) % numberOfResources));
+            }
+            con.commit();
+        }
+        return repository;
+    }
+
+    /**
+     * Creates a {@link NamespaceRegistry} with the default namespaces of the
+     * platform, backed by an empty storage.
+     */
+    public static NamespaceRegistry createNamespaceRegistry() throws Exception {
+        return new NamespaceRegistry(mock(PlatformStorage.class));
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.metaphacts.benchmark.SyntheticData;
+
+/**
+ * Compares heap footprint and lookup time of label cache entries kept as plain
+ * RDF4J values and as {@link CompactValues}.
+ * <p>
+ * Both variants hold the same entries (resources times languages) in an
+ * unbounded cache, and all lookups are hits, i.e. the hit ratio
+ * is equal. The <code>plain</code> variant mirrors the former cache keys, which
+ * kept their own copy of the preferred languages. The retained heap per entry
+ * is reported as secondary metric <code>bytesPerEntry</code> of
+ * {@link #footprint(FootprintState, Footprint)}.
+ * </p>
+ */
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class CompactValuesBenchmark {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    public enum Representation {
+        plain, compact
+    }
+
+    @State(Scope.Benchmark)
+    public static class FootprintState {
+        @Param({ "plain", "compact" })
+        public Representation representation;
+
+        @Param({ "100000" })
+        public int resources;
+
+        private Cache<Object, Optional<Literal>> cache;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long bytesPerEntry;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LookupState {
+        @Param({ "plain", "compact" })
+        public Representation representation;
+
+        @Param({ "100000" })
+        public int resources;
+
+        private Cache<Object, Optional<Literal>> cache;
+        private List<IRI> iris;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cache = populate(representation, resources);
+            iris = SyntheticData.iris(resources);
+        }
+    }
+
+    /**
+     * Populates a cache with labels in all languages and measures the retained
+     * heap.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    // aux counters are summed up over iterations, thus a single measurement
+    @Measurement(iterations = 1)
+    public Object footprint(FootprintState state, Footprint footprint) {
+        state.cache = null;
+        long before = usedHeap();
+        state.cache = populate(state.representation, state.resources);
+        long after = usedHeap();
+        footprint.bytesPerEntry = (after - before) / state.cache.size();
+        return state.cache;
+    }
+
+    /**
+     * Looks up the label of a random resource, including the access to the
+     * label string.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public String lookup(LookupState state) {
+        IRI iri = state.iris.get(ThreadLocalRandom.current().nextInt(state.resources));
+        String language = SyntheticData.LANGUAGES.get(ThreadLocalRandom.current().nextInt(
+                SyntheticData.LANGUAGES.size()));
+        Object key = state.representation == Representation.compact
+                ? new LiteralCacheKey(iri, List.of(language, "en"))
+                : new PlainKey(iri, List.of(language, "en"));
+        return state.cache.getIfPresent(key).get().getLabel();
+    }
+
+    private static Cache<Object, Optional<Literal>> populate(Representation representation, int resources) {
+        // unbounded: size based eviction of Guava may evict before the maximum size is reached
+        Cache<Object, Optional<Literal>> cache = CacheBuilder.newBuilder().build();
+        for (int i = 0; i < resources; i++) {
+            for (String language : SyntheticData.LANGUAGES) {
+                // fresh instances as created when parsing query results
+                IRI iri = vf.createIRI(SyntheticData.NAMESPACE + "resource" + i);
+                Literal label = vf.createLiteral("Resource " + i + " (" + language + ")", new String(language));
+                List<String> preferredLanguages = new ArrayList<>(List.of(language, "en"));
+                if (representation == Representation.compact) {
+                    cache.put(new LiteralCacheKey(iri, preferredLanguages), Optional.of(CompactValues.compact(label)));
+                } else {
+                    cache.put(new PlainKey(iri, preferredLanguages), Optional.of(label));
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Cache key as kept before the introduction of {@link CompactValues}.
+     */
+    private static class PlainKey {
+        private final IRI iri;
+        private final String languageTag;
+        @SuppressWarnings("unused")
+        private final List<String> preferredLanguages;
+
+        PlainKey(IRI iri, List<String> preferredLanguages) {
+            this.iri = iri;
+            this.preferredLanguages = preferredLanguages;
+            this.languageTag = preferredLanguages.get(0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PlainKey that = (PlainKey) o;
+            return Objects.equals(iri, that.iri) && Objects.equals(languageTag, that.languageTag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(iri, languageTag);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.metaphacts.benchmark.SyntheticData;
+import com.metaphacts.config.NamespaceRegistry;
+
+/**
+ * Benchmarks the label selection and the batched label queries of
+ * {@link LiteralCache}, i.e. the work done on cache misses of the label cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LiteralCacheBenchmark {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private List<Literal> candidates;
+
+    @Setup
+    public void setup() {
+        candidates = SyntheticData.LANGUAGES.stream()
+                .map(language -> vf.createLiteral("Label (" + language + ")", language))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Optional<Literal> chooseLabelWithPreferredLanguage() {
+        return LiteralCache.chooseLabelWithPreferredLanguage(candidates, "ja", List.of("en", "de"));
+    }
+
+    @Benchmark
+    public Optional<Literal> chooseLabelWithFallbackLanguage() {
+        return LiteralCache.chooseLabelWithPreferredLanguage(candidates, "pt", List.of("nl", "it"));
+    }
+
+    @Benchmark
+    public Map<LiteralCacheKey, Optional<Literal>> queryAll(QueryState state) {
+        return state.literalCache.queryAll(state.repository, state.keys);
+    }
+
+    @State(Scope.Benchmark)
+    public static class QueryState {
+
+        /**
+         * Number of keys per batch, batches larger than 1000 keys are split and
+         * queried in parallel by {@link LiteralCache#queryAll}.
+         */
+        @Param({ "10", "100", "1000" })
+        public int batchSize;
+
+        private SailRepository repository;
+        private LiteralCache literalCache;
+        private List<LiteralCacheKey> keys;
+
+        @Setup
+        public void setup() throws Exception {
+            repository = SyntheticData.createRepository(2000);
+            literalCache = new BenchmarkLiteralCache(SyntheticData.createNamespaceRegistry());
+            keys = SyntheticData.iris(batchSize).stream()
+                    .map(iri -> new LiteralCacheKey(iri, List.of("de", "en")))
+                    .collect(Collectors.toList());
+        }
+
+        @TearDown
+        public void tearDown() {
+            repository.shutDown();
+        }
+    }
+
+    private static class BenchmarkLiteralCache extends LiteralCache {
+
+        BenchmarkLiteralCache(NamespaceRegistry namespaceRegistry) {
+            super("benchmark.labels", namespaceRegistry);
+        }
+
+        @Override
+        protected List<String> getPreferredProperties() {
+            return List.of("rdfs:label", "<http://www.w3.org/2004/02/skos/core#prefLabel>");
+        }
+
+        @Override
+        protected List<String> resolvePreferredLanguages(String preferredLanguage) {
+            return preferredLanguage == null ? List.of("en") : List.of(preferredLanguage, "en");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.metaphacts.benchmark.SyntheticData;
+import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.config.PropertyPattern;
+
+/**
+ * Benchmarks building the property query of
+ * {@link ResourcePropertyCache#constructPropertyQuery(Iterable, List)} for
+ * batches of different size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourcePropertyCacheBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int batchSize;
+
+    private List<IRI> iris;
+    private List<PropertyPattern> properties;
+
+    @Setup
+    public void setup() throws Exception {
+        NamespaceRegistry ns = SyntheticData.createNamespaceRegistry();
+        iris = SyntheticData.iris(batchSize);
+        properties = List.of(
+                "rdfs:label",
+                "<http://www.w3.org/2004/02/skos/core#prefLabel>",
+                "{ ?subject <http://www.w3.org/2004/02/skos/core#altLabel> ?value }")
+                .stream().map(pattern -> PropertyPattern.parse(pattern, ns))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public String constructPropertyQuery() {
+        return ResourcePropertyCache.constructPropertyQuery(iris, properties);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository.sparql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.AbstractTupleQueryResultHandler;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.metaphacts.benchmark.SyntheticData;
+
+/**
+ * Compares serializing and parsing tuple query results in the formats used
+ * between platform components, i.e. SPARQL JSON and the binary RDF4J format
+ * preferred by {@link MpSPARQLRepository} when the endpoint supports it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryResultFormatBenchmark {
+
+    private static final String QUERY = "SELECT ?s ?type ?label ?value WHERE {\n"
+            + "  ?s a ?type ; <http://www.w3.org/2000/01/rdf-schema#label> ?label ;\n"
+            + "     <http://example.org/benchmark/value> ?value\n"
+            + "}";
+
+    @Param({ "JSON", "BINARY" })
+    public String format;
+
+    private TupleQueryResultFormat resultFormat;
+    private List<String> bindingNames;
+    private List<BindingSet> bindingSets;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        resultFormat = "BINARY".equals(format) ? TupleQueryResultFormat.BINARY : TupleQueryResultFormat.JSON;
+        SailRepository repository = SyntheticData.createRepository(1000);
+        try (RepositoryConnection con = repository.getConnection();
+                TupleQueryResult result = con.prepareTupleQuery(QUERY).evaluate()) {
+            bindingNames = result.getBindingNames();
+            bindingSets = QueryResults.asList(result);
+        } finally {
+            repository.shutDown();
+        }
+        serialized = write().toByteArray();
+    }
+
+    private ByteArrayOutputStream write() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        TupleQueryResultWriter writer = QueryResultIO.createTupleWriter(resultFormat, out);
+        writer.startQueryResult(bindingNames);
+        bindingSets.forEach(writer::handleSolution);
+        writer.endQueryResult();
+        return out;
+    }
+
+    @Benchmark
+    public int serialize() {
+        return write().size();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws Exception {
+        QueryResultIO.parseTuple(new ByteArrayInputStream(serialized), resultFormat,
+                new AbstractTupleQueryResultHandler() {
+                    @Override
+                    public void handleSolution(BindingSet bindingSet) {
+                        blackhole.consume(bindingSet);
+                    }
+                }, SimpleValueFactory.getInstance());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.shiro.authz.Permission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks permission checks against the permissions of a typical role, both
+ * by scanning all {@link WildcardPermission}s (as done by Shiro's
+ * <code>AuthorizingRealm</code>) and using the {@link CompiledPermissionIndex}
+ * (including its memorized decisions).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WildcardPermissionBenchmark {
+
+    private List<Permission> granted;
+    private CompiledPermissionIndex index;
+
+    private Permission sparqlPermission;
+    private Permission iriPermission;
+    private Permission regexPermission;
+    private Permission deniedPermission;
+
+    @Setup
+    public void setup() {
+        granted = IntStream.range(0, 40)
+                .<Permission>mapToObj(i -> new WildcardPermission("api:config:group" + i + ":*:read"))
+                .collect(Collectors.toCollection(ArrayList::new));
+        granted.addAll(List.of(
+                new WildcardPermission("sparql:default:query:*"),
+                new WildcardPermission("sparql:assets:query:select"),
+                new WildcardPermission("ldp:container:<http://www.metaphacts.com/ontologies/platform#setContainer>:read:any"),
+                new WildcardPermission("pages:view:regex(.*benchmark.*)"),
+                new WildcardPermission("accounts:users:query"),
+                new WildcardPermission("storage:view:runtime")));
+        index = new CompiledPermissionIndex(granted);
+
+        sparqlPermission = new WildcardPermission("sparql:default:query:construct");
+        iriPermission = new WildcardPermission(
+                "ldp:container:<http://www.metaphacts.com/ontologies/platform#setContainer>:read:any");
+        regexPermission = new WildcardPermission("pages:view:<http://example.org/benchmark/resource42>");
+        deniedPermission = new WildcardPermission("sparql:default:update");
+    }
+
+    private boolean scan(Permission permission) {
+        for (Permission p : granted) {
+            if (p.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean scanSparqlPermission() {
+        return scan(sparqlPermission);
+    }
+
+    @Benchmark
+    public boolean scanIriPermission() {
+        return scan(iriPermission);
+    }
+
+    @Benchmark
+    public boolean scanRegexPermission() {
+        return scan(regexPermission);
+    }
+
+    @Benchmark
+    public boolean scanDeniedPermission() {
+        return scan(deniedPermission);
+    }
+
+    @Benchmark
+    public boolean indexSparqlPermission() {
+        return index.implies(sparqlPermission);
+    }
+
+    @Benchmark
+    public boolean indexDeniedPermission() {
+        return index.implies(deniedPermission);
+    }
+
+    @Benchmark
+    public Permission parsePermission() {
+        return new WildcardPermission("sparql:default:query:select");
+    }
+}
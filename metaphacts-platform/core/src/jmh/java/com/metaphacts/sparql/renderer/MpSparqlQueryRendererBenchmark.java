@@ -0,0 +1,116 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.sparql.renderer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedOperation;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks rendering parsed operations back to SPARQL with the
+ * {@link MpSparqlQueryRenderer}, e.g. after parameterization of queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MpSparqlQueryRendererBenchmark {
+
+    private static final String SIMPLE_SELECT = "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n"
+            + "SELECT ?s ?label WHERE { ?s a <http://example.org/benchmark/Class1> ; rdfs:label ?label } LIMIT 10";
+
+    private static final String COMPLEX_SELECT = "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n"
+            + "PREFIX bench: <http://example.org/benchmark/>\n"
+            + "SELECT ?type (COUNT(DISTINCT ?s) AS ?count) (SAMPLE(?label) AS ?example) WHERE {\n"
+            + "  ?s a ?type ; bench:value ?value .\n"
+            + "  OPTIONAL { ?s rdfs:label ?label FILTER(LANG(?label) = \"en\") }\n"
+            + "  { ?s bench:related/bench:related ?other } UNION { ?other bench:related ?s }\n"
+            + "  FILTER(?value > 10 && ?value < 500)\n"
+            + "  FILTER NOT EXISTS { ?s bench:hidden true }\n"
+            + "  VALUES ?type { bench:Class1 bench:Class2 bench:Class3 }\n"
+            + "}\n"
+            + "GROUP BY ?type HAVING (COUNT(DISTINCT ?s) > 1) ORDER BY DESC(?count) LIMIT 100";
+
+    private static final String UPDATE = "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n"
+            + "DELETE { ?s rdfs:label ?old } INSERT { ?s rdfs:label \"new label\"@en }\n"
+            + "WHERE { ?s rdfs:label ?old FILTER(LANG(?old) = \"en\") }";
+
+    @Param({ "simpleSelect", "complexSelect", "update" })
+    public String operation;
+
+    private ParsedOperation parsedOperation;
+
+    @Setup
+    public void setup() {
+        String queryString;
+        switch (operation) {
+        case "simpleSelect":
+            queryString = SIMPLE_SELECT;
+            break;
+        case "complexSelect":
+            queryString = COMPLEX_SELECT;
+            break;
+        default:
+            queryString = UPDATE;
+        }
+        parsedOperation = QueryParserUtil.parseOperation(QueryLanguage.SPARQL, queryString, null);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String render() throws Exception {
+        return new MpSparqlQueryRenderer().render(parsedOperation);
+    }
+}
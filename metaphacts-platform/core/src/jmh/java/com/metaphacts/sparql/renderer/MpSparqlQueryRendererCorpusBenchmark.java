@@ -0,0 +1,123 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.sparql.renderer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedOperation;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+/**
+ * Benchmarks rendering a corpus of real-world queries (the queries of the
+ * ResearchSpace load tests) with the {@link MpSparqlQueryRenderer}.
+ * <p>
+ * The corpus location is taken from the <code>jmh.queryCorpus</code> system
+ * property, which is set by the <code>jmh</code> Gradle task.
+ * </p>
+ * <ul>
+ * <li><code>newRenderer</code>: a new renderer per query (as done previously
+ * by <code>QueryUtil</code>)</li>
+ * <li><code>sharedRenderer</code>: a single renderer without memoization</li>
+ * <li><code>memoizingRenderer</code>: a single renderer memoizing the output,
+ * i.e. the corpus is rendered from the cache after the first iteration</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class MpSparqlQueryRendererCorpusBenchmark {
+
+    private static final String DEFAULT_CORPUS = "../../researchspace/load-testing/src/test/resources/queries.yml";
+
+    @Param({ "newRenderer", "sharedRenderer", "memoizingRenderer" })
+    public String renderer;
+
+    private List<ParsedOperation> corpus;
+
+    private MpSparqlQueryRenderer sharedRenderer;
+
+    @Setup
+    public void setup() throws IOException {
+        File corpusFile = new File(System.getProperty("jmh.queryCorpus", DEFAULT_CORPUS));
+        List<Map<String, Object>> entries = new YAMLMapper().readValue(corpusFile,
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        corpus = entries.stream()
+                .map(entry -> entry.getOrDefault("prefixes", "") + "\n" + entry.get("query"))
+                .map(query -> QueryParserUtil.parseOperation(QueryLanguage.SPARQL, query, null))
+                .collect(Collectors.toList());
+        sharedRenderer = "memoizingRenderer".equals(renderer) ? new MpSparqlQueryRenderer(corpus.size())
+                : new MpSparqlQueryRenderer();
+    }
+
+    @Benchmark
+    public void renderCorpus(Blackhole blackhole) throws Exception {
+        boolean newRenderer = "newRenderer".equals(renderer);
+        for (ParsedOperation operation : corpus) {
+            MpSparqlQueryRenderer queryRenderer = newRenderer ? new MpSparqlQueryRenderer() : sharedRenderer;
+            blackhole.consume(queryRenderer.render(operation));
+        }
+    }
+}
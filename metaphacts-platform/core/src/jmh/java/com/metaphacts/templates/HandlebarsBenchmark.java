@@ -0,0 +1,124 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.templates;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jknack.handlebars.Template;
+import com.metaphacts.benchmark.SyntheticData;
+import com.metaphacts.templates.helper.DateTimeHelperSource;
+import com.metaphacts.templates.helper.UriComponentHelperSource;
+
+/**
+ * Benchmarks compiling and rendering a backend template with
+ * {@link MetaphactsHandlebars}. Inline templates are compiled through the
+ * template cache of the engine, as templates loaded from storage. Only helpers
+ * without platform dependencies are registered, helpers issuing SPARQL queries
+ * are covered by <code>SparqlOperationBuilderBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlebarsBenchmark {
+
+    private static final String TEMPLATE = "<ul>\n"
+            + "[[#each rows]]\n"
+            + "  <li>\n"
+            + "    <a href=\"/resource/?uri=[[encodeUriComponent iri]]\">[[label]]</a>\n"
+            + "    [[#if (eq type \"Class1\")]]<b>[[type]]</b>[[else]]<i>[[type]]</i>[[/if]]\n"
+            + "    <span>[[date-format modified]]</span>\n"
+            + "  </li>\n"
+            + "[[/each]]\n"
+            + "</ul>";
+
+    private MetaphactsHandlebars handlebars;
+    private Template template;
+    private Map<String, Object> context;
+
+    @Setup
+    public void setup() throws IOException {
+        HandlebarsHelperRegistry helperRegistry = mock(HandlebarsHelperRegistry.class);
+        when(helperRegistry.getHelpers()).thenReturn(List.of(new UriComponentHelperSource()));
+        when(helperRegistry.getNamedHelpers()).thenReturn(DateTimeHelperSource.getHelpers());
+        handlebars = new MetaphactsHandlebars(null, helperRegistry);
+
+        template = handlebars.compileInline(TEMPLATE);
+        List<Map<String, Object>> rows = IntStream.range(0, 50)
+                .mapToObj(i -> Map.<String, Object>of(
+                        "iri", SyntheticData.iri(i).stringValue(),
+                        "label", "Resource " + i,
+                        "type", "Class" + (i % 10),
+                        "modified", "2021-03-01T10:15:" + String.format("%02d", i % 60) + "Z"))
+                .collect(Collectors.toList());
+        context = Map.of("rows", rows);
+    }
+
+    @Benchmark
+    public Template compileInline() throws IOException {
+        return handlebars.compileInline(TEMPLATE);
+    }
+
+    @Benchmark
+    public String render() throws IOException {
+        return template.apply(context);
+    }
+}
@@ -46,7 +46,8 @@
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
-import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+
+import com.metaphacts.repository.sparql.MpSPARQLRepository;
 
 /**
  * Manager class for data access.
@@ -55,7 +56,7 @@
  */
 public class SPARQLEndpointAPIClientImpl implements SPARQLEndpointAPIClient {
 
-	private SPARQLRepository repo;
+	private MpSPARQLRepository repo;
 	
 	/**
 	 * Private singleton constructor
@@ -81,7 +82,9 @@ public SPARQLEndpointAPIClientImpl(
 	void init(final String endpointURL, final String user, final String password) 
 	throws RepositoryException {
 	    
-		repo = new SPARQLRepository(endpointURL);
+		repo = new MpSPARQLRepository(endpointURL);
+		// the endpoint is a platform SPARQL endpoint, which supports compact binary results
+		repo.setPreferBinaryResults(true);
 		repo.initialize();
 		
 		// set authentication credentials, if specified
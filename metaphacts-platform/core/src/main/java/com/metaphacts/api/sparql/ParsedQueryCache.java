@@ -0,0 +1,118 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.api.sparql;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Bounded cache of parsed SELECT queries for repeatedly executed query strings
+ * (e.g. the query templates of a QaaS service), see
+ * {@link SparqlOperationBuilder#setParsedQueryCache(ParsedQueryCache)}.
+ * 
+ * <p>
+ * The algebra is only reused for repositories which evaluate it locally, i.e.
+ * {@link SailRepositoryConnection}s. Each prepared query works on a copy of the
+ * cached algebra. Other query forms are parsed by the connection as usual,
+ * since RDF4J offers no public way to create sail graph or boolean queries from
+ * a parsed query.
+ * </p>
+ */
+public class ParsedQueryCache {
+
+    private final Cache<List<String>, ParsedTupleQuery> cache;
+
+    /**
+     * @param maximumSize the maximum number of distinct query strings to keep
+     */
+    public ParsedQueryCache(int maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Prepares the given SELECT query from a copy of the cached algebra, parsing
+     * the query only on the first request.
+     * 
+     * @param con         the connection to prepare the query for
+     * @param queryString the final query string, i.e. after all syntactic
+     *                    preprocessing
+     * @param baseURI     the base URI to resolve relative IRIs (may be
+     *                    <code>null</code>)
+     * @return the prepared query
+     * @throws MalformedQueryException if the query cannot be parsed
+     */
+    public TupleQuery prepareTupleQuery(SailRepositoryConnection con, String queryString, String baseURI)
+            throws MalformedQueryException {
+        ParsedTupleQuery parsed;
+        try {
+            parsed = cache.get(Arrays.asList(queryString, baseURI),
+                    () -> QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, queryString, baseURI));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof MalformedQueryException) {
+                throw (MalformedQueryException) e.getCause();
+            }
+            throw new MalformedQueryException(e.getCause());
+        }
+        // the cached algebra is shared, evaluation must work on a copy
+        ParsedTupleQuery copy = new ParsedTupleQuery(parsed.getSourceString(), parsed.getTupleExpr().clone());
+        copy.setDataset(parsed.getDataset());
+        return new SailTupleQuery(copy, con);
+    }
+
+    /**
+     * @return the number of cached queries
+     */
+    public long size() {
+        return cache.size();
+    }
+}
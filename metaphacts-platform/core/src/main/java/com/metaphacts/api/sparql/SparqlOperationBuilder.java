@@ -61,11 +61,14 @@
 import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
 
 import com.google.common.collect.Maps;
 import com.metaphacts.api.sparql.SparqlUtil.SparqlOperation;
 import com.metaphacts.config.groups.UIConfiguration;
 import com.metaphacts.servlet.SparqlServlet;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 
 
 /**
@@ -89,6 +92,7 @@
     private Boolean includeInferred = false;
     private Optional<Integer> maxExecutionTime = Optional.empty();
     private Map<String, String> namespaces = Maps.newHashMap();
+    private ParsedQueryCache parsedQueryCache;
     
     private SparqlOperationBuilder(String queryString, Class<? extends Operation> clazz) {
         checkNotNull(queryString, "queryString must not be null.");
@@ -180,6 +184,20 @@ public SparqlOperationBuilder<T> setNamespaces(Map<String,String> namespaces){
         return this;
     }
 
+    /**
+     * Reuses the parsed algebra of SELECT queries from the given cache when
+     * building the operation for a local (sail based) repository. The cache is
+     * keyed by the final query string and base URI, i.e. all other settings of
+     * this builder apply as usual.
+     * 
+     * @param parsedQueryCache the cache
+     * @return {@link SparqlOperationBuilder}
+     */
+    public SparqlOperationBuilder<T> setParsedQueryCache(ParsedQueryCache parsedQueryCache) {
+        this.parsedQueryCache = parsedQueryCache;
+        return this;
+    }
+
     /**
      * Propagates dataset with the list of default and named graphs to 
      * the repository connection.
@@ -295,7 +313,13 @@ public SparqlOperationBuilder<T> validate() throws MalformedQueryException {
     }
 
     public T build(RepositoryConnection con) throws RepositoryException, MalformedQueryException, IllegalArgumentException{
-        
+        Span span = RequestTrace.span("sparql.build");
+        try (span) {
+            return buildInternal(con);
+        }
+    }
+
+    private T buildInternal(RepositoryConnection con) {
         this.replaceLegacyParameters();
         SparqlOperation type = SparqlUtil.getOperationType(this.queryString);
         QueryLanguage ql = QueryLanguage.SPARQL;
@@ -308,7 +332,12 @@ public T build(RepositoryConnection con) throws RepositoryException, MalformedQu
                 op = con.prepareUpdate(ql, this.queryString, this.baseURI);
                 break;
             case SELECT:
-                op = con.prepareTupleQuery(ql, this.queryString, this.baseURI);
+                if (this.parsedQueryCache != null && con instanceof SailRepositoryConnection) {
+                    op = this.parsedQueryCache.prepareTupleQuery((SailRepositoryConnection) con, this.queryString,
+                            this.baseURI);
+                } else {
+                    op = con.prepareTupleQuery(ql, this.queryString, this.baseURI);
+                }
                 break;
             case ASK:
                 op = con.prepareBooleanQuery(ql, this.queryString, this.baseURI);
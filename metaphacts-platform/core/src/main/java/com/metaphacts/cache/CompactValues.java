@@ -0,0 +1,328 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.AbstractIRI;
+import org.eclipse.rdf4j.model.base.AbstractLiteral;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compact, dictionary-encoded representations of RDF values kept in caches
+ * (e.g. labels, descriptions, types and thumbnails of resources).
+ * <p>
+ * Namespaces of IRIs as well as language tags and datatypes of literals are
+ * stored once in process wide dictionaries and referenced by an int code; local
+ * names and labels are kept as UTF-8 byte arrays. The compact values are
+ * regular {@link IRI}s and {@link Literal}s, i.e. they are equal to (and have
+ * the same hash code as) other implementations with the same content. The
+ * dictionaries are bounded; values which cannot be encoded are returned
+ * unchanged.
+ * </p>
+ */
+public final class CompactValues {
+
+    /**
+     * Maximum number of distinct namespaces, typically a data set uses only a
+     * few.
+     */
+    static final int MAX_NAMESPACES = 65536;
+
+    /**
+     * Maximum number of distinct language tags, datatypes, interned IRIs and
+     * language lists (each).
+     */
+    static final int MAX_DICTIONARY_SIZE = 4096;
+
+    private static final int XSD_STRING = -1;
+
+    private static final Dictionary<String> namespaces = new Dictionary<>(MAX_NAMESPACES);
+    private static final Dictionary<String> languages = new Dictionary<>(MAX_DICTIONARY_SIZE);
+    private static final Dictionary<IRI> datatypes = new Dictionary<>(MAX_DICTIONARY_SIZE);
+    private static final Map<IRI, IRI> internedIris = new ConcurrentHashMap<>();
+    private static final Map<List<String>, List<String>> internedLanguageLists = new ConcurrentHashMap<>();
+
+    private CompactValues() {
+    }
+
+    /**
+     * Returns a compact representation of the value.
+     *
+     * @see #compact(IRI)
+     * @see #compact(Literal)
+     */
+    public static Value compact(Value value) {
+        if (value instanceof IRI) {
+            return compact((IRI) value);
+        }
+        if (value instanceof Literal) {
+            return compact((Literal) value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns a compact representation of the IRI, which keeps the namespace as
+     * dictionary code and the local name as UTF-8 bytes.
+     */
+    public static IRI compact(IRI iri) {
+        if (iri instanceof CompactIRI) {
+            return iri;
+        }
+        int namespace = namespaces.encode(iri.getNamespace());
+        if (namespace < 0) {
+            return iri;
+        }
+        return new CompactIRI(namespace, iri.getLocalName().getBytes(StandardCharsets.UTF_8),
+                iri.stringValue().hashCode());
+    }
+
+    /**
+     * Returns a compact representation of the literal, which keeps language tag
+     * or datatype as dictionary code and the label as UTF-8 bytes.
+     */
+    public static Literal compact(Literal literal) {
+        if (literal instanceof CompactLiteral) {
+            return literal;
+        }
+        int type;
+        Optional<String> language = literal.getLanguage();
+        if (language.isPresent()) {
+            type = languages.encode(language.get());
+            if (type < 0) {
+                return literal;
+            }
+        } else if (XSD.STRING.equals(literal.getDatatype())) {
+            type = XSD_STRING;
+        } else {
+            int datatype = datatypes.encode(literal.getDatatype());
+            if (datatype < 0) {
+                return literal;
+            }
+            type = -(datatype + 2);
+        }
+        return new CompactLiteral(literal.getLabel().getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * Returns a shared instance of the IRI, for IRIs occurring many times in
+     * caches such as types. Once the dictionary is full, the IRI is compacted
+     * only.
+     */
+    public static IRI intern(IRI iri) {
+        IRI interned = internedIris.get(iri);
+        if (interned != null) {
+            return interned;
+        }
+        IRI compact = compact(iri);
+        if (internedIris.size() >= MAX_DICTIONARY_SIZE) {
+            return compact;
+        }
+        interned = internedIris.putIfAbsent(compact, compact);
+        return interned != null ? interned : compact;
+    }
+
+    /**
+     * Returns a shared, immutable instance of the list of language tags, e.g.
+     * the preferred languages of cache keys.
+     */
+    public static List<String> internLanguages(List<String> languageTags) {
+        List<String> interned = internedLanguageLists.get(languageTags);
+        if (interned != null) {
+            return interned;
+        }
+        List<String> copy = ImmutableList.copyOf(languageTags);
+        if (internedLanguageLists.size() >= MAX_DICTIONARY_SIZE) {
+            return copy;
+        }
+        interned = internedLanguageLists.putIfAbsent(copy, copy);
+        return interned != null ? interned : copy;
+    }
+
+    /**
+     * Bounded dictionary assigning consecutive int codes to values.
+     */
+    private static final class Dictionary<T> {
+        private final int capacity;
+        private final Map<T, Integer> codes = new ConcurrentHashMap<>();
+        private volatile Object[] values = new Object[16];
+        private int size;
+
+        Dictionary(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return the code of the value or -1 if the dictionary is full
+         */
+        int encode(T value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            synchronized (this) {
+                code = codes.get(value);
+                if (code != null) {
+                    return code;
+                }
+                if (size >= capacity) {
+                    return -1;
+                }
+                Object[] current = values;
+                if (size == current.length) {
+                    current = Arrays.copyOf(current, Math.min(current.length * 2, capacity));
+                }
+                current[size] = value;
+                // publish the array before the code becomes visible
+                values = current;
+                codes.put(value, size);
+                return size++;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T decode(int code) {
+            return (T) values[code];
+        }
+    }
+
+    private static final class CompactIRI extends AbstractIRI {
+        private static final long serialVersionUID = 1L;
+
+        private final int namespace;
+        private final byte[] localName;
+        private final int hash;
+
+        CompactIRI(int namespace, byte[] localName, int hash) {
+            this.namespace = namespace;
+            this.localName = localName;
+            this.hash = hash;
+        }
+
+        @Override
+        public String getNamespace() {
+            return namespaces.decode(namespace);
+        }
+
+        @Override
+        public String getLocalName() {
+            return new String(localName, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String stringValue() {
+            return getNamespace().concat(getLocalName());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof CompactIRI) {
+                CompactIRI other = (CompactIRI) o;
+                return hash == other.hash && namespace == other.namespace
+                        && Arrays.equals(localName, other.localName);
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private Object writeReplace() {
+            // dictionary codes are only valid within this process
+            return SimpleValueFactory.getInstance().createIRI(stringValue());
+        }
+    }
+
+    private static final class CompactLiteral extends AbstractLiteral {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] label;
+        /**
+         * Language code (>= 0), {@link CompactValues#XSD_STRING} or encoded
+         * datatype code (<= -2)
+         */
+        private final int type;
+
+        CompactLiteral(byte[] label, int type) {
+            this.label = label;
+            this.type = type;
+        }
+
+        @Override
+        public String getLabel() {
+            return new String(label, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Optional<String> getLanguage() {
+            return type >= 0 ? Optional.of(languages.decode(type)) : Optional.empty();
+        }
+
+        @Override
+        public IRI getDatatype() {
+            if (type >= 0) {
+                return RDF.LANGSTRING;
+            }
+            return type == XSD_STRING ? XSD.STRING : datatypes.decode(-(type + 2));
+        }
+
+        private Object writeReplace() {
+            // dictionary codes are only valid within this process
+            return getLanguage().isPresent()
+                    ? SimpleValueFactory.getInstance().createLiteral(getLabel(), getLanguage().get())
+                    : SimpleValueFactory.getInstance().createLiteral(getLabel(), getDatatype());
+        }
+    }
+}
@@ -220,7 +220,7 @@ private Map<LiteralCacheKey, Optional<Literal>> chooseLiteralsWithPreferredLangu
         labelCandidates.forEach((key, literals) -> {
             Optional<Literal> chosen = chooseLabelWithPreferredLanguage(
                     literals, key.getLanguageTag(), key.getPreferredLanguages());
-            chosenLabels.put(key, chosen);
+            chosenLabels.put(key, chosen.map(CompactValues::compact));
         });
 
         return chosenLabels;
@@ -75,8 +75,9 @@ public LiteralCacheKey(IRI iri, List<String> preferredLanguages) {
         if (preferredLanguages == null || preferredLanguages.isEmpty()) {
             throw new IllegalArgumentException("Expected at least one preferred language");
         }
-        this.iri = iri;
-        this.preferredLanguages = preferredLanguages;
+        // keys are retained by the caches, thus keep them compact
+        this.iri = CompactValues.compact(iri);
+        this.preferredLanguages = CompactValues.internLanguages(preferredLanguages);
         this.languageTag = preferredLanguages.get(0);
     }
 
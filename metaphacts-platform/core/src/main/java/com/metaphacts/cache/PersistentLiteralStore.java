@@ -0,0 +1,468 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.repository.Repository;
+import org.mapdb.Atomic;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+import com.metaphacts.config.Configuration;
+import com.metaphacts.repository.RepositoryManager;
+
+/**
+ * Persistent, memory-mapped store for literals of the label and description
+ * caches, which is used as {@link SecondLevelCache} of {@link LiteralCache}s.
+ * <p>
+ * The store keeps one map per cache and repository in a single MapDB file in
+ * the runtime folder. Literals are stored in a compact binary encoding, see
+ * {@link #encode(Optional)}. All literals of one resource are kept in a single
+ * entry keyed by its IRI (see {@link #encodeEntry(Map)}), such that the
+ * entries of changed resources can be removed directly. Each map carries a version composed of the
+ * preferred properties of the cache and a fingerprint of the repository
+ * configuration. If the version does not match on first access after a restart
+ * (e.g. because the preferred labels or the repository have been changed), the
+ * map is cleared.
+ * </p>
+ * <p>
+ * The store is cleared together with the in-memory caches, i.e. on writes
+ * through the platform. Writes the platform does not see are covered by the
+ * time to live of the entries only.
+ * </p>
+ */
+@Singleton
+public class PersistentLiteralStore {
+
+    private static final Logger logger = LogManager.getLogger(PersistentLiteralStore.class);
+
+    /**
+     * Version of the encoding, to be increased on incompatible changes
+     */
+    static final int FORMAT_VERSION = 2;
+
+    private static final String VERSION_SUFFIX = "#version";
+    private static final String STATE = "state";
+    private static final String STATE_CLOSED = "closed";
+    private static final String STATE_OPEN = "open";
+
+    private static final byte ABSENT = 0;
+    private static final byte STRING_LITERAL = 1;
+    private static final byte LANGUAGE_LITERAL = 2;
+    private static final byte TYPED_LITERAL = 3;
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private final boolean enabled;
+    private final File file;
+    private final long maxSize;
+    private final long timeToLiveMillis;
+    private final Function<Repository, Optional<String>> repositoryIds;
+    private final Function<String, String> repositoryVersions;
+
+    private final Map<String, HTreeMap<String, byte[]>> maps = new ConcurrentHashMap<>();
+    private DB db;
+
+    @Inject
+    public PersistentLiteralStore(Configuration config, Provider<RepositoryManager> repositoryManager) {
+        this(config.getCacheConfig().isPersistentLiteralCacheEnabled(),
+                new File(new File(new File(Configuration.getRuntimeDirectory(), "data"), "cache"), "literals.db"),
+                config.getCacheConfig().getPersistentLiteralCacheMaxSize(),
+                TimeUnit.HOURS.toMillis(config.getCacheConfig().getPersistentLiteralCacheTTL()),
+                repository -> {
+                    try {
+                        return Optional.of(repositoryManager.get().getRepositoryID(repository));
+                    } catch (IllegalArgumentException e) {
+                        // not managed by the repository manager, e.g. an ephemeral repository
+                        return Optional.empty();
+                    }
+                },
+                repositoryId -> {
+                    try {
+                        return DigestUtils.sha1Hex(
+                                repositoryManager.get().getTurtleConfigStringForRepositoryConfig(repositoryId));
+                    } catch (Exception e) {
+                        logger.debug("Failed to compute configuration fingerprint of repository {}: {}",
+                                repositoryId, e.getMessage());
+                        return "";
+                    }
+                });
+    }
+
+    PersistentLiteralStore(boolean enabled, File file, long maxSize, long timeToLiveMillis,
+            Function<Repository, Optional<String>> repositoryIds, Function<String, String> repositoryVersions) {
+        this.enabled = enabled;
+        this.file = file;
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.repositoryIds = repositoryIds;
+        this.repositoryVersions = repositoryVersions;
+    }
+
+    /**
+     * Returns the second level cache for the given literal cache.
+     *
+     * @param cacheId             the id of the literal cache
+     * @param preferredProperties the preferred properties of the literal cache,
+     *                            which are part of the version of the stored
+     *                            values
+     * @return the second level cache or {@link Optional#empty()} if the
+     *         persistent cache is disabled
+     */
+    public Optional<SecondLevelCache<LiteralCacheKey, Literal>> forCache(String cacheId,
+            Supplier<List<String>> preferredProperties) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        logger.info("Using persistent cache {} for {}", file, cacheId);
+        return Optional.of(new PersistentLiteralCache(cacheId, preferredProperties));
+    }
+
+    /**
+     * Closes the underlying store. The store is re-opened on next access.
+     */
+    public synchronized void shutdown() {
+        maps.clear();
+        if (db != null && !db.isClosed()) {
+            db.getAtomicString(STATE).set(STATE_CLOSED);
+            db.close();
+        }
+        db = null;
+    }
+
+    private synchronized DB getDB() {
+        if (db == null) {
+            file.getParentFile().mkdirs();
+            try {
+                db = open();
+                String state = db.getAtomicString(STATE).get();
+                if (STATE_OPEN.equals(state)) {
+                    // the store has not been closed properly and thus may be inconsistent
+                    logger.warn("Persistent literal cache {} has not been closed properly, discarding it.", file);
+                    db.close();
+                    db = recreate();
+                }
+            } catch (RuntimeException | IOError e) {
+                // e.g. a corrupted store, MapDB signals I/O problems with an IOError
+                logger.warn("Failed to open persistent literal cache {}, discarding it: {}", file, e.getMessage());
+                logger.debug("Details:", e);
+                db = recreate();
+            }
+            db.getAtomicString(STATE).set(STATE_OPEN);
+        }
+        return db;
+    }
+
+    private DB open() {
+        return DBMaker.newFileDB(file).mmapFileEnableIfSupported().transactionDisable().closeOnJvmShutdown()
+                .make();
+    }
+
+    private DB recreate() {
+        for (String suffix : new String[] { "", ".p", ".t" }) {
+            new File(file.getPath() + suffix).delete();
+        }
+        return open();
+    }
+
+    private synchronized HTreeMap<String, byte[]> getMap(String name, Supplier<String> version) {
+        HTreeMap<String, byte[]> map = maps.get(name);
+        if (map == null) {
+            DB db = getDB();
+            map = db.createHashMap(name).keySerializer(Serializer.STRING).valueSerializer(Serializer.BYTE_ARRAY)
+                    .expireMaxSize(maxSize).expireAfterWrite(timeToLiveMillis).makeOrGet();
+            Atomic.String storedVersion = db.getAtomicString(name + VERSION_SUFFIX);
+            String currentVersion = version.get();
+            if (!currentVersion.equals(storedVersion.get())) {
+                logger.debug("Version of persistent literal cache {} changed, clearing it.", name);
+                map.clear();
+                storedVersion.set(currentVersion);
+            }
+            maps.put(name, map);
+        }
+        return map;
+    }
+
+    /**
+     * Applies the action to all maps of the given cache, including those which
+     * have not been accessed since the last restart.
+     */
+    private synchronized void forEachMap(String cacheId, Consumer<HTreeMap<String, byte[]>> action) {
+        DB db = getDB();
+        String prefix = cacheId + "/";
+        for (Map.Entry<String, Object> entry : db.getAll().entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getValue() instanceof HTreeMap) {
+                @SuppressWarnings("unchecked")
+                HTreeMap<String, byte[]> map = (HTreeMap<String, byte[]>) entry.getValue();
+                action.accept(map);
+            }
+        }
+    }
+
+    /**
+     * Encodes the literals of one resource: for each language tag the tag, the
+     * time the literal has been written and the length and bytes of the encoded
+     * literal, see {@link #encode(Optional)}.
+     */
+    static byte[] encodeEntry(Map<String, StoredLiteral> literals) {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Map.Entry<String, StoredLiteral> literal : literals.entrySet()) {
+                out.writeUTF(literal.getKey());
+                out.writeLong(literal.getValue().writtenAt);
+                out.writeInt(literal.getValue().bytes.length);
+                out.write(literal.getValue().bytes);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // cannot happen for in-memory streams
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decodes the literals of one resource, skipping those written before
+     * <code>notBefore</code>.
+     */
+    static Map<String, StoredLiteral> decodeEntry(byte[] entry, long notBefore) {
+        Map<String, StoredLiteral> literals = new LinkedHashMap<>();
+        ByteBuffer buffer = ByteBuffer.wrap(entry);
+        while (buffer.hasRemaining()) {
+            String languageTag = readUTF(buffer);
+            long writtenAt = buffer.getLong();
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            if (writtenAt >= notBefore) {
+                literals.put(languageTag, new StoredLiteral(writtenAt, bytes));
+            }
+        }
+        return literals;
+    }
+
+    static class StoredLiteral {
+        final long writtenAt;
+        final byte[] bytes;
+
+        StoredLiteral(long writtenAt, byte[] bytes) {
+            this.writtenAt = writtenAt;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Encodes the (optional) literal: a type byte, the language tag or datatype
+     * IRI (if any) and the UTF-8 bytes of the label.
+     */
+    static byte[] encode(Optional<Literal> literal) {
+        if (!literal.isPresent()) {
+            return new byte[] { ABSENT };
+        }
+        Literal value = literal.get();
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.getLabel().length() + 16);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            if (value.getLanguage().isPresent()) {
+                out.writeByte(LANGUAGE_LITERAL);
+                out.writeUTF(value.getLanguage().get());
+            } else if (XSD.STRING.equals(value.getDatatype())) {
+                out.writeByte(STRING_LITERAL);
+            } else {
+                out.writeByte(TYPED_LITERAL);
+                out.writeUTF(value.getDatatype().stringValue());
+            }
+            out.write(value.getLabel().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // cannot happen for in-memory streams
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Optional<Literal> decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte type = buffer.get();
+        switch (type) {
+        case ABSENT:
+            return Optional.empty();
+        case STRING_LITERAL:
+            return Optional.of(vf.createLiteral(readRemaining(buffer)));
+        case LANGUAGE_LITERAL: {
+            String language = readUTF(buffer);
+            return Optional.of(vf.createLiteral(readRemaining(buffer), language));
+        }
+        case TYPED_LITERAL: {
+            IRI datatype = vf.createIRI(readUTF(buffer));
+            return Optional.of(vf.createLiteral(readRemaining(buffer), datatype));
+        }
+        default:
+            throw new IllegalArgumentException("Unknown literal encoding: " + type);
+        }
+    }
+
+    private static String readUTF(ByteBuffer buffer) {
+        // written by DataOutput#writeUTF: unsigned short length followed by
+        // (modified) UTF-8, which is identical to UTF-8 for tags and IRIs
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static String readRemaining(ByteBuffer buffer) {
+        return new String(buffer.array(), buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+    }
+
+    private class PersistentLiteralCache implements SecondLevelCache<LiteralCacheKey, Literal> {
+        private final String cacheId;
+        private final Supplier<List<String>> preferredProperties;
+
+        PersistentLiteralCache(String cacheId, Supplier<List<String>> preferredProperties) {
+            this.cacheId = cacheId;
+            this.preferredProperties = preferredProperties;
+        }
+
+        private Optional<HTreeMap<String, byte[]>> getMap(Repository repository) {
+            return repositoryIds.apply(repository).map(repositoryId -> PersistentLiteralStore.this.getMap(
+                    cacheId + "/" + repositoryId,
+                    () -> FORMAT_VERSION + "|" + preferredProperties.get() + "|"
+                            + repositoryVersions.apply(repositoryId)));
+        }
+
+        @Override
+        public Map<LiteralCacheKey, Optional<Literal>> getAll(Repository repository,
+                Collection<? extends LiteralCacheKey> keys) {
+            Optional<HTreeMap<String, byte[]>> map = getMap(repository);
+            if (!map.isPresent()) {
+                return Map.of();
+            }
+            long notBefore = System.currentTimeMillis() - timeToLiveMillis;
+            Map<String, Map<String, StoredLiteral>> entries = new HashMap<>();
+            Map<LiteralCacheKey, Optional<Literal>> result = new HashMap<>();
+            for (LiteralCacheKey key : keys) {
+                Map<String, StoredLiteral> literals = entries.computeIfAbsent(key.getIri().stringValue(), iri -> {
+                    byte[] entry = map.get().get(iri);
+                    return entry != null ? decodeEntry(entry, notBefore) : Map.of();
+                });
+                StoredLiteral literal = literals.get(key.getLanguageTag());
+                if (literal != null) {
+                    result.put(key, decode(literal.bytes).map(CompactValues::compact));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void putAll(Repository repository, Map<? extends LiteralCacheKey, Optional<Literal>> values) {
+            Optional<HTreeMap<String, byte[]>> map = getMap(repository);
+            if (!map.isPresent()) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Map<String, Map<String, StoredLiteral>> updates = new HashMap<>();
+            values.forEach((key, literal) -> {
+                if (literal != null) {
+                    updates.computeIfAbsent(key.getIri().stringValue(), iri -> new HashMap<>())
+                            .put(key.getLanguageTag(), new StoredLiteral(now, encode(literal)));
+                }
+            });
+            updates.forEach((iri, literals) -> {
+                // merge with the literals stored for other language tags; a concurrent
+                // update of the same resource may drop one of them, which only causes
+                // a miss on the next lookup
+                byte[] entry = map.get().get(iri);
+                Map<String, StoredLiteral> merged = entry != null ? decodeEntry(entry, now - timeToLiveMillis)
+                        : new LinkedHashMap<>();
+                merged.putAll(literals);
+                map.get().put(iri, encodeEntry(merged));
+            });
+        }
+
+        @Override
+        public void invalidateAll() {
+            forEachMap(cacheId, HTreeMap::clear);
+            // re-evaluate the version on next access, e.g. after the preferred properties changed
+            maps.keySet().removeIf(name -> name.startsWith(cacheId + "/"));
+        }
+
+        @Override
+        public void invalidate(Set<IRI> iris) {
+            forEachMap(cacheId, map -> iris.forEach(iri -> map.remove(iri.stringValue())));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentLiteralStore [file=" + file + ", enabled=" + enabled + "]";
+    }
+}
@@ -39,18 +39,36 @@
  */
 package com.metaphacts.cache;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.SPIN;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 
-import com.google.common.cache.Cache;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.metaphacts.api.dto.querytemplate.QueryTemplate;
 import com.metaphacts.api.rest.client.APICallFailedException;
+import com.metaphacts.api.rest.client.LDPAPIClient;
 import com.metaphacts.api.rest.client.QueryCatalogAPIClient;
 import com.metaphacts.api.rest.client.QueryCatalogAPIClientImpl;
 import com.metaphacts.api.rest.client.QueryTemplateCatalogAPIClient;
@@ -62,61 +80,177 @@
 import com.metaphacts.data.rdf.container.LocalLDPAPIClient;
 import com.metaphacts.data.rdf.container.QueryTemplateContainer;
 import com.metaphacts.repository.RepositoryManager;
+import com.metaphacts.vocabulary.LDP;
 
+/**
+ * Cache for {@link QueryTemplate}s stored in the {@link QueryTemplateContainer}.
+ * <p>
+ * Templates are loaded with single-flight semantics, i.e. concurrent requests
+ * for the same template wait for a single load. The cache keeps the query
+ * strings only; QaaS services reuse the parsed algebra through a
+ * {@link com.metaphacts.api.sparql.ParsedQueryCache} passed to
+ * {@link com.metaphacts.api.sparql.SparqlOperationBuilder#setParsedQueryCache(com.metaphacts.api.sparql.ParsedQueryCache)}.
+ * </p>
+ * <p>
+ * {@link #preloadAll()} loads all templates (and their queries) of the
+ * container with a single query to the assets repository.
+ * </p>
+ */
 @Singleton
 public class QueryTemplateCache implements PlatformCache {
 
     public static final String CACHE_ID = "platform.QueryTemplateCache";
 
     private static final Logger logger = LogManager.getLogger(QueryTemplateCache.class);
-    protected final Cache<IRI, QueryTemplate<?>> queryTemplateCache;
+
+    /**
+     * Selects the statements of all templates in the container and of the
+     * queries they refer to, grouped by the resource they belong to. Note that
+     * LDP resources are stored in a named graph derived from the resource IRI,
+     * see {@link com.metaphacts.data.rdf.container.AbstractLDPResource#getContextIRI()}.
+     */
+    private static final String PRELOAD_QUERY = "SELECT ?resource ?s ?p ?o WHERE {\n"
+            + "  { <" + QueryTemplateContainer.IRI_STRING + "> <" + LDP.contains + "> ?resource . }\n"
+            + "  UNION\n"
+            + "  { <" + QueryTemplateContainer.IRI_STRING + "> <" + LDP.contains + "> ?template .\n"
+            + "    ?template <" + SPIN.BODY_PROPERTY + "> ?resource . FILTER(isIRI(?resource)) }\n"
+            + "  BIND(STR(?resource) AS ?resourceString)\n"
+            + "  BIND(IRI(CONCAT(?resourceString, IF(STRENDS(?resourceString, \"/\"), \"context\", \"/context\")))"
+            + " AS ?context)\n"
+            + "  GRAPH ?context { ?s ?p ?o }\n"
+            + "}";
+
+    protected final LoadingCache<IRI, QueryTemplate<?>> queryTemplateCache;
 
     protected LDPApiInternalRegistry ldpCache;
     protected NamespaceRegistry namespaceRegistry;
+    protected Provider<RepositoryManager> repositoryManager;
+
+    private volatile QueryTemplateCatalogAPIClient apiClient;
 
     @Inject
     public QueryTemplateCache(LDPApiInternalRegistry ldpCache, NamespaceRegistry namespaceRegistry,
-            CacheManager cacheManager, Configuration config)
+            CacheManager cacheManager, Configuration config, Provider<RepositoryManager> repositoryManager)
             throws Exception {
         this.ldpCache = ldpCache;
         this.namespaceRegistry = namespaceRegistry;
+        this.repositoryManager = repositoryManager;
         queryTemplateCache = cacheManager
                 .newBuilder(CACHE_ID, config.getCacheConfig().getQueryTemplateCacheSpec())
-                .build();
+                .build(new CacheLoader<IRI, QueryTemplate<?>>() {
+                    @Override
+                    public QueryTemplate<?> load(IRI key) throws Exception {
+                        return loadQueryTemplate(key);
+                    }
+                });
         cacheManager.register(this);
     }
 
     public QueryTemplate<?> getQueryTemplate(IRI key) throws Exception {
-        // return from cache if possible
-        if (queryTemplateCache.getIfPresent(key) != null) {
-            return queryTemplateCache.getIfPresent(key);
+        try {
+            return queryTemplateCache.get(key);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
         }
+    }
 
-        QueryTemplate<?> result;
-
+    private QueryTemplate<?> loadQueryTemplate(IRI key) throws Exception {
         try {
-            result = this.getApiClient().getQueryTemplate(key);
+            QueryTemplate<?> result = this.getApiClient().getQueryTemplate(key);
+            if (result == null) {
+                throw new APICallFailedException("Query template " + key.stringValue() + " does not exist");
+            }
+            return result;
         } catch (APICallFailedException e) {
             logger.error("Could not retrieve a query template with ID " + key.stringValue());
             logger.debug("Details: ", e);
             throw e;
         }
+    }
+
+    /**
+     * Loads all query templates of the {@link QueryTemplateContainer} into the
+     * cache, using a single query to fetch the templates and their queries.
+     * Templates which cannot be transformed are skipped and loaded on demand.
+     * 
+     * @return the number of templates loaded into the cache
+     */
+    public int preloadAll() throws Exception {
+        Map<Resource, Model> models = new HashMap<>();
+        try (RepositoryConnection con = repositoryManager.get()
+                .getRepository(RepositoryManager.ASSET_REPOSITORY_ID).getConnection()) {
+            TupleQuery query = con.prepareTupleQuery(PRELOAD_QUERY);
+            try (TupleQueryResult result = query.evaluate()) {
+                while (result.hasNext()) {
+                    BindingSet bs = result.next();
+                    Resource resource = (Resource) bs.getValue("resource");
+                    Value object = bs.getValue("o");
+                    if (resource.equals(object)) {
+                        // hide incoming statements (i.e. contains from parents)
+                        continue;
+                    }
+                    models.computeIfAbsent(resource, r -> new LinkedHashModel()).add(
+                            (Resource) bs.getValue("s"), (IRI) bs.getValue("p"), object);
+                }
+            }
+        }
+
+        List<IRI> templateIds = new ArrayList<>();
+        for (Map.Entry<Resource, Model> entry : models.entrySet()) {
+            if (entry.getKey() instanceof IRI && entry.getValue().contains(entry.getKey(), null, SPIN.TEMPLATE_CLASS)) {
+                templateIds.add((IRI) entry.getKey());
+            }
+        }
 
-        queryTemplateCache.put(key, result);
-        return result;
+        QueryTemplateCatalogAPIClient preloadClient = createApiClient(
+                new PreloadedLDPAPIClient(models, createLdpApiClient()));
+        int loaded = 0;
+        for (IRI templateId : templateIds) {
+            try {
+                // Note: the query algebra is parsed as part of the consistency check
+                queryTemplateCache.put(templateId, preloadClient.getQueryTemplate(templateId));
+                loaded++;
+            } catch (Exception e) {
+                logger.warn("Failed to preload query template {}: {}", templateId, e.getMessage());
+                logger.debug("Details: ", e);
+            }
+        }
+        logger.debug("Preloaded {} of {} query templates", loaded, templateIds.size());
+        return loaded;
     }
 
     /**
+     * Returns the API client used for loading templates. The client is created
+     * once and reused until the cache is invalidated.
+     * <p>
      * Method made public to support JUnit tests.
+     * </p>
      * 
      * @throws Exception
      */
     public QueryTemplateCatalogAPIClient getApiClient() throws Exception {
-        LDPApiInternal assetsApi = ldpCache.api(RepositoryManager.ASSET_REPOSITORY_ID);
+        QueryTemplateCatalogAPIClient client = apiClient;
+        if (client == null) {
+            synchronized (this) {
+                client = apiClient;
+                if (client == null) {
+                    client = createApiClient(createLdpApiClient());
+                    apiClient = client;
+                }
+            }
+        }
+        return client;
+    }
 
-        LocalLDPAPIClient ldpAPIClient = new LocalLDPAPIClient(assetsApi,
-                QueryTemplateContainer.IRI);
+    protected LDPAPIClient createLdpApiClient() {
+        LDPApiInternal assetsApi = ldpCache.api(RepositoryManager.ASSET_REPOSITORY_ID);
+        return new LocalLDPAPIClient(assetsApi, QueryTemplateContainer.IRI);
+    }
 
+    protected QueryTemplateCatalogAPIClient createApiClient(LDPAPIClient ldpAPIClient) {
         QueryCatalogAPIClient queryCatalogApi = new QueryCatalogAPIClientImpl(ldpAPIClient,
                 namespaceRegistry.getPrefixMap());
 
@@ -125,16 +259,44 @@ public QueryTemplateCatalogAPIClient getApiClient() throws Exception {
 
     @Override
     public void invalidate() {
+        apiClient = null;
         queryTemplateCache.invalidateAll();
     }
 
     @Override
     public void invalidate(Set<IRI> iris) {
-        queryTemplateCache.invalidateAll(iris);
+        // also drop templates whose query has changed
+        queryTemplateCache.asMap().entrySet().removeIf(entry -> iris.contains(entry.getKey())
+                || entry.getValue().getQuery() != null && iris.contains(entry.getValue().getQuery().getId()));
     }
 
     @Override
     public String getId() {
         return "QueryTemplateCache";
     }
+
+    /**
+     * {@link LDPAPIClient} which answers model requests from preloaded models and
+     * falls back to the delegate for all other resources.
+     */
+    private static class PreloadedLDPAPIClient implements LDPAPIClient {
+        private final Map<Resource, Model> models;
+        private final LDPAPIClient delegate;
+
+        PreloadedLDPAPIClient(Map<Resource, Model> models, LDPAPIClient delegate) {
+            this.models = models;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<Resource> getContainedObjects() throws APICallFailedException {
+            return delegate.getContainedObjects();
+        }
+
+        @Override
+        public Model getObjectModel(Resource object) throws APICallFailedException {
+            Model model = models.get(object);
+            return model != null ? model : delegate.getObjectModel(object);
+        }
+    }
 }
@@ -45,9 +45,12 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Entity;
@@ -65,7 +68,6 @@
 import org.eclipse.rdf4j.repository.Repository;
 
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.metaphacts.rest.endpoint.ResourceUtilsEndpoint;
 
@@ -89,6 +91,7 @@
 public abstract class RemoteLiteralCache extends LiteralCache {
     private final RemoteServiceConfiguration config;
     private static final ValueFactory vf = SimpleValueFactory.getInstance();
+    private ExecutorService executorService;
 
     public RemoteLiteralCache(
         String cacheId,
@@ -123,21 +126,35 @@ protected Map<LiteralCacheKey, Optional<Literal>> queryAll(
             var batch = batchesByLang.get(batchLangTag);
             batch.add(key);
         });
-        Map<LiteralCacheKey, Optional<Literal>> results = Maps.newConcurrentMap();
-        ExecutorService executorService = createExecutorService();
-        try {
+        Map<LiteralCacheKey, Optional<Literal>> results = new HashMap<>();
+        if (batchesByLang.size() == 1) {
+            // single batch: no need to hand over to another thread
+            var entry = batchesByLang.entrySet().iterator().next();
+            results.putAll(queryAllBatched(entry.getKey(), entry.getValue()));
+        } else {
+            // each batch returns its own result, only completed results are merged such that
+            // tasks which are still running cannot modify the returned map
+            ExecutorService executorService = getExecutorService();
+            List<Future<Map<LiteralCacheKey, Optional<Literal>>>> futures = new ArrayList<>();
             for (var entry : batchesByLang.entrySet()) {
-                executorService.execute(() -> results.putAll(
-                        queryAllBatched(entry.getKey(), entry.getValue())
-                ));
+                futures.add(executorService.submit(() -> queryAllBatched(entry.getKey(), entry.getValue())));
             }
-        } finally {
-            executorService.shutdown();
-            try {
-                executorService.awaitTermination(30, TimeUnit.SECONDS);
-            } catch (InterruptedException e1) {
-                executorService.shutdownNow();
-                throw new RuntimeException("Timeout while querying remote service for literals", e1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            for (Future<Map<LiteralCacheKey, Optional<Literal>>> future : futures) {
+                try {
+                    results.putAll(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(f -> f.cancel(true));
+                    throw new RuntimeException("Interrupted while querying remote service for literals", e1);
+                } catch (TimeoutException e1) {
+                    future.cancel(true);
+                    logger.warn("Timeout while querying remote service {} for literals", config.getRemoteUrl());
+                } catch (ExecutionException e1) {
+                    logger.warn("Failed to query remote service {} for literals: {}", config.getRemoteUrl(),
+                            e1.getMessage());
+                    logger.debug("Details:", e1);
+                }
             }
         }
         // add negative result for all unresolved literals
@@ -149,18 +166,40 @@ protected Map<LiteralCacheKey, Optional<Literal>> queryAll(
         return results;
     }
 
+    /**
+     * Get the ExecutorService for the parallel/batched requests. The ExecutorService is
+     * created once and kept for the lifetime of this cache.
+     * @return ExecutorService
+     */
+    protected synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = createExecutorService();
+        }
+        return executorService;
+    }
+
     /**
      * Create ExecutorService for the parallel/batched requests.
      * @return ExecutorService
      */
     protected ExecutorService createExecutorService() {
-        // TODO create this only once and keep it for the lifetime of the service
         int numberOfThreads = 5;
         ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads,
-                new ThreadFactoryBuilder().setNameFormat("remote-resource-fetch-%d").build());
+                new ThreadFactoryBuilder().setNameFormat("remote-resource-fetch-%d").setDaemon(true).build());
         return executorService;
     }
 
+    /**
+     * Release all resources held by this cache, i.e. the executor and the shared client.
+     */
+    public synchronized void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+        config.close();
+    }
+
     /**
      * Request labels for LiteralCacheKeys from the batch
      * Where the batch is a set of keys grouped by the preferredLanguage
@@ -180,12 +219,12 @@ protected Map<LiteralCacheKey, Optional<Literal>> queryAllBatched(
                 jsonArray.size(), config.getRemoteUrl(), batchPreferredLanguage);
         try {
             Entity<String> entity = Entity.entity(jsonArray.toJSONString(), MediaType.APPLICATION_JSON);
-            Response response = this.config.getTarget()
+            Response response = this.config.invoke(this.config.getTarget()
                     .queryParam("repository", this.config.getTargetRepository())
                     .queryParam("preferredLanguage", batchPreferredLanguage)
                     .request()
                     .header("Accept", MediaType.APPLICATION_JSON)
-                    .build(HttpMethod.POST, entity).invoke();
+                    .build(HttpMethod.POST, entity));
 
             final StatusType status = response.getStatusInfo();
             if (!Family.SUCCESSFUL.equals(status.getFamily())) {
@@ -202,7 +241,7 @@ protected Map<LiteralCacheKey, Optional<Literal>> queryAllBatched(
                 logger.trace("Successfully fetched {} labels", remoteResult.size());
                 for (LiteralCacheKey key : batch) {
                     var text = remoteResult.get(key.getIri().stringValue());
-                    var literal = Optional.ofNullable(Strings.isNullOrEmpty(text) ? null : vf.createLiteral(text));
+                    var literal = Optional.ofNullable(Strings.isNullOrEmpty(text) ? null : CompactValues.compact(vf.createLiteral(text)));
                     resultMap.put(key, literal);
                 }
             }
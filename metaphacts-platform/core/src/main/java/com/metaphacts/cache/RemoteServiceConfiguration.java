@@ -39,18 +39,32 @@
  */
 package com.metaphacts.cache;
 
+import java.util.concurrent.Semaphore;
+
 import com.google.common.base.Strings;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 
 import javax.annotation.Nullable;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 
 /**
  * The class represents an object which contains configuration for remote service.
  *
+ * <p>
+ * The JAX-RS {@link Client} used to access the remote service is created once and
+ * shared for all requests, so that connections to the remote service are kept
+ * alive and reused. The number of concurrent requests to the remote service may
+ * be limited using a {@link Semaphore} shared by all users of the remote service,
+ * see {@link #invoke(Invocation)}.
+ * </p>
+ *
  * @author Daniil Razdiakonov <dr@metaphacts.com>
  */
 public class RemoteServiceConfiguration {
@@ -61,6 +75,8 @@ public class RemoteServiceConfiguration {
     private final @Nullable String username;
     private final @Nullable String password;
     private final @Nullable Integer timeout;
+    private final @Nullable Semaphore concurrencyLimit;
+    private Client client;
 
     public RemoteServiceConfiguration(
             String remoteUrl,
@@ -68,12 +84,36 @@ public RemoteServiceConfiguration(
             @Nullable String username,
             @Nullable String password,
             @Nullable Integer timeout
+    ) {
+        this(remoteUrl, repository, username, password, timeout, null);
+    }
+
+    /**
+     * Create a configuration for a remote service.
+     *
+     * @param remoteUrl        URL of the remote service
+     * @param repository       target repository on the remote system
+     * @param username         user for basic authentication (optional)
+     * @param password         password for basic authentication (optional)
+     * @param timeout          read- and connection timeout (in seconds)
+     * @param concurrencyLimit semaphore limiting the number of concurrent requests to
+     *                         the remote system, may be shared with other services
+     *                         for the same remote system (optional)
+     */
+    public RemoteServiceConfiguration(
+            String remoteUrl,
+            @Nullable String repository,
+            @Nullable String username,
+            @Nullable String password,
+            @Nullable Integer timeout,
+            @Nullable Semaphore concurrencyLimit
     ) {
         this.remoteUrl = remoteUrl;
         this.targetRepository = repository;
         this.username = username;
         this.password = password;
         this.timeout = timeout;
+        this.concurrencyLimit = concurrencyLimit;
     }
 
     public String getRemoteUrl() {
@@ -100,24 +140,73 @@ public Integer getTimeout() {
     }
 
     protected WebTarget getTarget() {
-        String url = this.getRemoteUrl();
-        String username = this.getUsername();
-        String password = this.getPassword();
-        Integer timeout = this.getTimeout();
-
-        ClientConfig configuration = new ClientConfig();
-        // define timeout
-        if (timeout != null) {
-            configuration.property(ClientProperties.CONNECT_TIMEOUT, timeout * 1000);
-            configuration.property(ClientProperties.READ_TIMEOUT, timeout * 1000);
-        }
+        return getClient().target(this.getRemoteUrl());
+    }
 
-        WebTarget client = ClientBuilder.newClient(configuration).target(url);
+    /**
+     * Get the shared client for the remote service. The client is created lazily.
+     *
+     * @return JAX-RS client
+     */
+    protected synchronized Client getClient() {
+        if (client == null) {
+            String username = this.getUsername();
+            String password = this.getPassword();
+            Integer timeout = this.getTimeout();
 
-        if (username != null && password != null) {
-            client.register(HttpAuthenticationFeature.basic(username, password));
-        }
+            ClientConfig configuration = new ClientConfig();
+            // define timeout
+            if (timeout != null) {
+                configuration.property(ClientProperties.CONNECT_TIMEOUT, timeout * 1000);
+                configuration.property(ClientProperties.READ_TIMEOUT, timeout * 1000);
+            }
+
+            client = ClientBuilder.newClient(configuration);
 
+            if (username != null && password != null) {
+                client.register(HttpAuthenticationFeature.basic(username, password));
+            }
+        }
         return client;
     }
+
+    /**
+     * Invoke the provided request, respecting the limit for concurrent requests to
+     * the remote service (if any).
+     *
+     * @param invocation request to invoke
+     * @return response
+     * @throws ProcessingException in case of errors or when interrupted while
+     *                             waiting for a free request slot
+     */
+    protected Response invoke(Invocation invocation) {
+        if (concurrencyLimit == null) {
+            return invocation.invoke();
+        }
+        try {
+            concurrencyLimit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting for request to " + getRemoteUrl(), e);
+        }
+        try {
+            Response response = invocation.invoke();
+            // buffer the entity so that the connection is released before
+            // the request slot is returned
+            response.bufferEntity();
+            return response;
+        } finally {
+            concurrencyLimit.release();
+        }
+    }
+
+    /**
+     * Close the shared client.
+     */
+    public synchronized void close() {
+        if (client != null) {
+            client.close();
+            client = null;
+        }
+    }
 }
@@ -94,6 +94,13 @@ public Optional<IRI> getFirstValueFor(IRI iri, Repository repository) {
         );
     }
 
+    /**
+     * Release the shared client for the remote service.
+     */
+    public void close() {
+        config.close();
+    }
+
     @Override
     protected IRI keyToIri(IRI iri) {
         return iri;
@@ -112,11 +119,11 @@ protected Map<IRI, Optional<Iterable<IRI>>> queryAll(
 
         try {
             Entity<String> entity = Entity.entity(jsonArray.toJSONString(), MediaType.APPLICATION_JSON);
-            Response response = this.config.getTarget()
+            Response response = this.config.invoke(this.config.getTarget()
                 .queryParam("repository", this.config.getTargetRepository())
                 .request()
                 .header("Accept", MediaType.APPLICATION_JSON)
-                .build(HttpMethod.POST, entity).invoke();
+                .build(HttpMethod.POST, entity));
 
             final StatusType status = response.getStatusInfo();
             if (!Family.SUCCESSFUL.equals(status.getFamily())) {
@@ -142,6 +142,41 @@ protected NoSuchElementException notFound(String message) {
         throw new NoSuchElementException(message);
     }
 
+    /**
+     * Returns a map of the values associated with {@code keys} in this cache.
+     * 
+     * <p>
+     * If the cache is a LoadingCache, all values not yet present are loaded in
+     * a single invocation of {@link CacheLoader#loadAll(Iterable)}, if supported
+     * by the CacheLoader. If the bulk load fails, the values are loaded
+     * individually using {@link #get(Repository, Object)}.
+     * </p>
+     * 
+     * @param repository repository for which to get the values
+     * @param keys       keys for which to get values
+     * @return map of values
+     */
+    public Map<KEY, Optional<VALUE>> getAll(Repository repository, Iterable<? extends KEY> keys) {
+        initializeCache(repository);
+        Cache<KEY, Optional<VALUE>> cache = repositoryMap.get(repository);
+        if (cache instanceof LoadingCache) {
+            try {
+                LoadingCache<KEY, Optional<VALUE>> loadingCache = (LoadingCache<KEY, Optional<VALUE>>) cache;
+                return loadingCache.getAll(keys);
+            } catch (UncheckedExecutionException | ExecutionException e) {
+                logger.debug("Failed to bulk load cache {}, loading values individually: {}", cacheId,
+                        e.getMessage());
+                logger.trace("Details: ", e);
+                Map<KEY, Optional<VALUE>> result = Maps.newHashMap();
+                for (KEY key : keys) {
+                    result.put(key, get(repository, key));
+                }
+                return result;
+            }
+        }
+        return getAllPresent(repository, keys);
+    }
+
     /**
      * Returns a map of the values associated with {@code keys} in this cache. The returned map will
      * only contain entries which are already present in the cache.
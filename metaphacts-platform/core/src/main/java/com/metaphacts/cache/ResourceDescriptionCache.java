@@ -41,8 +41,6 @@
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.StreamSupport;
 
 import javax.annotation.Nullable;
 
@@ -84,10 +82,6 @@ public Map<IRI, Optional<Literal>> getDescriptions(
             Repository repository,
             @Nullable String preferredLanguage
     ) {
-        Map<IRI, Optional<Literal>> descriptions = new ConcurrentHashMap<>();
-        StreamSupport.stream(resourceIris.spliterator(), false)
-            .forEach(iri -> 
-                descriptions.put(iri,  getDescription(iri, repository, preferredLanguage)));
-        return descriptions;
+        return descriptionService.getDescriptions(resourceIris, repository, preferredLanguage);
     }
 }
@@ -86,9 +86,12 @@ public class ResourceDescriptionCacheHolder implements LabelService, Description
     public ResourceDescriptionCacheHolder(
         Configuration config,
         NamespaceRegistry namespaceRegistry,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        PersistentLiteralStore persistentStore
     ) {
         this.config = config;
+        Optional<SecondLevelCache<LiteralCacheKey, Literal>> persistentLabels = persistentStore
+                .forCache(LABEL_CACHE_ID, () -> config.getUiConfig().getPreferredLabels());
         this.labelCache = new LiteralCache(LABEL_CACHE_ID, namespaceRegistry) {
             @Override
             protected List<String> getPreferredProperties() {
@@ -107,9 +110,17 @@ protected List<String> resolvePreferredLanguages(@Nullable String preferredLangu
             protected CacheBuilder<Object,Object> createCacheBuilder() {
                 return cacheManager.newBuilder(LABEL_CACHE_ID, config.getCacheConfig().getLabelCacheSpec());
             };
+
+            @Override
+            protected Optional<SecondLevelCache<LiteralCacheKey, Literal>> secondLevelCache() {
+                return persistentLabels;
+            }
         };
         cacheManager.register(this.labelCache);
 
+        Optional<SecondLevelCache<LiteralCacheKey, Literal>> persistentDescriptions = persistentStore
+                .forCache(DESCRIPTION_CACHE_ID, () -> config.getUiConfig().getPreferredDescription());
+
         this.descriptionCache = new LiteralCache(DESCRIPTION_CACHE_ID, namespaceRegistry) {
             @Override
             protected List<String> getPreferredProperties() {
@@ -128,6 +139,11 @@ protected List<String> resolvePreferredLanguages(@Nullable String preferredLangu
             protected CacheBuilder<Object,Object> createCacheBuilder() {
                 return cacheManager.newBuilder(DESCRIPTION_CACHE_ID, config.getCacheConfig().getDescriptionCacheSpec());
             };
+
+            @Override
+            protected Optional<SecondLevelCache<LiteralCacheKey, Literal>> secondLevelCache() {
+                return persistentDescriptions;
+            }
         };
         cacheManager.register(this.descriptionCache);
     }
@@ -40,6 +40,7 @@
 package com.metaphacts.cache;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -71,6 +72,8 @@
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.metaphacts.api.sparql.SparqlOperationBuilder;
 import com.metaphacts.config.PropertyPattern;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 
 /**
  * Cache with extraction logic for batched access to some property of a resource.
@@ -102,7 +105,8 @@ public String getId() {
 
     public final Map<Key, Optional<Property>> getAll(Repository repository, Iterable<? extends Key> resourceIRIs) {
         initializeCache(repository);
-        try {
+        Span span = RequestTrace.span("cache." + cacheId);
+        try (span) {
             // obtain iri-to-property map
             return repositoryMap.get(repository).getAll(resourceIRIs);
         } catch (ExecutionException | UncheckedExecutionException e) {
@@ -121,16 +125,49 @@ private void initializeCache(Repository repository) {
                         .build(new CacheLoader<Key, Optional<Property>>() {
                             @Override
                             public Optional<Property> load(Key key) {
-                                return queryAll(repository, Collections.singletonList(key)).get(key);
+                                return loadValues(repository, Collections.singletonList(key)).get(key);
                             }
 
                             @Override
                             public Map<Key, Optional<Property>> loadAll(Iterable<? extends Key> keys) throws Exception {
-                                return queryAll(repository, keys);
+                                return loadValues(repository, keys);
                             }
                         }));
     }
 
+    /**
+     * Loads the values from the {@link #secondLevelCache()} (if any) and queries
+     * the repository for the remaining keys.
+     */
+    private Map<Key, Optional<Property>> loadValues(Repository repository, Iterable<? extends Key> keys) {
+        Optional<SecondLevelCache<Key, Property>> secondLevel = secondLevelCache();
+        if (!secondLevel.isPresent()) {
+            return queryAll(repository, keys);
+        }
+        Collection<? extends Key> keyList = keys instanceof Collection ? (Collection<? extends Key>) keys
+                : Lists.newArrayList(keys);
+        Map<Key, Optional<Property>> result = new HashMap<>(secondLevel.get().getAll(repository, keyList));
+        if (result.size() < keyList.size()) {
+            List<Key> missing = keyList.stream().filter(key -> !result.containsKey(key))
+                    .collect(Collectors.toList());
+            Map<Key, Optional<Property>> queried = queryAll(repository, missing);
+            secondLevel.get().putAll(repository, queried);
+            result.putAll(queried);
+        }
+        return result;
+    }
+
+    /**
+     * Optional second level tier which is consulted before the repository is
+     * queried, see {@link SecondLevelCache}. Sub-classes may provide one, the
+     * default is none.
+     *
+     * @return the second level cache, if any
+     */
+    protected Optional<SecondLevelCache<Key, Property>> secondLevelCache() {
+        return Optional.empty();
+    }
+
     /**
      * Create the {@link CacheBuilder}.
      * 
@@ -171,6 +208,7 @@ protected Optional<CacheManager> cacheManager() {
     public void invalidate() {
         repositoryMap.values().forEach(Cache::invalidateAll);
         repositoryMap.clear();
+        secondLevelCache().ifPresent(SecondLevelCache::invalidateAll);
     }
 
     @Override
@@ -181,6 +219,7 @@ public void invalidate(Set<IRI> iris) {
                 .collect(Collectors.toList());
             cache.invalidateAll(keysToInvalidate);
         });
+        secondLevelCache().ifPresent(secondLevel -> secondLevel.invalidate(iris));
     }
 
     /**
@@ -0,0 +1,88 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.repository.Repository;
+
+/**
+ * Second level tier of a {@link ResourcePropertyCache}, e.g. a persistent store
+ * which survives restarts. The tier is consulted for all keys which are not
+ * present in the in-memory cache before the repository is queried, and is
+ * populated with the query results.
+ *
+ * @param <Key>      type of the cache keys
+ * @param <Property> type of cached property values
+ */
+public interface SecondLevelCache<Key, Property> {
+
+    /**
+     * Returns the values known for the given keys.
+     *
+     * @param repository the repository the values have been extracted from
+     * @param keys       the keys to look up
+     * @return the known values; keys without a value in this tier are omitted
+     */
+    Map<Key, Optional<Property>> getAll(Repository repository, Collection<? extends Key> keys);
+
+    /**
+     * Stores the given values, including absent values (i.e. resources without
+     * the property).
+     *
+     * @param repository the repository the values have been extracted from
+     * @param values     the values to store
+     */
+    void putAll(Repository repository, Map<? extends Key, Optional<Property>> values);
+
+    /**
+     * Removes all values of all repositories.
+     */
+    void invalidateAll();
+
+    /**
+     * Removes the values of the given resources in all repositories.
+     */
+    void invalidate(Set<IRI> iris);
+}
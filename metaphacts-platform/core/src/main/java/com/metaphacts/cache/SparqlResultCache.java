@@ -0,0 +1,407 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.shiro.subject.Subject;
+import org.eclipse.rdf4j.common.lang.FileFormat;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.Operation;
+
+import com.google.common.cache.Cache;
+import com.google.inject.Inject;
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.groups.CacheConfiguration;
+
+/**
+ * Cache for serialized results of read-only SPARQL queries received through
+ * the SPARQL endpoint.
+ * 
+ * <p>
+ * Entries are keyed by the normalized query string, the bindings and dataset
+ * of the prepared operation, the repository, the result format and the
+ * principal of the requesting subject. Results are never shared between users,
+ * as some permission checks (e.g. for repositories referenced in SERVICE
+ * clauses) are only performed while the query is evaluated.
+ * </p>
+ * 
+ * <p>
+ * The cache is registered with the {@link CacheManager} and thus invalidated by
+ * any write through the platform (SPARQL UPDATE, graph store, LDP). Writes the
+ * platform can not see are covered by a (repository specific) time to live,
+ * see {@link CacheConfiguration#getSparqlResultCacheTTL()}. The cache is
+ * disabled by default.
+ * </p>
+ */
+public class SparqlResultCache implements PlatformCache {
+
+    public static final String CACHE_ID = "platform.SparqlResultCache";
+
+    private static final Logger logger = LogManager.getLogger(SparqlResultCache.class);
+
+    private final Configuration config;
+
+    private final Cache<CacheKey, CachedResult> cache;
+
+    @Inject
+    public SparqlResultCache(Configuration config, CacheManager cacheManager) {
+        this.config = config;
+        this.cache = cacheManager.newBuilder(CACHE_ID)
+                .maximumWeight(config.getCacheConfig().getSparqlResultCacheMaxBytes())
+                .weigher((CacheKey key, CachedResult value) -> key.getWeight() + value.data.length)
+                .build();
+        cacheManager.register(this);
+    }
+
+    /**
+     * Creates the cache key for the given prepared read-only operation as
+     * evaluated for the given subject.
+     * 
+     * @return the key or <code>null</code> if results of the operation are not
+     *         to be cached, e.g. because the cache is disabled
+     */
+    public CacheKey createKey(String repositoryId, String queryString, Operation operation, FileFormat format,
+            Subject subject) {
+        if (!config.getCacheConfig().isSparqlResultCacheEnabled() || getTimeToLiveMillis(repositoryId) <= 0) {
+            return null;
+        }
+        SortedSet<String> bindings = new TreeSet<>();
+        for (Binding binding : operation.getBindings()) {
+            bindings.add(binding.getName() + "=" + binding.getValue().stringValue());
+        }
+        return new CacheKey(repositoryId, normalizeQuery(queryString), bindings.toString(),
+                datasetToString(operation.getDataset()), operation.getIncludeInferred(),
+                format.getDefaultMIMEType(), Objects.toString(subject.getPrincipal(), ""));
+    }
+
+    /**
+     * Returns the cached result for the given key, if present and not expired.
+     */
+    public Optional<CachedResult> get(CacheKey key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        CachedResult result = cache.getIfPresent(key);
+        if (result == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - result.createdAt > getTimeToLiveMillis(key.repositoryId)) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        logger.trace("Serving cached result for query with hash \"{}\".", key.queryString.hashCode());
+        return Optional.of(result);
+    }
+
+    /**
+     * Creates a recorder which passes the serialized result through to the
+     * given output stream and keeps a copy for the cache. If the key is
+     * <code>null</code> nothing is recorded.
+     */
+    public ResultRecorder newRecorder(CacheKey key, OutputStream out) {
+        int maxEntryBytes = key == null ? 0 : config.getCacheConfig().getSparqlResultCacheMaxEntryBytes();
+        return new ResultRecorder(key, out, maxEntryBytes);
+    }
+
+    private long getTimeToLiveMillis(String repositoryId) {
+        CacheConfiguration cacheConfig = config.getCacheConfig();
+        long ttl = cacheConfig.getSparqlResultCacheTTL();
+        for (String entry : cacheConfig.getSparqlResultCacheRepositoryTTL()) {
+            String repository = StringUtils.substringBeforeLast(entry, ":").trim();
+            String value = StringUtils.substringAfterLast(entry, ":").trim();
+            if (!repository.equals(repositoryId)) {
+                continue;
+            }
+            try {
+                ttl = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid repository specific SPARQL result cache TTL \"{}\": {}", entry,
+                        e.getMessage());
+            }
+        }
+        return ttl * 1000;
+    }
+
+    private static String datasetToString(Dataset dataset) {
+        if (dataset == null) {
+            return "";
+        }
+        return toSortedStrings(dataset.getDefaultGraphs()) + toSortedStrings(dataset.getNamedGraphs());
+    }
+
+    private static String toSortedStrings(Set<IRI> iris) {
+        SortedSet<String> values = new TreeSet<>();
+        iris.forEach(iri -> values.add(iri.stringValue()));
+        return values.toString();
+    }
+
+    /**
+     * Normalizes the query string for use in the cache key, i.e. removes
+     * comments and collapses whitespace outside of literals and IRIs.
+     * 
+     * <p>
+     * <b>Package private for testing only</b>.
+     * </p>
+     */
+    static String normalizeQuery(String queryString) {
+        StringBuilder sb = new StringBuilder(queryString.length());
+        char quote = 0;
+        boolean inIri = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < queryString.length(); i++) {
+            char c = queryString.charAt(i);
+            if (quote != 0) {
+                sb.append(c);
+                if (c == '\\' && i + 1 < queryString.length()) {
+                    sb.append(queryString.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (inIri) {
+                sb.append(c);
+                inIri = c != '>';
+                continue;
+            }
+            if (c == '#') {
+                // skip comment until end of line
+                while (i + 1 < queryString.length() && queryString.charAt(i + 1) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && sb.length() > 0) {
+                sb.append(' ');
+            }
+            pendingSpace = false;
+            sb.append(c);
+            if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '<' && i + 1 < queryString.length()
+                    && !Character.isWhitespace(queryString.charAt(i + 1))
+                    && queryString.charAt(i + 1) != '=') {
+                // IRI reference (as opposed to the less-than operator)
+                inIri = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void invalidate(Set<IRI> iris) {
+        // any cached result may depend on the given resources
+        cache.invalidateAll();
+    }
+
+    @Override
+    public String getId() {
+        return CACHE_ID;
+    }
+
+    /**
+     * Key of a cached SPARQL result, see
+     * {@link SparqlResultCache#createKey(String, String, Operation, FileFormat, Subject)}.
+     */
+    public static class CacheKey {
+        private final String repositoryId;
+        private final String queryString;
+        private final String bindings;
+        private final String dataset;
+        private final boolean includeInferred;
+        private final String mimeType;
+        private final String principal;
+
+        private CacheKey(String repositoryId, String queryString, String bindings, String dataset,
+                boolean includeInferred, String mimeType, String principal) {
+            this.repositoryId = repositoryId;
+            this.queryString = queryString;
+            this.bindings = bindings;
+            this.dataset = dataset;
+            this.includeInferred = includeInferred;
+            this.mimeType = mimeType;
+            this.principal = principal;
+        }
+
+        private int getWeight() {
+            return 2 * (queryString.length() + bindings.length() + dataset.length() + principal.length());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return includeInferred == that.includeInferred && repositoryId.equals(that.repositoryId)
+                    && queryString.equals(that.queryString) && bindings.equals(that.bindings)
+                    && dataset.equals(that.dataset) && mimeType.equals(that.mimeType)
+                    && principal.equals(that.principal);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(repositoryId, queryString, bindings, dataset, includeInferred, mimeType, principal);
+        }
+    }
+
+    /**
+     * A serialized query result together with its content type.
+     */
+    public static class CachedResult {
+        private final byte[] data;
+        private final String contentType;
+        private final long createdAt;
+
+        private CachedResult(byte[] data, String contentType) {
+            this.data = data;
+            this.contentType = contentType;
+            this.createdAt = System.currentTimeMillis();
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(data);
+        }
+    }
+
+    /**
+     * Records a serialized result while it is streamed to the client, see
+     * {@link SparqlResultCache#newRecorder(CacheKey, OutputStream)}.
+     */
+    public class ResultRecorder {
+        private final CacheKey key;
+        private final OutputStream out;
+        private final int maxEntryBytes;
+        private ByteArrayOutputStream buffer;
+
+        private ResultRecorder(CacheKey key, OutputStream out, int maxEntryBytes) {
+            this.key = key;
+            this.out = out;
+            this.maxEntryBytes = maxEntryBytes;
+            this.buffer = key == null ? null : new ByteArrayOutputStream();
+        }
+
+        /**
+         * @return the stream to which the result is to be written
+         */
+        public OutputStream getOutputStream() {
+            if (buffer == null) {
+                return out;
+            }
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    record(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    record(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.close();
+                }
+            };
+        }
+
+        private void record(byte[] b, int off, int len) {
+            if (buffer == null) {
+                return;
+            }
+            if (buffer.size() + len > maxEntryBytes) {
+                // too large to be cached, stop recording
+                buffer = null;
+                return;
+            }
+            buffer.write(b, off, len);
+        }
+
+        /**
+         * Puts the recorded result into the cache. Must only be called once the
+         * complete result has been written successfully.
+         */
+        public void commit(String contentType) {
+            if (buffer == null) {
+                return;
+            }
+            cache.put(key, new CachedResult(buffer.toByteArray(), contentType));
+            buffer = null;
+        }
+    }
+}
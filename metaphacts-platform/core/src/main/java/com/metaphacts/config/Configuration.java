@@ -40,6 +40,7 @@
 package com.metaphacts.config;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -412,8 +413,33 @@ public void setProperty(
     ) throws UnknownConfigurationException, ConfigurationException {
 
         // assert parameters are set correctly
-        if (StringUtils.isEmpty(configGroup)
-                || StringUtils.isEmpty(configIdInGroup)) {
+        if (StringUtils.isEmpty(configIdInGroup)) {
+            throw new UnknownConfigurationException();
+        }
+
+        setProperties(configGroup, Collections.singletonMap(configIdInGroup, configValues), targetAppId);
+    }
+
+    /**
+     * Sets (writes) multiple <strong>configValues</strong> in the specified
+     * <strong>configGroup</strong> at once, i.e. the backing file is written
+     * only once.
+     *
+     * @throws UnknownConfigurationException
+     *             If the config group or any parameter in the group does not
+     *             exit or there are any unexpected exceptions while writing the
+     *             properties.
+     * @throws ConfigurationException
+     */
+    public void setProperties(
+        String configGroup,
+        Map<String, List<String>> configValuesByParameter,
+        String targetAppId
+    ) throws UnknownConfigurationException, ConfigurationException {
+
+        // assert parameters are set correctly
+        if (StringUtils.isEmpty(configGroup) || configValuesByParameter.isEmpty()
+                || configValuesByParameter.keySet().stream().anyMatch(StringUtils::isEmpty)) {
             throw new UnknownConfigurationException();
         }
 
@@ -424,22 +450,24 @@ public void setProperty(
         }
 
         // prevent writing if property is shadowed by runtime configuration
-        String systemPropertyName =
-            ConfigurationUtil.configParamToSystemParam(configGroup, configIdInGroup);
-        String systemProperty = System.getProperty(systemPropertyName);
-
-        if (StringUtils.isNotEmpty(systemProperty)) { // shadowed by -Dconfig....
-            throw new UnauthorizedException(
-                    "Configuration element is shadowed by system parameter. "
-                            + "Changing the parameter would have no effect and is forbidden.");
+        for (String configIdInGroup : configValuesByParameter.keySet()) {
+            String systemPropertyName =
+                ConfigurationUtil.configParamToSystemParam(configGroup, configIdInGroup);
+            String systemProperty = System.getProperty(systemPropertyName);
+
+            if (StringUtils.isNotEmpty(systemProperty)) { // shadowed by -Dconfig....
+                throw new UnauthorizedException(
+                        "Configuration element is shadowed by system parameter. "
+                                + "Changing the parameter would have no effect and is forbidden.");
+            }
         }
 
 
         // invoke method and return result
         try {
             if (group instanceof ConfigurationGroupBase) {
-                ((ConfigurationGroupBase) group).setParameter(
-                    configIdInGroup, configValues, targetAppId
+                ((ConfigurationGroupBase) group).setParameters(
+                    configValuesByParameter, targetAppId
                 );
             } else {
                 throw new UnknownConfigurationException();
@@ -449,8 +477,8 @@ public void setProperty(
             	throw (ConfigurationException) e.getCause();
             }
             // this should not happen, so write some log output
-            logger.warn("Exception during setting values [" + configValues +
-                "]\" for configuration property \"" + configIdInGroup + "\"", e);
+            logger.warn("Exception during setting values [" + configValuesByParameter.values() +
+                "]\" for configuration properties \"" + configValuesByParameter.keySet() + "\"", e);
             throw new UnknownConfigurationException();
         }
     }
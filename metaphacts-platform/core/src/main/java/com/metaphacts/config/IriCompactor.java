@@ -0,0 +1,202 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.URIUtil;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Immutable trie over registered namespaces to render IRIs as prefixed names.
+ * <p>
+ * In contrast to a lookup of {@link IRI#getNamespace()} in a map of namespaces,
+ * the compactor determines the longest registered namespace that is a prefix
+ * of the IRI. A namespace is only accepted if it covers at least
+ * {@link IRI#getNamespace()}, i.e. the local name never contains the delimiter
+ * which separates namespace and local name of the IRI.
+ * </p>
+ * <p>
+ * If the remaining local name is not a valid SPARQL <code>PN_LOCAL</code>
+ * (e.g. it contains <code>/</code> or <code>?</code> or starts with
+ * <code>-</code>), the IRI is rendered as full IRI <code>&lt;iri&gt;</code>
+ * instead, so that the result can always be used in a query.
+ * </p>
+ * <p>
+ * If several prefixes are registered for the same namespace, the first one
+ * provided to the constructor is used.
+ * </p>
+ */
+public class IriCompactor {
+
+    private final Node root = new Node();
+
+    public IriCompactor(Collection<NamespaceRecord> records) {
+        for (NamespaceRecord record : records) {
+            Node node = root;
+            String namespace = record.getIri();
+            for (int i = 0; i < namespace.length(); i++) {
+                node = node.children.computeIfAbsent(namespace.charAt(i), c -> new Node());
+            }
+            if (node.record == null) {
+                node.record = record;
+            }
+        }
+    }
+
+    /**
+     * 
+     * @param iri the IRI to compact
+     * @return the prefixed name of the IRI using the longest matching namespace,
+     *         the full IRI in angle brackets if the local name is not valid in
+     *         a prefixed name, or {@link Optional#empty()} if there is no such
+     *         namespace
+     */
+    public Optional<String> compact(IRI iri) {
+        return compact(iri.stringValue());
+    }
+
+    /**
+     * 
+     * @param iri the full IRI string to compact
+     * @return the prefixed name of the IRI using the longest matching namespace,
+     *         the full IRI in angle brackets if the local name is not valid in
+     *         a prefixed name, or {@link Optional#empty()} if there is no such
+     *         namespace
+     * @see #compact(IRI)
+     */
+    public Optional<String> compact(String iri) {
+        NamespaceRecord match = findNamespace(iri);
+        if (match == null) {
+            return Optional.empty();
+        }
+        String localName = iri.substring(match.getIri().length());
+        if (!isValidLocalName(localName)) {
+            return Optional.of("<" + iri + ">");
+        }
+        return Optional.of(match.getPrefix() + ":" + localName);
+    }
+
+    /**
+     * Checks whether the given string is a valid <code>PN_LOCAL</code> according
+     * to the SPARQL 1.1 grammar. Backslash escapes are not considered valid, as
+     * they are not part of the IRI itself.
+     * 
+     * @param localName the local name of a prefixed name
+     * @return <code>true</code> if the local name can be used as is in a prefixed
+     *         name
+     */
+    public static boolean isValidLocalName(String localName) {
+        int length = localName.length();
+        int i = 0;
+        while (i < length) {
+            int c = localName.codePointAt(i);
+            if (c == '%') {
+                if (i + 2 >= length || Character.digit(localName.charAt(i + 1), 16) < 0
+                        || Character.digit(localName.charAt(i + 2), 16) < 0) {
+                    return false;
+                }
+            } else if (i == 0) {
+                if (!isPnCharsU(c) && c != ':' && !(c >= '0' && c <= '9')) {
+                    return false;
+                }
+            } else if (!isPnChars(c) && c != ':' && c != '.') {
+                return false;
+            }
+            i += c == '%' ? 3 : Character.charCount(c);
+        }
+        // the local name must not end with '.'
+        return length == 0 || localName.charAt(length - 1) != '.';
+    }
+
+    private static boolean isPnCharsU(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_'
+                || (c >= 0x00C0 && c <= 0x00D6) || (c >= 0x00D8 && c <= 0x00F6)
+                || (c >= 0x00F8 && c <= 0x02FF) || (c >= 0x0370 && c <= 0x037D)
+                || (c >= 0x037F && c <= 0x1FFF) || (c >= 0x200C && c <= 0x200D)
+                || (c >= 0x2070 && c <= 0x218F) || (c >= 0x2C00 && c <= 0x2FEF)
+                || (c >= 0x3001 && c <= 0xD7FF) || (c >= 0xF900 && c <= 0xFDCF)
+                || (c >= 0xFDF0 && c <= 0xFFFD) || (c >= 0x10000 && c <= 0xEFFFF);
+    }
+
+    private static boolean isPnChars(int c) {
+        return isPnCharsU(c) || c == '-' || (c >= '0' && c <= '9') || c == 0x00B7
+                || (c >= 0x0300 && c <= 0x036F) || (c >= 0x203F && c <= 0x2040);
+    }
+
+    /**
+     * 
+     * @param iri the full IRI string
+     * @return the record of the longest namespace that is a valid namespace for
+     *         the given IRI, or <code>null</code>
+     */
+    protected NamespaceRecord findNamespace(String iri) {
+        // the namespace must at least cover the namespace part of the IRI
+        int minLength;
+        try {
+            minLength = URIUtil.getLocalNameIndex(iri);
+        } catch (IllegalArgumentException e) {
+            // no separator character in the IRI
+            return null;
+        }
+
+        NamespaceRecord match = null;
+        Node node = root;
+        for (int i = 0; i < iri.length(); i++) {
+            node = node.children.get(iri.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.record != null && i + 1 >= minLength) {
+                match = node.record;
+            }
+        }
+        return match;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = Maps.newHashMap();
+        private NamespaceRecord record;
+    }
+}
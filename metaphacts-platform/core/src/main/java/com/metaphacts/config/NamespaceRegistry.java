@@ -51,9 +51,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -140,13 +138,11 @@ public class NamespaceRegistry {
     private ValueFactory vf;
 
     /**
-     * Map where namespaces are used as keys and prefixes are the values.
+     * Immutable snapshot of the current namespace mappings. Readers access the
+     * snapshot without locking, it is replaced as a whole when the mappings
+     * change.
      */
-    private ConcurrentMap<String, NamespaceRecord> nsMap = Maps.newConcurrentMap();
-    /**
-     * Map where prefixes are used as keys and namespaces are the values.
-     */
-    private ConcurrentMap<String, NamespaceRecord> prefixMap = Maps.newConcurrentMap();
+    private volatile Snapshot snapshot = new Snapshot(ImmutableMap.of());
 
     @Inject
     public NamespaceRegistry(PlatformStorage platformStorage) throws IOException, ConfigurationException {
@@ -156,12 +152,12 @@ public NamespaceRegistry(PlatformStorage platformStorage) throws IOException, Co
         reloadFromStorage();
     }
 
-    private synchronized Map<String, NamespaceRecord> getNamespaceView() {
-        return nsMap;
+    private Map<String, NamespaceRecord> getNamespaceView() {
+        return snapshot.nsMap;
     }
 
-    private synchronized Map<String, NamespaceRecord> getPrefixView() {
-        return prefixMap;
+    private Map<String, NamespaceRecord> getPrefixView() {
+        return snapshot.prefixMap;
     }
 
     private void reloadFromStorage() throws IOException, ConfigurationException {
@@ -200,18 +196,9 @@ private Map<String, NamespaceRecord> readNamespacesFromStorage() throws IOExcept
     }
 
     private void setRuntimeNamespaceMappings(Map<String, NamespaceRecord> prefixToNs) {
-        ConcurrentMap<String, NamespaceRecord> prefixMap = Maps.newConcurrentMap();
-        ConcurrentMap<String, NamespaceRecord> nsMap = Maps.newConcurrentMap();
-        prefixToNs.forEach((prefix, ns) -> {
-            prefixMap.put(ns.getPrefix(), ns);
-            if (!nsMap.containsKey(ns.getIri())) {
-                nsMap.put(ns.getIri(), ns);
-            }
-        });
-        synchronized (this) {
-            this.prefixMap = prefixMap;
-            this.nsMap = nsMap;
-        }
+        Map<String, NamespaceRecord> prefixMap = new LinkedHashMap<>();
+        prefixToNs.forEach((prefix, ns) -> prefixMap.put(ns.getPrefix(), ns));
+        this.snapshot = new Snapshot(prefixMap);
     }
 
     public Optional<NamespaceRecord> getRecordByPrefix(String prefix) {
@@ -306,11 +293,7 @@ public Optional<String> getPrefix(String namespace) {
      * @return a map with prefixes being used as keys and namespaces are the values
      */
     public ImmutableMap<String, String> getPrefixMap() {
-        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
-        getPrefixView().forEach((prefix, ns) -> {
-            builder.put(prefix, ns.getIri());
-        });
-        return builder.build();
+        return snapshot.prefixToNamespace;
     }
 
     public String prependSparqlPrefixes(String query) {
@@ -321,23 +304,32 @@ public String prependSparqlPrefixes(String query) {
      * @return a map with namespaces being used as keys and prefixes are the values
      */
     public ImmutableMap<String, String> getNamespaceMap() {
-        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
-        getNamespaceView().forEach((iri, ns) -> {
-            builder.put(iri, ns.getPrefix());
-        });
-        return builder.build();
+        return snapshot.namespaceToPrefix;
     }
 
     public Set<Namespace> getRioNamespaces() {
-        return getPrefixView()
-          .values()
-          .stream()
-          .map(ns -> new SimpleNamespace(ns.getPrefix(), ns.getIri()))
-          .collect(Collectors.toSet());
+        return snapshot.rioNamespaces;
     }
 
+    /**
+     * Render the given IRI as prefixed name using the longest registered
+     * namespace, see {@link IriCompactor}.
+     * 
+     * @param iri the IRI
+     * @return the prefixed name, the full IRI in angle brackets if the local
+     *         name is not valid in a prefixed name, or {@link Optional#empty()}
+     *         if there is no matching namespace
+     */
     public Optional<String> getPrefixedIRI(IRI iri){
-        return getPrefix(iri.getNamespace()).flatMap( prefix -> Optional.of(prefix+":"+iri.getLocalName()));
+        return snapshot.compactor.compact(iri);
+    }
+
+    /**
+     * 
+     * @return the {@link IriCompactor} for the currently registered namespaces
+     */
+    public IriCompactor getIriCompactor() {
+        return snapshot.compactor;
     }
 
     public Optional<IRI> resolveToIRI(String iri) {
@@ -459,6 +451,38 @@ public IRI getUserIRI(String userName){
         }
     }
 
+    /**
+     * Immutable view of the namespace mappings with pre-computed derived
+     * representations.
+     */
+    private static class Snapshot {
+        /**
+         * Map where prefixes are used as keys and namespaces are the values.
+         */
+        private final ImmutableMap<String, NamespaceRecord> prefixMap;
+        /**
+         * Map where namespaces are used as keys and prefixes are the values.
+         */
+        private final ImmutableMap<String, NamespaceRecord> nsMap;
+        private final ImmutableMap<String, String> prefixToNamespace;
+        private final ImmutableMap<String, String> namespaceToPrefix;
+        private final ImmutableSet<Namespace> rioNamespaces;
+        private final IriCompactor compactor;
+
+        private Snapshot(Map<String, NamespaceRecord> prefixMap) {
+            this.prefixMap = ImmutableMap.copyOf(prefixMap);
+            Map<String, NamespaceRecord> nsMap = new LinkedHashMap<>();
+            prefixMap.values().forEach(ns -> nsMap.putIfAbsent(ns.getIri(), ns));
+            this.nsMap = ImmutableMap.copyOf(nsMap);
+            this.prefixToNamespace = ImmutableMap.copyOf(Maps.transformValues(this.prefixMap, NamespaceRecord::getIri));
+            this.namespaceToPrefix = ImmutableMap.copyOf(Maps.transformValues(this.nsMap, NamespaceRecord::getPrefix));
+            this.rioNamespaces = this.prefixMap.values().stream()
+                    .map(ns -> new SimpleNamespace(ns.getPrefix(), ns.getIri()))
+                    .collect(ImmutableSet.toImmutableSet());
+            this.compactor = new IriCompactor(this.prefixMap.values());
+        }
+    }
+
     public static class ProtectedNamespaceDeletionException extends RuntimeException {
         private static final long serialVersionUID = -8110257063370601790L;
 
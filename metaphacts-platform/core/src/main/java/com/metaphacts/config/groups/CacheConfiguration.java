@@ -46,6 +46,7 @@
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 
+import com.google.common.collect.Lists;
 import com.metaphacts.cache.QueryTemplateCache;
 import com.metaphacts.cache.ResourceDescriptionCacheHolder;
 import com.metaphacts.cache.TemplateIncludeCache;
@@ -93,6 +94,35 @@ public String getDescriptionCacheSpec() {
         return getCacheSpec(ResourceDescriptionCacheHolder.DESCRIPTION_CACHE_ID, "maximumSize=100000,expireAfterAccess=6h");
     }
 
+    @ConfigurationParameter(
+            name = "persistentLiteralCacheEnabled",
+            desc = "Whether labels and descriptions are additionally kept in a persistent cache in the runtime "
+                    + "folder. The persistent cache survives restarts, i.e. the label and description caches do not "
+                    + "start cold. Default: false",
+            restartRequired = true)
+    public Boolean isPersistentLiteralCacheEnabled() {
+        return getBoolean("persistentLiteralCacheEnabled", false);
+    }
+
+    @ConfigurationParameter(
+            name = "persistentLiteralCacheMaxSize",
+            desc = "The maximum number of resources per cache and repository in the persistent label and "
+                    + "description cache. Default: 1000000",
+            restartRequired = true)
+    public Integer getPersistentLiteralCacheMaxSize() {
+        return getInteger("persistentLiteralCacheMaxSize", 1_000_000);
+    }
+
+    @ConfigurationParameter(
+            name = "persistentLiteralCacheTTL",
+            desc = "The time in hours an entry is kept in the persistent label and description cache. This bounds "
+                    + "staleness for writes the platform does not see, e.g. writes directly to the triplestore. "
+                    + "Default: 168 hours (7 days)",
+            restartRequired = true)
+    public Integer getPersistentLiteralCacheTTL() {
+        return getInteger("persistentLiteralCacheTTL", 168);
+    }
+
     @ConfigurationParameter(
             name = PageViewConfigManager.CACHE_ID,
             desc = "The cache configuration for the page view configuration cache. "
@@ -103,12 +133,22 @@ public String getPageViewConfigCacheSpec() {
         return getCacheSpec(PageViewConfigManager.CACHE_ID, "maximumSize=1000,expireAfterAccess=6h");
     }
 
+    @ConfigurationParameter(
+            name = PageViewConfigManager.TEMPLATE_CACHE_ID,
+            desc = "The cache configuration for the page view template cache. "
+                    + "This cache keeps the templates resolved for a set of resource types.",
+            restartRequired = false)
+    public String getPageViewTemplateCacheSpec() {
+        return getCacheSpec(PageViewConfigManager.TEMPLATE_CACHE_ID, "maximumSize=1000,expireAfterAccess=6h");
+    }
+
     @ConfigurationParameter(
             name = QueryTemplateCache.CACHE_ID,
-            desc = "The cache configuration for the query template cache.",
+            desc = "The cache configuration for the query template cache. All query templates are "
+                    + "preloaded into this cache on startup.",
             restartRequired = false)
     public String getQueryTemplateCacheSpec() {
-        return getCacheSpec(QueryTemplateCache.CACHE_ID, "maximumSize=5,expireAfterAccess=5m");
+        return getCacheSpec(QueryTemplateCache.CACHE_ID, "maximumSize=1000,expireAfterAccess=6h");
     }
 
     public String getLDPApiInternalRegistrySpec() {
@@ -139,6 +179,53 @@ public String getTemplateIncludeCacheSpec() {
         return getCacheSpec(TemplateIncludeCache.CACHE_ID, "maximumSize=1000,expireAfterAccess=30m");
     }
 
+    @ConfigurationParameter(
+            name = "sparqlResultCacheEnabled",
+            desc = "Whether results of read-only queries received through the SPARQL endpoint are cached. "
+                    + "Results are cached per user and invalidated on any write through the platform. Default: false",
+            restartRequired = false)
+    public Boolean isSparqlResultCacheEnabled() {
+        return getBoolean("sparqlResultCacheEnabled", false);
+    }
+
+    @ConfigurationParameter(
+            name = "sparqlResultCacheMaxBytes",
+            desc = "The maximum total size in bytes of serialized query results kept in the SPARQL result cache. "
+                    + "Default: 67108864 (64 MB)",
+            restartRequired = true)
+    public Integer getSparqlResultCacheMaxBytes() {
+        return getInteger("sparqlResultCacheMaxBytes", 64 * 1024 * 1024);
+    }
+
+    @ConfigurationParameter(
+            name = "sparqlResultCacheMaxEntryBytes",
+            desc = "The maximum size in bytes of a single serialized query result to be kept in the SPARQL result "
+                    + "cache. Larger results are not cached. Default: 1048576 (1 MB)",
+            restartRequired = false)
+    public Integer getSparqlResultCacheMaxEntryBytes() {
+        return getInteger("sparqlResultCacheMaxEntryBytes", 1024 * 1024);
+    }
+
+    @ConfigurationParameter(
+            name = "sparqlResultCacheTTL",
+            desc = "The time in seconds a cached SPARQL result is used at most. This bounds staleness for writes "
+                    + "the platform does not see, e.g. writes directly to the triplestore. Repository specific values "
+                    + "can be defined using <code>sparqlResultCacheRepositoryTTL</code>. Default: 300 seconds",
+            restartRequired = false)
+    public Integer getSparqlResultCacheTTL() {
+        return getInteger("sparqlResultCacheTTL", 300);
+    }
+
+    @ConfigurationParameter(
+            name = "sparqlResultCacheRepositoryTTL",
+            desc = "Repository specific time to live (in seconds) of cached SPARQL results as list of "
+                    + "<code>repositoryId:seconds</code> entries, e.g. <code>wikidata:3600,assets:60</code>. "
+                    + "A value of 0 disables caching for the repository.",
+            restartRequired = false)
+    public List<String> getSparqlResultCacheRepositoryTTL() {
+        return getStringList("sparqlResultCacheRepositoryTTL", Lists.newArrayList());
+    }
+
     @ConfigurationParameter(
             name = "assetCacheMaxAge",
             desc = "Max age in seconds for caching control of assets. Default: 31536000.",
@@ -181,15 +181,35 @@ public String getDescription() {
      * @throws ConfigurationException 
      */
     public void setParameter(String parameterName, List<String> configValues, String targetAppId)
+        throws UnknownConfigurationException {
+        setParameters(Collections.singletonMap(parameterName, configValues), targetAppId);
+    }
+
+    /**
+     * Sets multiple properties to their new values in the runtime and serializes
+     * them to the backing file with a single write, i.e. a single revision in a
+     * versioned storage.
+     * 
+     * @param configValuesByParameter configuration values by parameter name
+     *                                relative to the group, an empty list clears
+     *                                the parameter
+     * @param targetAppId             target app ID to save configuration
+     *                                parameters to
+     * @throws UnknownConfigurationException if one of the parameters does not
+     *                                       exist
+     */
+    public void setParameters(Map<String, List<String>> configValuesByParameter, String targetAppId)
         throws UnknownConfigurationException {
         try {
-            // the call below also checks if configuration parameter with specified name exists
-            ConfigurationParameterType type = getParameterType(parameterName);
-            if (configValues.size() > 1 && type != ConfigurationParameterType.STRING_LIST) {
-                throw new IllegalArgumentException(
-                    "Cannot set multiple values for non-list configuration parameter");
+            for (Map.Entry<String, List<String>> entry : configValuesByParameter.entrySet()) {
+                // the call below also checks if configuration parameter with specified name exists
+                ConfigurationParameterType type = getParameterType(entry.getKey());
+                if (entry.getValue().size() > 1 && type != ConfigurationParameterType.STRING_LIST) {
+                    throw new IllegalArgumentException(
+                        "Cannot set multiple values for non-list configuration parameter");
+                }
             }
-            internalSetParameter(parameterName, configValues, targetAppId);
+            internalSetParameters(configValuesByParameter, targetAppId);
         } catch (ConfigurationException e) {
             logger.warn("Error while saving configuration: " + e.getMessage());
             throw new RuntimeException(e);
@@ -242,26 +262,31 @@ public List<String> getStringList(final String configIdInGroup, final List<Strin
      * @throws NoSuchMethodException
      * @throws Exception 
      */
-    private synchronized void internalSetParameter(
-        String configIdInGroup, List<String> configValues, String targetAppId
+    private synchronized void internalSetParameters(
+        Map<String, List<String>> configValuesByParameter, String targetAppId
     ) throws ConfigurationException {
 
         ObjectStorage storage = platformStorage.getStorage(targetAppId);
 
         try {
-            logger.info("Saving new values: {} [at {}] -> {}", configIdInGroup, targetAppId, configValues);
             PropertiesConfiguration targetConfig =
                 (PropertiesConfiguration)config.getConfiguration(targetAppId);
             if (targetConfig == null) {
                 targetConfig = ConfigurationUtil.createEmptyConfig();
             }
 
-            Object configValue = ConfigurationUtil.listAsConfigValue(configValues);
-            if (configValue == null) {
-                targetConfig.clearProperty(configIdInGroup);
-            } else {
-                checkParameterValueByUpdateHook(configIdInGroup, configValues, targetConfig);
-                targetConfig.setProperty(configIdInGroup, configValue);
+            for (Map.Entry<String, List<String>> entry : configValuesByParameter.entrySet()) {
+                String configIdInGroup = entry.getKey();
+                List<String> configValues = entry.getValue();
+                logger.info("Saving new values: {} [at {}] -> {}", configIdInGroup, targetAppId, configValues);
+
+                Object configValue = ConfigurationUtil.listAsConfigValue(configValues);
+                if (configValue == null) {
+                    targetConfig.clearProperty(configIdInGroup);
+                } else {
+                    checkParameterValueByUpdateHook(configIdInGroup, configValues, targetConfig);
+                    targetConfig.setProperty(configIdInGroup, configValue);
+                }
             }
 
             // in principal we could also move setProperty to the hooks itself in the future
@@ -280,7 +280,189 @@ public Integer getMaxSparqlHttpConnections() {
     public Integer getSparqlHttpConnectionTimeout() {
         return getInteger("sparqlHttpConnectionTimeout");
     }
-    
+
+    @ConfigurationParameter(name = "maxSparqlHttpConnectionsPerEndpoint", desc = "The maximum number of HTTP "
+            + "connections to a single SPARQL endpoint (i.e. host and port). A value below "
+            + "<code>maxSparqlHttpConnections</code> prevents a single slow endpoint from occupying all connections. "
+            + "Endpoint specific limits can be defined using <code>sparqlHttpEndpointConnections</code>. "
+            + "Default: the value of <code>maxSparqlHttpConnections</code>", restartRequired = true)
+    public Integer getMaxSparqlHttpConnectionsPerEndpoint() {
+        return getInteger("maxSparqlHttpConnectionsPerEndpoint", getMaxSparqlHttpConnections());
+    }
+
+    @ConfigurationParameter(name = "sparqlHttpEndpointConnections", desc = "Endpoint specific maximum number of HTTP "
+            + "connections as list of <code>host=connections</code> or <code>host:port=connections</code> entries, "
+            + "e.g. <code>query.wikidata.org=2,localhost:10035=20</code>.", restartRequired = true)
+    public List<String> getSparqlHttpEndpointConnections() {
+        return getStringList("sparqlHttpEndpointConnections", Lists.newArrayList());
+    }
+
+    @ConfigurationParameter(name = "sparqlHttpIdleConnectionTimeout", desc = "Time (in seconds) after which idle "
+            + "HTTP connections to SPARQL endpoints are closed. Default: 60 seconds", restartRequired = true)
+    public Integer getSparqlHttpIdleConnectionTimeout() {
+        return getInteger("sparqlHttpIdleConnectionTimeout", 60);
+    }
+
+    @ConfigurationParameter(name = "sparqlHttpKeepAlive", desc = "Time (in seconds) an HTTP connection to a SPARQL "
+            + "endpoint is kept for reuse if the endpoint does not announce a keep-alive timeout itself. "
+            + "Default: 30 seconds", restartRequired = true)
+    public Integer getSparqlHttpKeepAlive() {
+        return getInteger("sparqlHttpKeepAlive", 30);
+    }
+
+    @ConfigurationParameter(name = "sparqlHttpCompression", desc = "Whether compressed (gzip, deflate) responses "
+            + "are requested from SPARQL endpoints. Default: true", restartRequired = true)
+    public Boolean isSparqlHttpCompression() {
+        return getBoolean("sparqlHttpCompression", true);
+    }
+
+    /**************************** SPARQL QUERY GOVERNOR ***********************/
+
+    @ConfigurationParameter(name = "sparqlMaxConcurrentQueriesPerUser", restartRequired = false, desc = "The maximum "
+            + "number of queries a single user may run concurrently through the SPARQL endpoint. Additional queries "
+            + "are queued until a slot becomes available or the queue timeout is reached. Role specific limits can be "
+            + "defined using <code>sparqlRoleConcurrentQueries</code>. Default: null (unlimited)")
+    public Integer getSparqlMaxConcurrentQueriesPerUser() {
+        return getInteger("sparqlMaxConcurrentQueriesPerUser");
+    }
+
+    @ConfigurationParameter(name = "sparqlRoleConcurrentQueries", restartRequired = false, desc = "Role specific "
+            + "concurrent query limits for the SPARQL endpoint as list of <code>role:limit</code> entries, "
+            + "e.g. <code>admin:10,guest:1</code>. If a user has several roles, the highest limit applies.")
+    public List<String> getSparqlRoleConcurrentQueries() {
+        return getStringList("sparqlRoleConcurrentQueries", Lists.newArrayList());
+    }
+
+    @ConfigurationParameter(name = "sparqlQueueTimeoutSecs", restartRequired = false, desc = "The time in seconds "
+            + "a query waits for a free slot if the concurrent query limit of the user is reached. If no slot becomes "
+            + "available the request is rejected with <code>429 Too Many Requests</code>. Default: 30 seconds")
+    public Integer getSparqlQueueTimeoutSecs() {
+        return getInteger("sparqlQueueTimeoutSecs", 30);
+    }
+
+    @ConfigurationParameter(name = "sparqlMaxExecutionTime", restartRequired = false, desc = "Default maximum "
+            + "execution time (in seconds) of queries received through the SPARQL endpoint. Role specific values can be "
+            + "defined using <code>sparqlRoleMaxExecutionTime</code>. Default: 0 (no limit)")
+    public Integer getSparqlMaxExecutionTime() {
+        return getInteger("sparqlMaxExecutionTime", 0);
+    }
+
+    @ConfigurationParameter(name = "sparqlRoleMaxExecutionTime", restartRequired = false, desc = "Role specific "
+            + "maximum execution time (in seconds) for the SPARQL endpoint as list of <code>role:seconds</code> entries, "
+            + "e.g. <code>admin:0,guest:30</code>, where 0 means no limit. If a user has several roles, the most "
+            + "permissive value applies.")
+    public List<String> getSparqlRoleMaxExecutionTime() {
+        return getStringList("sparqlRoleMaxExecutionTime", Lists.newArrayList());
+    }
+
+    @ConfigurationParameter(name = "sparqlMaxResultRows", restartRequired = false, desc = "The maximum number of "
+            + "solutions (SELECT) or statements (CONSTRUCT/DESCRIBE) streamed by the SPARQL endpoint. The result is "
+            + "truncated once the limit is reached. The limit is announced with the <code>MPH-Result-Limit</code> "
+            + "response header, a truncation is indicated by <code>MPH-Result-Truncated: true</code> if it happens "
+            + "before the response is committed. Default: null (unlimited)")
+    public Integer getSparqlMaxResultRows() {
+        return getInteger("sparqlMaxResultRows");
+    }
+
+    @ConfigurationParameter(name = "sparqlMaxResultBytes", restartRequired = false, desc = "The maximum number of "
+            + "bytes streamed by the SPARQL endpoint for a single query result. The result is truncated once the "
+            + "limit is reached, see <code>sparqlMaxResultRows</code> for the response headers indicating a "
+            + "truncation. Default: null (unlimited)")
+    public Integer getSparqlMaxResultBytes() {
+        return getInteger("sparqlMaxResultBytes");
+    }
+
+    /**************************** FEDERATED SERVICES **************************/
+
+    @ConfigurationParameter(name = "federatedServiceBoundJoinBlockSize", restartRequired = false, desc = "The "
+            + "number of bindings which are sent together (as <code>VALUES</code> clause) when evaluating a "
+            + "<code>SERVICE</code> clause against a platform managed repository in a bind join. Default: 15")
+    public Integer getFederatedServiceBoundJoinBlockSize() {
+        return getInteger("federatedServiceBoundJoinBlockSize", 15);
+    }
+
+    @ConfigurationParameter(name = "federatedServiceParallelBlocks", restartRequired = false, desc = "The "
+            + "maximum number of bind join blocks of a single <code>SERVICE</code> clause which are evaluated "
+            + "concurrently. A value of 1 evaluates the blocks one after the other. Default: 4")
+    public Integer getFederatedServiceParallelBlocks() {
+        return getInteger("federatedServiceParallelBlocks", 4);
+    }
+
+    @ConfigurationParameter(name = "federatedServiceThreads", restartRequired = true, desc = "The number of "
+            + "threads shared by all queries for the concurrent evaluation of <code>SERVICE</code> clauses "
+            + "against platform managed repositories. Default: 16")
+    public Integer getFederatedServiceThreads() {
+        return getInteger("federatedServiceThreads", 16);
+    }
+
+    @ConfigurationParameter(name = "federatedServiceStatisticsRepositories", restartRequired = true, desc = "The "
+            + "identifiers of managed repositories for which per-predicate and per-class cardinalities are collected "
+            + "in the background. The statistics are used to skip <code>SERVICE</code> clauses which cannot produce "
+            + "results and to evaluate selective <code>SERVICE</code> clauses first. Repositories wrapping a service "
+            + "descriptor are described from the descriptor without querying them. Default: none")
+    public List<String> getFederatedServiceStatisticsRepositories() {
+        return getStringList("federatedServiceStatisticsRepositories", Lists.newArrayList());
+    }
+
+    @ConfigurationParameter(name = "federatedServiceStatisticsRefreshInterval", restartRequired = true, desc = "The "
+            + "time in seconds after which the statistics of a repository are collected again. Writes through the "
+            + "platform invalidate the statistics until they are collected again. Data added directly to a "
+            + "repository in the meantime may not be found through <code>SERVICE</code> clauses which were "
+            + "skipped based on outdated statistics. Default: 86400 (1 day)")
+    public Integer getFederatedServiceStatisticsRefreshInterval() {
+        return getInteger("federatedServiceStatisticsRefreshInterval", 86400);
+    }
+
+    /**************************** ASYNC REQUEST PROCESSING ********************/
+
+    @ConfigurationParameter(name = "asyncRequestThreads", restartRequired = true, desc = "The number of threads "
+            + "used to process long running requests (e.g. SPARQL queries and lookups) asynchronously, i.e. "
+            + "outside of the container request threads. Default: 50")
+    public Integer getAsyncRequestThreads() {
+        return getInteger("asyncRequestThreads", 50);
+    }
+
+    @ConfigurationParameter(name = "asyncRequestQueueSize", restartRequired = true, desc = "The maximum number of "
+            + "asynchronous requests waiting for a free thread. Further requests are rejected with "
+            + "<code>503 Service Unavailable</code>. Default: 1000")
+    public Integer getAsyncRequestQueueSize() {
+        return getInteger("asyncRequestQueueSize", 1000);
+    }
+
+    @ConfigurationParameter(name = "asyncRequestTimeoutSecs", restartRequired = false, desc = "The maximum time in "
+            + "seconds an asynchronous request may take, including the time waiting for a free thread or query slot. "
+            + "Requests exceeding the timeout are aborted with <code>503 Service Unavailable</code> (if no response "
+            + "has been sent yet). A value of 0 disables the timeout. Default: 1800 seconds")
+    public Integer getAsyncRequestTimeoutSecs() {
+        return getInteger("asyncRequestTimeoutSecs", 1800);
+    }
+
+    /**************************** REQUEST TRACING *****************************/
+
+    @ConfigurationParameter(name = "requestTracingSampleRate", restartRequired = false, desc = "Percentage "
+            + "(0-100) of requests which are traced, i.e. for which timings of SPARQL queries, cache loads, template "
+            + "helpers, storage and LDP operations are recorded and returned in a <code>Server-Timing</code> response "
+            + "header. The header is only returned to users with the <code>system:request-traces</code> "
+            + "permission, who can also trace individual requests by sending the <code>MPH-Trace: true</code> "
+            + "header. "
+            + "Default: 0")
+    public Integer getRequestTracingSampleRate() {
+        return getInteger("requestTracingSampleRate", 0);
+    }
+
+    @ConfigurationParameter(name = "requestTracingSlowThreshold", restartRequired = false, desc = "Duration "
+            + "in milliseconds after which a traced request is considered slow and kept for inspection in the "
+            + "list of recent slow requests. Default: 1000")
+    public Integer getRequestTracingSlowThreshold() {
+        return getInteger("requestTracingSlowThreshold", 1000);
+    }
+
+    @ConfigurationParameter(name = "requestTracingSlowRequestsLimit", restartRequired = false, desc = "The "
+            + "number of recent slow requests which are kept for inspection. Default: 50")
+    public Integer getRequestTracingSlowRequestsLimit() {
+        return getInteger("requestTracingSlowRequestsLimit", 50);
+    }
+
     @ConfigurationParameter(
         name = "experimental.sparqlRequestHandlerClassName",
         restartRequired = true,
@@ -77,6 +77,7 @@
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import com.google.inject.Injector;
+import com.metaphacts.cache.CacheManager;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.config.NamespaceRegistry;
 import com.metaphacts.data.rdf.PointedGraph;
@@ -112,6 +113,9 @@ public abstract class AbstractLDPResource implements LDPResource {
     @Inject
     private Configuration configuration;
 
+    @Inject
+    private CacheManager cacheManager;
+
     private ReadConnection read;
 
     private LDPApiInternal ldpApi;
@@ -173,9 +177,11 @@ public IRI getContextIRI(){
     }
 
     public void delete() throws RepositoryException {
+        Set<IRI> deleted = new HashSet<>();
         try (RepositoryConnection connection = getConnection()) {
-            delete(connection, new HashSet<>());
+            delete(connection, deleted);
         }
+        cacheManager.invalidateResources(deleted);
     }
 
     protected void delete(RepositoryConnection repConnection, Set<IRI> deleting) throws RepositoryException {
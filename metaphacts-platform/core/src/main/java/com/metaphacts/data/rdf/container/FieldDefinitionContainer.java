@@ -48,6 +48,7 @@
 import org.eclipse.rdf4j.repository.RepositoryException;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.Sets;
 import com.metaphacts.data.rdf.PointedGraph;
 import com.metaphacts.repository.MpRepositoryProvider;
 import com.metaphacts.vocabulary.PLATFORM;
@@ -94,7 +95,10 @@ public void initialize() {
 
     @Override
     public IRI add(PointedGraph pointedGraph) throws RepositoryException {
-        return super.add(pointedGraph);
+        IRI added = super.add(pointedGraph);
+        // drop loaded field definitions as well as cached misses for the new field
+        cacheManager.invalidateResources(Sets.newHashSet(IRI, added));
+        return added;
     }
 
     @Override
@@ -253,12 +253,20 @@ protected LDPResource copyLDPResource(
 
     /**
      * Export recursively LDP resources with everything it ldp:contains
-     * and hint about container types where it can be stored
+     * and hint about container types where it can be stored.
+     * 
+     * The permission check receives all resources (in the order of the given
+     * IRIs) before anything is exported, which allows to check them in bulk.
      */
-    protected Model exportLDPResource(List<IRI> iris, BiConsumer<IRI, LDPResource> permissionCheck) {
-        Model result = new LinkedHashModel();
+    protected Model exportLDPResource(List<IRI> iris, Consumer<List<LDPResource>> permissionCheck) {
+        List<LDPResource> ldpResources = new ArrayList<>(iris.size());
         for (IRI iri : iris) {
-            result.addAll(this.exportLDPResource(iri, permissionCheck));
+            ldpResources.add(getLDPResource(iri));
+        }
+        permissionCheck.accept(ldpResources);
+        Model result = new LinkedHashModel();
+        for (int i = 0; i < iris.size(); i++) {
+            result.addAll(this.exportLDPResource(iris.get(i), ldpResources.get(i)));
         }
         return result;
     }
@@ -268,9 +276,13 @@ protected Model exportLDPResource(List<IRI> iris, BiConsumer<IRI, LDPResource> p
      * and hint about container types where it can be stored
      */
     protected Model exportLDPResource(IRI iri, BiConsumer<IRI, LDPResource> permissionCheck) {
-        Model result = new LinkedHashModel();
         LDPResource ldpResource = getLDPResource(iri);
         permissionCheck.accept(iri, ldpResource);
+        return exportLDPResource(iri, ldpResource);
+    }
+
+    private Model exportLDPResource(IRI iri, LDPResource ldpResource) {
+        Model result = new LinkedHashModel();
         Model model = ldpResource.getModelRecursive();
         Model containers = read.getStatements(null, LDP.contains, iri);
         for (Statement triple : containers) {
@@ -124,7 +124,7 @@ public void deleteLDPResource(IRI uri) {
 
     @Override
     public Model exportLDPResource(List<IRI> iris) {
-        return super.exportLDPResource(iris, this::noneResourceCheck);
+        return super.exportLDPResource(iris, resources -> {});
     }
 
     @Override
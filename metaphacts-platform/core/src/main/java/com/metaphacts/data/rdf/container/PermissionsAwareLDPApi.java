@@ -39,11 +39,14 @@
  */
 package com.metaphacts.data.rdf.container;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.authz.AuthorizationException;
@@ -54,8 +57,12 @@
 import org.eclipse.rdf4j.repository.RepositoryException;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.security.PermissionUtil;
 import com.metaphacts.security.Permissions.CONTAINER;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 
 /**
  * {@link LDPApiInterface} that checks if user has sufficient permissions to execute actions on LDP
@@ -91,71 +98,128 @@ public PermissionsAwareLDPApi(LDPApi delegate, NamespaceRegistry ns) {
     @Override
     public LDPResource createLDPResource(Optional<String> slug, RDFStream stream,
             IRI targetContainer, String instanceBase) {
-        return delegate.createLDPResource(slug, stream, targetContainer, instanceBase,
-                this.checkContainerPermission(CONTAINER.CREATE));
+        Span span = RequestTrace.span("ldp.create");
+        try (span) {
+            return delegate.createLDPResource(slug, stream, targetContainer, instanceBase,
+                    this.checkContainerPermission(CONTAINER.CREATE));
+        }
     }
 
     @Override
     public LDPResource getLDPResource(IRI uri) {
-        return delegate.getLDPResource(uri, this.checkResourcePermissions(CONTAINER.READ));
+        Span span = RequestTrace.span("ldp.get");
+        try (span) {
+            return delegate.getLDPResource(uri, this.checkResourcePermissions(CONTAINER.READ));
+        }
     }
 
     @Override
     public LDPResource updateLDPResource(RDFStream stream, IRI resourceToUpdate) {
-        return delegate.updateLDPResource(stream, resourceToUpdate,
-                this.checkResourcePermissions(CONTAINER.UPDATE));
+        Span span = RequestTrace.span("ldp.update");
+        try (span) {
+            return delegate.updateLDPResource(stream, resourceToUpdate,
+                    this.checkResourcePermissions(CONTAINER.UPDATE));
+        }
     }
 
     @Override
     public void deleteLDPResource(IRI uri) throws RepositoryException {
-        delegate.deleteLDPResource(uri, this.checkResourcePermissions(CONTAINER.DELETE));
+        Span span = RequestTrace.span("ldp.delete");
+        try (span) {
+            delegate.deleteLDPResource(uri, this.checkResourcePermissions(CONTAINER.DELETE));
+        }
     }
 
     @Override
     public Model exportLDPResource(List<IRI> iris) {
-        return delegate.exportLDPResource(iris, this.checkResourcePermissions(CONTAINER.EXPORT));
+        Span span = RequestTrace.span("ldp.export");
+        try (span) {
+            return delegate.exportLDPResource(iris, this.checkResourcePermissionsBulk(CONTAINER.EXPORT));
+        }
     }
 
     @Override
     public Model exportLDPResource(IRI iri) {
-        return delegate.exportLDPResource(iri, this.checkResourcePermissions(CONTAINER.EXPORT));
+        Span span = RequestTrace.span("ldp.export");
+        try (span) {
+            return delegate.exportLDPResource(iri, this.checkResourcePermissions(CONTAINER.EXPORT));
+        }
     }
 
     @Override
     public List<LDPResource> importLDPResource(Model resource, Set<IRI> possibleContainers, Optional<IRI> containerIRI,
             Set<IRI> unknownObjects, boolean force, String instanceBase) {
-        return delegate.importLDPResource(
-            resource, possibleContainers, containerIRI, unknownObjects, force, instanceBase,
-            this.checkContainerPermission(CONTAINER.IMPORT)
-        );
+        Span span = RequestTrace.span("ldp.import");
+        try (span) {
+            return delegate.importLDPResource(
+                resource, possibleContainers, containerIRI, unknownObjects, force, instanceBase,
+                this.checkContainerPermission(CONTAINER.IMPORT)
+            );
+        }
     }
 
     @Override
     public LDPResource copyLDPResource(Optional<String> slug, IRI uri, Optional<IRI> targetContainer, String instanceBase) {
-        return delegate.copyLDPResource(slug, uri, targetContainer, instanceBase, 
-            this.checkResourcePermissions(CONTAINER.READ), this.checkContainerPermission(CONTAINER.CREATE)
-        );
+        Span span = RequestTrace.span("ldp.copy");
+        try (span) {
+            return delegate.copyLDPResource(slug, uri, targetContainer, instanceBase, 
+                this.checkResourcePermissions(CONTAINER.READ), this.checkContainerPermission(CONTAINER.CREATE)
+            );
+        }
     }
 
     private Consumer<LDPContainer> checkContainerPermission(String action)
             throws AuthorizationException {
         return (LDPContainer container) -> {
             this.checkPermissions(container.getResourceIRI(), container.getResourceType(),
-                    container, action);
+                    container, action, PermissionsAwareLDPApi::isPermitted);
         };
     }
 
     private BiConsumer<IRI, LDPResource> checkResourcePermissions(String action)
             throws AuthorizationException {
+        return this.checkResourcePermissions(action, PermissionsAwareLDPApi::isPermitted);
+    }
+
+    private BiConsumer<IRI, LDPResource> checkResourcePermissions(String action,
+            Predicate<String> isPermitted) throws AuthorizationException {
         return (IRI type, LDPResource resource) -> {
-            this.checkPermissions(resource.getParentContainer(), type, resource, action);
+            this.checkPermissions(resource.getParentContainer(), type, resource, action, isPermitted);
+        };
+    }
+
+    /**
+     * Bulk variant of {@link #checkResourcePermissions(String)} for resources
+     * addressed by their IRI: all permissions which may be relevant for the
+     * resources are decided with a single {@link PermissionUtil#filterPermitted}
+     * call before the individual resources are checked.
+     */
+    private Consumer<List<LDPResource>> checkResourcePermissionsBulk(String action)
+            throws AuthorizationException {
+        return (List<LDPResource> resources) -> {
+            Set<String> required = Sets.newLinkedHashSet();
+            for (LDPResource resource : resources) {
+                for (String owner : Arrays.asList(CONTAINER.ANY, CONTAINER.OWNER)) {
+                    required.addAll(this.getPermissions(resource.getParentContainer(), resource.getResourceIRI(),
+                            action, owner));
+                }
+            }
+            Set<String> granted = Sets.newHashSet(PermissionUtil.filterPermitted(required, Function.identity()));
+            BiConsumer<IRI, LDPResource> check = this.checkResourcePermissions(action, granted::contains);
+            for (LDPResource resource : resources) {
+                check.accept(resource.getResourceIRI(), resource);
+            }
         };
     }
 
+    private static boolean isPermitted(String permission) {
+        return SecurityUtils.getSubject().isPermitted(permission);
+    }
+
     private void checkPermissions(IRI resourceIRI, IRI resourceType, LDPResource resource,
-            String action) throws UnauthorizedException {
-        if (this.checkWildacrdPermissions(resourceIRI, resourceType, resource, action)
-                || this.checkOwnerPermissions(resourceIRI, resourceType, resource, action)) {
+            String action, Predicate<String> isPermitted) throws UnauthorizedException {
+        if (this.checkWildacrdPermissions(resourceIRI, resourceType, resource, action, isPermitted)
+                || this.checkOwnerPermissions(resourceIRI, resourceType, resource, action, isPermitted)) {
             return;
         } else {
             throw new UnauthorizedException("LDP. Don't have permissions to perform for "
@@ -168,17 +232,18 @@ private void checkPermissions(IRI resourceIRI, IRI resourceType, LDPResource res
      * ownership.
      */
     private boolean checkWildacrdPermissions(IRI resourceIRI, IRI resourceType,
-            LDPResource resource, String action) {
-        return this.checkPermissionsBase(resourceIRI, resourceType, resource, action, CONTAINER.ANY);
+            LDPResource resource, String action, Predicate<String> isPermitted) {
+        return this.checkPermissionsBase(resourceIRI, resourceType, resource, action, CONTAINER.ANY,
+                isPermitted);
     }
 
     /**
      * Checks if user has permission for the given action only for his own containers.
      */
     private boolean checkOwnerPermissions(IRI resourceIRI, IRI resourceType, LDPResource resource,
-            String action) {
-        return this.checkPermissionsBase(resourceIRI, resourceType, resource, action, CONTAINER.OWNER) 
-                && resource.isOwner(ns.getUserIRI());
+            String action, Predicate<String> isPermitted) {
+        return this.checkPermissionsBase(resourceIRI, resourceType, resource, action, CONTAINER.OWNER,
+                isPermitted) && resource.isOwner(ns.getUserIRI());
     }
 
     /**
@@ -186,22 +251,29 @@ private boolean checkOwnerPermissions(IRI resourceIRI, IRI resourceType, LDPReso
      * it can hold.
      */
     private boolean checkPermissionsBase(IRI resourceIRI, IRI resourceType, LDPResource resource,
-            String action, String owner) {
-        List<String> permissions = Lists.newArrayList(
+            String action, String owner, Predicate<String> isPermitted) {
+        List<String> permissions = this.getPermissions(resourceIRI, resourceType, action, owner);
+        return this.isPermitedAny(permissions, isPermitted);
+    }
+
+    /**
+     * Returns the identity and type based permissions granting the action.
+     */
+    private List<String> getPermissions(IRI resourceIRI, IRI resourceType, String action, String owner) {
+        return Lists.newArrayList(
                 CONTAINER.resourcePermission(resourceIRI,
                         CONTAINER.IDENTITY_BASED, action, owner),
                 CONTAINER.resourcePermission(resourceType,
                         CONTAINER.TYPE_BASED, action, owner));
-        return this.isPermitedAny(permissions);
     }
 
     /**
      * Checks if user has at least one permission from the list.
      */
-    private boolean isPermitedAny(List<String> permissions) {
+    private boolean isPermitedAny(List<String> permissions, Predicate<String> isPermitted) {
         boolean authorized = false;
         for (String permission : permissions) {
-            if (SecurityUtils.getSubject().isPermitted(permission)) {
+            if (isPermitted.test(permission)) {
                 authorized = true;
                 break;
             }
@@ -57,6 +57,8 @@
 import com.google.inject.Module;
 import com.google.inject.servlet.GuiceServletContextListener;
 import com.google.inject.spi.Message;
+import com.metaphacts.cache.PersistentLiteralStore;
+import com.metaphacts.cache.QueryTemplateCache;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.data.rdf.container.LDPAssetsLoader;
 import com.metaphacts.lookup.api.LookupServiceManager;
@@ -65,6 +67,7 @@
 import com.metaphacts.repository.RepositoryManager;
 import com.metaphacts.security.ShiroGuiceModule;
 import com.metaphacts.services.storage.MainPlatformStorage;
+import com.metaphacts.servlet.AsyncRequestExecutor;
 import com.metaphacts.templates.index.TemplateIndexManager;
 
 /**
@@ -119,6 +122,13 @@ public void contextInitialized(ServletContextEvent event) {
         
         // Replace with proper onContextInitialized hook
         injector.getInstance(RepositoryManager.class).sentTestQueries();
+
+        try {
+            injector.getInstance(QueryTemplateCache.class).preloadAll();
+        } catch (Exception e) {
+            logger.warn("Failed to preload query templates: " + e.getMessage());
+            logger.debug("Details: ", e);
+        }
         
         org.apache.shiro.mgt.SecurityManager securityManager = injector
                 .getInstance(org.apache.shiro.mgt.SecurityManager.class);
@@ -166,6 +176,22 @@ public void contextDestroyed(ServletContextEvent sce) {
             logger.debug("Details:", t);
         }
 
+        try {
+            logger.debug("Shutting down persistent literal cache");
+            injector.getInstance(PersistentLiteralStore.class).shutdown();
+        } catch (Throwable t) {
+            logger.warn("Error while shutting down persistent literal cache: " + t.getMessage());
+            logger.debug("Details:", t);
+        }
+
+        try {
+            logger.debug("Shutting down async request executor");
+            injector.getInstance(AsyncRequestExecutor.class).shutdown();
+        } catch (Throwable t) {
+            logger.warn("Error while shutting down async request executor: " + t.getMessage());
+            logger.debug("Details:", t);
+        }
+
 
         super.contextDestroyed(sce);
     }
@@ -85,6 +85,7 @@
 import com.metaphacts.cache.QueryTemplateCache;
 import com.metaphacts.cache.ResourceDescriptionCache;
 import com.metaphacts.cache.ResourceDescriptionCacheHolder;
+import com.metaphacts.cache.SparqlResultCache;
 import com.metaphacts.cache.TemplateIncludeCache;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.data.rdf.container.LDPApiInternal;
@@ -116,7 +117,9 @@
 import com.metaphacts.services.fields.FieldDefinitionManager;
 import com.metaphacts.services.fields.FieldsBasedSearch;
 import com.metaphacts.services.fields.SimpleFieldDefinitionGeneratorChain;
+import com.metaphacts.servlet.AsyncRequestExecutor;
 import com.metaphacts.servlet.MProxyServlet;
+import com.metaphacts.servlet.SparqlQueryGovernor;
 import com.metaphacts.servlet.SparqlRequestHandler;
 import com.metaphacts.servlet.SparqlRequestHandlerProvider;
 import com.metaphacts.servlet.SparqlServlet;
@@ -127,6 +130,7 @@
 import com.metaphacts.thumbnails.DefaultThumbnailService;
 import com.metaphacts.thumbnails.ThumbnailService;
 import com.metaphacts.thumbnails.ThumbnailServiceRegistry;
+import com.metaphacts.trace.RequestTracer;
 import com.metaphacts.ui.templates.MainTemplate;
 import com.metaphacts.upload.UploadHandler;
 import com.metaphacts.upload.handlers.FileUploadHandler;
@@ -180,7 +184,11 @@ protected void configure() {
         bind(ResourceDescriptionService.class).to(DefaultResourceDescriptionService.class).in(Singleton.class);
         bind(ResourceDescriptionCache.class).in(Singleton.class);
         bind(TemplateIncludeCache.class).in(Singleton.class);
+        bind(SparqlResultCache.class).in(Singleton.class);
         bind(SparqlRequestHandler.class).toProvider(SparqlRequestHandlerProvider.class).in(Singleton.class);
+        bind(AsyncRequestExecutor.class).in(Singleton.class);
+        bind(SparqlQueryGovernor.class).in(Singleton.class);
+        bind(RequestTracer.class).in(Singleton.class);
         bind(SparqlServlet.class).in(Singleton.class);
         bind(MProxyServlet.class).in(Singleton.class);
         bind(ThumbnailServiceRegistry.class).in(Singleton.class);
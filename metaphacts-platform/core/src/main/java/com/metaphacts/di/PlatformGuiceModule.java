@@ -63,6 +63,7 @@
 import com.metaphacts.servlet.filter.HomePageFilter;
 import com.metaphacts.servlet.filter.MDCFilter;
 import com.metaphacts.servlet.filter.RewriteFilter;
+import com.metaphacts.servlet.filter.TracingFilter;
 
 import io.swagger.v3.jaxrs2.integration.JaxrsOpenApiContextBuilder;
 import io.swagger.v3.oas.integration.OpenApiConfigurationException;
@@ -87,6 +88,7 @@ protected void configureServlets() {
         // invoke MDCFilter before all other filters and endpoints, so that the MDC context
         // variables are available for all log commands throughout the application
         filter("*").through(MDCFilter.class);
+        filter("*").through(TracingFilter.class);
         filter(
             AssetFilter.ASSETS_PATH_PREFIX + "*",
             AssetFilter.IMAGES_PATH_PREFIX + "*"
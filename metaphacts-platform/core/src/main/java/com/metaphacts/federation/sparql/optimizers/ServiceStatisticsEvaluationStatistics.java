@@ -0,0 +1,178 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.sparql.optimizers;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.algebra.Distinct;
+import org.eclipse.rdf4j.query.algebra.Extension;
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.Reduced;
+import org.eclipse.rdf4j.query.algebra.Service;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UnaryTupleOperator;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+
+import com.metaphacts.federation.sparql.SparqlAlgebraUtils;
+import com.metaphacts.federation.statistics.ServiceStatistics;
+
+/**
+ * {@link EvaluationStatistics} which estimate the cardinality of
+ * <i>SERVICE</i> clauses from the {@link ServiceStatistics} of the referenced
+ * source. All other expressions are estimated by the statistics of the local
+ * store.
+ * <p>
+ * As these statistics are consulted by the standard join optimizer, selective
+ * <i>SERVICE</i> clauses are evaluated first and their results are used as
+ * bindings for the remaining join arguments.
+ * </p>
+ */
+public class ServiceStatisticsEvaluationStatistics extends EvaluationStatistics {
+
+    private final EvaluationStatistics delegate;
+
+    private final Function<Value, Optional<ServiceStatistics>> statisticsLookup;
+
+    public ServiceStatisticsEvaluationStatistics(EvaluationStatistics delegate,
+            Function<Value, Optional<ServiceStatistics>> statisticsLookup) {
+        this.delegate = delegate;
+        this.statisticsLookup = statisticsLookup;
+    }
+
+    @Override
+    protected CardinalityCalculator createCardinalityCalculator() {
+        return new ServiceCardinalityCalculator();
+    }
+
+    /**
+     * Estimates the number of results of the body of a <i>SERVICE</i> clause as
+     * the cardinality of its most selective required statement pattern. As the
+     * number of distinct subjects and objects is not collected, the square root
+     * of the predicate cardinality is used for patterns with a constant subject
+     * or object.
+     * 
+     * @return the estimated cardinality or <code>-1</code> if the statistics do
+     *         not allow an estimate
+     */
+    static double estimate(TupleExpr serviceExpr, ServiceStatistics statistics) {
+        if (!statistics.hasCardinalities()) {
+            return -1;
+        }
+        double estimate = -1;
+        for (TupleExpr arg : SparqlAlgebraUtils.getJoinArgs(unwrap(serviceExpr), new ArrayList<>())) {
+            if (!(arg instanceof StatementPattern)) {
+                continue;
+            }
+            double patternEstimate = estimate((StatementPattern) arg, statistics);
+            if (patternEstimate >= 0 && (estimate < 0 || patternEstimate < estimate)) {
+                estimate = patternEstimate;
+            }
+        }
+        return estimate;
+    }
+
+    private static double estimate(StatementPattern pattern, ServiceStatistics statistics) {
+        Value predicate = pattern.getPredicateVar().getValue();
+        Value object = pattern.getObjectVar().getValue();
+        long cardinality;
+        boolean constantObject = object != null;
+        if (predicate == null) {
+            cardinality = statistics.getTriples();
+        } else if (!(predicate instanceof IRI)) {
+            return 0;
+        } else if (RDF.TYPE.equals(predicate) && object instanceof IRI) {
+            cardinality = statistics.getClassCardinality((IRI) object);
+            // the class is already reflected in the cardinality
+            constantObject = false;
+        } else {
+            cardinality = statistics.getPredicateCardinality((IRI) predicate);
+        }
+        if (cardinality == ServiceStatistics.UNKNOWN) {
+            return -1;
+        }
+        if (pattern.getSubjectVar().hasValue() || constantObject) {
+            return Math.sqrt(cardinality);
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the expression below operators which do not change the join
+     * arguments of a query body.
+     */
+    static TupleExpr unwrap(TupleExpr expr) {
+        while (expr instanceof Filter || expr instanceof Extension || expr instanceof Projection
+                || expr instanceof Distinct || expr instanceof Reduced) {
+            expr = ((UnaryTupleOperator) expr).getArg();
+        }
+        return expr;
+    }
+
+    protected class ServiceCardinalityCalculator extends CardinalityCalculator {
+
+        @Override
+        protected double getCardinality(StatementPattern sp) {
+            return delegate.getCardinality(sp);
+        }
+
+        @Override
+        public void meet(Service node) {
+            Value serviceRef = node.getServiceRef().getValue();
+            if (serviceRef != null) {
+                Optional<ServiceStatistics> statistics = statisticsLookup.apply(serviceRef);
+                if (statistics.isPresent()) {
+                    double estimate = estimate(node.getArg(), statistics.get());
+                    if (estimate >= 0) {
+                        cardinality = estimate;
+                        return;
+                    }
+                }
+            }
+            super.meet(node);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.sparql.optimizers;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerPipeline;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
+import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StandardQueryOptimizerPipeline;
+import org.eclipse.rdf4j.sail.Sail;
+import org.eclipse.rdf4j.sail.StackableSail;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
+
+import com.google.common.collect.Iterables;
+import com.metaphacts.federation.statistics.ServiceStatistics;
+
+/**
+ * {@link EvaluationStrategyFactory} which decorates the strategies of a
+ * delegate factory with the {@link ServiceStatisticsOptimizer} and with
+ * {@link ServiceStatisticsEvaluationStatistics} for join ordering.
+ * <p>
+ * If the delegate is configured with a custom optimizer pipeline, the pipeline
+ * is kept and only the evaluation statistics are decorated.
+ * </p>
+ */
+public class ServiceStatisticsEvaluationStrategyFactory
+        implements EvaluationStrategyFactory, FederatedServiceResolverClient {
+
+    private final EvaluationStrategyFactory delegate;
+
+    private final Function<Value, Optional<ServiceStatistics>> statisticsLookup;
+
+    public ServiceStatisticsEvaluationStrategyFactory(EvaluationStrategyFactory delegate,
+            Function<Value, Optional<ServiceStatistics>> statisticsLookup) {
+        this.delegate = delegate;
+        this.statisticsLookup = statisticsLookup;
+    }
+
+    /**
+     * Installs the factory in the given {@link Sail} (or the base sail of a
+     * stack) if it is a {@link MemoryStore} or a {@link NativeStore}. Other
+     * sails are left unchanged.
+     */
+    public static void install(Sail sail, Function<Value, Optional<ServiceStatistics>> statisticsLookup) {
+        while (sail instanceof StackableSail) {
+            sail = ((StackableSail) sail).getBaseSail();
+        }
+        if (sail instanceof MemoryStore) {
+            MemoryStore store = (MemoryStore) sail;
+            store.setEvaluationStrategyFactory(
+                    new ServiceStatisticsEvaluationStrategyFactory(store.getEvaluationStrategyFactory(),
+                            statisticsLookup));
+        } else if (sail instanceof NativeStore) {
+            NativeStore store = (NativeStore) sail;
+            store.setEvaluationStrategyFactory(
+                    new ServiceStatisticsEvaluationStrategyFactory(store.getEvaluationStrategyFactory(),
+                            statisticsLookup));
+        }
+    }
+
+    @Override
+    public EvaluationStrategy createEvaluationStrategy(Dataset dataset, TripleSource tripleSource,
+            EvaluationStatistics evaluationStatistics) {
+        EvaluationStatistics statistics = new ServiceStatisticsEvaluationStatistics(evaluationStatistics,
+                statisticsLookup);
+        EvaluationStrategy strategy = delegate.createEvaluationStrategy(dataset, tripleSource, statistics);
+        if (!delegate.getOptimizerPipeline().isPresent()) {
+            QueryOptimizerPipeline standardPipeline = new StandardQueryOptimizerPipeline(strategy, tripleSource,
+                    statistics);
+            Iterable<QueryOptimizer> optimizers = Iterables.concat(
+                    Collections.singletonList(new ServiceStatisticsOptimizer(statisticsLookup)),
+                    standardPipeline.getOptimizers());
+            strategy.setOptimizerPipeline(() -> optimizers);
+        }
+        return strategy;
+    }
+
+    @Override
+    public void setQuerySolutionCacheThreshold(long threshold) {
+        delegate.setQuerySolutionCacheThreshold(threshold);
+    }
+
+    @Override
+    public long getQuerySolutionCacheThreshold() {
+        return delegate.getQuerySolutionCacheThreshold();
+    }
+
+    @Override
+    public void setOptimizerPipeline(QueryOptimizerPipeline pipeline) {
+        delegate.setOptimizerPipeline(pipeline);
+    }
+
+    @Override
+    public Optional<QueryOptimizerPipeline> getOptimizerPipeline() {
+        return delegate.getOptimizerPipeline();
+    }
+
+    @Override
+    public boolean isTrackResultSize() {
+        return delegate.isTrackResultSize();
+    }
+
+    @Override
+    public void setTrackResultSize(boolean trackResultSize) {
+        delegate.setTrackResultSize(trackResultSize);
+    }
+
+    @Override
+    public void setFederatedServiceResolver(FederatedServiceResolver resolver) {
+        if (delegate instanceof FederatedServiceResolverClient) {
+            ((FederatedServiceResolverClient) delegate).setFederatedServiceResolver(resolver);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.sparql.optimizers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.EmptySet;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.LeftJoin;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.Service;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Union;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+
+import com.metaphacts.federation.sparql.SparqlAlgebraUtils;
+import com.metaphacts.federation.statistics.ServiceStatistics;
+
+/**
+ * Source selection for <i>SERVICE</i> clauses based on the
+ * {@link ServiceStatistics} of the referenced sources.
+ * <p>
+ * A <i>SERVICE</i> clause is pruned if its body requires a predicate or class
+ * which does not occur in the source: alternatives of a <i>UNION</i> are
+ * removed, any other occurrence is replaced by an {@link EmptySet}. Join
+ * ordering is left to the standard join optimizer, which estimates
+ * <i>SERVICE</i> clauses with {@link ServiceStatisticsEvaluationStatistics}.
+ * </p>
+ */
+public class ServiceStatisticsOptimizer implements QueryOptimizer {
+
+    private static final Logger logger = LogManager.getLogger(ServiceStatisticsOptimizer.class);
+
+    private final Function<Value, Optional<ServiceStatistics>> statisticsLookup;
+
+    public ServiceStatisticsOptimizer(Function<Value, Optional<ServiceStatistics>> statisticsLookup) {
+        this.statisticsLookup = statisticsLookup;
+    }
+
+    @Override
+    public void optimize(TupleExpr tupleExpr, Dataset dataset, BindingSet bindings) {
+        List<Service> irrelevant = new ArrayList<>();
+        tupleExpr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Service node) {
+                // nested SERVICE clauses are evaluated by the referenced source
+                Optional<ServiceStatistics> statistics = getServiceRef(node.getServiceRef(), bindings)
+                        .flatMap(statisticsLookup);
+                if (statistics.isPresent() && isEmpty(node.getArg(), statistics.get())) {
+                    irrelevant.add(node);
+                }
+            }
+        });
+
+        for (Service service : irrelevant) {
+            logger.trace("Pruning SERVICE clause for {} without matching data", service.getServiceRef());
+            QueryModelNode parent = service.getParentNode();
+            if (parent instanceof Union) {
+                try {
+                    SparqlAlgebraUtils.removeTupleExpr(parent, service);
+                } catch (Exception e) {
+                    throw new QueryEvaluationException(e);
+                }
+            } else {
+                service.replaceWith(new EmptySet());
+            }
+        }
+    }
+
+    private static Optional<Value> getServiceRef(Var serviceRef, BindingSet bindings) {
+        if (serviceRef.hasValue()) {
+            return Optional.of(serviceRef.getValue());
+        }
+        return Optional.ofNullable(bindings.getValue(serviceRef.getName()));
+    }
+
+    /**
+     * Returns <code>true</code> if the expression cannot produce any result in a
+     * source with the given statistics.
+     */
+    static boolean isEmpty(TupleExpr expr, ServiceStatistics statistics) {
+        expr = ServiceStatisticsEvaluationStatistics.unwrap(expr);
+        if (expr instanceof StatementPattern) {
+            StatementPattern pattern = (StatementPattern) expr;
+            Value predicate = pattern.getPredicateVar().getValue();
+            if (!(predicate instanceof IRI)) {
+                return false;
+            }
+            if (!statistics.hasPredicate((IRI) predicate)) {
+                return true;
+            }
+            Value object = pattern.getObjectVar().getValue();
+            return RDF.TYPE.equals(predicate) && object instanceof IRI && !statistics.hasClass((IRI) object);
+        } else if (expr instanceof Join) {
+            Join join = (Join) expr;
+            return isEmpty(join.getLeftArg(), statistics) || isEmpty(join.getRightArg(), statistics);
+        } else if (expr instanceof LeftJoin) {
+            return isEmpty(((LeftJoin) expr).getLeftArg(), statistics);
+        } else if (expr instanceof Union) {
+            Union union = (Union) expr;
+            return isEmpty(union.getLeftArg(), statistics) && isEmpty(union.getRightArg(), statistics);
+        } else if (expr instanceof Slice) {
+            return isEmpty(((Slice) expr).getArg(), statistics);
+        } else if (expr instanceof EmptySet) {
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.statistics;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Cardinality statistics of a single source, i.e. a managed repository that
+ * can be referenced in a <i>SERVICE</i> clause.
+ * <p>
+ * Exhaustive statistics list all predicates and classes of the source, i.e. a
+ * predicate or class which is not listed does not occur. Cardinalities of sources described by a
+ * {@link com.metaphacts.federation.service.ServiceDescriptor} are not known and
+ * are recorded as {@link #UNKNOWN}.
+ * </p>
+ * 
+ * @see ServiceStatisticsCollector
+ */
+public class ServiceStatistics {
+
+    /**
+     * Cardinality of predicates and classes which are provided by a source, but
+     * for which the number of statements is not known.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final String sourceId;
+
+    private final long timestamp;
+
+    private final boolean exhaustive;
+
+    private final long triples;
+
+    private final Map<String, Long> predicates;
+
+    private final Map<String, Long> classes;
+
+    @JsonCreator
+    public ServiceStatistics(
+            @JsonProperty("sourceId") String sourceId,
+            @JsonProperty("timestamp") long timestamp,
+            @JsonProperty("exhaustive") boolean exhaustive,
+            @JsonProperty("triples") long triples,
+            @JsonProperty("predicates") Map<String, Long> predicates,
+            @JsonProperty("classes") Map<String, Long> classes) {
+        this.sourceId = sourceId;
+        this.timestamp = timestamp;
+        this.exhaustive = exhaustive;
+        this.triples = triples;
+        this.predicates = predicates == null ? Collections.emptyMap() : ImmutableMap.copyOf(predicates);
+        this.classes = classes == null ? Collections.emptyMap() : ImmutableMap.copyOf(classes);
+    }
+
+    /**
+     * @return the identifier of the repository these statistics describe
+     */
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * @return the time (in milliseconds since the epoch) the statistics were
+     *         collected
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return <code>true</code> if all predicates and classes of the source are
+     *         listed
+     */
+    public boolean isExhaustive() {
+        return exhaustive;
+    }
+
+    /**
+     * @return the total number of statements, or {@link #UNKNOWN}
+     */
+    public long getTriples() {
+        return triples;
+    }
+
+    /**
+     * @return number of statements by predicate IRI
+     */
+    public Map<String, Long> getPredicates() {
+        return predicates;
+    }
+
+    /**
+     * @return number of instances by class IRI
+     */
+    public Map<String, Long> getClasses() {
+        return classes;
+    }
+
+    /**
+     * @return <code>true</code> if statements with the given predicate may occur
+     *         in the source
+     */
+    public boolean hasPredicate(IRI predicate) {
+        return !exhaustive || predicates.containsKey(predicate.stringValue());
+    }
+
+    /**
+     * Returns whether instances of the given class may occur in the source. If
+     * the source provides <i>rdf:type</i> statements but the individual classes
+     * are not known (e.g. for services typing their outputs with a variable),
+     * any class is assumed to be possible.
+     */
+    public boolean hasClass(IRI type) {
+        if (!hasPredicate(RDF.TYPE)) {
+            return false;
+        }
+        return !exhaustive || classes.isEmpty() || classes.containsKey(type.stringValue());
+    }
+
+    /**
+     * @return the number of statements with the given predicate, <code>0</code>
+     *         if the predicate does not occur or {@link #UNKNOWN}
+     */
+    public long getPredicateCardinality(IRI predicate) {
+        return predicates.getOrDefault(predicate.stringValue(), exhaustive ? 0L : UNKNOWN);
+    }
+
+    /**
+     * @return the number of instances of the given class, <code>0</code> if the
+     *         class does not occur or {@link #UNKNOWN}
+     */
+    public long getClassCardinality(IRI type) {
+        if (!hasClass(type)) {
+            return 0L;
+        }
+        return classes.getOrDefault(type.stringValue(), UNKNOWN);
+    }
+
+    /**
+     * @return <code>true</code> if the statistics contain actual statement counts
+     */
+    @JsonIgnore
+    public boolean hasCardinalities() {
+        return triples != UNKNOWN;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceStatistics [sourceId=" + sourceId + ", triples=" + triples + ", predicates="
+                + predicates.size() + ", classes=" + classes.size() + "]";
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.metaphacts.cache.PlatformCache;
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.federation.service.ServiceDescriptor;
+import com.metaphacts.federation.service.ServiceDescriptorAware;
+import com.metaphacts.repository.RepositoryManager;
+import com.metaphacts.services.storage.api.ObjectKind;
+import com.metaphacts.services.storage.api.ObjectRecord;
+import com.metaphacts.services.storage.api.ObjectStorage;
+import com.metaphacts.services.storage.api.PlatformStorage;
+import com.metaphacts.services.storage.api.StoragePath;
+
+/**
+ * Collects {@link ServiceStatistics} for the managed repositories configured in
+ * <i>federatedServiceStatisticsRepositories</i>.
+ * <p>
+ * Statistics are collected in the background whenever they are older than
+ * <i>federatedServiceStatisticsRefreshInterval</i> and are persisted to the
+ * runtime storage, such that they are available immediately after a restart.
+ * Repositories which wrap a {@link ServiceDescriptor} (e.g. REST services) are
+ * described from their descriptor instead of being queried.
+ * </p>
+ * <p>
+ * Statistics are only served for repositories which are currently configured
+ * and only if they are neither older than the refresh interval nor older than
+ * the last write through the platform. For the latter the collector is
+ * registered as {@link PlatformCache}; outdated statistics are collected again
+ * on the next check.
+ * </p>
+ */
+public class ServiceStatisticsCollector implements PlatformCache {
+
+    public static final String CACHE_ID = "platform.ServiceStatistics";
+
+    private static final Logger logger = LogManager.getLogger(ServiceStatisticsCollector.class);
+
+    static final StoragePath STATISTICS_OBJECT_PREFIX = ObjectKind.DATA.resolve("federation").resolve("statistics");
+
+    private static final Pattern objectIdPattern = Pattern.compile("[^a-zA-Z0-9.-]");
+
+    /**
+     * Interval in which the statistics are checked for being outdated.
+     */
+    private static final long CHECK_INTERVAL_MINUTES = 10;
+
+    /**
+     * Maximum execution time of a single statistics query.
+     */
+    private static final int QUERY_TIMEOUT_SECONDS = 600;
+
+    private static final String PREDICATES_QUERY = "SELECT ?key (COUNT(*) AS ?count) WHERE { ?s ?key ?o } GROUP BY ?key";
+
+    private static final String CLASSES_QUERY = "SELECT ?key (COUNT(?s) AS ?count) WHERE { ?s a ?key } GROUP BY ?key";
+
+    private final RepositoryManager repositoryManager;
+
+    private final Configuration config;
+
+    private final PlatformStorage platformStorage;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, ServiceStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the last write through the platform, statistics collected before
+     * are not used.
+     */
+    private volatile long lastWriteTimestamp;
+
+    private ScheduledExecutorService scheduler;
+
+    public ServiceStatisticsCollector(RepositoryManager repositoryManager, Configuration config,
+            PlatformStorage platformStorage) {
+        this.repositoryManager = repositoryManager;
+        this.config = config;
+        this.platformStorage = platformStorage;
+        load();
+    }
+
+    /**
+     * Starts the background collection if any repositories are configured.
+     */
+    public synchronized void start() {
+        if (scheduler != null || config.getEnvironmentConfig().getFederatedServiceStatisticsRepositories().isEmpty()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("service-statistics-%d").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(this::refreshOutdated, 0, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public synchronized void shutDown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return the statistics of the given managed repository, if available and
+     *         up to date
+     */
+    public Optional<ServiceStatistics> getStatistics(String repositoryId) {
+        ServiceStatistics result = statistics.get(repositoryId);
+        if (result == null || isOutdated(result)
+                || !config.getEnvironmentConfig().getFederatedServiceStatisticsRepositories().contains(repositoryId)) {
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+
+    private boolean isOutdated(ServiceStatistics existing) {
+        long maxAge = TimeUnit.SECONDS
+                .toMillis(config.getEnvironmentConfig().getFederatedServiceStatisticsRefreshInterval());
+        return existing.getTimestamp() < lastWriteTimestamp
+                || System.currentTimeMillis() - existing.getTimestamp() >= maxAge;
+    }
+
+    /**
+     * Returns the statistics for a <i>SERVICE</i> reference, i.e. for a managed
+     * repository referenced as <i>Repository:repoId</i>.
+     */
+    public Optional<ServiceStatistics> getStatistics(Value serviceRef) {
+        if (!(serviceRef instanceof IRI) || statistics.isEmpty()) {
+            return Optional.empty();
+        }
+        String serviceUrl = serviceRef.stringValue();
+        if (!serviceUrl.startsWith(NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE)) {
+            return Optional.empty();
+        }
+        return getStatistics(serviceUrl.substring(NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE.length()));
+    }
+
+    /**
+     * Collects and persists the statistics of the given managed repository.
+     * 
+     * @throws Exception if the repository cannot be accessed
+     */
+    public ServiceStatistics refresh(String repositoryId) throws Exception {
+        long start = System.currentTimeMillis();
+        ServiceStatistics result = collect(repositoryId, repositoryManager.getRepository(repositoryId));
+        statistics.put(repositoryId, result);
+        logger.debug("Collected statistics for repository {} in {}ms: {}", repositoryId,
+                System.currentTimeMillis() - start, result);
+        persist(result);
+        return result;
+    }
+
+    void refreshOutdated() {
+        for (String repositoryId : config.getEnvironmentConfig().getFederatedServiceStatisticsRepositories()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            ServiceStatistics existing = statistics.get(repositoryId);
+            if (existing != null && !isOutdated(existing)) {
+                continue;
+            }
+            try {
+                refresh(repositoryId);
+            } catch (Exception e) {
+                logger.warn("Failed to collect statistics for repository {}: {}", repositoryId, e.getMessage());
+                logger.debug("Details:", e);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        lastWriteTimestamp = System.currentTimeMillis();
+    }
+
+    @Override
+    public void invalidate(Set<IRI> iris) {
+        // the statistics do not track individual resources
+        invalidate();
+    }
+
+    @Override
+    public String getId() {
+        return CACHE_ID;
+    }
+
+    protected ServiceStatistics collect(String repositoryId, Repository repository) throws Exception {
+        if (repository instanceof SailRepository
+                && ((SailRepository) repository).getSail() instanceof ServiceDescriptorAware) {
+            ServiceDescriptor descriptor = ((ServiceDescriptorAware) ((SailRepository) repository).getSail())
+                    .getServiceDescriptor();
+            if (descriptor != null) {
+                return fromDescriptor(repositoryId, descriptor);
+            }
+        }
+
+        try (RepositoryConnection con = repository.getConnection()) {
+            Map<String, Long> predicates = count(con, PREDICATES_QUERY);
+            Map<String, Long> classes = count(con, CLASSES_QUERY);
+            long triples = predicates.values().stream().mapToLong(Long::longValue).sum();
+            return new ServiceStatistics(repositoryId, System.currentTimeMillis(), true, triples, predicates,
+                    classes);
+        }
+    }
+
+    /**
+     * Describes a service from the statement patterns of its descriptor. The
+     * statistics are not exhaustive if the descriptor contains patterns with a
+     * variable predicate.
+     */
+    static ServiceStatistics fromDescriptor(String repositoryId, ServiceDescriptor descriptor) {
+        Map<String, Long> predicates = new HashMap<>();
+        Map<String, Long> classes = new HashMap<>();
+        boolean anyClass = false;
+        boolean exhaustive = true;
+        for (StatementPattern pattern : descriptor.getStatementPatterns()) {
+            Var predicate = pattern.getPredicateVar();
+            if (!(predicate.getValue() instanceof IRI)) {
+                // the service may provide any predicate
+                exhaustive = false;
+                continue;
+            }
+            predicates.put(predicate.getValue().stringValue(), ServiceStatistics.UNKNOWN);
+            if (RDF.TYPE.equals(predicate.getValue())) {
+                if (pattern.getObjectVar().getValue() instanceof IRI) {
+                    classes.put(pattern.getObjectVar().getValue().stringValue(), ServiceStatistics.UNKNOWN);
+                } else {
+                    anyClass = true;
+                }
+            }
+        }
+        if (anyClass) {
+            classes.clear();
+        }
+        return new ServiceStatistics(repositoryId, System.currentTimeMillis(), exhaustive,
+                ServiceStatistics.UNKNOWN, predicates, classes);
+    }
+
+    private static Map<String, Long> count(RepositoryConnection con, String query) {
+        Map<String, Long> counts = new HashMap<>();
+        TupleQuery tupleQuery = con.prepareTupleQuery(query);
+        tupleQuery.setMaxExecutionTime(QUERY_TIMEOUT_SECONDS);
+        try (TupleQueryResult result = tupleQuery.evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bs = result.next();
+                Value key = bs.getValue("key");
+                Value count = bs.getValue("count");
+                if (key instanceof IRI && count instanceof Literal) {
+                    counts.put(key.stringValue(), ((Literal) count).longValue());
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static StoragePath getObjectId(String repositoryId) {
+        return STATISTICS_OBJECT_PREFIX
+                .resolve(objectIdPattern.matcher(repositoryId).replaceAll("-"))
+                .addExtension(".json");
+    }
+
+    private void persist(ServiceStatistics result) {
+        try {
+            byte[] content = mapper.writeValueAsBytes(result);
+            ObjectStorage storage = platformStorage.getStorage(PlatformStorage.DEVELOPMENT_RUNTIME_STORAGE_KEY);
+            storage.appendObject(getObjectId(result.getSourceId()), platformStorage.getDefaultMetadata(),
+                    new ByteArrayInputStream(content), content.length);
+        } catch (Exception e) {
+            logger.warn("Failed to persist statistics for repository {}: {}", result.getSourceId(), e.getMessage());
+            logger.debug("Details:", e);
+        }
+    }
+
+    private void load() {
+        try {
+            List<ObjectRecord> records = platformStorage.findAll(STATISTICS_OBJECT_PREFIX).values().stream()
+                    .map(PlatformStorage.FindResult::getRecord)
+                    .filter(record -> record.getPath().hasExtension(".json"))
+                    .collect(Collectors.toList());
+            for (ObjectRecord record : records) {
+                try (InputStream content = record.getLocation().readContent()) {
+                    ServiceStatistics persisted = mapper.readValue(content, ServiceStatistics.class);
+                    statistics.put(persisted.getSourceId(), persisted);
+                } catch (IOException e) {
+                    logger.warn("Failed to read statistics from {}: {}", record.getPath(), e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to load persisted service statistics: {}", e.getMessage());
+            logger.debug("Details:", e);
+        }
+    }
+}
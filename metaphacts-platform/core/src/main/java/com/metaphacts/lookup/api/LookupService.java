@@ -40,9 +40,13 @@
 package com.metaphacts.lookup.api;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.metaphacts.lookup.model.LookupEntityType;
+import com.metaphacts.lookup.model.LookupMultiRequest;
+import com.metaphacts.lookup.model.LookupMultiResponse;
 import com.metaphacts.lookup.model.LookupRequest;
 import com.metaphacts.lookup.model.LookupResponse;
 
@@ -78,6 +82,43 @@ public interface LookupService {
     * */
     LookupResponse lookup(LookupRequest request) throws LookupProcessingException;
 
+    /**
+     * Tell whether this service can evaluate multiple {@link LookupRequest}s more efficiently
+     * at once than individually, e.g. by combining them into a single request to a remote system.
+     *
+     * <p>
+     * Callers may use this to decide whether to use {@link #lookupBatch(LookupMultiRequest)}
+     * or to evaluate the requests individually (and possibly in parallel) using
+     * {@link #lookup(LookupRequest)}.
+     * </p>
+     *
+     * @return <code>true</code> if batched evaluation is supported, <code>false</code> otherwise
+     */
+    default boolean supportsBatchLookup() {
+        return false;
+    }
+
+    /**
+     * Evaluate multiple {@link LookupRequest}s at once.
+     *
+     * <p>
+     * The default implementation evaluates all requests sequentially using
+     * {@link #lookup(LookupRequest)}.
+     * </p>
+     *
+     * @param multiRequest requests to evaluate
+     * @return responses for all requests, keyed by query id
+     * @throws LookupProcessingException in case of errors
+     * @see #supportsBatchLookup()
+     */
+    default LookupMultiResponse lookupBatch(LookupMultiRequest multiRequest) throws LookupProcessingException {
+        Map<String, LookupResponse> responses = new LinkedHashMap<>();
+        for (LookupRequest request : multiRequest.getRequests().values()) {
+            responses.put(request.getQueryId(), lookup(request));
+        }
+        return new LookupMultiResponse(responses);
+    }
+
     /**
      * This function provides a list of available entity types which can be passed as parts of LookupQueries.
      */
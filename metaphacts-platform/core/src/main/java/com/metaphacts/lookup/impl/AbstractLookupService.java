@@ -46,6 +46,10 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -80,6 +84,8 @@
 import com.metaphacts.lookup.model.LookupRequest;
 import com.metaphacts.lookup.model.LookupResponse;
 import com.metaphacts.lookup.spi.TargetRepositoryAware;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 import com.metaphacts.util.LanguageHelper;
 
 /**
@@ -90,6 +96,17 @@
  * To disable caching set the cache configuration to {@code "maximumSize=0"}.
  * </p>
  *
+ * <p>
+ * Concurrent identical requests are coalesced, i.e. only the first caller performs the actual
+ * lookup while all others wait for and share its result. This applies regardless of whether
+ * caching is enabled. When {@code lookup:cachePrefixReuse} is enabled, a request for a longer
+ * query may be answered by locally filtering the cached, complete result of a shorter prefix
+ * query (e.g. {@code "berlin"} from {@code "berl"}), which avoids repeated lookups for
+ * typeahead-style traffic. Counters for executed, cached, coalesced and prefix-reused lookups
+ * are available from {@link #getStatistics()} and through the {@code admin/system/lookup-statistics}
+ * REST endpoint.
+ * </p>
+ *
  * @author Wolfgang Schell <ws@metaphacts.com>
  *
  * @param <CFG> LookupService config class
@@ -98,6 +115,11 @@
     public static final String CACHE_SPEC_DEFAULT = "expireAfterWrite=10m,maximumSize=1000";
     public static final String CACHE_SPEC_NOCACHE = "maximumSize=0";
 
+    /**
+     * Minimal length of a prefix query which is considered when deriving results from cached prefix queries.
+     */
+    protected static final int MIN_PREFIX_REUSE_LENGTH = 2;
+
     private static final Logger logger = LogManager.getLogger(AbstractLookupService.class);
     private static final ValueFactory vf = SimpleValueFactory.getInstance();
 
@@ -108,6 +130,13 @@
     protected final Cache<String, LookupResponseCacheEntry> cache;
     protected final String cacheId;
     protected CacheManager cacheManager;
+    protected final LookupStatistics statistics = new LookupStatistics();
+
+    /**
+     * Lookups which are currently being executed, keyed by their cache key. Used to coalesce
+     * concurrent identical requests.
+     */
+    private final ConcurrentMap<String, CompletableFuture<LookupResponse>> inFlightLookups = new ConcurrentHashMap<>();
 
     @Inject
     protected Configuration globalConfig;
@@ -220,12 +249,21 @@ public CFG getConfig() {
         return config;
     }
 
+    /**
+     * Get counters for lookups processed by this service.
+     *
+     * @return lookup statistics
+     */
+    public LookupStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * Perform lookup request.
      *
      * <p>
      * If a cache is configured the call is delegated to {@link #doLookupCached(LookupRequest)},
-     * otherwise it is delegated directly to {@link #doLookup(LookupRequest)} without any cache lookup.
+     * otherwise it is delegated to {@link #doLookupCoalesced(LookupRequest)} without any cache lookup.
      * </p>
      *
      * <p>
@@ -240,10 +278,13 @@ public CFG getConfig() {
     @Override
     public LookupResponse lookup(LookupRequest request) throws LookupProcessingException {
         this.updateLanguage(request);
-        if (cache != null) {
-            return doLookupCached(request);
-        } else {
-            return doLookupInternal(request);
+        Span span = RequestTrace.span("lookup");
+        try (span) {
+            if (cache != null) {
+                return doLookupCached(request);
+            } else {
+                return doLookupCoalesced(request);
+            }
         }
     }
 
@@ -252,8 +293,9 @@ public LookupResponse lookup(LookupRequest request) throws LookupProcessingExcep
      *
      * <p>
      * The request is first tried to be satisfied from the cache using {@link LookupRequest}.
-     * If the cache does not yet contain a result
-     * the lookup is performed using {@link #doLookup(LookupRequest)} and the result stored
+     * If the cache does not yet contain a result and prefix reuse is enabled, the cached result
+     * of a shorter prefix query is filtered locally (see {@link #lookupFromCachedPrefix(LookupRequest)}).
+     * Otherwise the lookup is performed using {@link #doLookup(LookupRequest)} and the result stored
      * in the cache under that key.
      * </p>
      *
@@ -267,14 +309,40 @@ protected LookupResponse doLookupCached(LookupRequest request) throws LookupProc
         }
         try {
             final AtomicBoolean fromCache = new AtomicBoolean(true);
+            final AtomicBoolean fromPrefix = new AtomicBoolean(false);
             String cacheKey = createCacheKey(request);
-            LookupResponseCacheEntry entry = cache.get(cacheKey, () -> {
-                fromCache.set(false);
-                return createCacheEntry(request, this.doLookupInternal(request));
-            });
+            LookupResponseCacheEntry entry = cache.getIfPresent(cacheKey);
+            if (entry == null && isPrefixReuseEnabled()) {
+                entry = lookupFromCachedPrefix(request);
+                if (entry != null) {
+                    fromPrefix.set(true);
+                    cache.put(cacheKey, entry);
+                }
+            }
+            if (entry == null) {
+                // the cache's loader is invoked only once for concurrent requests with the same key,
+                // all other callers wait for the result and are counted as coalesced
+                entry = cache.get(cacheKey, () -> {
+                    fromCache.set(false);
+                    statistics.executed.increment();
+                    return createCacheEntry(request, this.doLookupInternal(request));
+                });
+                if (fromCache.get()) {
+                    statistics.coalesced.increment();
+                }
+            } else if (fromPrefix.get()) {
+                statistics.prefixReused.increment();
+            } else {
+                statistics.cached.increment();
+            }
             if (logger.isTraceEnabled()) {
                 String queryLogId = request.getQueryId() + ":\"" + request.getQuery() + "\"";
-                if (fromCache.get()) {
+                if (fromPrefix.get()) {
+                    logger.trace("Filtered " +
+                            entry.getCandidateCount() +
+                            " candidates from cached prefix query for request " + queryLogId);
+                }
+                else if (fromCache.get()) {
                     logger.trace("Retrieved " +
                             entry.getCandidateCount() +
                             " candidates from cache for request " + queryLogId);
@@ -289,6 +357,134 @@ protected LookupResponse doLookupCached(LookupRequest request) throws LookupProc
         }
     }
 
+    /**
+     * Perform lookup request without caching, but coalesce concurrent identical requests.
+     *
+     * <p>
+     * If a lookup for the same cache key (see {@link #createCacheKey(LookupRequest)}) is already
+     * in progress, the caller waits for that lookup to finish and receives its result instead of
+     * performing the lookup again.
+     * </p>
+     *
+     * @param request lookup request
+     * @return lookup response
+     * @throws LookupProcessingException in case of errors
+     */
+    protected LookupResponse doLookupCoalesced(LookupRequest request) throws LookupProcessingException {
+        String key = createCacheKey(request);
+        CompletableFuture<LookupResponse> future = new CompletableFuture<>();
+        CompletableFuture<LookupResponse> inFlight = inFlightLookups.putIfAbsent(key, future);
+        if (inFlight != null) {
+            statistics.coalesced.increment();
+            try {
+                LookupResponse response = inFlight.join();
+                return new LookupResponse(request.getQueryId(), response.getResult());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof LookupProcessingException) {
+                    throw (LookupProcessingException) e.getCause();
+                }
+                throw new LookupProcessingException(e.getMessage(), e);
+            }
+        }
+        try {
+            statistics.executed.increment();
+            LookupResponse response = doLookupInternal(request);
+            future.complete(response);
+            return response;
+        } catch (LookupProcessingException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(key, future);
+        }
+    }
+
+    /**
+     * Determine whether the result of a lookup request may be derived from the cached result of
+     * a shorter prefix query.
+     *
+     * @return <code>true</code> if prefix reuse is enabled
+     * @see CommonLookupConfig#getLookupCachePrefixReuse()
+     */
+    protected boolean isPrefixReuseEnabled() {
+        return Boolean.TRUE.equals(config.getLookupCachePrefixReuse());
+    }
+
+    /**
+     * Try to answer the provided request from the cached result of a shorter prefix query.
+     *
+     * <p>
+     * The cache is probed for all prefixes of the query string (longest first) with otherwise
+     * identical request parameters. A cached result is only reused if it is complete, i.e. it
+     * contains fewer candidates than the limit of the cached query. In that case the result of
+     * the longer query is a subset of the cached candidates and is computed by filtering them
+     * locally using {@link #matchesQuery(LookupCandidate, String)}.
+     * </p>
+     *
+     * @param request lookup request
+     * @return cache entry for the request or <code>null</code> if no suitable prefix result is cached
+     */
+    protected LookupResponseCacheEntry lookupFromCachedPrefix(LookupRequest request) {
+        LookupQuery query = request.getQuery();
+        String queryString = query.getQuery();
+        if (Strings.isNullOrEmpty(queryString) || query.getLimit() == null) {
+            return null;
+        }
+        for (int length = queryString.length() - 1; length >= MIN_PREFIX_REUSE_LENGTH; length--) {
+            String prefix = queryString.substring(0, length);
+            if (Character.isWhitespace(prefix.charAt(length - 1))) {
+                // a trailing whitespace may change the tokenization of the query
+                continue;
+            }
+            LookupQuery prefixQuery = new LookupQuery(prefix, query.getLimit(), query.getType(),
+                    query.getStrictType(), query.isTokenizeQueryString(), query.getProperties(),
+                    query.getPreferredLanguage());
+            LookupResponseCacheEntry prefixEntry = cache
+                    .getIfPresent(createCacheKey(new LookupRequest(request.getQueryId(), prefixQuery)));
+            if (prefixEntry == null) {
+                continue;
+            }
+            Integer prefixLimit = prefixEntry.getQuery().getLimit();
+            if (prefixLimit == null || prefixEntry.getCandidateCount() >= prefixLimit) {
+                // the cached result may be truncated, so it cannot be used to derive the result
+                return null;
+            }
+            List<LookupCandidate> candidates = prefixEntry.getCandidates().stream()
+                    .filter(candidate -> matchesQuery(candidate, queryString))
+                    .limit(query.getLimit())
+                    .collect(Collectors.toList());
+            return new LookupResponseCacheEntry(request.getQueryId(), query, candidates);
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a candidate matches the query string when filtering the cached result of a
+     * prefix query.
+     *
+     * <p>
+     * The default implementation checks that all whitespace-separated tokens of the query string
+     * are contained (case-insensitive) in the candidate's name. Sub classes may override this to
+     * reflect service-specific matching.
+     * </p>
+     *
+     * @param candidate candidate of the cached prefix result
+     * @param queryString query string of the current request
+     * @return <code>true</code> if the candidate is part of the result for the query string
+     */
+    protected boolean matchesQuery(LookupCandidate candidate, String queryString) {
+        if (candidate.getName() == null) {
+            return false;
+        }
+        String name = candidate.getName().toLowerCase();
+        for (String token : queryString.toLowerCase().trim().split("\\s+")) {
+            if (!name.contains(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Perform actual lookup request in an service-specific way.
      *
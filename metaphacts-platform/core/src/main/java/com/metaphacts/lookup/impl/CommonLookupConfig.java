@@ -68,6 +68,7 @@ public class CommonLookupConfig extends AbstractLookupServiceConfig {
     protected IRI datasetId;
     protected String datasetLabel;
     protected String lookupCacheConfig;
+    protected Boolean lookupCachePrefixReuse;
     protected LookupScoreOptions lookupScoreOptions;
     protected String preferredLanguage;
 
@@ -116,6 +117,21 @@ public void setLookupCacheConfig(String lookupCacheConfig) {
         this.lookupCacheConfig = lookupCacheConfig;
     }
 
+    /**
+     * Defines whether results for a query may be derived from the cached, complete result of a
+     * shorter prefix query (e.g. for typeahead queries like {@code "berl"}, {@code "berli"},
+     * {@code "berlin"}). The derived result is obtained by filtering the cached candidates by
+     * their name, so this should only be enabled for services which match on candidate names.
+     * @return <code>true</code> if enabled, <code>null</code> if not defined.
+     */
+    public Boolean getLookupCachePrefixReuse() {
+        return lookupCachePrefixReuse;
+    }
+
+    public void setLookupCachePrefixReuse(Boolean lookupCachePrefixReuse) {
+        this.lookupCachePrefixReuse = lookupCachePrefixReuse;
+    }
+
     public LookupScoreOptions getLookupScoreOptions() {
         return this.lookupScoreOptions;
     }
@@ -161,6 +177,9 @@ public Resource export(Model model) {
         if (getLookupCacheConfig() != null) {
             model.add(implNode, LOOKUP_CACHE_CONFIG, VF.createLiteral(getLookupCacheConfig()));
         }
+        if (getLookupCachePrefixReuse() != null) {
+            model.add(implNode, LOOKUP_CACHE_PREFIX_REUSE, VF.createLiteral(getLookupCachePrefixReuse()));
+        }
         if (getLookupScoreOptions() != null) {
             model.addAll(CommonLookupConfig.exportLookupScoreOptions(getLookupScoreOptions(), implNode));
         }
@@ -185,6 +204,9 @@ public void parse(Model model, Resource resource) throws LookupServiceConfigExce
         Models.objectLiteral(model.filter(resource, LOOKUP_CACHE_CONFIG, null))
             .ifPresent(literal -> setLookupCacheConfig(literal.stringValue()));
 
+        Models.objectLiteral(model.filter(resource, LOOKUP_CACHE_PREFIX_REUSE, null))
+            .ifPresent(literal -> setLookupCachePrefixReuse(literal.booleanValue()));
+
         Models.objectLiteral(model.filter(resource, LOOKUP_PREFERRED_LANGUAGE, null))
             .map(literal -> literal.stringValue())
             .ifPresent(preferredLanguage -> this.setPreferredLanguage(preferredLanguage));
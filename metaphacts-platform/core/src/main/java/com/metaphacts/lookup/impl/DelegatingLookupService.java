@@ -45,6 +45,8 @@
 import com.metaphacts.lookup.api.LookupProcessingException;
 import com.metaphacts.lookup.api.LookupService;
 import com.metaphacts.lookup.model.LookupEntityType;
+import com.metaphacts.lookup.model.LookupMultiRequest;
+import com.metaphacts.lookup.model.LookupMultiResponse;
 import com.metaphacts.lookup.model.LookupRequest;
 import com.metaphacts.lookup.model.LookupResponse;
 
@@ -84,6 +86,21 @@ public LookupResponse lookup(LookupRequest request) throws LookupProcessingExcep
         return delegate.lookup(request);
     }
     
+    @Override
+    public boolean supportsBatchLookup() {
+        LookupService delegate = getDelegate();
+        return delegate != null && delegate.supportsBatchLookup();
+    }
+
+    @Override
+    public LookupMultiResponse lookupBatch(LookupMultiRequest multiRequest) throws LookupProcessingException {
+        LookupService delegate = getDelegate();
+        if (delegate == null) {
+            throw new NullPointerException("Delegate LookupService not available!");
+        }
+        return delegate.lookupBatch(multiRequest);
+    }
+
     @Override
     public List<LookupEntityType> getAvailableEntityTypes() throws EntityTypesFetchingException {
         LookupService delegate = getDelegate();
@@ -0,0 +1,114 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.lookup.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for lookups processed by an {@link AbstractLookupService}.
+ *
+ * <p>
+ * Every lookup request is counted exactly once in one of the categories:
+ * </p>
+ * <ul>
+ * <li><i>executed</i>: the lookup was actually performed by the service</li>
+ * <li><i>cached</i>: the result was retrieved from the cache</li>
+ * <li><i>coalesced</i>: the request waited for an identical lookup which was already in progress</li>
+ * <li><i>prefixReused</i>: the result was derived from the cached result of a shorter prefix query</li>
+ * </ul>
+ */
+public class LookupStatistics {
+    final LongAdder executed = new LongAdder();
+    final LongAdder cached = new LongAdder();
+    final LongAdder coalesced = new LongAdder();
+    final LongAdder prefixReused = new LongAdder();
+
+    /**
+     * Get number of lookups which were actually performed by the service.
+     *
+     * @return number of executed lookups
+     */
+    public long getExecutedLookups() {
+        return executed.sum();
+    }
+
+    /**
+     * Get number of lookups which were answered from the cache.
+     *
+     * @return number of cached lookups
+     */
+    public long getCachedLookups() {
+        return cached.sum();
+    }
+
+    /**
+     * Get number of lookups which shared the result of a concurrent identical lookup.
+     *
+     * @return number of coalesced lookups
+     */
+    public long getCoalescedLookups() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Get number of lookups which were derived from the cached result of a prefix query.
+     *
+     * @return number of prefix-reused lookups
+     */
+    public long getPrefixReusedLookups() {
+        return prefixReused.sum();
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void reset() {
+        executed.reset();
+        cached.reset();
+        coalesced.reset();
+        prefixReused.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "LookupStatistics [executed=" + getExecutedLookups() + ", cached=" + getCachedLookups()
+                + ", coalesced=" + getCoalescedLookups() + ", prefixReused=" + getPrefixReusedLookups() + "]";
+    }
+}
@@ -56,6 +56,8 @@ public class RemoteLookupConfig extends RepositoryBasedLookupConfig {
     private String remoteServiceUser;
     private String remoteServicePassword;
     private Integer remoteTimeout;
+    private Integer remoteBatchSize;
+    private Integer remoteMaxConcurrentRequests;
     private QueryMethod queryMethod = QueryMethod.postUrlEncodedForm;
 
     public RemoteLookupConfig() {
@@ -97,6 +99,36 @@ public void setRemoteTimeout(Integer timeout) {
         this.remoteTimeout = timeout;
     }
 
+    /**
+     * Get the maximum number of lookup queries which are combined into a single request
+     * to the remote service when evaluating multiple lookup requests at once (e.g. for
+     * reconciliation). Batched requests are disabled if this value is not set or less
+     * than 2.
+     *
+     * @return maximum number of queries per remote request or <code>null</code> if unset
+     */
+    public Integer getRemoteBatchSize() {
+        return remoteBatchSize;
+    }
+
+    public void setRemoteBatchSize(Integer remoteBatchSize) {
+        this.remoteBatchSize = remoteBatchSize;
+    }
+
+    /**
+     * Get the maximum number of concurrent requests to the remote service, including
+     * requests of the remote label, description and type services.
+     *
+     * @return maximum number of concurrent requests or <code>null</code> if unset
+     */
+    public Integer getRemoteMaxConcurrentRequests() {
+        return remoteMaxConcurrentRequests;
+    }
+
+    public void setRemoteMaxConcurrentRequests(Integer remoteMaxConcurrentRequests) {
+        this.remoteMaxConcurrentRequests = remoteMaxConcurrentRequests;
+    }
+
     /**
      * Tell if remote label/description services should be used if possible. By
      * default the remote description service is disabled.
@@ -174,6 +206,13 @@ public Resource export(Model model) {
         if (getRemoteTimeout() != null) {
             model.add(implNode, LOOKUP_REMOTESERVICE_TIMEOUT, VF.createLiteral(getRemoteTimeout()));
         }
+        if (getRemoteBatchSize() != null) {
+            model.add(implNode, LOOKUP_REMOTESERVICE_BATCHSIZE, VF.createLiteral(getRemoteBatchSize()));
+        }
+        if (getRemoteMaxConcurrentRequests() != null) {
+            model.add(implNode, LOOKUP_REMOTESERVICE_MAXCONCURRENTREQUESTS,
+                    VF.createLiteral(getRemoteMaxConcurrentRequests()));
+        }
 
         if (getRemoteDescriptionServiceEnabled() != null) {
             model.add(implNode, LOOKUP_REMOTESERVICE_INFORMATIONENABLED,
@@ -201,6 +240,12 @@ public void parse(Model model, Resource resource) throws LookupServiceConfigExce
         Models.objectLiteral(model.filter(resource, LOOKUP_REMOTESERVICE_TIMEOUT, null))
                 .ifPresent(literal -> setRemoteTimeout(literal.intValue()));
 
+        Models.objectLiteral(model.filter(resource, LOOKUP_REMOTESERVICE_BATCHSIZE, null))
+                .ifPresent(literal -> setRemoteBatchSize(literal.intValue()));
+
+        Models.objectLiteral(model.filter(resource, LOOKUP_REMOTESERVICE_MAXCONCURRENTREQUESTS, null))
+                .ifPresent(literal -> setRemoteMaxConcurrentRequests(literal.intValue()));
+
         Models.objectLiteral(model.filter(resource, LOOKUP_REMOTESERVICE_INFORMATIONENABLED, null))
             .ifPresent(literal -> setRemoteInformationServiceEnabled(literal.booleanValue()));
     }
@@ -39,17 +39,23 @@
  */
 package com.metaphacts.lookup.impl;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
@@ -76,16 +82,20 @@
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
 import com.google.common.net.UrlEscapers;
 import com.google.inject.Inject;
 import com.metaphacts.cache.DescriptionService;
 import com.metaphacts.cache.LabelService;
+import com.metaphacts.cache.LookupResponseCacheEntry;
 import com.metaphacts.cache.RemoteLiteralCache;
 import com.metaphacts.lookup.api.EntityTypesFetchingException;
 import com.metaphacts.lookup.api.LookupProcessingException;
 import com.metaphacts.lookup.api.LookupService;
 import com.metaphacts.lookup.impl.RemoteLookupConfig.QueryMethod;
 import com.metaphacts.lookup.model.LookupEntityType;
+import com.metaphacts.lookup.model.LookupMultiRequest;
+import com.metaphacts.lookup.model.LookupMultiResponse;
 import com.metaphacts.lookup.model.LookupQuery;
 import com.metaphacts.lookup.model.LookupRequest;
 import com.metaphacts.lookup.model.LookupResponse;
@@ -132,6 +142,8 @@
  *      #lookup:remoteServicePassword "mypasswd";
  *      #lookup:remoteTimeout 10 ;
  *      #lookup:remoteInformationServiceEnabled true;
+ *      #lookup:remoteBatchSize 10;
+ *      #lookup:remoteMaxConcurrentRequests 5;
  *      lookup:remoteQueryMethod "postDataForm"
  *    ];
  *    rdfs:label "Remote Lookup" .
@@ -146,6 +158,16 @@
  * </p>
  *
  * <p>
+ * All requests to the remote system (lookups as well as label, description and
+ * type requests) share a single client per remote service, so that connections
+ * are kept alive and reused. The number of concurrent requests to the remote
+ * system can be limited using {@code lookup:remoteMaxConcurrentRequests}. When
+ * {@code lookup:remoteBatchSize} is set, multiple lookup requests evaluated at
+ * once (see {@link #lookupBatch(LookupMultiRequest)}, e.g. for reconciliation)
+ * are combined into multi-query requests with up to that many queries each.
+ * </p>
+ *
+ * <p>
  * Please refer to
  * https://reconciliation-api.github.io/specs/latest/#reconciliation-queries for
  * details on the OpenRefine Reconciliation API
@@ -159,11 +181,19 @@ public class RemoteLookupService extends AbstractLookupService<RemoteLookupConfi
     private static final String DESCRIPTION_CACHE_ID_PREFIX = "repository.DescriptionCache";
     private static final String TYPE_CACHE_ID_PREFIX = "repository.TypeCache";
 
+    /**
+     * Default maximum number of concurrent requests to the remote system.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
+
     protected ObjectMapper mapper;
     protected Optional<LabelService> labelService;
     protected Optional<DescriptionService> descriptionService;
     protected Optional<TypeService> typeService;
     protected Optional<LookupServiceManifest> manifest;
+    protected final Semaphore remoteRequestPermits;
+    protected final List<Runnable> remoteServiceCleanups = Collections.synchronizedList(new ArrayList<>());
+    private Client client;
 
     @Inject(optional=true)
     protected SecretResolver secretResolver;
@@ -177,6 +207,25 @@ public RemoteLookupService(RemoteLookupConfig config) {
         this.mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         this.mapper.enable(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT);
+
+        Integer maxConcurrentRequests = Optional.ofNullable(config.getRemoteMaxConcurrentRequests())
+                .orElse(DEFAULT_MAX_CONCURRENT_REQUESTS);
+        this.remoteRequestPermits = new Semaphore(Math.max(1, maxConcurrentRequests), true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        synchronized (remoteServiceCleanups) {
+            remoteServiceCleanups.forEach(Runnable::run);
+            remoteServiceCleanups.clear();
+        }
+        synchronized (this) {
+            if (client != null) {
+                client.close();
+                client = null;
+            }
+        }
     }
 
     protected void invalidateServiceConfig() {
@@ -315,29 +364,127 @@ protected LookupResponse doLookup(LookupRequest request) throws LookupProcessing
         Map<String, LookupQuery> reqObject = new HashMap<>();
         reqObject.put(request.getQueryId(), request.getQuery());
 
-        Response remoteResponse = prepareRequest(reqObject).invoke();
+        Map<String, LookupResponse> responses = doRemoteLookup(reqObject);
+
+        return getResponseOrEmpty(responses, request.getQueryId());
+    }
+
+    @Override
+    public boolean supportsBatchLookup() {
+        return getRemoteBatchSize() > 1;
+    }
+
+    /**
+     * Evaluate multiple lookup requests at once.
+     *
+     * <p>
+     * Requests which can be answered from the cache are served from there. All other
+     * requests are combined into multi-query requests to the remote service with up to
+     * {@code lookup:remoteBatchSize} queries each. The results are post-processed and
+     * cached just like for individual requests.
+     * </p>
+     */
+    @Override
+    public LookupMultiResponse lookupBatch(LookupMultiRequest multiRequest) throws LookupProcessingException {
+        int batchSize = getRemoteBatchSize();
+        if (batchSize <= 1) {
+            return super.lookupBatch(multiRequest);
+        }
+        Map<String, LookupResponse> responses = new LinkedHashMap<>();
+        List<LookupRequest> pendingRequests = new ArrayList<>();
+        for (LookupRequest request : multiRequest.getRequests().values()) {
+            updateLanguage(request);
+            LookupResponseCacheEntry entry = (cache != null) ? cache.getIfPresent(createCacheKey(request)) : null;
+            if (entry != null) {
+                statistics.cached.increment();
+                responses.put(request.getQueryId(), createLookupResponse(request, entry));
+            } else {
+                pendingRequests.add(request);
+            }
+        }
+
+        for (List<LookupRequest> batch : Iterables.partition(pendingRequests, batchSize)) {
+            Map<String, LookupQuery> reqObject = new LinkedHashMap<>();
+            batch.forEach(request -> reqObject.put(request.getQueryId(), request.getQuery()));
+            logger.trace("Sending {} lookup queries in a single request to {}", reqObject.size(),
+                    getRemoteServiceUrl());
+
+            Map<String, LookupResponse> remoteResponses = doRemoteLookup(reqObject);
+            for (LookupRequest request : batch) {
+                statistics.executed.increment();
+                LookupResponse response = postProcess(request,
+                        getResponseOrEmpty(remoteResponses, request.getQueryId()));
+                if (cache != null) {
+                    LookupResponseCacheEntry entry = createCacheEntry(request, response);
+                    cache.put(createCacheKey(request), entry);
+                    response = createLookupResponse(request, entry);
+                }
+                responses.put(request.getQueryId(), response);
+            }
+        }
+        return new LookupMultiResponse(responses);
+    }
+
+    /**
+     * Send the provided queries in a single request to the remote service.
+     *
+     * @param queries lookup queries keyed by query id
+     * @return responses keyed by query id
+     * @throws LookupProcessingException in case of errors
+     */
+    protected Map<String, LookupResponse> doRemoteLookup(Map<String, LookupQuery> queries)
+            throws LookupProcessingException {
+        Response remoteResponse = invokeRemote(prepareRequest(queries));
 
         String jsonString = remoteResponse.readEntity(String.class);
-        Map<String, LookupResponse> responses;
         try {
-            responses = this.mapper.readValue(
-                jsonString, new TypeReference<>() {}
+            return this.mapper.readValue(
+                jsonString, new TypeReference<Map<String, LookupResponse>>() {}
             );
         } catch (JsonProcessingException e) {
             throw new LookupProcessingException(
                 "Fail to parse remote response when processing lookup request.", e
             );
         }
+    }
 
-        LookupResponse response = responses.get(request.getQueryId());
+    protected LookupResponse getResponseOrEmpty(Map<String, LookupResponse> responses, String queryId) {
+        LookupResponse response = (responses != null) ? responses.get(queryId) : null;
         if (response == null) {
-            response = new LookupResponse(request.getQueryId(), new LinkedList<>());
+            response = new LookupResponse(queryId, new LinkedList<>());
         } else {
-            response.setQueryId(request.getQueryId());
+            response.setQueryId(queryId);
         }
         return response;
     }
 
+    /**
+     * Invoke a request to the remote service, respecting the limit of concurrent
+     * requests (see {@code lookup:remoteMaxConcurrentRequests}).
+     *
+     * @param invocation request to invoke
+     * @return response with buffered entity
+     * @throws LookupProcessingException when interrupted while waiting for a free request slot
+     */
+    protected Response invokeRemote(Invocation invocation) throws LookupProcessingException {
+        try {
+            remoteRequestPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LookupProcessingException("Interrupted while waiting for remote request slot", e);
+        }
+        try {
+            Response response = invocation.invoke();
+            // buffer the entity so that the connection is released before the request slot is returned
+            response.bufferEntity();
+            return response;
+        } catch (ProcessingException e) {
+            throw new LookupProcessingException("Failed to send request to remote service: " + e.getMessage(), e);
+        } finally {
+            remoteRequestPermits.release();
+        }
+    }
+
     @Override
     public List<LookupEntityType> getAvailableEntityTypes() throws EntityTypesFetchingException {
         try {
@@ -385,8 +532,8 @@ protected LookupServiceManifest fetchManifest() throws LookupProcessingException
         String remoteServiceUrl = getRemoteServiceUrl();
         try {
             logger.debug("Fetching manifest from remote service {}", remoteServiceUrl);
-            Response response = this.getTarget().request().header("Accept", MediaType.APPLICATION_JSON)
-                    .build(HttpMethod.GET).invoke();
+            Response response = invokeRemote(this.getTarget().request().header("Accept", MediaType.APPLICATION_JSON)
+                    .build(HttpMethod.GET));
 
             String jsonString = response.readEntity(String.class);
             logger.trace("Manifest for remote service {}: {}", remoteServiceUrl, jsonString);
@@ -432,26 +579,41 @@ protected Invocation prepareRequest(Map<String, LookupQuery> request) throws Loo
     }
 
     protected WebTarget getTarget() {
-        String username = this.getRemoteServiceUser();
-        String password = this.getRemoteServicePassword();
-        String url = this.getRemoteServiceUrl();
-        Integer timeout = this.getRemoteTimeout();
-
-        ClientConfig configuration = new ClientConfig();
-        // define timeout
-        if (timeout != null) {
-            configuration.property(ClientProperties.CONNECT_TIMEOUT, timeout * 1000);
-            configuration.property(ClientProperties.READ_TIMEOUT, timeout * 1000);
-        }
+        return getClient().target(this.getRemoteServiceUrl());
+    }
+
+    /**
+     * Get the client used for all lookup requests to the remote service. The client
+     * is created once and reused, so that connections are kept alive.
+     *
+     * @return JAX-RS client
+     */
+    protected synchronized Client getClient() {
+        if (client == null) {
+            String username = this.getRemoteServiceUser();
+            String password = this.getRemoteServicePassword();
+            Integer timeout = this.getRemoteTimeout();
+
+            ClientConfig configuration = new ClientConfig();
+            // define timeout
+            if (timeout != null) {
+                configuration.property(ClientProperties.CONNECT_TIMEOUT, timeout * 1000);
+                configuration.property(ClientProperties.READ_TIMEOUT, timeout * 1000);
+            }
 
-        WebTarget client = ClientBuilder.newClient(configuration).target(url);
+            client = ClientBuilder.newClient(configuration);
 
-        if (username != null && password != null) {
-            client.register(HttpAuthenticationFeature.basic(username, password));
+            if (username != null && password != null) {
+                client.register(HttpAuthenticationFeature.basic(username, password));
+            }
         }
         return client;
     }
 
+    protected int getRemoteBatchSize() {
+        return Optional.ofNullable(config.getRemoteBatchSize()).orElse(0);
+    }
+
     protected Integer getRemoteTimeout() {
         Integer timeout = config.getRemoteTimeout();
         if (timeout == null) {
@@ -487,28 +649,32 @@ protected QueryMethod getQueryMethod() {
 
     protected RemoteValueCache buildRemoteValueCache(String cacheId, String url)
         throws MalformedURLException {
-        return new RemoteValueCache(
+        RemoteValueCache cache = new RemoteValueCache(
             cacheId,
             new RemoteServiceConfiguration(
                 url,
                 getRemoteServiceRepository(),
                 getRemoteServiceUser(),
                 getRemoteServicePassword(),
-                getRemoteTimeout()
+                getRemoteTimeout(),
+                remoteRequestPermits
             )
         );
+        remoteServiceCleanups.add(cache::close);
+        return cache;
     }
 
     protected RemoteLiteralCache buildRemoteLiteralCache(String cacheId, String url)
         throws MalformedURLException {
-        return new RemoteLiteralCache(
+        RemoteLiteralCache cache = new RemoteLiteralCache(
                 cacheId,
                 new RemoteServiceConfiguration(
                     url,
                     getRemoteServiceRepository(),
                     getRemoteServiceUser(),
                     getRemoteServicePassword(),
-                    getRemoteTimeout()
+                    getRemoteTimeout(),
+                    remoteRequestPermits
                 )
         ) {
             @Override
@@ -521,6 +687,8 @@ protected CacheBuilder<Object,Object> createCacheBuilder() {
                 return cacheManager.newBuilder(cacheId, globalConfig.getCacheConfig().getDescriptionCacheSpec());
             }
         };
+        remoteServiceCleanups.add(cache::close);
+        return cache;
     }
 
     protected LabelService buildLabelService(RemoteLiteralCache cache) {
@@ -71,6 +71,7 @@ public interface LookupVocabulary {
     static final IRI LOOKUP_DATASET_NAME = VF.createIRI(LOOKUP_NAMESPACE, "datasetName");
     static final IRI LOOKUP_DATASET_ID = VF.createIRI(LOOKUP_NAMESPACE, "datasetId");
     static final IRI LOOKUP_CACHE_CONFIG = VF.createIRI(LOOKUP_NAMESPACE, "cacheConfig");
+    static final IRI LOOKUP_CACHE_PREFIX_REUSE = VF.createIRI(LOOKUP_NAMESPACE, "cachePrefixReuse");
     static final IRI LOOKUP_PREFERRED_LANGUAGE = VF.createIRI(LOOKUP_NAMESPACE, "preferredLanguage");
     static final IRI LOOKUP_QUERY_TEMPLATE = VF.createIRI(LOOKUP_NAMESPACE, "queryTemplate");
     static final IRI LOOKUP_QUERY_SEARCHBLOCKTEMPLATE = VF.createIRI(LOOKUP_NAMESPACE, "searchBlockTemplate");
@@ -87,6 +88,9 @@ public interface LookupVocabulary {
     static final IRI LOOKUP_REMOTESERVICE_TIMEOUT = VF.createIRI(LOOKUP_NAMESPACE, "remoteTimeout");
     static final IRI LOOKUP_REMOTESERVICE_INFORMATIONENABLED = VF.createIRI(LOOKUP_NAMESPACE,
             "remoteInformationServiceEnabled");
+    static final IRI LOOKUP_REMOTESERVICE_BATCHSIZE = VF.createIRI(LOOKUP_NAMESPACE, "remoteBatchSize");
+    static final IRI LOOKUP_REMOTESERVICE_MAXCONCURRENTREQUESTS = VF.createIRI(LOOKUP_NAMESPACE,
+            "remoteMaxConcurrentRequests");
 
     static final IRI LOOKUP_SERVICE_MEMBER = VF.createIRI(LOOKUP_NAMESPACE, "serviceMember");
 
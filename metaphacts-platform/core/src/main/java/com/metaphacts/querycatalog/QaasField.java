@@ -52,7 +52,10 @@ public enum QaasField {
     RESPONSE_FORMAT("responseformat"),
     DISABLED("disabled", "false"),
     REPOSITORY("repository", RepositoryManager.DEFAULT_REPOSITORY_ID),
-    MODIFIED("modified");
+    MODIFIED("modified"),
+    MAX_CONCURRENT_INVOCATIONS("maxConcurrentInvocations", "0"),
+    RATE_LIMIT("rateLimit", "0"),
+    RESULT_CACHE_TTL("resultCacheTTL", "0");
 
     public final String configKey;
     public final String defaultValue;
@@ -0,0 +1,325 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.querycatalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Enforces the invocation limits of a single {@link QueryCatalogRESTService},
+ * see {@link QaasField#MAX_CONCURRENT_INVOCATIONS}, {@link QaasField#RATE_LIMIT}
+ * and {@link QaasField#RESULT_CACHE_TTL}.
+ * 
+ * <p>
+ * Instances are owned by the {@link QueryCatalogRESTServiceRegistry} and
+ * survive re-configuration of the service. The limits are passed on each call
+ * such that configuration changes apply immediately.
+ * </p>
+ */
+public class QaasServiceGuard {
+
+    /**
+     * Maximum size of a single serialized result to be kept in the result cache.
+     */
+    static final int MAX_CACHED_RESULT_BYTES = 1024 * 1024;
+
+    /**
+     * Maximum total size of serialized results kept in the result cache of a
+     * service.
+     */
+    static final long MAX_RESULT_CACHE_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Time after which the rate limit state of an inactive user is dropped.
+     */
+    private static final long BUCKET_IDLE_MINUTES = 60;
+
+    private static final Permit NO_PERMIT = () -> {
+    };
+
+    private final String serviceId;
+    private final Ticker ticker;
+    private final QaasServiceStatistics statistics = new QaasServiceStatistics();
+    private final Cache<String, TokenBucket> buckets;
+
+    private int running = 0;
+
+    @Nullable
+    private ResultCache resultCache;
+
+    public QaasServiceGuard(String serviceId) {
+        this(serviceId, Ticker.systemTicker());
+    }
+
+    QaasServiceGuard(String serviceId, Ticker ticker) {
+        this.serviceId = serviceId;
+        this.ticker = ticker;
+        this.buckets = CacheBuilder.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(BUCKET_IDLE_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public QaasServiceStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Consumes a token from the bucket of the given user.
+     * 
+     * @param user                 the user invoking the service
+     * @param invocationsPerMinute the allowed number of invocations per minute,
+     *                             0 means unlimited
+     * @throws QaasLimitExceededException if the user has exceeded the rate
+     */
+    public void checkRateLimit(String user, int invocationsPerMinute) throws QaasLimitExceededException {
+        if (invocationsPerMinute <= 0) {
+            return;
+        }
+        TokenBucket bucket;
+        try {
+            bucket = buckets.get(user, () -> new TokenBucket(invocationsPerMinute, ticker.read()));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        long waitSeconds = bucket.tryConsume(invocationsPerMinute, ticker.read());
+        if (waitSeconds > 0) {
+            statistics.rateLimited.increment();
+            throw new QaasLimitExceededException("Rate limit of " + invocationsPerMinute
+                    + " invocations per minute exceeded for service \"" + serviceId + "\".", waitSeconds);
+        }
+    }
+
+    /**
+     * Acquires a permit to execute the query of the service. The call does not
+     * block, i.e. if the limit is reached the invocation is rejected.
+     * 
+     * @param maxConcurrentInvocations the maximum number of concurrent
+     *                                 executions, 0 means unlimited
+     * @return the permit, which must be closed once the execution is finished
+     * @throws QaasLimitExceededException if the limit is reached
+     */
+    public Permit acquire(int maxConcurrentInvocations) throws QaasLimitExceededException {
+        if (maxConcurrentInvocations <= 0) {
+            return NO_PERMIT;
+        }
+        synchronized (this) {
+            if (running >= maxConcurrentInvocations) {
+                statistics.throttled.increment();
+                throw new QaasLimitExceededException("Too many concurrent invocations of service \"" + serviceId
+                        + "\" (limit: " + maxConcurrentInvocations + "). Please try again later.", 1);
+            }
+            running++;
+        }
+        return this::release;
+    }
+
+    private synchronized void release() {
+        running--;
+    }
+
+    /**
+     * Returns the cached result for the given key.
+     * 
+     * @param key        the normalized invocation arguments
+     * @param ttlSeconds the configured time to live, 0 means caching is disabled
+     * @return the serialized result or {@link Optional#empty()}
+     */
+    public Optional<byte[]> getCachedResult(Object key, int ttlSeconds) {
+        Cache<Object, byte[]> cache = getResultCache(ttlSeconds);
+        byte[] result = cache == null ? null : cache.getIfPresent(key);
+        if (result != null) {
+            statistics.cached.increment();
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Wraps the given output stream such that the written result can be added
+     * to the result cache using {@link #putCachedResult(Object, int, ResultCapture)}.
+     */
+    public ResultCapture capture(OutputStream out) {
+        return new ResultCapture(out);
+    }
+
+    /**
+     * Adds the captured result to the cache, unless it exceeded
+     * {@link #MAX_CACHED_RESULT_BYTES}.
+     */
+    public void putCachedResult(Object key, int ttlSeconds, ResultCapture capture) {
+        Cache<Object, byte[]> cache = getResultCache(ttlSeconds);
+        byte[] bytes = capture.getCapturedBytes();
+        if (cache != null && bytes != null) {
+            cache.put(key, bytes);
+        }
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public synchronized void invalidateResults() {
+        if (resultCache != null) {
+            resultCache.cache.invalidateAll();
+        }
+    }
+
+    @Nullable
+    private synchronized Cache<Object, byte[]> getResultCache(int ttlSeconds) {
+        if (ttlSeconds <= 0) {
+            resultCache = null;
+            return null;
+        }
+        if (resultCache == null || resultCache.ttlSeconds != ttlSeconds) {
+            resultCache = new ResultCache(ttlSeconds, CacheBuilder.newBuilder()
+                    .ticker(ticker)
+                    .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                    .maximumWeight(MAX_RESULT_CACHE_BYTES)
+                    .weigher((Object key, byte[] value) -> value.length)
+                    .build());
+        }
+        return resultCache.cache;
+    }
+
+    /**
+     * Permit for a single execution, see {@link QaasServiceGuard#acquire(int)}.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Output stream which keeps a copy of the written result as long as it does
+     * not exceed {@link QaasServiceGuard#MAX_CACHED_RESULT_BYTES}.
+     */
+    public static class ResultCapture extends FilterOutputStream {
+        @Nullable
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        ResultCapture(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (reserve(1)) {
+                copy.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (reserve(len)) {
+                copy.write(b, off, len);
+            }
+        }
+
+        private boolean reserve(int len) {
+            if (copy != null && copy.size() + len > MAX_CACHED_RESULT_BYTES) {
+                copy = null;
+            }
+            return copy != null;
+        }
+
+        /**
+         * @return the written bytes or <code>null</code> if the result was too
+         *         large to be cached
+         */
+        @Nullable
+        public byte[] getCapturedBytes() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+
+    private static class ResultCache {
+        final int ttlSeconds;
+        final Cache<Object, byte[]> cache;
+
+        ResultCache(int ttlSeconds, Cache<Object, byte[]> cache) {
+            this.ttlSeconds = ttlSeconds;
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * Token bucket holding up to one minute worth of invocations, which is
+     * refilled continuously.
+     */
+    static class TokenBucket {
+        private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * @return 0 if a token was consumed, otherwise the number of seconds
+         *         until the next token is available
+         */
+        synchronized long tryConsume(int invocationsPerMinute, long now) {
+            double tokensPerNano = (double) invocationsPerMinute / NANOS_PER_MINUTE;
+            tokens = Math.min(invocationsPerMinute, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+}
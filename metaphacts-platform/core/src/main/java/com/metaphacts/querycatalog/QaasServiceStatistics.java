@@ -0,0 +1,163 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.querycatalog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for invocations of a single {@link QueryCatalogRESTService}.
+ *
+ * <p>
+ * Every invocation which passed the permission check is counted exactly once
+ * in one of the categories:
+ * </p>
+ * <ul>
+ * <li><i>executed</i>: the query was evaluated (successfully or not)</li>
+ * <li><i>cached</i>: the result was served from the result cache</li>
+ * <li><i>rateLimited</i>: the invocation was rejected because the user exceeded the rate limit</li>
+ * <li><i>throttled</i>: the invocation was rejected because the concurrency limit was reached</li>
+ * </ul>
+ */
+public class QaasServiceStatistics {
+    final LongAdder executed = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder cached = new LongAdder();
+    final LongAdder rateLimited = new LongAdder();
+    final LongAdder throttled = new LongAdder();
+    final LongAdder executionNanos = new LongAdder();
+    final LongAccumulator maxExecutionNanos = new LongAccumulator(Math::max, 0);
+
+    void recordExecution(long nanos, boolean success) {
+        executed.increment();
+        if (!success) {
+            failed.increment();
+        }
+        executionNanos.add(nanos);
+        maxExecutionNanos.accumulate(nanos);
+    }
+
+    /**
+     * Get number of invocations for which the query was evaluated.
+     *
+     * @return number of executed invocations
+     */
+    public long getExecutedInvocations() {
+        return executed.sum();
+    }
+
+    /**
+     * Get number of executed invocations which failed with an error.
+     *
+     * @return number of failed invocations
+     */
+    public long getFailedInvocations() {
+        return failed.sum();
+    }
+
+    /**
+     * Get number of invocations which were answered from the result cache.
+     *
+     * @return number of cached invocations
+     */
+    public long getCachedInvocations() {
+        return cached.sum();
+    }
+
+    /**
+     * Get number of invocations rejected because of the per user rate limit.
+     *
+     * @return number of rate limited invocations
+     */
+    public long getRateLimitedInvocations() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Get number of invocations rejected because of the concurrency limit.
+     *
+     * @return number of throttled invocations
+     */
+    public long getThrottledInvocations() {
+        return throttled.sum();
+    }
+
+    /**
+     * Get the average time in milliseconds spent for executed invocations,
+     * including writing the result.
+     *
+     * @return average execution time in milliseconds, 0 if nothing was executed
+     */
+    public long getAverageExecutionTimeMillis() {
+        long count = executed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(executionNanos.sum() / count);
+    }
+
+    /**
+     * Get the maximum time in milliseconds spent for a single executed invocation.
+     *
+     * @return maximum execution time in milliseconds
+     */
+    public long getMaxExecutionTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxExecutionNanos.get());
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void reset() {
+        executed.reset();
+        failed.reset();
+        cached.reset();
+        rateLimited.reset();
+        throttled.reset();
+        executionNanos.reset();
+        maxExecutionNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "QaasServiceStatistics [executed=" + getExecutedInvocations() + ", failed=" + getFailedInvocations()
+                + ", cached=" + getCachedInvocations() + ", rateLimited=" + getRateLimitedInvocations()
+                + ", throttled=" + getThrottledInvocations() + ", avgMillis=" + getAverageExecutionTimeMillis()
+                + ", maxMillis=" + getMaxExecutionTimeMillis() + "]";
+    }
+}
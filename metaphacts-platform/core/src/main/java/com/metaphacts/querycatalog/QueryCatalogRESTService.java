@@ -41,6 +41,7 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -52,6 +53,8 @@
 import javax.ws.rs.core.MultivaluedMap;
 
 import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.authz.permission.WildcardPermission;
 import org.eclipse.rdf4j.model.IRI;
@@ -81,6 +84,7 @@
 import com.google.common.collect.Sets;
 import com.metaphacts.api.dto.query.AskQuery;
 import com.metaphacts.api.dto.query.ConstructQuery;
+import com.metaphacts.api.dto.query.Query;
 import com.metaphacts.api.dto.query.SelectQuery;
 import com.metaphacts.api.dto.query.UpdateQuery;
 import com.metaphacts.api.dto.querytemplate.AskQueryTemplate;
@@ -89,7 +93,9 @@
 import com.metaphacts.api.dto.querytemplate.QueryTemplate;
 import com.metaphacts.api.dto.querytemplate.SelectQueryTemplate;
 import com.metaphacts.api.dto.querytemplate.UpdateQueryTemplate;
+import com.metaphacts.api.sparql.ParsedQueryCache;
 import com.metaphacts.api.sparql.SparqlOperationBuilder;
+import com.metaphacts.api.sparql.SparqlOperationBuilder.SparqlMagicVariables;
 import com.metaphacts.api.sparql.SparqlUtil;
 import com.metaphacts.cache.QueryTemplateCache;
 import com.metaphacts.config.NamespaceRegistry;
@@ -120,8 +126,19 @@
  *      <li><b>disabled</b>(optional): a boolean value determining whether the service
  *          is currently suppressed and is not accessible via the API. 
  *          Default: false.</li>
+ *      <li><b>maxConcurrentInvocations</b>(optional): the maximum number of 
+ *          concurrent query executions of the service. Further invocations are 
+ *          rejected with <i>429 Too Many Requests</i>. Default: 0 (unlimited).</li>
+ *      <li><b>rateLimit</b>(optional): the number of invocations per minute 
+ *          allowed for a single user. Default: 0 (unlimited).</li>
+ *      <li><b>resultCacheTTL</b>(optional): the time in seconds results are cached, 
+ *          keyed by the normalized arguments, the user (if the query refers to it) 
+ *          and the requested media type. Default: 0 (no caching).</li>
  * </ul>  
  * 
+ * The limits are enforced by the {@link QaasServiceGuard} provided by the 
+ * {@link QueryCatalogRESTServiceRegistry}.
+ * 
  * 
  * @author Andriy Nikolov an@metaphacts.com
  *
@@ -129,12 +146,19 @@
 public final class QueryCatalogRESTService {
     protected static ValueFactory VF = SimpleValueFactory.getInstance();
 
+    private static final Logger logger = LogManager.getLogger(QueryCatalogRESTService.class);
+
+    private static final int PARSED_QUERY_CACHE_SIZE = 16;
+
     private PropertiesConfiguration configuration;
     private final QueryTemplateCache queryTemplateCache;
     private final String id;
     private final RepositoryManager repositoryManager;
     private final NamespaceRegistry namespaceRegistry;
     private final Map<String, String> standardPrefixes;
+    private final QaasServiceGuard guard;
+    // parsed algebra of the service's query, keyed by query string (i.e. template changes yield a new entry)
+    private final ParsedQueryCache parsedQueryCache = new ParsedQueryCache(PARSED_QUERY_CACHE_SIZE);
 
     protected static Value interpretInputParameter(
             QueryArgument arg, String val) {
@@ -176,6 +200,23 @@ public QueryCatalogRESTService(
         RepositoryManager repositoryManager,
         NamespaceRegistry namespaceRegistry
     ) {
+        this(id, configuration, queryTemplateCache, repositoryManager, namespaceRegistry,
+                new QaasServiceGuard(id));
+    }
+
+    /**
+     * Creates a service enforcing its invocation limits with the given
+     * {@link QaasServiceGuard}.
+     */
+    public QueryCatalogRESTService(
+        String id,
+        PropertiesConfiguration configuration,
+        QueryTemplateCache queryTemplateCache,
+        RepositoryManager repositoryManager,
+        NamespaceRegistry namespaceRegistry,
+        QaasServiceGuard guard
+    ) {
+        this.guard = guard;
         this.id = id;
         this.configuration = configuration;
         this.queryTemplateCache = queryTemplateCache;
@@ -190,6 +231,7 @@ public String getId() {
 
     public synchronized void setConfiguration(PropertiesConfiguration configuration) {
         this.configuration = configuration;
+        guard.invalidateResults();
     }
     
     public synchronized Map<QaasField, String> getConfigurationProperties() {
@@ -248,6 +290,46 @@ public MediaType getDefaultFormat() {
     public boolean isDisabled() {
         return Boolean.parseBoolean(get(QaasField.DISABLED));
     }
+
+    public int getMaxConcurrentInvocations() {
+        return getInt(QaasField.MAX_CONCURRENT_INVOCATIONS);
+    }
+
+    /**
+     * Gets the number of invocations per minute allowed for a single user.
+     */
+    public int getRateLimit() {
+        return getInt(QaasField.RATE_LIMIT);
+    }
+
+    /**
+     * Gets the time in seconds results are cached.
+     */
+    public int getResultCacheTTL() {
+        return getInt(QaasField.RESULT_CACHE_TTL);
+    }
+
+    public QaasServiceStatistics getStatistics() {
+        return guard.getStatistics();
+    }
+
+    /**
+     * Drops all cached results of this service.
+     */
+    public void invalidateResultCache() {
+        guard.invalidateResults();
+    }
+
+    private int getInt(QaasField field) {
+        String value = get(field);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value \"{}\" for \"{}\" of service \"{}\", using default {}",
+                    value, field.configKey, id, field.defaultValue);
+            return Integer.parseInt(field.defaultValue);
+        }
+    }
     
     public QueryTemplate<?> getQueryTemplate() throws Exception {
         return this.queryTemplateCache.getQueryTemplate(this.getIri());
@@ -277,19 +359,68 @@ public void invoke(
             throw new SecurityException("This service is currently disabled");
         }
         QueryTemplate<?> queryTemplate = this.getQueryTemplate();
+        IRI user = namespaceRegistry.getUserIRI();
+        guard.checkRateLimit(user.stringValue(), getRateLimit());
         
         List<MediaType> acceptedMediaTypes = Lists.newArrayList();
         if (mimeType.isPresent()) {
             acceptedMediaTypes.add(mimeType.get());
         }
+
+        int cacheTTL = (queryTemplate instanceof UpdateQueryTemplate) ? 0 : getResultCacheTTL();
+        List<Object> cacheKey = null;
+        if (cacheTTL > 0) {
+            cacheKey = createResultCacheKey(queryTemplate, user, arguments, acceptedMediaTypes);
+            Optional<byte[]> cached = guard.getCachedResult(cacheKey, cacheTTL);
+            if (cached.isPresent()) {
+                output.write(cached.get());
+                return;
+            }
+        }
         
         String repositoryId = this.getRepositoryId();
         Repository targetRepo = this.repositoryManager.getRepository(repositoryId);
         
-        try (RepositoryConnection connection = targetRepo.getConnection()) {
-            invokeInternal(queryTemplate, connection, arguments, output, acceptedMediaTypes);
+        QaasServiceGuard.Permit permit = guard.acquire(getMaxConcurrentInvocations());
+        try (permit; RepositoryConnection connection = targetRepo.getConnection()) {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                if (cacheKey != null) {
+                    QaasServiceGuard.ResultCapture capture = guard.capture(output);
+                    invokeInternal(queryTemplate, connection, arguments, capture, acceptedMediaTypes);
+                    capture.flush();
+                    guard.putCachedResult(cacheKey, cacheTTL, capture);
+                } else {
+                    invokeInternal(queryTemplate, connection, arguments, output, acceptedMediaTypes);
+                }
+                success = true;
+            } finally {
+                guard.getStatistics().recordExecution(System.nanoTime() - start, success);
+            }
         } 
     }
+
+    /**
+     * Creates the result cache key from the values bound to the template
+     * arguments (ignoring any other parameters), the user if the query refers
+     * to it, and the accepted media types.
+     */
+    private List<Object> createResultCacheKey(
+            QueryTemplate<?> queryTemplate,
+            IRI user,
+            MultivaluedMap<String, String> arguments,
+            List<MediaType> acceptedMediaTypes) {
+        List<Object> key = new ArrayList<>();
+        key.add(acceptedMediaTypes);
+        boolean userSpecific = queryTemplate.getQuery().getQueryString().contains(SparqlMagicVariables.USERURI);
+        key.add(userSpecific ? user : null);
+        for (QueryArgument arg : queryTemplate.getArguments()) {
+            List<String> vals = arguments.get(arg.getPredicate());
+            key.add(vals == null || vals.isEmpty() ? null : interpretInputParameter(arg, vals.get(0)));
+        }
+        return key;
+    }
     
     /**
      * Returns the specific media type for returned results 
@@ -351,11 +482,7 @@ private void invokeSelectQuery(
             OutputStream output,
             List<MediaType> acceptedMediaTypes) {
         SelectQuery query = queryTemplate.getQuery();
-        TupleQuery tq = SparqlOperationBuilder.
-                <TupleQuery>create(query.getQueryString(), TupleQuery.class)
-                .setNamespaces(this.standardPrefixes)
-                .resolveUser(namespaceRegistry.getUserIRI())
-                .build(connection);
+        TupleQuery tq = prepareOperation(query, TupleQuery.class, connection);
         bindArguments(tq, queryTemplate, arguments);
         TupleQueryResultHandler handler 
                 = SparqlUtil.getTupleQueryResultWriterForAcceptedMediaTypes(
@@ -372,11 +499,7 @@ private void invokeConstructQuery(
             OutputStream output,
             List<MediaType> acceptedMediaTypes) {
         ConstructQuery query = queryTemplate.getQuery();
-        GraphQuery gq = SparqlOperationBuilder
-                .<GraphQuery>create(query.getQueryString(), GraphQuery.class)
-                .setNamespaces(this.standardPrefixes)
-                .resolveUser(namespaceRegistry.getUserIRI())
-                .build(connection);
+        GraphQuery gq = prepareOperation(query, GraphQuery.class, connection);
         bindArguments(gq, queryTemplate, arguments);
         RDFWriter handler = SparqlUtil.getRDFWriterForAcceptedMediaTypes(
                                             output, 
@@ -392,11 +515,7 @@ private void invokeAskQuery(
             OutputStream output,
             List<MediaType> acceptedMediaTypes) {
         AskQuery query = queryTemplate.getQuery();
-        BooleanQuery bq = SparqlOperationBuilder
-                .<BooleanQuery>create(query.getQueryString(), BooleanQuery.class)
-                .setNamespaces(this.standardPrefixes)
-                .resolveUser(namespaceRegistry.getUserIRI())
-                .build(connection);
+        BooleanQuery bq = prepareOperation(query, BooleanQuery.class, connection);
         bindArguments(bq, queryTemplate, arguments);
         BooleanQueryResultWriter handler = SparqlUtil.getBooleanQueryResultWriterForAcceptedMediaTypes(
                                             output, 
@@ -422,6 +541,23 @@ private void invokeUpdateQuery(
         output.close();
     }
     
+    /**
+     * Prepares the operation for the given query. The parsed algebra of SELECT
+     * queries is reused for local (sail based) repositories, see
+     * {@link ParsedQueryCache}.
+     */
+    private <T extends Operation> T prepareOperation(
+            Query<?> query,
+            Class<T> clazz,
+            RepositoryConnection connection) {
+        return SparqlOperationBuilder
+                .<T>create(query.getQueryString(), clazz)
+                .setNamespaces(this.standardPrefixes)
+                .resolveUser(namespaceRegistry.getUserIRI())
+                .setParsedQueryCache(this.parsedQueryCache)
+                .build(connection);
+    }
+
     private void bindArguments(
             Operation operation, 
             QueryTemplate<?> queryTemplate, 
@@ -66,6 +66,7 @@
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
@@ -188,6 +189,7 @@ public String getId() {
 
         @Override
         public void invalidate() {
+            getServices().forEach(QueryCatalogRESTService::invalidateResultCache);
             asyncExecutor.submit(() -> {
                 try {
                     QueryCatalogRESTServiceRegistry.this.syncServices();
@@ -198,7 +200,23 @@ public void invalidate() {
         }
 
         @Override
-        public void invalidate(Set<IRI> iris) {}
+        public void invalidate(Set<IRI> iris) {
+            // drop cached results of services whose template or query has changed
+            for (QueryCatalogRESTService service : getServices()) {
+                if (iris.contains(service.getIri()) || iris.contains(getQueryId(service))) {
+                    service.invalidateResultCache();
+                }
+            }
+        }
+
+        @Nullable
+        private Resource getQueryId(QueryCatalogRESTService service) {
+            try {
+                return service.getQueryTemplate().getQuery().getId();
+            } catch (Exception e) {
+                return null;
+            }
+        }
     }
     
     public void syncServices() throws IOException {
@@ -269,7 +287,8 @@ private ServiceEntry createOrUpdateServiceFromPropertiesFile(
                     configuration,
                     queryTemplateCache,
                     repositoryManager,
-                    namespaceRegistry
+                    namespaceRegistry,
+                    new QaasServiceGuard(serviceId)
                 );
                 String sourceAppId = propFile.getAppId();
                 String revision = record.getRevision();
@@ -98,6 +98,9 @@ public class MpRepositoryVocabulary {
     public static final IRI AUTHENTICATION_TOKEN = VF.createIRI(NAMESPACE, "authenticationToken");
     public static final IRI REALM = VF.createIRI(NAMESPACE, "realm");
     public static final IRI QUAD_MODE = VF.createIRI(NAMESPACE, "quadMode");
+    public static final IRI UPDATE_BATCH_SIZE = VF.createIRI(NAMESPACE, "updateBatchSize");
+    public static final IRI MAX_UPDATE_LENGTH = VF.createIRI(NAMESPACE, "maxUpdateLength");
+    public static final IRI FETCH_SIZE = VF.createIRI(NAMESPACE, "fetchSize");
     public static final IRI USE_ASYNCHRONOUS_PARALLEL_JOIN = VF.createIRI(FEDERATION_NAMESPACE,
             "useAsynchronousParallelJoin");
     public static final IRI USE_COMPETING_JOIN = VF.createIRI(FEDERATION_NAMESPACE, "useCompetingJoin");
@@ -0,0 +1,197 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+import com.metaphacts.security.PlatformTaskWrapper;
+
+/**
+ * Bind join iteration which evaluates blocks of the incoming bindings
+ * concurrently on a shared executor.
+ * 
+ * <p>
+ * The incoming bindings are consumed on the calling thread and split into
+ * blocks of at most <i>blockSize</i> bindings. Up to <i>maxParallelBlocks</i>
+ * blocks are evaluated at the same time, the results of each block are
+ * materialized on the worker thread. Results are returned in the order of the
+ * blocks. If the input fits into a single block it is evaluated lazily on the
+ * calling thread.
+ * </p>
+ * 
+ * <p>
+ * Blocks evaluated on a worker thread run sequentially, i.e. nested SERVICE
+ * clauses never wait for the executor they are running on.
+ * </p>
+ */
+class ParallelServiceIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+    /**
+     * Evaluates the SERVICE clause for a single block of bindings.
+     */
+    @FunctionalInterface
+    interface BlockEvaluator {
+        CloseableIteration<BindingSet, QueryEvaluationException> evaluate(List<BindingSet> block)
+                throws QueryEvaluationException;
+    }
+
+    private static final ThreadLocal<Boolean> workerThread = ThreadLocal.withInitial(() -> false);
+
+    private final CloseableIteration<BindingSet, QueryEvaluationException> bindings;
+    private final int blockSize;
+    private final int maxParallelBlocks;
+    private final ExecutorService executor;
+    private final BlockEvaluator evaluator;
+
+    private final Deque<Future<List<BindingSet>>> pending = new ArrayDeque<>();
+    private CloseableIteration<BindingSet, QueryEvaluationException> current = new EmptyIteration<>();
+
+    ParallelServiceIteration(CloseableIteration<BindingSet, QueryEvaluationException> bindings, int blockSize,
+            int maxParallelBlocks, ExecutorService executor, BlockEvaluator evaluator) {
+        this.bindings = bindings;
+        this.blockSize = Math.max(1, blockSize);
+        this.maxParallelBlocks = Math.max(1, maxParallelBlocks);
+        this.executor = executor;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * @return <code>true</code> if the current thread evaluates a block
+     */
+    static boolean isWorkerThread() {
+        return workerThread.get();
+    }
+
+    @Override
+    protected BindingSet getNextElement() throws QueryEvaluationException {
+        while (!current.hasNext()) {
+            current.close();
+            if (pending.isEmpty() && !scheduleBlocks(true)) {
+                return null;
+            }
+            if (!pending.isEmpty()) {
+                Future<List<BindingSet>> next = pending.poll();
+                scheduleBlocks(false);
+                current = new CloseableIteratorIteration<>(await(next).iterator());
+            }
+        }
+        return current.next();
+    }
+
+    /**
+     * Reads blocks from the incoming bindings until the maximum number of
+     * pending blocks is reached. If <i>evaluateDirectly</i> is set, a single
+     * remaining block without any pending blocks is evaluated directly as
+     * {@link #current} iteration.
+     * 
+     * @return <code>false</code> if there were no more bindings
+     */
+    private boolean scheduleBlocks(boolean evaluateDirectly) throws QueryEvaluationException {
+        if (!bindings.hasNext()) {
+            return false;
+        }
+        while (pending.size() < maxParallelBlocks && bindings.hasNext()) {
+            List<BindingSet> block = new ArrayList<>(blockSize);
+            while (block.size() < blockSize && bindings.hasNext()) {
+                block.add(bindings.next());
+            }
+            if (evaluateDirectly && pending.isEmpty() && !bindings.hasNext()) {
+                current = evaluator.evaluate(block);
+                return true;
+            }
+            Callable<List<BindingSet>> task = PlatformTaskWrapper.INSTANCE.wrap(() -> {
+                workerThread.set(true);
+                try {
+                    return Iterations.asList(evaluator.evaluate(block));
+                } finally {
+                    workerThread.remove();
+                }
+            });
+            pending.add(executor.submit(task));
+        }
+        return true;
+    }
+
+    private static List<BindingSet> await(Future<List<BindingSet>> future) throws QueryEvaluationException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryEvaluationException("Interrupted while evaluating SERVICE clause", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof QueryEvaluationException) {
+                throw (QueryEvaluationException) e.getCause();
+            }
+            throw new QueryEvaluationException(e.getCause());
+        }
+    }
+
+    @Override
+    protected void handleClose() throws QueryEvaluationException {
+        try {
+            for (Future<List<BindingSet>> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            current.close();
+        } finally {
+            try {
+                bindings.close();
+            } finally {
+                super.handleClose();
+            }
+        }
+    }
+}
@@ -40,12 +40,17 @@
 package com.metaphacts.repository;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.util.ThreadContext;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.common.iteration.EmptyIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
@@ -53,7 +58,11 @@
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.sparql.federation.RepositoryFederatedService;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.metaphacts.api.sparql.SparqlUtil.SparqlOperation;
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.groups.EnvironmentConfiguration;
 import com.metaphacts.security.PermissionUtil;
 
 /**
@@ -66,6 +75,18 @@
  * suppressed using the SILENT keyword, yielding to an empty result.
  * </p>
  * 
+ * <p>
+ * The permission decision is cached per {@link Service} node and subject, i.e.
+ * it is computed once per query rather than for every evaluation call.
+ * </p>
+ * 
+ * <p>
+ * If created with a {@link Configuration} and an executor, bind joins use the
+ * configured block size and evaluate several blocks concurrently, see
+ * {@link EnvironmentConfiguration#getFederatedServiceBoundJoinBlockSize()} and
+ * {@link EnvironmentConfiguration#getFederatedServiceParallelBlocks()}.
+ * </p>
+ * 
  * @author Andreas Schwarte
  * @see PermissionUtil#hasSparqlPermission(SparqlOperation, String)
  */
@@ -73,16 +94,52 @@ public class PlatformRepositoryFederatedService extends RepositoryFederatedServi
 
     private static final Logger logger = LogManager.getLogger(PlatformRepositoryFederatedService.class);
 
+    /**
+     * Upper bound for the lifetime of a cached permission decision, the
+     * decision is dropped together with the query model in any case.
+     */
+    private static final long PERMISSION_DECISION_TTL_SECONDS = 60;
+
     private final String repoId;
     private boolean requiresPermissionCheck = true;
 
+    @Nullable
+    private final Configuration config;
+    @Nullable
+    private final ExecutorService executor;
+
+    private final Cache<Service, PermissionDecision> permissionDecisions = CacheBuilder.newBuilder()
+            .weakKeys()
+            .expireAfterWrite(PERMISSION_DECISION_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
     public PlatformRepositoryFederatedService(Repository repo, String repoId) {
         this(repo, false, repoId); // managed repositories must not be shut down
     }
 
     public PlatformRepositoryFederatedService(Repository repo, boolean shutDown, String repoId) {
+        this(repo, shutDown, repoId, null, null);
+    }
+
+    /**
+     * Creates a service for a managed repository which evaluates bind join
+     * blocks concurrently on the given executor.
+     */
+    public PlatformRepositoryFederatedService(Repository repo, String repoId, Configuration config,
+            ExecutorService executor) {
+        this(repo, false, repoId, config, executor);
+    }
+
+    private PlatformRepositoryFederatedService(Repository repo, boolean shutDown, String repoId,
+            @Nullable Configuration config, @Nullable ExecutorService executor) {
         super(repo, shutDown);
         this.repoId = repoId;
+        this.config = config;
+        this.executor = executor;
+        if (executor != null) {
+            // blocks are evaluated concurrently, i.e. the connection cannot be shared
+            setUseFreshConnection(true);
+        }
     }
 
     @Override
@@ -121,7 +178,20 @@ public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Service
             }
             throw new QueryEvaluationException("Not permitted to access service repository " + repoId);
         }
-        return super.evaluate(service, bindings, baseUri);
+        if (config == null || executor == null) {
+            return super.evaluate(service, bindings, baseUri);
+        }
+        EnvironmentConfiguration envConfig = config.getEnvironmentConfig();
+        int blockSize = envConfig.getFederatedServiceBoundJoinBlockSize();
+        int parallelBlocks = envConfig.getFederatedServiceParallelBlocks();
+        if (blockSize <= 0 || parallelBlocks <= 1 || executor.isShutdown()
+                || ParallelServiceIteration.isWorkerThread()) {
+            setBoundJoinBlockSize(Math.max(0, blockSize));
+            return super.evaluate(service, bindings, baseUri);
+        }
+        return new ParallelServiceIteration(bindings, blockSize, parallelBlocks, executor,
+                block -> evaluateInternal(service, new CloseableIteratorIteration<>(block.iterator()),
+                        service.getBaseURI()));
     }
 
     public boolean isRequiresPermissionCheck() {
@@ -136,6 +206,17 @@ private boolean isPermitted(Service service) {
         if (!requiresPermissionCheck) {
             return true;
         }
+        Subject subject = ThreadContext.getSubject();
+        PermissionDecision decision = permissionDecisions.getIfPresent(service);
+        if (decision != null && decision.subject == subject) {
+            return decision.permitted;
+        }
+        boolean permitted = checkPermission(service);
+        permissionDecisions.put(service, new PermissionDecision(subject, permitted));
+        return permitted;
+    }
+
+    private boolean checkPermission(Service service) {
 
         // handle cases where subject is not authenticated (e.g. background thread)
         if (ThreadContext.getSubject() == null) {
@@ -151,4 +232,15 @@ private boolean isPermitted(Service service) {
         return PermissionUtil.hasSparqlPermission(SparqlOperation.SELECT, repoId);
     }
 
+    private static class PermissionDecision {
+        @Nullable
+        final Subject subject;
+        final boolean permitted;
+
+        PermissionDecision(@Nullable Subject subject, boolean permitted) {
+            this.subject = subject;
+            this.permitted = permitted;
+        }
+    }
+
 }
@@ -39,6 +39,10 @@
  */
 package com.metaphacts.repository;
 
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
@@ -46,6 +50,8 @@
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
 import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.metaphacts.config.Configuration;
 import com.metaphacts.config.NamespaceRegistry;
 
 /**
@@ -59,6 +65,11 @@
  * Note that we use the registered
  * {@link NamespaceRegistry#DFLT_REPOSITORY_NAMESPACE} namespace.
  * </p>
+ * <p>
+ * The resolver owns the executor shared by all
+ * {@link PlatformRepositoryFederatedService}s for the concurrent evaluation of
+ * bind join blocks (see <i>federatedServiceThreads</i>).
+ * </p>
  * 
  * 
  * @author Andreas Schwarte
@@ -71,10 +82,18 @@ public class PlatformRepositoryFederatedServiceResolver extends SPARQLServiceRes
 
     private final RepositoryManager repositoryManager;
 
+    private final Configuration config;
 
-    PlatformRepositoryFederatedServiceResolver(RepositoryManager repositoryManager) {
+    private final ThreadPoolExecutor executor;
+
+    PlatformRepositoryFederatedServiceResolver(RepositoryManager repositoryManager, Configuration config) {
         super();
         this.repositoryManager = repositoryManager;
+        this.config = config;
+        int threads = Math.max(1, config.getEnvironmentConfig().getFederatedServiceThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("federated-service-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
     }
 
     @Override
@@ -85,7 +104,8 @@ protected FederatedService createService(String serviceUrl) throws QueryEvaluati
             String repoId = serviceUrl.substring(NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE.length());
             logger.trace("Create repository federated service for managed repository: " + repoId);
             try {
-                return new PlatformRepositoryFederatedService(repositoryManager.getRepository(repoId), repoId);
+                return new PlatformRepositoryFederatedService(repositoryManager.getRepository(repoId), repoId,
+                        config, executor);
             } catch (Exception e) {
                 throw new QueryEvaluationException("Could not resolve repository " + repoId + ": " + e.getMessage(), e);
             }
@@ -94,4 +114,9 @@ protected FederatedService createService(String serviceUrl) throws QueryEvaluati
         return super.createService(serviceUrl);
     }
 
+    @Override
+    public void shutDown() {
+        super.shutDown();
+        executor.shutdownNow();
+    }
 }
@@ -90,6 +90,8 @@
 import com.metaphacts.config.groups.EnvironmentConfiguration;
 import com.metaphacts.data.rdf.container.LDPApiInternalRegistry;
 import com.metaphacts.di.SubsystemLifecycle;
+import com.metaphacts.federation.sparql.optimizers.ServiceStatisticsEvaluationStrategyFactory;
+import com.metaphacts.federation.statistics.ServiceStatisticsCollector;
 import com.metaphacts.repository.memory.MpMemoryRepository;
 import com.metaphacts.repository.memory.MpMemoryRepositoryImplConfig;
 import com.metaphacts.repository.sparql.DefaultMpSPARQLRepositoryFactory;
@@ -143,6 +145,7 @@ public class RepositoryManager implements RepositoryManagerInterface, SubsystemL
     private final MpSharedHttpClientSessionManager client;
     private final WeakReference<Thread> hookReference;
     private final PlatformRepositoryFederatedServiceResolver platformRepositoryResolver;
+    private final ServiceStatisticsCollector serviceStatisticsCollector;
 
     // Removed the common serviceResolver as some repositories might have their own specific resolvers:
     // e.g., to make some repositories accessible via a SERVICE clause and some other ones hidden.
@@ -186,7 +189,11 @@ public RepositoryManager(
         File baseDataFolder = new File(Configuration.getRuntimeDirectory(), "data");
         this.repositoryDataFolder = new File(baseDataFolder, "repositories");
         this.client = new MpSharedHttpClientSessionManager(config);
-        this.platformRepositoryResolver = new PlatformRepositoryFederatedServiceResolver(this);
+        this.platformRepositoryResolver = new PlatformRepositoryFederatedServiceResolver(this, config);
+        this.serviceStatisticsCollector = new ServiceStatisticsCollector(this, config, platformStorage);
+        // statistics collected before a write through the platform are not used for pruning
+        this.cacheManager.deregister(ServiceStatisticsCollector.CACHE_ID);
+        this.cacheManager.register(serviceStatisticsCollector);
 
         this.hookReference = new WeakReference<>(addShutdownHook(this));
     }
@@ -208,6 +215,8 @@ private void init() throws IOException {
         }
 
         logger.info("Linked default repository for all default DB operations is '{}'", getLinkedDefaultRepositoryID());
+
+        serviceStatisticsCollector.start();
     }
 
     public ObjectStorage getDefaultConfigStorage() {
@@ -541,6 +550,8 @@ protected synchronized Repository createRepositoryStack(RepositoryImplConfig rep
 
         if (repository instanceof SailRepository) {
             injector.injectMembers(((SailRepository)repository).getSail());
+            ServiceStatisticsEvaluationStrategyFactory.install(((SailRepository) repository).getSail(),
+                    serviceStatisticsCollector::getStatistics);
         }
 
         if (repository instanceof RepositoryResolverClient) {
@@ -583,6 +594,7 @@ private synchronized void shutdown(boolean unregisterShutdownHook) {
         initializedRepositories.clear();
         
         platformRepositoryResolver.shutDown();
+        serviceStatisticsCollector.shutDown();
 
         if (unregisterShutdownHook) {
             // unregister shutdown hook as everything is done
@@ -796,6 +808,14 @@ public String getRepositoryID(Repository repository){
         );
     }
 
+    /**
+     * @return the collector of cardinality statistics for repositories referenced
+     *         in <i>SERVICE</i> clauses
+     */
+    public ServiceStatisticsCollector getServiceStatisticsCollector() {
+        return serviceStatisticsCollector;
+    }
+
     public MpSharedHttpClientSessionManager getClientSessionManager() {
         return this.client;
     }
@@ -0,0 +1,196 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository.sparql;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Partitions the shared HTTP connection pool of SPARQL repositories per
+ * endpoint (i.e. route) and records {@link HttpEndpointStatistics} for each of
+ * them.
+ * <p>
+ * The connection limit of an endpoint is applied when the first request to it
+ * is sent. It is taken from the endpoint specific limits (matched by
+ * <code>host:port</code> or <code>host</code>) or defaults to the limit per
+ * endpoint of the connection manager.
+ * </p>
+ * <p>
+ * The monitor is attached to an <code>HttpClientBuilder</code> with the
+ * interceptors and the retry handler provided by this class.
+ * </p>
+ */
+public class HttpEndpointMonitor {
+
+    private static final Logger logger = LogManager.getLogger(HttpEndpointMonitor.class);
+
+    private static final String START_ATTRIBUTE = HttpEndpointMonitor.class.getName() + ".start";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Map<String, Integer> endpointLimits;
+    private final Map<HttpRoute, HttpEndpointStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectionManager the connection manager of the monitored client
+     * @param endpointLimits    endpoint specific connection limits, keyed by
+     *                          <code>host:port</code> or <code>host</code>
+     */
+    public HttpEndpointMonitor(PoolingHttpClientConnectionManager connectionManager,
+            Map<String, Integer> endpointLimits) {
+        this.connectionManager = connectionManager;
+        this.endpointLimits = endpointLimits;
+    }
+
+    /**
+     * Parses endpoint specific limits given as <code>host=limit</code> or
+     * <code>host:port=limit</code> entries. Invalid entries are ignored with a
+     * warning.
+     */
+    public static Map<String, Integer> parseEndpointLimits(List<String> entries) {
+        Map<String, Integer> limits = new HashMap<>();
+        for (String entry : entries) {
+            int separator = entry.lastIndexOf('=');
+            try {
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("missing '='");
+                }
+                int limit = Integer.parseInt(entry.substring(separator + 1).trim());
+                if (limit <= 0) {
+                    throw new IllegalArgumentException("limit must be positive");
+                }
+                limits.put(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT), limit);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid endpoint connection limit '{}': {}", entry, e.getMessage());
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Interceptor to be added first to the request processing chain. Registers
+     * the endpoint and starts the latency measurement.
+     */
+    public HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> {
+            HttpRoute route = getRoute(context);
+            if (route != null) {
+                getOrCreateStatistics(route);
+                context.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            }
+        };
+    }
+
+    /**
+     * Interceptor to be added last to the response processing chain. Records
+     * latency and status of the response.
+     */
+    public HttpResponseInterceptor responseInterceptor() {
+        return (response, context) -> {
+            Object start = context.getAttribute(START_ATTRIBUTE);
+            HttpRoute route = getRoute(context);
+            if (start instanceof Long && route != null) {
+                getOrCreateStatistics(route).recordResponse(System.nanoTime() - (Long) start,
+                        response.getStatusLine().getStatusCode());
+            }
+        };
+    }
+
+    /**
+     * Wraps the retry handler to count I/O errors per endpoint.
+     */
+    public HttpRequestRetryHandler retryHandler(HttpRequestRetryHandler delegate) {
+        return (IOException exception, int executionCount, HttpContext context) -> {
+            HttpRoute route = getRoute(context);
+            if (route != null) {
+                getOrCreateStatistics(route).recordIoError();
+            }
+            return delegate.retryRequest(exception, executionCount, context);
+        };
+    }
+
+    /**
+     * Returns the statistics of all endpoints requested so far, keyed by
+     * endpoint (scheme, host and port).
+     */
+    public Map<String, HttpEndpointStatistics> getStatistics() {
+        Map<String, HttpEndpointStatistics> result = new TreeMap<>();
+        statistics.values().forEach(stats -> result.put(stats.getEndpoint(), stats));
+        return result;
+    }
+
+    private static HttpRoute getRoute(HttpContext context) {
+        Object route = context.getAttribute(HttpClientContext.HTTP_ROUTE);
+        return route instanceof HttpRoute ? (HttpRoute) route : null;
+    }
+
+    private HttpEndpointStatistics getOrCreateStatistics(HttpRoute route) {
+        return statistics.computeIfAbsent(route, r -> {
+            Integer limit = getEndpointLimit(r.getTargetHost());
+            if (limit != null) {
+                connectionManager.setMaxPerRoute(r, limit);
+            }
+            logger.debug("Connection limit for SPARQL endpoint {}: {}", r.getTargetHost(),
+                    connectionManager.getMaxPerRoute(r));
+            return new HttpEndpointStatistics(r, connectionManager);
+        });
+    }
+
+    private Integer getEndpointLimit(HttpHost target) {
+        String host = target.getHostName().toLowerCase(Locale.ROOT);
+        Integer limit = endpointLimits.get(host + ":" + target.getPort());
+        return limit != null ? limit : endpointLimits.get(host);
+    }
+}
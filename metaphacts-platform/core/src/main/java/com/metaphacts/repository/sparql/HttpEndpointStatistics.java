@@ -0,0 +1,229 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository.sparql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Connection pool state and request counters of a single HTTP endpoint (i.e.
+ * route) used by SPARQL repositories, see {@link HttpEndpointMonitor}.
+ *
+ * <p>
+ * The latency of a request is the time until the response headers were
+ * received, i.e. it does not include reading the response body. Requests
+ * which failed with an I/O error (e.g. a timeout) are counted as I/O errors
+ * only.
+ * </p>
+ */
+public class HttpEndpointStatistics {
+
+    /**
+     * Upper bounds (in milliseconds) of the latency histogram buckets. The last
+     * bucket counts all larger latencies.
+     */
+    static final long[] LATENCY_BUCKETS_MILLIS = { 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+    private final HttpRoute route;
+    private final ConnPoolControl<HttpRoute> pool;
+
+    final LongAdder requests = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder ioErrors = new LongAdder();
+    final LongAdder latencyNanos = new LongAdder();
+    final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKETS_MILLIS.length + 1];
+
+    HttpEndpointStatistics(HttpRoute route, ConnPoolControl<HttpRoute> pool) {
+        this.route = route;
+        this.pool = pool;
+        for (int i = 0; i < latencyBuckets.length; i++) {
+            latencyBuckets[i] = new LongAdder();
+        }
+    }
+
+    void recordResponse(long nanos, int statusCode) {
+        requests.increment();
+        if (statusCode >= 400) {
+            errors.increment();
+        }
+        latencyNanos.add(nanos);
+        maxLatencyNanos.accumulate(nanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MILLIS.length && millis > LATENCY_BUCKETS_MILLIS[bucket]) {
+            bucket++;
+        }
+        latencyBuckets[bucket].increment();
+    }
+
+    void recordIoError() {
+        ioErrors.increment();
+    }
+
+    /**
+     * Get the endpoint as scheme, host and port, e.g.
+     * <code>https://query.wikidata.org:443</code>.
+     *
+     * @return the endpoint
+     */
+    public String getEndpoint() {
+        return route.getTargetHost().toURI();
+    }
+
+    /**
+     * Get number of connections currently in use.
+     *
+     * @return number of leased connections
+     */
+    public int getLeasedConnections() {
+        return getPoolStats().getLeased();
+    }
+
+    /**
+     * Get number of idle connections kept for reuse.
+     *
+     * @return number of available connections
+     */
+    public int getAvailableConnections() {
+        return getPoolStats().getAvailable();
+    }
+
+    /**
+     * Get number of requests waiting for a connection.
+     *
+     * @return number of pending connection requests
+     */
+    public int getPendingConnections() {
+        return getPoolStats().getPending();
+    }
+
+    /**
+     * Get the maximum number of connections to this endpoint.
+     *
+     * @return the connection limit
+     */
+    public int getMaxConnections() {
+        return getPoolStats().getMax();
+    }
+
+    /**
+     * Get number of requests for which a response was received.
+     *
+     * @return number of requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Get number of responses with an error status (4xx or 5xx).
+     *
+     * @return number of error responses
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Get number of requests which failed without a response, e.g. because of a
+     * timeout or a refused connection.
+     *
+     * @return number of I/O errors
+     */
+    public long getIoErrors() {
+        return ioErrors.sum();
+    }
+
+    /**
+     * Get the average latency in milliseconds.
+     *
+     * @return average latency in milliseconds, 0 if there were no requests
+     */
+    public long getAverageLatencyMillis() {
+        long count = requests.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latencyNanos.sum() / count);
+    }
+
+    /**
+     * Get the maximum latency in milliseconds.
+     *
+     * @return maximum latency in milliseconds
+     */
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    /**
+     * Get the latency histogram as number of requests per bucket, keyed by the
+     * upper bound of the bucket (e.g. <code>&lt;=100ms</code>).
+     *
+     * @return the latency histogram
+     */
+    public Map<String, Long> getLatencyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            histogram.put("<=" + LATENCY_BUCKETS_MILLIS[i] + "ms", latencyBuckets[i].sum());
+        }
+        histogram.put(">" + LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 1] + "ms",
+                latencyBuckets[LATENCY_BUCKETS_MILLIS.length].sum());
+        return histogram;
+    }
+
+    private PoolStats getPoolStats() {
+        return pool.getStats(route);
+    }
+
+    @Override
+    public String toString() {
+        return "HttpEndpointStatistics [endpoint=" + getEndpoint() + ", leased=" + getLeasedConnections()
+                + ", available=" + getAvailableConnections() + ", pending=" + getPendingConnections() + ", max="
+                + getMaxConnections() + ", requests=" + getRequests() + ", errors=" + getErrors() + ", ioErrors="
+                + getIoErrors() + ", avgMillis=" + getAverageLatencyMillis() + ", maxMillis="
+                + getMaxLatencyMillis() + "]";
+    }
+}
@@ -39,10 +39,12 @@
  */
 package com.metaphacts.repository.sparql;
 
+import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.AuthCache;
@@ -55,10 +57,14 @@
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.RDF4JException;
 import org.eclipse.rdf4j.http.client.SPARQLProtocolSession;
 import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserRegistry;
+
 
 
 
@@ -71,6 +77,13 @@
 public class MpSPARQLProtocolSession extends SPARQLProtocolSession {
     private static final Logger logger = LogManager.getLogger(MpSPARQLProtocolSession.class);
 
+    /**
+     * Response header by which platform SPARQL endpoints announce support for
+     * the compact binary tuple query result format
+     * ({@link TupleQueryResultFormat#BINARY}).
+     */
+    public static final String HEADER_MPH_BINARY_RESULTS = "MPH-BinaryResults";
+
 
     /**
      * If set, the function is used to modify the HTTP request as part of
@@ -86,6 +99,12 @@ public class MpSPARQLProtocolSession extends SPARQLProtocolSession {
      */
     protected Function<HttpUriRequest, HttpUriRequest> httpRequestModifyFunction = null;
 
+    /**
+     * If set, invoked once the endpoint announces support for binary tuple
+     * query results, see {@link #HEADER_MPH_BINARY_RESULTS}.
+     */
+    protected Runnable binaryResultsListener = null;
+
     public MpSPARQLProtocolSession(HttpClient client, ExecutorService executor) {
         super(client, executor);
     }
@@ -144,6 +163,33 @@ public void setRequestModifier(Function<HttpUriRequest, HttpUriRequest> requestM
         this.httpRequestModifyFunction = requestModifier;
     }
 
+    /**
+     * Optionally set a listener which is invoked once the endpoint announces
+     * support for binary tuple query results. Subsequent queries of this session
+     * prefer the binary format in any case.
+     * 
+     * @param listener
+     */
+    public void setBinaryResultsListener(Runnable listener) {
+        this.binaryResultsListener = listener;
+    }
+
+    @Override
+    protected HttpResponse execute(HttpUriRequest method) throws IOException, RDF4JException {
+        HttpResponse response = super.execute(method);
+        if (response.containsHeader(HEADER_MPH_BINARY_RESULTS)
+                && getPreferredTupleQueryResultFormat() != TupleQueryResultFormat.BINARY
+                && TupleQueryResultParserRegistry.getInstance().has(TupleQueryResultFormat.BINARY)) {
+            logger.debug("Endpoint {} supports binary results, preferring them for subsequent queries.",
+                    getQueryURL());
+            setPreferredTupleQueryResultFormat(TupleQueryResultFormat.BINARY);
+            if (binaryResultsListener != null) {
+                binaryResultsListener.run();
+            }
+        }
+        return response;
+    }
+
     @Override
     protected void setQueryURL(String queryURL) {
         super.setQueryURL(queryURL);
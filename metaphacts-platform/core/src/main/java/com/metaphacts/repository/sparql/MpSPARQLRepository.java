@@ -53,6 +53,12 @@
  */
 public class MpSPARQLRepository extends SPARQLRepository {
 
+    /**
+     * Whether the endpoint is known to support binary tuple query results, e.g.
+     * because it is another platform instance.
+     */
+    private volatile boolean preferBinaryResults = false;
+
     public MpSPARQLRepository(String endpointUrl) {
         super(endpointUrl);
     }
@@ -69,8 +75,24 @@ protected SPARQLProtocolSession createHTTPClient() {
          * means we can't set our own preference in MpSharedHttpClientSesionManager. Instead, as a workaround, we
          * override RDF4J's default initialization behavior here. See also https://github.com/eclipse/rdf4j/issues/2267.
          */
-        protocolSession.setPreferredTupleQueryResultFormat(TupleQueryResultFormat.JSON);
+        protocolSession.setPreferredTupleQueryResultFormat(
+                preferBinaryResults ? TupleQueryResultFormat.BINARY : TupleQueryResultFormat.JSON);
+        if (protocolSession instanceof MpSPARQLProtocolSession) {
+            // platform endpoints announce support for binary results, remember for subsequent connections
+            ((MpSPARQLProtocolSession) protocolSession).setBinaryResultsListener(() -> preferBinaryResults = true);
+        }
         return protocolSession;
     }
 
+    /**
+     * Sets whether the compact binary tuple query result format is to be
+     * preferred. This is detected automatically for endpoints of other platform
+     * instances.
+     * 
+     * @param preferBinaryResults
+     */
+    public void setPreferBinaryResults(boolean preferBinaryResults) {
+        this.preferBinaryResults = preferBinaryResults;
+    }
+
 }
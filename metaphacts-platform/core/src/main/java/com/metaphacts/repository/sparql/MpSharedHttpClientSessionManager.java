@@ -39,9 +39,15 @@
  */
 package com.metaphacts.repository.sparql;
 
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.eclipse.rdf4j.http.client.SharedHttpClientSessionManager;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
 
@@ -55,12 +61,18 @@
 public class MpSharedHttpClientSessionManager extends SharedHttpClientSessionManager {
     
     private final Configuration config;
+
+    private final HttpEndpointMonitor endpointMonitor;
     
     public MpSharedHttpClientSessionManager(Configuration config) {
         this.config = config;
         Integer maxConnections = this.config.getEnvironmentConfig().getMaxSparqlHttpConnections();
+        Integer maxConnectionsPerEndpoint = this.config.getEnvironmentConfig()
+                                            .getMaxSparqlHttpConnectionsPerEndpoint();
         Integer connectionTimeout = this.config.getEnvironmentConfig()
                                             .getSparqlHttpConnectionTimeout();
+        long idleTimeout = this.config.getEnvironmentConfig().getSparqlHttpIdleConnectionTimeout();
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(this.config.getEnvironmentConfig().getSparqlHttpKeepAlive());
         
         RequestConfig.Builder configBuilder = RequestConfig.custom();
         if (connectionTimeout != null) {
@@ -69,16 +81,47 @@ public MpSharedHttpClientSessionManager(Configuration config) {
         }
         configBuilder.setCookieSpec(CookieSpecs.STANDARD);
 
+        // the pool is shared by all SPARQL repositories, endpoint specific limits
+        // are applied by the monitor once an endpoint is first requested
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(Math.min(maxConnectionsPerEndpoint, maxConnections));
+        Map<String, Integer> endpointLimits = HttpEndpointMonitor
+                .parseEndpointLimits(this.config.getEnvironmentConfig().getSparqlHttpEndpointConnections());
+        this.endpointMonitor = new HttpEndpointMonitor(connectionManager, endpointLimits);
+
         RequestConfig requestConfig = configBuilder.build();
         HttpClientBuilder mpHttpClientBuilder = HttpClientBuilder
                                                     .create()
-                                                    .setMaxConnPerRoute(maxConnections)
-                                                    .setMaxConnTotal(maxConnections)
-                                                    .setDefaultRequestConfig(requestConfig);
+                                                    .setConnectionManager(connectionManager)
+                                                    .setDefaultRequestConfig(requestConfig)
+                                                    .setKeepAliveStrategy((response, context) -> {
+                                                        // prefer the keep-alive timeout announced by the endpoint
+                                                        long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                                                                .getKeepAliveDuration(response, context);
+                                                        return keepAlive > 0 ? keepAlive : keepAliveMillis;
+                                                    })
+                                                    .evictExpiredConnections()
+                                                    .evictIdleConnections(idleTimeout, TimeUnit.SECONDS)
+                                                    .addInterceptorFirst(endpointMonitor.requestInterceptor())
+                                                    .addInterceptorLast(endpointMonitor.responseInterceptor())
+                                                    .setRetryHandler(endpointMonitor
+                                                            .retryHandler(DefaultHttpRequestRetryHandler.INSTANCE));
+        if (!this.config.getEnvironmentConfig().isSparqlHttpCompression()) {
+            mpHttpClientBuilder.disableContentCompression();
+        }
         
         this.setHttpClientBuilder(mpHttpClientBuilder);
     }
 
+    /**
+     * Returns connection pool state and request statistics of all SPARQL
+     * endpoints requested so far, keyed by endpoint (scheme, host and port).
+     */
+    public Map<String, HttpEndpointStatistics> getEndpointStatistics() {
+        return endpointMonitor.getStatistics();
+    }
+
     @Override
     public MpSPARQLProtocolSession createSPARQLProtocolSession(String queryEndpointUrl, String updateEndpointUrl) {
         MpSPARQLProtocolSession session = new MpSPARQLProtocolSession(getHttpClient(), getExecutorService());
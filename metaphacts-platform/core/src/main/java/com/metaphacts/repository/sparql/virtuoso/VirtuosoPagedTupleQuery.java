@@ -0,0 +1,271 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository.sparql.virtuoso;
+
+import static org.eclipse.rdf4j.query.QueryLanguage.SPARQL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.TupleQueryResultHandler;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.impl.AbstractQuery;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+import com.metaphacts.util.QueryUtil;
+
+/**
+ * A {@link TupleQuery} for a {@link VirtuosoWrapperRepository} which fetches
+ * the result in pages of a configurable size.
+ * <p>
+ * Virtuoso silently truncates results of SELECT queries to the
+ * <code>ResultSetMaxRows</code> configured for the endpoint. This query sends
+ * consecutive <code>LIMIT/OFFSET</code> slices of the original query, each one
+ * below that maximum, and streams the combined result. A page is only
+ * requested once the previous one is consumed, and paging stops with the first
+ * page which is not full (or once the <code>LIMIT</code> of the original query
+ * is reached).
+ * </p>
+ * <p>
+ * Pages are derived from the original query string by replacing its trailing
+ * <code>LIMIT/OFFSET</code>. Only if this is not possible (e.g. for a query
+ * with a trailing <code>VALUES</code> clause) the page is rendered from the
+ * parsed algebra, which may not reproduce every construct of the original
+ * query.
+ * </p>
+ * <p>
+ * Note that pages are only guaranteed to be consistent if the query defines an
+ * <code>ORDER BY</code>.
+ * </p>
+ */
+public class VirtuosoPagedTupleQuery extends AbstractQuery implements TupleQuery {
+
+    private static final Logger logger = LogManager.getLogger(VirtuosoPagedTupleQuery.class);
+
+    /**
+     * The <code>LIMIT</code> and/or <code>OFFSET</code> at the end of a query
+     */
+    private static final Pattern TRAILING_SLICE = Pattern.compile(
+            "\\s(?:LIMIT|OFFSET)\\s+\\d+(?:\\s+(?:LIMIT|OFFSET)\\s+\\d+)?\\s*$", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * A <code>VALUES</code> clause may follow the solution modifiers of a query
+     */
+    private static final Pattern VALUES = Pattern.compile("\\bVALUES\\b", Pattern.CASE_INSENSITIVE);
+
+    protected final RepositoryConnection delegate;
+    protected final ParsedTupleQuery parsedQuery;
+    protected final String baseURI;
+    protected final int fetchSize;
+
+    /**
+     * The query without its top-level slice
+     */
+    private final TupleExpr unsliced;
+    /**
+     * The query string without its top-level slice, <code>null</code> if it
+     * cannot be derived from the original query string
+     */
+    private final String unslicedQueryString;
+    private final long offset;
+    private final long limit;
+
+    public VirtuosoPagedTupleQuery(RepositoryConnection delegate, ParsedTupleQuery parsedQuery, String baseURI,
+            int fetchSize) {
+        this.delegate = delegate;
+        this.parsedQuery = parsedQuery;
+        this.baseURI = baseURI;
+        this.fetchSize = fetchSize;
+
+        TupleExpr expr = parsedQuery.getTupleExpr();
+        if (expr instanceof Slice) {
+            Slice slice = (Slice) expr;
+            this.unsliced = slice.getArg();
+            this.offset = slice.hasOffset() ? slice.getOffset() : 0;
+            this.limit = slice.hasLimit() ? slice.getLimit() : -1;
+        } else {
+            this.unsliced = expr;
+            this.offset = 0;
+            this.limit = -1;
+        }
+        this.unslicedQueryString = stripSlice(parsedQuery.getSourceString(), expr instanceof Slice);
+    }
+
+    /**
+     * Removes the trailing <code>LIMIT/OFFSET</code> from the query string.
+     * 
+     * @return the query string without slice or <code>null</code> if
+     *         <code>LIMIT/OFFSET</code> cannot be safely appended to it
+     */
+    private static String stripSlice(String queryString, boolean sliced) {
+        if (queryString == null || VALUES.matcher(queryString).find()) {
+            return null;
+        }
+        if (!sliced) {
+            return queryString;
+        }
+        Matcher matcher = TRAILING_SLICE.matcher(queryString);
+        return matcher.find() ? queryString.substring(0, matcher.start()) : null;
+    }
+
+    /**
+     * Returns <code>true</code> if the result of the query may exceed the fetch
+     * size, i.e. if it has no <code>LIMIT</code> or a larger one.
+     */
+    public static boolean requiresPaging(ParsedTupleQuery parsedQuery, int fetchSize) {
+        TupleExpr expr = parsedQuery.getTupleExpr();
+        if (expr instanceof Slice && ((Slice) expr).hasLimit()) {
+            return ((Slice) expr).getLimit() > fetchSize;
+        }
+        return true;
+    }
+
+    @Override
+    public TupleQueryResult evaluate() throws QueryEvaluationException {
+        PagingIteration pages = new PagingIteration();
+        return new IteratingTupleQueryResult(pages.getBindingNames(), pages);
+    }
+
+    @Override
+    public void evaluate(TupleQueryResultHandler handler)
+            throws QueryEvaluationException, TupleQueryResultHandlerException {
+        QueryResults.report(evaluate(), handler);
+    }
+
+    /**
+     * Renders the query string of the page starting at the given row (relative
+     * to the offset of the original query).
+     */
+    protected String getPageQueryString(long start, long pageLimit) throws Exception {
+        if (unslicedQueryString != null) {
+            // line break terminates a trailing comment
+            return unslicedQueryString + "\nLIMIT " + pageLimit + " OFFSET " + (offset + start);
+        }
+        ParsedTupleQuery page = new ParsedTupleQuery(new Slice(unsliced.clone(), offset + start, pageLimit));
+        page.setDataset(parsedQuery.getDataset());
+        return QueryUtil.toSPARQL(page);
+    }
+
+    private TupleQueryResult evaluatePage(long start, long pageLimit) {
+        String pageQuery;
+        try {
+            pageQuery = getPageQueryString(start, pageLimit);
+        } catch (Exception e) {
+            throw new QueryEvaluationException("Failed to render page of query: " + e.getMessage(), e);
+        }
+        logger.trace("Fetching page of {} rows starting at {}: {}", pageLimit, offset + start, pageQuery);
+        TupleQuery query = delegate.prepareTupleQuery(SPARQL, pageQuery, baseURI);
+        for (Binding binding : getBindings()) {
+            query.setBinding(binding.getName(), binding.getValue());
+        }
+        if (getDataset() != null) {
+            query.setDataset(getDataset());
+        }
+        query.setIncludeInferred(getIncludeInferred());
+        query.setMaxExecutionTime(getMaxExecutionTime());
+        return query.evaluate();
+    }
+
+    private class PagingIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+        private TupleQueryResult page;
+        private long pageLimit;
+        private long rowsInPage;
+        private long delivered;
+
+        PagingIteration() {
+            nextPage();
+        }
+
+        List<String> getBindingNames() {
+            return new ArrayList<>(page.getBindingNames());
+        }
+
+        private void nextPage() {
+            pageLimit = limit < 0 ? fetchSize : Math.min(fetchSize, limit - delivered);
+            rowsInPage = 0;
+            page = evaluatePage(delivered, pageLimit);
+        }
+
+        @Override
+        protected BindingSet getNextElement() throws QueryEvaluationException {
+            while (page != null) {
+                if (page.hasNext()) {
+                    rowsInPage++;
+                    delivered++;
+                    return page.next();
+                }
+                page.close();
+                page = null;
+                boolean exhausted = rowsInPage < pageLimit || (limit >= 0 && delivered >= limit);
+                if (!exhausted) {
+                    nextPage();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected void handleClose() throws QueryEvaluationException {
+            try {
+                if (page != null) {
+                    page.close();
+                    page = null;
+                }
+            } finally {
+                super.handleClose();
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository.sparql.virtuoso;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLQueries;
+
+/**
+ * Collects added and removed statements and turns them into a sequence of
+ * <code>INSERT DATA</code> and <code>DELETE DATA</code> requests.
+ * <p>
+ * Consecutive operations of the same kind are grouped into one request until
+ * either the maximum number of statements or the maximum request length is
+ * reached, such that requests stay below the limits of the Virtuoso SPARQL
+ * endpoint. The order of operations is retained, i.e. a remove following an
+ * add is sent after the add.
+ * </p>
+ * <p>
+ * Instances are not thread-safe, they are meant to be owned by a single
+ * connection.
+ * </p>
+ */
+public class VirtuosoUpdateBatch {
+
+    private enum Kind {
+        INSERT, DELETE
+    }
+
+    private final int maxStatements;
+    private final int maxRequestLength;
+
+    private final List<String> requests = new ArrayList<>();
+
+    private Kind currentKind;
+    /**
+     * Serialized triples of the current request grouped by context, the
+     * <code>null</code> key holds the triples of the default graph.
+     */
+    private final Map<Resource, StringBuilder> currentTriples = new LinkedHashMap<>();
+    private int currentStatements;
+    private int currentLength;
+
+    /**
+     * @param maxStatements    the maximum number of statements per request
+     * @param maxRequestLength the maximum length (in characters) of a request.
+     *                         A single statement exceeding this length is still
+     *                         sent, in a request of its own.
+     */
+    public VirtuosoUpdateBatch(int maxStatements, int maxRequestLength) {
+        if (maxStatements <= 0) {
+            throw new IllegalArgumentException("The maximum number of statements must be positive.");
+        }
+        this.maxStatements = maxStatements;
+        this.maxRequestLength = maxRequestLength;
+    }
+
+    public void add(Statement st, Resource... contexts) {
+        append(Kind.INSERT, st, contexts);
+    }
+
+    public void remove(Statement st, Resource... contexts) {
+        append(Kind.DELETE, st, contexts);
+    }
+
+    /**
+     * Appends an arbitrary update request (e.g. a <code>DELETE WHERE</code> for
+     * a pattern) after all operations collected so far.
+     */
+    public void addUpdate(String update) {
+        closeRequest();
+        requests.add(update);
+    }
+
+    /**
+     * @return <code>true</code> if no operations are pending
+     */
+    public boolean isEmpty() {
+        return requests.isEmpty() && currentStatements == 0;
+    }
+
+    /**
+     * Returns the pending requests in order and resets this batch.
+     */
+    public List<String> drain() {
+        closeRequest();
+        List<String> result = new ArrayList<>(requests);
+        requests.clear();
+        return result;
+    }
+
+    /**
+     * Discards all pending operations.
+     */
+    public void clear() {
+        requests.clear();
+        resetRequest();
+    }
+
+    private void append(Kind kind, Statement st, Resource... contexts) {
+        if (contexts == null || contexts.length == 0) {
+            append(kind, st.getContext(), st);
+        } else {
+            for (Resource context : contexts) {
+                append(kind, context, st);
+            }
+        }
+    }
+
+    private void append(Kind kind, Resource context, Statement st) {
+        StringBuilder triple = new StringBuilder(128);
+        appendValue(triple, st.getSubject()).append(' ');
+        appendValue(triple, st.getPredicate()).append(' ');
+        appendValue(triple, st.getObject()).append(" .\n");
+
+        // graph clauses are accounted with a fixed overhead
+        int length = triple.length() + (currentTriples.containsKey(context) ? 0 : graphClauseLength(context));
+        if (currentKind != kind || currentStatements >= maxStatements
+                || (currentStatements > 0 && currentLength + length > maxRequestLength)) {
+            closeRequest();
+            currentKind = kind;
+            length = triple.length() + graphClauseLength(context);
+        }
+        currentTriples.computeIfAbsent(context, c -> new StringBuilder()).append(triple);
+        currentStatements++;
+        currentLength += length;
+    }
+
+    private void closeRequest() {
+        if (currentStatements == 0) {
+            return;
+        }
+        StringBuilder request = new StringBuilder(currentLength + 32);
+        request.append(currentKind == Kind.INSERT ? "INSERT DATA {\n" : "DELETE DATA {\n");
+        for (Map.Entry<Resource, StringBuilder> entry : currentTriples.entrySet()) {
+            if (entry.getKey() == null) {
+                request.append(entry.getValue());
+            } else {
+                request.append("GRAPH ");
+                appendValue(request, entry.getKey()).append(" {\n").append(entry.getValue()).append("}\n");
+            }
+        }
+        request.append('}');
+        requests.add(request.toString());
+        resetRequest();
+    }
+
+    private void resetRequest() {
+        currentKind = null;
+        currentTriples.clear();
+        currentStatements = 0;
+        currentLength = 0;
+    }
+
+    private static int graphClauseLength(Resource context) {
+        return context == null ? 0 : context.stringValue().length() + 14;
+    }
+
+    /**
+     * Appends the SPARQL representation of the value. Blank nodes are written
+     * with their identifier, consistent with the RDF4J
+     * <code>SPARQLConnection</code>.
+     */
+    static StringBuilder appendValue(StringBuilder sb, Value value) {
+        if (value instanceof IRI) {
+            return sb.append('<').append(value.stringValue()).append('>');
+        }
+        if (value instanceof BNode) {
+            return sb.append("_:").append(value.stringValue());
+        }
+        Literal literal = (Literal) value;
+        sb.append('"').append(SPARQLQueries.escape(literal.getLabel())).append('"');
+        Optional<String> language = literal.getLanguage();
+        if (language.isPresent()) {
+            sb.append('@').append(language.get());
+        } else if (!XSD.STRING.equals(literal.getDatatype())) {
+            sb.append("^^<").append(literal.getDatatype().stringValue()).append('>');
+        }
+        return sb;
+    }
+}
@@ -55,14 +55,24 @@
  * <ul>
  *  <li>Supports ASK queries (not allowed in Virtuoso) by transforming them 
  *      into equivalent SELECT ones.</li>
+ *  <li>Sends added and removed statements in chunked update requests.</li>
+ *  <li>Optionally fetches SELECT results in pages.</li>
  * </ul>
  * 
+ * @see VirtuosoWrapperRepositoryConnection
+ * 
  * @author Andriy Nikolov an@metaphacts.com
  *
  */
 public class VirtuosoWrapperRepository extends RepositoryWrapper {
     
     protected final String repositoryId;
+
+    protected int updateBatchSize = VirtuosoWrapperRepositoryConfig.DEFAULT_UPDATE_BATCH_SIZE;
+
+    protected int maxUpdateLength = VirtuosoWrapperRepositoryConfig.DEFAULT_MAX_UPDATE_LENGTH;
+
+    protected int fetchSize = 0;
     
     @Inject
     protected Provider<RepositoryManager> repositoryManagerProvider;
@@ -88,7 +98,20 @@ public RepositoryConnection getConnection() throws RepositoryException {
         if (!isInitialized()) {
             throw new RepositoryException("SPARQLRepository not initialized.");
         }
-        return new VirtuosoWrapperRepositoryConnection(this, getDelegate().getConnection());
+        return new VirtuosoWrapperRepositoryConnection(this, getDelegate().getConnection(), updateBatchSize,
+                maxUpdateLength, fetchSize);
+    }
+
+    public void setUpdateBatchSize(int updateBatchSize) {
+        this.updateBatchSize = updateBatchSize;
+    }
+
+    public void setMaxUpdateLength(int maxUpdateLength) {
+        this.maxUpdateLength = maxUpdateLength;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
     }
 
     @Override
@@ -59,9 +59,23 @@
 
 /**
  * Implementation config for {@link VirtuosoWrapperRepository}. 
- * The only passed parameter is the ID of the delegate repository 
+ * The mandatory parameter is the ID of the delegate repository 
  * in the {@link com.metaphacts.repository.RepositoryManager}.
  * The delegate repository has to be a Virtuoso SPARQL repository. 
+ * <p>
+ * Optional parameters:
+ * <ul>
+ *  <li><code>mph:updateBatchSize</code>: the maximum number of statements per
+ *      INSERT DATA / DELETE DATA request (default: 5000)</li>
+ *  <li><code>mph:maxUpdateLength</code>: the maximum length in characters of an
+ *      update request (default: 2000000)</li>
+ *  <li><code>mph:fetchSize</code>: if positive, results of SELECT queries are fetched
+ *      in pages of this size. Should be below the <code>ResultSetMaxRows</code>
+ *      of the endpoint (default: 0, i.e. no paging). Queries with a trailing
+ *      <code>VALUES</code> clause are paged by re-rendering the parsed query,
+ *      see {@link VirtuosoPagedTupleQuery}</li>
+ * </ul>
+ * </p>
  * 
  * @author Andriy Nikolov an@metaphacts.com
  *
@@ -69,8 +83,18 @@
 public class VirtuosoWrapperRepositoryConfig extends AbstractRepositoryImplConfig
         implements MpDelegatingImplConfig {
 
+    public static final int DEFAULT_UPDATE_BATCH_SIZE = 5000;
+
+    public static final int DEFAULT_MAX_UPDATE_LENGTH = 2_000_000;
+
     protected String delegateRepositoryId;
 
+    protected int updateBatchSize = DEFAULT_UPDATE_BATCH_SIZE;
+
+    protected int maxUpdateLength = DEFAULT_MAX_UPDATE_LENGTH;
+
+    protected int fetchSize = 0;
+
     /**
      * For Virtuoso wrapping we use mph:delegateRepositoryId, not the ephedra property. See ID-1931
      */
@@ -87,6 +111,15 @@ public void validate() throws RepositoryConfigException {
         if (Strings.isNullOrEmpty(delegateRepositoryId)) {
             throw new RepositoryConfigException("No delegate repository ID is specified.");
         }
+        if (updateBatchSize <= 0) {
+            throw new RepositoryConfigException("The update batch size must be positive.");
+        }
+        if (maxUpdateLength <= 0) {
+            throw new RepositoryConfigException("The maximum update length must be positive.");
+        }
+        if (fetchSize < 0) {
+            throw new RepositoryConfigException("The fetch size must not be negative.");
+        }
     }
 
     @Override
@@ -97,6 +130,18 @@ public Resource export(Model model) {
                     mphDelegateRepositoryID,
                     SimpleValueFactory.getInstance().createLiteral(delegateRepositoryId));
         }
+        if (updateBatchSize != DEFAULT_UPDATE_BATCH_SIZE) {
+            model.add(implNode, MpRepositoryVocabulary.UPDATE_BATCH_SIZE,
+                    SimpleValueFactory.getInstance().createLiteral(updateBatchSize));
+        }
+        if (maxUpdateLength != DEFAULT_MAX_UPDATE_LENGTH) {
+            model.add(implNode, MpRepositoryVocabulary.MAX_UPDATE_LENGTH,
+                    SimpleValueFactory.getInstance().createLiteral(maxUpdateLength));
+        }
+        if (fetchSize != 0) {
+            model.add(implNode, MpRepositoryVocabulary.FETCH_SIZE,
+                    SimpleValueFactory.getInstance().createLiteral(fetchSize));
+        }
         return implNode;
     }
 
@@ -112,6 +157,12 @@ public void parse(Model model, Resource implNode) throws SailConfigException {
             if (lit != null) {
                 setDelegateRepositoryId(lit.stringValue());
             }
+            Models.objectLiteral(model.filter(implNode, MpRepositoryVocabulary.UPDATE_BATCH_SIZE, null))
+                    .ifPresent(l -> setUpdateBatchSize(l.intValue()));
+            Models.objectLiteral(model.filter(implNode, MpRepositoryVocabulary.MAX_UPDATE_LENGTH, null))
+                    .ifPresent(l -> setMaxUpdateLength(l.intValue()));
+            Models.objectLiteral(model.filter(implNode, MpRepositoryVocabulary.FETCH_SIZE, null))
+                    .ifPresent(l -> setFetchSize(l.intValue()));
         } catch (ModelException e) {
             throw new SailConfigException(e.getMessage(), e);
         }
@@ -126,6 +177,30 @@ public void setDelegateRepositoryId(String delegateRepositoryId) {
         this.delegateRepositoryId = delegateRepositoryId;
     }
 
+    public int getUpdateBatchSize() {
+        return updateBatchSize;
+    }
+
+    public void setUpdateBatchSize(int updateBatchSize) {
+        this.updateBatchSize = updateBatchSize;
+    }
+
+    public int getMaxUpdateLength() {
+        return maxUpdateLength;
+    }
+
+    public void setMaxUpdateLength(int maxUpdateLength) {
+        this.maxUpdateLength = maxUpdateLength;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     @Override
     public Collection<String> getDelegateRepositoryIDs() {
         return Lists.newArrayList(this.delegateRepositoryId);
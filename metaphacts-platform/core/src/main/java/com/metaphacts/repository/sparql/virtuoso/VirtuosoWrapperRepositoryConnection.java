@@ -41,6 +41,8 @@
 
 import static org.eclipse.rdf4j.query.QueryLanguage.SPARQL;
 
+import java.util.List;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.model.IRI;
@@ -54,6 +56,7 @@
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.UpdateExecutionException;
 import org.eclipse.rdf4j.query.impl.SimpleDataset;
 import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
@@ -72,6 +75,13 @@
  * <ul>
  *  <li>Supports ASK queries (not allowed in Virtuoso) by transforming them 
  *      into equivalent SELECT ones.</li>
+ *  <li>Groups added and removed statements into chunked INSERT DATA / DELETE DATA
+ *      requests (see {@link VirtuosoUpdateBatch}), which are sent on commit (or at the
+ *      end of the operation in auto-commit mode). Note that a transaction is thus
+ *      sent as a sequence of requests, i.e. it is not atomic on the Virtuoso side.</li>
+ *  <li>Optionally fetches the results of SELECT queries in pages (see
+ *      {@link VirtuosoPagedTupleQuery}) to not run into the silent truncation at the
+ *      <code>ResultSetMaxRows</code> of the endpoint.</li>
  * </ul> 
  * 
  * @author Andriy Nikolov an@metaphacts.com
@@ -84,9 +94,136 @@ public class VirtuosoWrapperRepositoryConnection extends RepositoryConnectionWra
     private static final Logger logger = 
             LogManager.getLogger(VirtuosoWrapperRepositoryConnection.class);
 
+    private final VirtuosoUpdateBatch updateBatch;
+
+    private final int fetchSize;
+
     public VirtuosoWrapperRepositoryConnection(Repository repository,
             RepositoryConnection delegate) {
+        this(repository, delegate, VirtuosoWrapperRepositoryConfig.DEFAULT_UPDATE_BATCH_SIZE,
+                VirtuosoWrapperRepositoryConfig.DEFAULT_MAX_UPDATE_LENGTH, 0);
+    }
+
+    /**
+     * @param updateBatchSize the maximum number of statements per update request
+     * @param maxUpdateLength the maximum length (in characters) of an update request
+     * @param fetchSize       the page size for SELECT query results, <code>0</code> to
+     *                        send queries as is
+     */
+    public VirtuosoWrapperRepositoryConnection(Repository repository,
+            RepositoryConnection delegate, int updateBatchSize, int maxUpdateLength, int fetchSize) {
         super(repository, delegate);
+        this.updateBatch = new VirtuosoUpdateBatch(updateBatchSize, maxUpdateLength);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    protected boolean isDelegatingAdd() throws RepositoryException {
+        // route all additions through addWithoutCommit to batch them
+        return false;
+    }
+
+    @Override
+    protected boolean isDelegatingRemove() throws RepositoryException {
+        // route all removals through removeWithoutCommit to batch them
+        return false;
+    }
+
+    @Override
+    protected void addWithoutCommit(Resource subject, IRI predicate, Value object, Resource... contexts)
+            throws RepositoryException {
+        updateBatch.add(getValueFactory().createStatement(subject, predicate, object), contexts);
+    }
+
+    @Override
+    protected void removeWithoutCommit(Resource subject, IRI predicate, Value object, Resource... contexts)
+            throws RepositoryException {
+        if (subject != null && predicate != null && object != null) {
+            updateBatch.remove(getValueFactory().createStatement(subject, predicate, object), contexts);
+        } else {
+            updateBatch.addUpdate(createDeletePatternCommand(subject, predicate, object, contexts));
+        }
+    }
+
+    /**
+     * Sends pending updates and delegates to the <code>CLEAR GRAPH</code> /
+     * <code>CLEAR ALL</code> of the delegate rather than deleting the matching
+     * statements pattern-wise, which is slow for large graphs and may exceed the
+     * transaction log of Virtuoso.
+     */
+    @Override
+    public void clear(Resource... contexts) throws RepositoryException {
+        flushUpdates();
+        getDelegate().clear(contexts);
+    }
+
+    @Override
+    public void commit() throws RepositoryException {
+        flushUpdates();
+        super.commit();
+    }
+
+    @Override
+    public void rollback() throws RepositoryException {
+        updateBatch.clear();
+        super.rollback();
+    }
+
+    /**
+     * Sends the pending update requests to the delegate.
+     */
+    protected void flushUpdates() throws RepositoryException {
+        if (updateBatch.isEmpty()) {
+            return;
+        }
+        List<String> requests = updateBatch.drain();
+        logger.debug("Sending {} update request(s) to Virtuoso", requests.size());
+        for (String request : requests) {
+            try {
+                getDelegate().prepareUpdate(SPARQL, request).execute();
+            } catch (MalformedQueryException | UpdateExecutionException e) {
+                throw new RepositoryException(e);
+            }
+        }
+    }
+
+    /**
+     * Creates a <code>DELETE WHERE</code> request for a statement pattern, one
+     * per context if any.
+     */
+    protected String createDeletePatternCommand(Resource subject, IRI predicate, Value object,
+            Resource... contexts) {
+        StringBuilder triple = new StringBuilder();
+        appendTerm(triple, subject, "s").append(' ');
+        appendTerm(triple, predicate, "p").append(' ');
+        appendTerm(triple, object, "o").append(" .");
+
+        StringBuilder command = new StringBuilder();
+        if (contexts == null || contexts.length == 0) {
+            command.append("DELETE WHERE { ").append(triple).append(" }");
+            return command.toString();
+        }
+        for (Resource context : contexts) {
+            if (command.length() > 0) {
+                command.append(";\n");
+            }
+            command.append("DELETE WHERE { ");
+            if (context == null) {
+                command.append(triple);
+            } else {
+                command.append("GRAPH ");
+                VirtuosoUpdateBatch.appendValue(command, context).append(" { ").append(triple).append(" }");
+            }
+            command.append(" }");
+        }
+        return command.toString();
+    }
+
+    private static StringBuilder appendTerm(StringBuilder sb, Value value, String varName) {
+        if (value == null) {
+            return sb.append('?').append(varName);
+        }
+        return VirtuosoUpdateBatch.appendValue(sb, value);
     }
 
     @Override
@@ -130,6 +267,10 @@ public GraphQuery prepareGraphQuery(QueryLanguage ql, String query, String base)
     public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String base)
             throws RepositoryException, MalformedQueryException {
         ParsedTupleQuery parsedQuery = QueryParserUtil.parseTupleQuery(ql, query, base);
+        if (fetchSize > 0 && VirtuosoPagedTupleQuery.requiresPaging(parsedQuery, fetchSize)) {
+            logger.trace("Fetching results of tuple query in pages of {} rows", fetchSize);
+            return new VirtuosoPagedTupleQuery(getDelegate(), parsedQuery, base, fetchSize);
+        }
         String targetQuery = generateTargetQuery(parsedQuery);
         logger.trace("Prepared target tuple query: " + targetQuery);
         return super.prepareTupleQuery(ql, targetQuery, base);
@@ -66,7 +66,12 @@ public VirtuosoWrapperRepository getRepository(RepositoryImplConfig config)
     {
         if (config instanceof VirtuosoWrapperRepositoryConfig) {
             VirtuosoWrapperRepositoryConfig wrapperConfig = (VirtuosoWrapperRepositoryConfig)config;
-            return new VirtuosoWrapperRepository(wrapperConfig.getDelegateRepositoryId());
+            VirtuosoWrapperRepository repository = new VirtuosoWrapperRepository(
+                    wrapperConfig.getDelegateRepositoryId());
+            repository.setUpdateBatchSize(wrapperConfig.getUpdateBatchSize());
+            repository.setMaxUpdateLength(wrapperConfig.getMaxUpdateLength());
+            repository.setFetchSize(wrapperConfig.getFetchSize());
+            return repository;
         }
         else {
             throw new RepositoryConfigException("Invalid configuration class: " + config.getClass());
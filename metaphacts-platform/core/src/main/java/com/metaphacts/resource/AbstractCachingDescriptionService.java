@@ -39,6 +39,7 @@
  */
 package com.metaphacts.resource;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -56,6 +57,8 @@
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.metaphacts.cache.CacheManager;
 import com.metaphacts.cache.LiteralCache;
@@ -105,6 +108,12 @@ protected Optional<CacheLoader<LiteralCacheKey, Optional<ResourceDescription>>>
                     public Optional<ResourceDescription> load(LiteralCacheKey cacheKey) throws Exception {
                         return lookupResourceDescription(repository, cacheKey);
                     }
+
+                    @Override
+                    public Map<LiteralCacheKey, Optional<ResourceDescription>> loadAll(
+                            Iterable<? extends LiteralCacheKey> cacheKeys) throws Exception {
+                        return lookupResourceDescriptions(repository, Lists.newArrayList(cacheKeys));
+                    }
                 });
             }
 
@@ -143,12 +152,7 @@ protected CacheBuilder<Object, Object> createCacheBuilder() {
             @Override
             protected Map<LiteralCacheKey, Optional<Literal>> queryAll(Repository repository,
                     Iterable<? extends LiteralCacheKey> keys) {
-                Map<LiteralCacheKey, Optional<Literal>> descriptions = new HashMap<>();
-                for (LiteralCacheKey literalCacheKey : keys) {
-                    descriptions.put(literalCacheKey, lookupDescription(repository, literalCacheKey.getIri(),
-                            literalCacheKey.getPreferredLanguages()));
-                }
-                return descriptions;
+                return lookupDescriptions(repository, keys);
             }
         };
 
@@ -187,6 +191,47 @@ public Optional<Literal> getDescription(IRI resourceIri, Repository repository,
         return descriptionCache.getLiteral(resourceIri, repository, preferredLanguage);
     }
 
+    @Override
+    public Map<IRI, Optional<Literal>> getDescriptions(Iterable<? extends IRI> resourceIris, Repository repository,
+            String preferredLanguage) {
+        return descriptionCache.getLiterals(resourceIris, repository, preferredLanguage);
+    }
+
+    /**
+     * Bulk variant of {@link #lookupDescription(Repository, IRI, List)}: the
+     * {@link ResourceDescription}s of all resources which are not cached yet are
+     * fetched with a single invocation of
+     * {@link #lookupResourceDescriptions(Repository, List)}.
+     * 
+     * @param repository repository from which to fetch the descriptions
+     * @param keys       resources and preferred languages
+     * @return map of descriptions, containing an entry for each key
+     */
+    protected Map<LiteralCacheKey, Optional<Literal>> lookupDescriptions(Repository repository,
+            Iterable<? extends LiteralCacheKey> keys) {
+        Map<LiteralCacheKey, Optional<Literal>> descriptions = new HashMap<>();
+        if (Iterables.size(keys) == 1) {
+            LiteralCacheKey key = Iterables.getOnlyElement(keys);
+            descriptions.put(key, lookupDescription(repository, key.getIri(), key.getPreferredLanguages()));
+            return descriptions;
+        }
+        List<LiteralCacheKey> describableKeys = new ArrayList<>();
+        for (LiteralCacheKey key : keys) {
+            if (canProvideDescription(key.getIri(), repository)) {
+                describableKeys.add(key);
+            } else {
+                descriptions.put(key, Optional.empty());
+            }
+        }
+        if (!describableKeys.isEmpty()) {
+            resourceDescriptionCache.getAll(repository, describableKeys)
+                    .forEach((key, resourceDescription) -> descriptions.put(key, resourceDescription
+                            .map(ResourceDescription::getDescription)
+                            .map(description -> Values.literal(description))));
+        }
+        return descriptions;
+    }
+
     protected Optional<Literal> lookupDescription(Repository repository, IRI resourceIri,
             List<String> preferredLanguages) {
 
@@ -237,4 +282,29 @@ protected List<String> resolvePreferredLanguage(@Nullable String preferredLangua
      */
     protected abstract Optional<ResourceDescription> lookupResourceDescription(Repository repository,
             LiteralCacheKey cacheKey);
+
+    /**
+     * Lookup instance descriptions for the specified resources in the specified
+     * repository.
+     * 
+     * <p>
+     * The default implementation calls
+     * {@link #lookupResourceDescription(Repository, LiteralCacheKey)} for each
+     * key. Sub-classes may override this method to fetch the data in batches.
+     * </p>
+     * 
+     * @param repository repository for which to get the instance descriptions
+     * @param cacheKeys  resources and preferred languages for which to fetch the
+     *                   instance descriptions.
+     * @return map of {@link ResourceDescription}s, containing an entry for each
+     *         key
+     */
+    protected Map<LiteralCacheKey, Optional<ResourceDescription>> lookupResourceDescriptions(Repository repository,
+            List<LiteralCacheKey> cacheKeys) {
+        Map<LiteralCacheKey, Optional<ResourceDescription>> result = new HashMap<>();
+        for (LiteralCacheKey cacheKey : cacheKeys) {
+            result.put(cacheKey, lookupResourceDescription(repository, cacheKey));
+        }
+        return result;
+    }
 }
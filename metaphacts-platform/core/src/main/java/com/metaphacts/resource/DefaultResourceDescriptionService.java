@@ -42,10 +42,14 @@
 import static org.eclipse.rdf4j.model.util.Values.literal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,11 +60,26 @@
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.Group;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.ProjectionElem;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UnaryTupleOperator;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.metaphacts.api.sparql.SparqlOperationBuilder;
 import com.metaphacts.cache.CacheManager;
@@ -74,6 +93,7 @@
 import com.metaphacts.services.fields.FieldDefinition;
 import com.metaphacts.services.fields.FieldDefinitionGeneratorChain;
 import com.metaphacts.services.storage.api.PlatformStorage;
+import com.metaphacts.util.QueryUtil;
 import com.metaphacts.vocabulary.DASH;
 
 /**
@@ -93,6 +113,16 @@ public class DefaultResourceDescriptionService extends AbstractCachingDescriptio
     protected static final String INSTANCEDESCRIPTION_CACHE_ID = "repository.instanceDescriptionCaches";
     protected static final String INSTANCETYPES_CACHE_ID = "repository.instanceTypesCaches";
 
+    protected static final String SUBJECT_VARIABLE = "subject";
+    protected static final String LANGUAGE_TAG_VARIABLE = "languageTag";
+    protected static final String VALUE_VARIABLE = "value";
+
+    /**
+     * Maximum number of resources for which description properties are fetched
+     * with a single query.
+     */
+    protected static final int MAX_BATCH_SIZE = 100;
+
     protected final NamespaceRegistry namespaceRegistry;
     protected final LabelService labelService;
     protected final DescriptionRenderer descriptionRenderer;
@@ -123,6 +153,82 @@ protected Optional<ResourceDescription> lookupResourceDescription(Repository rep
                 typeDescription -> createResourceDescription(repository, typeDescription, instanceIRI, cacheKey));
     }
 
+    @Override
+    protected Map<LiteralCacheKey, Optional<ResourceDescription>> lookupResourceDescriptions(Repository repository,
+            List<LiteralCacheKey> cacheKeys) {
+        Map<LiteralCacheKey, Optional<ResourceDescription>> result = new HashMap<>();
+
+        // group resources by type and preferred languages: all resources of a group
+        // share the description properties and can be processed in batches
+        Map<IRI, TypeDescription> typeDescriptions = new HashMap<>();
+        Map<List<Object>, List<LiteralCacheKey>> groups = new LinkedHashMap<>();
+        for (LiteralCacheKey cacheKey : cacheKeys) {
+            Optional<TypeDescription> typeDescription = modelService
+                    .getTypeDescriptionForInstance(repository, cacheKey.getIri())
+                    .filter(type -> descriptionRenderer.canRenderDescription(type.getTypeIRI()));
+            if (!typeDescription.isPresent()) {
+                result.put(cacheKey, Optional.empty());
+                continue;
+            }
+            IRI typeIRI = typeDescription.get().getTypeIRI();
+            typeDescriptions.putIfAbsent(typeIRI, typeDescription.get());
+            groups.computeIfAbsent(Arrays.asList(typeIRI, cacheKey.getPreferredLanguages()), group -> new ArrayList<>())
+                    .add(cacheKey);
+        }
+
+        groups.forEach((group, keys) -> {
+            TypeDescription typeDescription = typeDescriptions.get(group.get(0));
+            for (List<LiteralCacheKey> batch : Lists.partition(keys, MAX_BATCH_SIZE)) {
+                result.putAll(createResourceDescriptions(repository, typeDescription, batch));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Bulk variant of
+     * {@link #createResourceDescription(Repository, TypeDescription, IRI, LiteralCacheKey)}
+     * for resources sharing the same type and preferred languages.
+     * 
+     * @param repository      repository from which to fetch data
+     * @param typeDescription type description shared by all resources
+     * @param cacheKeys       resources with the same preferred languages
+     * @return map of {@link ResourceDescription}s, containing an entry for each
+     *         key
+     */
+    protected Map<LiteralCacheKey, Optional<ResourceDescription>> createResourceDescriptions(Repository repository,
+            TypeDescription typeDescription, List<LiteralCacheKey> cacheKeys) {
+        Map<LiteralCacheKey, Optional<ResourceDescription>> result = new HashMap<>();
+        if (cacheKeys.isEmpty()) {
+            return result;
+        }
+        logger.trace("Creating resource descriptions for {} resources of type {}", cacheKeys.size(),
+                typeDescription.getTypeIRI());
+
+        LiteralCacheKey firstKey = cacheKeys.get(0);
+        Literal languageTag = literal(firstKey.getLanguageTag());
+        String preferredLanguage = StringUtils.join(firstKey.getPreferredLanguages(), ",");
+
+        List<IRI> resources = cacheKeys.stream().map(LiteralCacheKey::getIri).distinct().collect(Collectors.toList());
+        Map<IRI, Optional<Literal>> labels = labelService.getLabels(resources, repository, preferredLanguage);
+        Map<IRI, List<PropertyValue>> descriptionProperties = getDescriptionProperties(repository, typeDescription,
+                resources, languageTag);
+
+        for (LiteralCacheKey cacheKey : cacheKeys) {
+            IRI resource = cacheKey.getIri();
+            DefaultResourceDescription instanceDescription = new DefaultResourceDescription(resource)
+                    .withTypeDescription(typeDescription)
+                    .withLanguageTag(languageTag.stringValue())
+                    .withLabel(LabelService.resolveLabelWithFallback(
+                            labels.getOrDefault(resource, Optional.empty()), resource))
+                    .withDescriptionProperties(descriptionProperties.get(resource));
+            instanceDescription.withDescription(
+                    createCompositeDescription(repository, instanceDescription, preferredLanguage).orElse(null));
+            result.put(cacheKey, Optional.of(instanceDescription));
+        }
+        return result;
+    }
+
     protected Optional<ResourceDescription> createResourceDescription(Repository repository,
             TypeDescription typeDescription, IRI resource, LiteralCacheKey cacheKey) {
         // return early if we do not have a template to create the description string
@@ -184,6 +290,44 @@ protected List<PropertyValue> getDescriptionProperties(Repository repository, Ty
         return propertyValues;
     }
 
+    /**
+     * Bulk variant of
+     * {@link #getDescriptionProperties(Repository, TypeDescription, Resource, Literal)}
+     * for resources of the same type.
+     * 
+     * <p>
+     * The values of each description property are fetched for all resources with
+     * a single query (see {@link #fetchValues(List, RepositoryConnection, String, Literal)}),
+     * all queries are evaluated using the same connection.
+     * </p>
+     * 
+     * @return description property values per resource
+     */
+    protected Map<IRI, List<PropertyValue>> getDescriptionProperties(Repository repository,
+            TypeDescription typeDescription, List<IRI> resources, Literal languageTag) {
+        Map<IRI, List<PropertyValue>> propertyValues = new HashMap<>();
+        resources.forEach(resource -> propertyValues.put(resource, new ArrayList<>()));
+
+        List<PropertyDescription> descriptionProperties = typeDescription.getPropertiesForRole(DASH.DescriptionRole)
+                .orElse(Collections.emptyList());
+        if (descriptionProperties.isEmpty()) {
+            return propertyValues;
+        }
+
+        try (RepositoryConnection connection = repository.getConnection()) {
+            for (PropertyDescription property : descriptionProperties) {
+                String selectPattern = getFieldDefinition(property.getPropertyIRI())
+                        .map(fieldDefinition -> fieldDefinition.getSelectPattern()).orElse(null);
+                Map<IRI, List<Value>> values = fetchValues(resources, connection, selectPattern, languageTag);
+                for (IRI resource : resources) {
+                    propertyValues.get(resource).add(new DefaultPropertyValue(resource, property,
+                            values.getOrDefault(resource, Collections.emptyList())));
+                }
+            }
+        }
+        return propertyValues;
+    }
+
     /**
      * Get a FieldDefinition for the specified property.
      * 
@@ -236,38 +380,182 @@ protected Optional<List<Value>> fetchValues(IRI iri, Repository repository, Fiel
      */
     protected Optional<List<Value>> fetchValues(IRI iri, Repository repository, String selectPattern,
             Literal languageTag) {
+        if (selectPattern == null) {
+            return Optional.empty();
+        }
+        try (RepositoryConnection connection = repository.getConnection()) {
+            return fetchValues(iri, connection, selectPattern, languageTag);
+        }
+    }
+
+    /**
+     * Fetch data based from the provided selectPattern using the given connection.
+     * 
+     * @see #fetchValues(IRI, Repository, String, Literal)
+     */
+    protected Optional<List<Value>> fetchValues(IRI iri, RepositoryConnection connection, String selectPattern,
+            Literal languageTag) {
         return Optional.ofNullable(selectPattern).map(query -> {
             logger.trace("Fetching description property values for resource {}", iri);
 
-            try (RepositoryConnection connection = repository.getConnection()) {
-                SparqlOperationBuilder<TupleQuery> builder = SparqlOperationBuilder
-                        .<TupleQuery>create(query, TupleQuery.class).setBinding("subject", iri)
-                        .setBinding("languageTag", languageTag);
-                try (TupleQueryResult result = builder.build(connection).evaluate()) {
-                    List<Value> values = result.stream()
-                            .filter(bindingSet -> {
-                                if (bindingSet.hasBinding("value")) {
-                                    return true;
-                                }
-                                logger.trace("BindingSet for pattern {} does not contain a ?value projection", selectPattern);
-                                return false;
-                            })
-                            .map(bindingSet -> {
-                                Value value = bindingSet.getValue("value");
-                                logger.trace("Found description property value {}", value.stringValue());
-                                return value;
-                            })
-                            .filter(value -> value != null)
-                            .collect(Collectors.toList());
-                    return values;
+            SparqlOperationBuilder<TupleQuery> builder = SparqlOperationBuilder
+                    .<TupleQuery>create(query, TupleQuery.class).setBinding(SUBJECT_VARIABLE, iri)
+                    .setBinding(LANGUAGE_TAG_VARIABLE, languageTag);
+            try (TupleQueryResult result = builder.build(connection).evaluate()) {
+                List<Value> values = result.stream()
+                        .filter(bindingSet -> {
+                            if (bindingSet.hasBinding(VALUE_VARIABLE)) {
+                                return true;
+                            }
+                            logger.trace("BindingSet for pattern {} does not contain a ?value projection", selectPattern);
+                            return false;
+                        })
+                        .map(bindingSet -> {
+                            Value value = bindingSet.getValue(VALUE_VARIABLE);
+                            logger.trace("Found description property value {}", value.stringValue());
+                            return value;
+                        })
+                        .filter(value -> value != null)
+                        .collect(Collectors.toList());
+                return values;
+            }
+            catch (Exception e) {
+                logger.warn("Failed to fetch description properties for resource {}: {}", iri, e.getMessage());
+                logger.debug("Details: ", e);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Fetch data for multiple resources based from the provided selectPattern.
+     * 
+     * <p>
+     * The select pattern is rewritten into a single query which binds the
+     * {@code subject} variable to all resources using a {@code VALUES} clause
+     * (see {@link #createBatchedSelectPattern(String, List)}). If the pattern
+     * cannot be rewritten safely, the values are fetched individually for each
+     * resource.
+     * </p>
+     * 
+     * @param iris          subject IRIs of the entities to fetch values from
+     * @param connection    connection to use for the query evaluation
+     * @param selectPattern query to fetch the data. If <code>null</code> no query
+     *                      is executed and an empty result returned. The query is
+     *                      expected to have a {@code ?value} project variable.
+     * @param languageTag   (single) language tag to use for filtering when fetching
+     *                      data. This is injected into the query using a variable
+     *                      {@code languageTag}.
+     * @return values per resource. Resources without values may be absent.
+     */
+    protected Map<IRI, List<Value>> fetchValues(List<IRI> iris, RepositoryConnection connection,
+            String selectPattern, Literal languageTag) {
+        Map<IRI, List<Value>> values = new HashMap<>();
+        if (selectPattern == null || iris.isEmpty()) {
+            return values;
+        }
+
+        Optional<String> batchedQuery = iris.size() > 1 ? createBatchedSelectPattern(selectPattern, iris)
+                : Optional.empty();
+        if (!batchedQuery.isPresent()) {
+            for (IRI iri : iris) {
+                fetchValues(iri, connection, selectPattern, languageTag)
+                        .ifPresent(resourceValues -> values.put(iri, resourceValues));
+            }
+            return values;
+        }
+
+        logger.trace("Fetching description property values for {} resources", iris.size());
+        SparqlOperationBuilder<TupleQuery> builder = SparqlOperationBuilder
+                .<TupleQuery>create(batchedQuery.get(), TupleQuery.class)
+                .setBinding(LANGUAGE_TAG_VARIABLE, languageTag);
+        try (TupleQueryResult result = builder.build(connection).evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                Value subject = bindingSet.getValue(SUBJECT_VARIABLE);
+                Value value = bindingSet.getValue(VALUE_VARIABLE);
+                if (!(subject instanceof IRI) || value == null) {
+                    logger.trace("BindingSet for pattern {} does not contain a ?value projection", selectPattern);
+                    continue;
                 }
-                catch (Exception e) {
-                    logger.warn("Failed to fetch description properties for resource {}: {}", iri, e.getMessage());
-                    logger.debug("Details: ", e);
-                    return null;
+                values.computeIfAbsent((IRI) subject, iri -> new ArrayList<>()).add(value);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to fetch description properties for {} resources: {}", iris.size(), e.getMessage());
+            logger.debug("Details: ", e);
+        }
+        return values;
+    }
+
+    /**
+     * Rewrite the provided select pattern such that it fetches the values for
+     * all provided resources at once.
+     * 
+     * <p>
+     * The {@code subject} variable is bound using a {@code VALUES} clause and is
+     * added to the projection, so that the results can be grouped per resource.
+     * Patterns for which this would change the semantics of the query, i.e. with
+     * {@code LIMIT}/{@code OFFSET}, aggregations or sub-queries, are not
+     * rewritten.
+     * </p>
+     * 
+     * @param selectPattern select pattern using the {@code subject} variable
+     * @param iris          resources to bind to the {@code subject} variable
+     * @return the rewritten query or empty if the pattern cannot be rewritten
+     */
+    protected Optional<String> createBatchedSelectPattern(String selectPattern, List<IRI> iris) {
+        try {
+            ParsedTupleQuery parsedQuery = QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, selectPattern,
+                    null);
+            TupleExpr expr = parsedQuery.getTupleExpr();
+            while (expr instanceof UnaryTupleOperator && !(expr instanceof Projection)) {
+                if (expr instanceof Slice) {
+                    // LIMIT and OFFSET are meant per resource
+                    return Optional.empty();
                 }
+                expr = ((UnaryTupleOperator) expr).getArg();
+            }
+            if (!(expr instanceof Projection)) {
+                return Optional.empty();
+            }
+            Projection projection = (Projection) expr;
+            if (!projection.getArg().getAssuredBindingNames().contains(SUBJECT_VARIABLE)
+                    || containsGroupOrSubquery(projection.getArg())) {
+                return Optional.empty();
+            }
+
+            if (!projection.getBindingNames().contains(SUBJECT_VARIABLE)) {
+                projection.getProjectionElemList().addElement(new ProjectionElem(SUBJECT_VARIABLE));
+            }
+            BindingSetAssignment subjects = new BindingSetAssignment();
+            subjects.setBindingNames(Collections.singleton(SUBJECT_VARIABLE));
+            List<String> bindingNames = Collections.singletonList(SUBJECT_VARIABLE);
+            subjects.setBindingSets(iris.stream().map(iri -> new ListBindingSet(bindingNames, iri))
+                    .collect(Collectors.toList()));
+            projection.setArg(new Join(subjects, projection.getArg()));
+
+            return Optional.of(QueryUtil.toSPARQL(parsedQuery));
+        } catch (Exception e) {
+            logger.debug("Cannot rewrite select pattern for batched evaluation: {}", e.getMessage());
+            logger.trace("Details: ", e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean containsGroupOrSubquery(TupleExpr expr) {
+        AtomicBoolean found = new AtomicBoolean(false);
+        expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Group node) {
+                found.set(true);
+            }
+
+            @Override
+            public void meet(Projection node) {
+                found.set(true);
             }
         });
+        return found.get();
     }
 
     @Override
@@ -53,8 +53,11 @@
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.repository.Repository;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.metaphacts.cache.CacheManager;
+import com.metaphacts.cache.CompactValues;
 import com.metaphacts.cache.ResourcePropertyCache;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.config.NamespaceRegistry;
@@ -113,7 +116,8 @@ protected Map<IRI, Optional<Iterable<IRI>>> queryAll(Repository repository, Iter
                 Map<IRI, Optional<Iterable<IRI>>> types = new HashMap<>();
                 for (IRI iri : iris) {
                     List<List<IRI>> liriToPredicate = iriToPredicateToType.get(iri);
-                    types.put(iri, Optional.ofNullable(flattenProperties(liriToPredicate)));
+                    types.put(iri, Optional.of(ImmutableList.copyOf(Lists.transform(flattenProperties(liriToPredicate),
+                            CompactValues::intern))));
                 }
 
                 return types;
@@ -145,7 +149,7 @@ public void setNamespaceRegistry(NamespaceRegistry namespaceRegistry) {
 
     @Override
     public Map<IRI, Optional<Iterable<IRI>>> getAllTypes(Iterable<? extends IRI> resourceIris, Repository repository) {
-        return cache.getAll(repository, resourceIris);
+        return cache.getAll(repository, Iterables.transform(resourceIris, CompactValues::compact));
     }
 
     @Override
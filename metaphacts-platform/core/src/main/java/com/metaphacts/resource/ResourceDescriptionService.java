@@ -39,6 +39,8 @@
  */
 package com.metaphacts.resource;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -83,4 +85,26 @@ Optional<ResourceDescription> getResourceDescription(Repository repository, IRI
      *         repository, otherwise {@link Optional#empty}.
      */
     Optional<Literal> getDescription(IRI resourceIri, Repository repository, @Nullable String preferredLanguage);
+
+    /**
+     * Extracts descriptions of specified resources from specified repository.
+     * 
+     * <p>
+     * The default implementation calls
+     * {@link #getDescription(IRI, Repository, String)} for each resource,
+     * implementations are encouraged to fetch the data in batches.
+     * </p>
+     *
+     * @param resourceIris IRIs of resources to extract descriptions for.
+     * @return map from IRI to description. If no description was found it would
+     *         be still present as {@link Optional#empty}.
+     */
+    default Map<IRI, Optional<Literal>> getDescriptions(Iterable<? extends IRI> resourceIris, Repository repository,
+            @Nullable String preferredLanguage) {
+        Map<IRI, Optional<Literal>> descriptions = new HashMap<>();
+        for (IRI resourceIri : resourceIris) {
+            descriptions.put(resourceIri, getDescription(resourceIri, repository, preferredLanguage));
+        }
+        return descriptions;
+    }
 }
@@ -316,6 +316,53 @@ public Response setConfigurationValue(
         }
     }
 
+    /**
+     * Sets multiple configuration parameters of a group at once, i.e. with a
+     * single write (and revision) of the backing configuration file.
+     */
+    @PUT
+    @Path("{configGroup}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RequiresAuthentication
+    public Response setConfigurationValues(
+        @PathParam("configGroup") String configGroup,
+        @QueryParam("targetAppId") String targetAppId,
+        Map<String, List<String>> configValuesByParameter
+    ) {
+        try {
+            // prevent writing if user does not have permissions for any of the parameters
+            for (String configIdInGroup : configValuesByParameter.keySet()) {
+                String requiredWritePermission = CONFIGURATION.getPermissionString(
+                    configGroup, configIdInGroup, APIUsageMode.write);
+
+                if (!SecurityUtils.getSubject().isPermitted(requiredWritePermission)) {
+                    throw new UnauthorizedException(); // no write permissions
+                }
+            }
+
+            systemConfig.setProperties(configGroup, configValuesByParameter, targetAppId);
+
+            //TODO temporary workaround for invalidating caches after updates
+            // should go into proper event system within configuration management
+            cacheManager.invalidateAll();
+
+            return Response.ok().build();
+
+        } catch (UnauthorizedException e) {
+            logger.trace("User has no access to set configuration items (please enable in shiro.ini if you "
+                    + "believe this should be accessible): " + configGroup + " / "
+                    + configValuesByParameter.keySet());
+            return Response.status(Response.Status.FORBIDDEN).entity(e.getMessage()).build();
+        } catch (UnknownConfigurationException e) {
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).type("text/plain").build();
+        } catch (Exception e) {
+            if(e.getCause() instanceof ConfigurationException) {
+                return Response.status(Response.Status.NOT_ACCEPTABLE).entity(e.getCause().getMessage()).build();
+            }
+            return Response.status(Response.Status.NOT_ACCEPTABLE).entity(e.getMessage()).build();
+        }
+    }
+
     @DELETE
     @Path("{configGroup}/{configIdInGroup}")
     @RequiresAuthentication
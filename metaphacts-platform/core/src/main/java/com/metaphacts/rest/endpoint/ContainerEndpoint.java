@@ -213,15 +213,14 @@ public Response exportResource(
             StreamingOutput stream = new StreamingOutput() {
                 @Override
                 public void write(OutputStream output) throws IOException, WebApplicationException {
-                    for(IRI iri: iris) {
-                        try {
-                            Model exportedModel = api(repositoryID).exportLDPResource(iri);
-                            rioUtils.write(ExportImportFormat, exportedModel, output);
-                        } catch (Exception e) {
-                            logger.error("Failed to export LDP resources: " + e.getMessage());
-                            logger.debug("Details: ", e);
-                            throw new WebApplicationException("Failed to export LDP resources.", e);
-                        }
+                    try {
+                        // permissions of all resources are checked in bulk
+                        Model exportedModel = api(repositoryID).exportLDPResource(iris);
+                        rioUtils.write(ExportImportFormat, exportedModel, output);
+                    } catch (Exception e) {
+                        logger.error("Failed to export LDP resources: " + e.getMessage());
+                        logger.debug("Details: ", e);
+                        throw new WebApplicationException("Failed to export LDP resources.", e);
                     }
                 }
                 
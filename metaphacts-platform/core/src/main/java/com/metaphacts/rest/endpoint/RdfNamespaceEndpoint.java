@@ -118,6 +118,8 @@ public Response getFullUris(@RequestBody(content = { @Content(mediaType = "appli
     /**
      * Takes array of URIs, returns array of corresponding prefixed URIs.
      * Set prefixed URI to null if it is not possible to create prefixed URI.)
+     * If the local name is not valid in a prefixed name, the full URI in angle
+     * brackets is returned.
      */
     @POST
     @Path("getPrefixedUris")
@@ -46,8 +46,10 @@
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -64,6 +66,8 @@
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -102,6 +106,7 @@
 import com.metaphacts.repository.RepositoryManager;
 import com.metaphacts.security.Permissions;
 import com.metaphacts.security.PlatformTaskWrapper;
+import com.metaphacts.servlet.AsyncRequestExecutor;
 import com.metaphacts.ui.templates.ST;
 import com.metaphacts.util.LanguageHelper;
 
@@ -139,6 +144,9 @@ public class ReconciliationEndpoint {
     @Inject
     private ST st;
 
+    @Inject
+    private AsyncRequestExecutor asyncExecutor;
+
     @Context
     UriInfo uriInfo;
 
@@ -166,13 +174,15 @@ public class ReconciliationEndpoint {
     @Produces({"application/javascript", MediaType.APPLICATION_JSON})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupRawJson(
+    public void lookupRawJson(
         Map<String, LookupQuery> queries,
         @PathParam("lookupServiceName") String lookupServiceName,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupByRawJson(queries, lookupServiceName, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        asyncExecutor.resume(asyncResponse, () -> this.lookupByRawJson(queries, lookupServiceName, preferredLanguage));
     }
 
     /**
@@ -198,12 +208,14 @@ public Response lookupRawJson(
     @Produces({"application/javascript", MediaType.APPLICATION_JSON})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupRawJson(
+    public void lookupRawJson(
         Map<String, LookupQuery> queries,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupByRawJson(queries, null, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        asyncExecutor.resume(asyncResponse, () -> this.lookupByRawJson(queries, null, preferredLanguage));
     }
 
     /**
@@ -229,13 +241,15 @@ public Response lookupRawJson(
     @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupFormData(
+    public void lookupFormData(
         @FormDataParam("queries") String queries,
         @PathParam("lookupServiceName") String lookupServiceName,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupEntry(queries, lookupServiceName, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        asyncExecutor.resume(asyncResponse, () -> this.lookupEntry(queries, lookupServiceName, preferredLanguage));
     }
 
     /**
@@ -260,12 +274,14 @@ public Response lookupFormData(
     @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupFormData(
+    public void lookupFormData(
         @FormDataParam("queries") String queries,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupEntry(queries, null, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        asyncExecutor.resume(asyncResponse, () -> this.lookupEntry(queries, null, preferredLanguage));
     }
 
     /**
@@ -292,13 +308,15 @@ public Response lookupFormData(
     @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupUrlEncodedFormData(
+    public void lookupUrlEncodedFormData(
         @FormParam("queries") String queries,
         @PathParam("lookupServiceName") String lookupServiceName,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupEntry(queries, lookupServiceName, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        asyncExecutor.resume(asyncResponse, () -> this.lookupEntry(queries, lookupServiceName, preferredLanguage));
     }
 
     /**
@@ -324,12 +342,14 @@ public Response lookupUrlEncodedFormData(
     @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupUrlEncodedFormData(
+    public void lookupUrlEncodedFormData(
         @FormParam("queries") String queries,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupEntry(queries, null, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        asyncExecutor.resume(asyncResponse, () -> this.lookupEntry(queries, null, preferredLanguage));
     }
 
     /**
@@ -358,13 +378,20 @@ public Response lookupUrlEncodedFormData(
     @Produces({"application/javascript", MediaType.APPLICATION_JSON})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupOrGetManifest(
+    public void lookupOrGetManifest(
         @QueryParam("queries") String stringQueries,
         @PathParam("lookupServiceName") String lookupServiceName,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupOrGetManifestForService(stringQueries, lookupServiceName, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        if (stringQueries == null) {
+            // the manifest is resolved against the request URI, i.e. on the request thread
+            asyncResponse.resume(this.lookupOrGetManifestForService(stringQueries, lookupServiceName, preferredLanguage));
+            return;
+        }
+        asyncExecutor.resume(asyncResponse, () -> this.lookupOrGetManifestForService(stringQueries, lookupServiceName, preferredLanguage));
     }
 
     /**
@@ -392,12 +419,19 @@ public Response lookupOrGetManifest(
     @Produces({"application/javascript", MediaType.APPLICATION_JSON})
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.LOOKUP})
-    public Response lookupOrGetManifest(
+    public void lookupOrGetManifest(
         @QueryParam("queries") String stringQueries,
         @Nullable @HeaderParam("accept-language") String prefLang1,
-        @Nullable @QueryParam("preferredLanguage") String prefLang2
+        @Nullable @QueryParam("preferredLanguage") String prefLang2,
+        @Suspended AsyncResponse asyncResponse
     ) {
-        return this.lookupOrGetManifestForService(stringQueries, null, selectPreferredLanguage(prefLang1, prefLang2));
+        String preferredLanguage = selectPreferredLanguage(prefLang1, prefLang2);
+        if (stringQueries == null) {
+            // the manifest is resolved against the request URI, i.e. on the request thread
+            asyncResponse.resume(this.lookupOrGetManifestForService(stringQueries, null, preferredLanguage));
+            return;
+        }
+        asyncExecutor.resume(asyncResponse, () -> this.lookupOrGetManifestForService(stringQueries, null, preferredLanguage));
     }
 
     @GET
@@ -416,10 +450,15 @@ public Response lookupOrGetManifest(
     @Produces("text/html; charset=UTF-8")
     @JSONP(queryParam="callback")
     @RequiresPermissions(value = {Permissions.RECONCILIATION_SERVICE.READ_DESCRIPTION})
-    public Response getDescription(
+    public void getDescription(
         @NotNull @QueryParam("uri") String uri,
-        @QueryParam("repository") String repositoryId
+        @QueryParam("repository") String repositoryId,
+        @Suspended AsyncResponse asyncResponse
     ) {
+        asyncExecutor.resume(asyncResponse, () -> this.createDescription(uri, repositoryId));
+    }
+
+    protected Response createDescription(String uri, @Nullable String repositoryId) {
         IRI resourceIri = vf.createIRI(uri);
         Repository repository = repositoryId == null ?
             this.repositoryManager.getDefault() :
@@ -540,6 +579,9 @@ protected Response lookupEntry(
 
     protected LookupMultiResponse lookup(LookupMultiRequest multiRequest, @Nullable String lookupServiceName) throws TimeoutException {
         LookupService service = getLookupService(lookupServiceName);
+        if (service.supportsBatchLookup() && multiRequest.getRequests().size() > 1) {
+            return lookupBatch(service, multiRequest);
+        }
         // TODO: share thread pool between requests
         ExecutorService executorService = createExecutorService(multiRequest.getRequests().size());
         Map<String, LookupResponse> responseMap = Maps.newConcurrentMap();
@@ -581,6 +623,40 @@ protected LookupMultiResponse lookup(LookupMultiRequest multiRequest, @Nullable
         return new LookupMultiResponse(responseMap);
     }
 
+    /**
+     * Evaluate all requests at once using {@link LookupService#lookupBatch(LookupMultiRequest)}, e.g. to
+     * combine them into a single request to a remote system. If the lookup does not complete within
+     * {@link #RESPONSE_TIMEOUT} seconds, it is cancelled and all requests are answered with an empty
+     * response.
+     */
+    protected LookupMultiResponse lookupBatch(LookupService service, LookupMultiRequest multiRequest) {
+        Map<String, LookupResponse> responseMap = new LinkedHashMap<>();
+        ExecutorService executorService = createExecutorService(1);
+        Future<LookupMultiResponse> future = executorService
+                .submit(PlatformTaskWrapper.INSTANCE.wrap(() -> service.lookupBatch(multiRequest)));
+        try {
+            responseMap.putAll(future.get(RESPONSE_TIMEOUT, TimeUnit.SECONDS).getResponses());
+        } catch (TimeoutException e) {
+            logger.warn("Batched lookup requests did not complete within {} seconds.", RESPONSE_TIMEOUT);
+            future.cancel(true);
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while waiting for batched lookup requests.");
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("The error occurred during the execution of batched lookup requests: "
+                    + e.getCause().getMessage());
+            logger.debug("Details: ", e.getCause());
+        } finally {
+            executorService.shutdown();
+        }
+        // store empty response for failed requests to not fail the overall request
+        for (String queryId : multiRequest.getRequests().keySet()) {
+            responseMap.computeIfAbsent(queryId, id -> new LookupResponse(id, Collections.emptyList()));
+        }
+        return new LookupMultiResponse(responseMap);
+    }
+
     protected LookupService getLookupService(@Nullable String lookupServiceName) {
         Optional<LookupService> lookupService;
         if (Strings.isNullOrEmpty(lookupServiceName)) {
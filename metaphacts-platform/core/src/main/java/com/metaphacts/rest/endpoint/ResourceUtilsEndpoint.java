@@ -44,10 +44,21 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 import javax.inject.Inject;
@@ -59,9 +70,15 @@
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
@@ -75,11 +92,15 @@
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.metaphacts.cache.DescriptionService;
 import com.metaphacts.cache.LabelService;
 import com.metaphacts.repository.RepositoryManager;
 import com.metaphacts.resource.TypeService;
 import com.metaphacts.rest.feature.CacheControl.NoCache;
+import com.metaphacts.security.PlatformTaskWrapper;
+import com.metaphacts.servlet.AsyncRequestExecutor;
+import com.metaphacts.thumbnails.ThumbnailService;
 import com.metaphacts.thumbnails.ThumbnailServiceRegistry;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -95,6 +116,15 @@
 @NoCache
 @Path("data/rdf/utils")
 public class ResourceUtilsEndpoint {
+    private static final Logger logger = LogManager.getLogger(ResourceUtilsEndpoint.class);
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final Set<ResourceCardFacet> DEFAULT_FACETS = Collections.unmodifiableSet(
+        EnumSet.of(ResourceCardFacet.label, ResourceCardFacet.types, ResourceCardFacet.description));
+
+    private static final int NUMBER_OF_THREADS = 8;
+
     @Inject
     private LabelService labelCache;
 
@@ -110,6 +140,11 @@ public class ResourceUtilsEndpoint {
     @Inject
     private RepositoryManager repositoryManager;
 
+    @Inject
+    private AsyncRequestExecutor asyncExecutor;
+
+    private ExecutorService executorService;
+
     /**
      * Fetch a label for each provided IRI.
      * 
@@ -126,8 +161,9 @@ public class ResourceUtilsEndpoint {
      *                          Examples: <code>en</code>,
      *                          <code>en,fr-CH,de,ru</code></li>
      * @param jp                JSON Parser (injected from the framework)
-     * @return JSON object with one entry per IRI. Each entries value is a label
-     *         string
+     * @param asyncResponse     the suspended response, resumed with a JSON object
+     *                          with one entry per IRI. Each entries value is a
+     *                          label string
      * @throws IOException
      * @throws RepositoryException
      */
@@ -137,10 +173,11 @@ public class ResourceUtilsEndpoint {
     @Path("getLabelsForRdfValue")
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response getLabelsForRdfValue(
+    public void getLabelsForRdfValue(
         @QueryParam("repository") final Optional<String> repositoryId,
         @QueryParam("preferredLanguage") Optional<String> preferredLanguage,
-        final JsonParser jp
+        final JsonParser jp,
+        @Suspended final AsyncResponse asyncResponse
     ) throws IOException, RepositoryException {
         Repository repo = repositoryManager.getRepository(repositoryId).orElse(repositoryManager.getDefault());
         StreamingOutput stream = new StreamingOutput() {
@@ -172,7 +209,8 @@ public void write(OutputStream os) throws IOException,
                 }
             }
         };
-        return Response.ok(stream).build();
+        // the streaming output is written by the thread resuming the response
+        asyncExecutor.resume(asyncResponse, () -> Response.ok(stream).build());
     }
 
     /**
@@ -181,8 +219,8 @@ public void write(OutputStream os) throws IOException,
      * @param repositoryId repository from which to read types. If not provided the
      *                     default repository is used.
      * @param jp           JSON Parser (injected from the framework)
-     * @return JSON object with one entry per IRI. Each entries value is a list of
-     *         IRIs
+     * @param asyncResponse the suspended response, resumed with a JSON object with
+     *                     one entry per IRI. Each entries value is a list of IRIs
      * @throws IOException
      * @throws RepositoryException
      */
@@ -192,8 +230,8 @@ public void write(OutputStream os) throws IOException,
     @Path("getTypesForRdfValue")
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response getTypesForRdfValue(@QueryParam("repository") final Optional<String> repositoryId,
-            final JsonParser jp) throws IOException, RepositoryException {
+    public void getTypesForRdfValue(@QueryParam("repository") final Optional<String> repositoryId,
+            final JsonParser jp, @Suspended final AsyncResponse asyncResponse) throws IOException, RepositoryException {
         Repository repo = repositoryManager.getRepository(repositoryId).orElse(repositoryManager.getDefault());
         StreamingOutput stream = new StreamingOutput() {
             @Override
@@ -223,7 +261,8 @@ public void write(OutputStream os) throws IOException, WebApplicationException {
                 }
             }
         };
-        return Response.ok(stream).build();
+        // the streaming output is written by the thread resuming the response
+        asyncExecutor.resume(asyncResponse, () -> Response.ok(stream).build());
     }
 
     /**
@@ -242,8 +281,9 @@ public void write(OutputStream os) throws IOException, WebApplicationException {
      *                          Examples: <code>en</code>,
      *                          <code>en,fr-CH,de,ru</code></li>
      * @param jp                JSON Parser (injected from the framework)
-     * @return JSON object with one entry per IRI. Each entries value is a label
-     *         string
+     * @param asyncResponse     the suspended response, resumed with a JSON object
+     *                          with one entry per IRI. Each entries value is a
+     *                          label string
      * @throws IOException
      * @throws RepositoryException
      */
@@ -253,10 +293,11 @@ public void write(OutputStream os) throws IOException, WebApplicationException {
     @Path("getDescriptionForRdfValue")
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response getDescriptionsForRdfValues(
+    public void getDescriptionsForRdfValues(
         @QueryParam("repository") final Optional<String> repositoryId,
         @QueryParam("preferredLanguage") Optional<String> preferredLanguage,
-        final JsonParser jp
+        final JsonParser jp,
+        @Suspended final AsyncResponse asyncResponse
     ) throws IOException, RepositoryException {
         Repository repo = repositoryManager.getRepository(repositoryId).orElse(repositoryManager.getDefault());
         StreamingOutput stream = new StreamingOutput() {
@@ -288,7 +329,247 @@ public void write(OutputStream os) throws IOException,
                 }
             }
         };
-        return Response.ok(stream).build();
+        // the streaming output is written by the thread resuming the response
+        asyncExecutor.resume(asyncResponse, () -> Response.ok(stream).build());
+    }
+
+    /**
+     * Fetch several facets (label, types, description, thumbnail) for each
+     * provided IRI with a single request.
+     * 
+     * <p>
+     * The requested facets are resolved concurrently, each using the bulk lookup of
+     * the respective service. The response is streamed as newline-delimited JSON
+     * with one line per facet, written as soon as the facet is resolved:
+     * </p>
+     * 
+     * <pre>
+     * {"facet":"label","values":{"http://example.org/a":"A"}}
+     * {"facet":"types","values":{"http://example.org/a":["http://example.org/Type"]}}
+     * </pre>
+     * 
+     * <p>
+     * The value format of each facet corresponds to the respective single-facet
+     * endpoint. If a facet cannot be resolved, its line contains an
+     * {@code error} message instead of {@code values}.
+     * </p>
+     * 
+     * @param repositoryId      repository from which to read data. If not
+     *                          provided the default repository is used.
+     * @param preferredLanguage language tag (or comma-separated list of language
+     *                          tags with decreasing order of preference) of the
+     *                          preferred language(s) (optional)
+     * @param facets            comma-separated list of facets to fetch, see
+     *                          {@link ResourceCardFacet}. If not provided, labels,
+     *                          types and descriptions are fetched.
+     * @param thumbnailService  name of the thumbnail service, required for the
+     *                          {@code thumbnail} facet
+     * @param jp                JSON Parser (injected from the framework)
+     * @param asyncResponse     the suspended response, resumed with
+     *                          newline-delimited JSON with one line per facet
+     */
+    @POST
+    @Operation(summary = "Returns labels, types, descriptions and/or thumbnails for each provided IRI", responses = {
+            @ApiResponse(description = "one JSON object per facet with IRI-value pairs", content = @Content(mediaType = APPLICATION_NDJSON)) })
+    @Path("getResourceCards")
+    @Produces(APPLICATION_NDJSON)
+    @Consumes(APPLICATION_JSON)
+    public void getResourceCards(
+        @QueryParam("repository") final Optional<String> repositoryId,
+        @QueryParam("preferredLanguage") Optional<String> preferredLanguage,
+        @QueryParam("facets") Optional<String> facets,
+        @QueryParam("thumbnailService") Optional<String> thumbnailService,
+        final JsonParser jp,
+        @Suspended final AsyncResponse asyncResponse
+    ) throws IOException, RepositoryException {
+        Set<ResourceCardFacet> requestedFacets;
+        try {
+            requestedFacets = facets.map(ResourceCardFacet::parse).orElse(DEFAULT_FACETS);
+        } catch (IllegalArgumentException e) {
+            asyncResponse.resume(
+                Response.status(Status.BAD_REQUEST).type(MediaType.TEXT_PLAIN_TYPE).entity(e.getMessage()).build());
+            return;
+        }
+        Optional<ThumbnailService> thumbnails = thumbnailService.flatMap(thumbnailServiceRegistry::get);
+        if (requestedFacets.contains(ResourceCardFacet.thumbnail) && !thumbnails.isPresent()) {
+            asyncResponse.resume(Response.status(Status.NOT_FOUND).type(MediaType.TEXT_PLAIN_TYPE)
+                .entity(String.format("Thumbnail service '%s' not found.", thumbnailService.orElse(""))).build());
+            return;
+        }
+
+        Repository repo = repositoryManager.getRepository(repositoryId).orElse(repositoryManager.getDefault());
+        String languageTag = preferredLanguage
+            .flatMap(tag -> Optional.ofNullable(Literals.normalizeLanguageTag(tag))).orElse(null);
+
+        StreamingOutput stream = os -> {
+            Map<IRI, String> iriToUriString = readResourceIris(jp);
+
+            CompletionService<FacetResult> completionService = new ExecutorCompletionService<>(getExecutorService());
+            List<Future<FacetResult>> futures = new ArrayList<>();
+            for (ResourceCardFacet facet : requestedFacets) {
+                Callable<FacetWriter> resolver;
+                switch (facet) {
+                case label:
+                    resolver = () -> labelsWriter(iriToUriString, labelCache.getLabels(
+                        iriToUriString.keySet(), repo, languageTag));
+                    break;
+                case types:
+                    resolver = () -> typesWriter(iriToUriString, typeService.getAllTypes(iriToUriString.keySet(), repo));
+                    break;
+                case description:
+                    resolver = () -> descriptionsWriter(iriToUriString, descriptionCache.getDescriptions(
+                        iriToUriString.keySet(), repo, languageTag));
+                    break;
+                case thumbnail:
+                    resolver = () -> thumbnailsWriter(iriToUriString,
+                        thumbnails.get().getThumbnails(repo, iriToUriString.keySet()));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported facet: " + facet);
+                }
+                Callable<FacetResult> task = PlatformTaskWrapper.INSTANCE.wrap(() -> {
+                    try {
+                        return new FacetResult(facet, resolver.call(), null);
+                    } catch (Exception e) {
+                        logger.warn("Failed to fetch {} for {} resources: {}", facet, iriToUriString.size(),
+                            e.getMessage());
+                        logger.debug("Details: ", e);
+                        return new FacetResult(facet, null, e.getMessage());
+                    }
+                });
+                futures.add(completionService.submit(task));
+            }
+
+            try (JsonGenerator output = new JsonFactory().createGenerator(os)) {
+                for (int i = 0; i < futures.size(); i++) {
+                    FacetResult result = completionService.take().get();
+                    output.writeStartObject();
+                    output.writeStringField("facet", result.facet.name());
+                    if (result.writer != null) {
+                        output.writeFieldName("values");
+                        result.writer.write(output);
+                    } else {
+                        output.writeStringField("error", result.error);
+                    }
+                    output.writeEndObject();
+                    output.writeRaw('\n');
+                    output.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebApplicationException(e);
+            } catch (ExecutionException e) {
+                throw new WebApplicationException(e.getCause());
+            } finally {
+                // cancel remaining facets, e.g. if the client disconnected
+                futures.forEach(future -> future.cancel(true));
+            }
+        };
+        // the streaming output is written by the thread resuming the response
+        asyncExecutor.resume(asyncResponse, () -> Response.ok(stream).build());
+    }
+
+    private static FacetWriter labelsWriter(Map<IRI, String> iriToUriString, Map<IRI, Optional<Literal>> labels) {
+        return output -> {
+            output.writeStartObject();
+            for (IRI iri : labels.keySet()) {
+                output.writeStringField(iriToUriString.get(iri),
+                    LabelService.resolveLabelWithFallback(labels.get(iri), iri));
+            }
+            output.writeEndObject();
+        };
+    }
+
+    private static FacetWriter typesWriter(Map<IRI, String> iriToUriString, Map<IRI, Optional<Iterable<IRI>>> types) {
+        return output -> {
+            output.writeStartObject();
+            for (IRI iri : types.keySet()) {
+                output.writeArrayFieldStart(iriToUriString.get(iri));
+                for (IRI typeIRI : types.get(iri).orElse(Collections.emptyList())) {
+                    output.writeString(typeIRI.stringValue());
+                }
+                output.writeEndArray();
+            }
+            output.writeEndObject();
+        };
+    }
+
+    private static FacetWriter descriptionsWriter(Map<IRI, String> iriToUriString,
+            Map<IRI, Optional<Literal>> descriptions) {
+        return output -> {
+            output.writeStartObject();
+            for (IRI iri : descriptions.keySet()) {
+                output.writeStringField(iriToUriString.get(iri),
+                    descriptions.get(iri).map(Literal::stringValue).orElse(null));
+            }
+            output.writeEndObject();
+        };
+    }
+
+    private static FacetWriter thumbnailsWriter(Map<IRI, String> iriToUriString,
+            Map<IRI, Optional<Value>> thumbnails) {
+        return output -> {
+            output.writeStartObject();
+            for (IRI iri : iriToUriString.keySet()) {
+                output.writeStringField(iriToUriString.get(iri),
+                    thumbnails.getOrDefault(iri, Optional.empty()).map(Value::stringValue).orElse(null));
+            }
+            output.writeEndObject();
+        };
+    }
+
+    /**
+     * Get the ExecutorService used to resolve the facets of
+     * {@link #getResourceCards(Optional, Optional, Optional, Optional, JsonParser)}
+     * concurrently. The ExecutorService is shared between requests and created
+     * lazily.
+     */
+    protected synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("resource-cards-%d").setDaemon(true).build());
+        }
+        return executorService;
+    }
+
+    /**
+     * Facets which can be requested from
+     * {@link ResourceUtilsEndpoint#getResourceCards(Optional, Optional, Optional, Optional, JsonParser)}.
+     */
+    public enum ResourceCardFacet {
+        label, types, description, thumbnail;
+
+        static Set<ResourceCardFacet> parse(String facets) {
+            Set<ResourceCardFacet> result = EnumSet.noneOf(ResourceCardFacet.class);
+            for (String facet : facets.split(",")) {
+                if (facet.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    result.add(ResourceCardFacet.valueOf(facet.trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown facet: " + facet.trim());
+                }
+            }
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FacetWriter {
+        void write(JsonGenerator output) throws IOException;
+    }
+
+    private static class FacetResult {
+        private final ResourceCardFacet facet;
+        private final FacetWriter writer;
+        private final String error;
+
+        FacetResult(ResourceCardFacet facet, FacetWriter writer, String error) {
+            this.facet = facet;
+            this.writer = writer;
+            this.error = error;
+        }
     }
 
     /**
@@ -311,11 +592,12 @@ private Map<IRI, String> readResourceIris(JsonParser input) throws IOException {
     @Path("thumbnails/{service}")
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response getThumbnailURLs(
+    public void getThumbnailURLs(
         @PathParam("service") String service, List<String> resources,
-        @QueryParam("repository") Optional<String> repositoryId
+        @QueryParam("repository") Optional<String> repositoryId,
+        @Suspended final AsyncResponse asyncResponse
     ) {
-        return thumbnailServiceRegistry.get(service).map(thumbnailService -> {
+        asyncExecutor.resume(asyncResponse, () -> thumbnailServiceRegistry.get(service).map(thumbnailService -> {
             Repository repo = repositoryManager.getRepository(repositoryId).orElse(repositoryManager.getDefault());
             ValueFactory vf = SimpleValueFactory.getInstance();
             Map<IRI, String> resourceIRIs = resources.stream().collect(
@@ -341,6 +623,6 @@ public Response getThumbnailURLs(
             return Response.ok(stream);
         }).orElse(Response.status(Response.Status.NOT_FOUND)
             .entity(String.format("\"Thumbnail service '%s' not found.\"", service))
-        ).build();
+        ).build());
     }
 }
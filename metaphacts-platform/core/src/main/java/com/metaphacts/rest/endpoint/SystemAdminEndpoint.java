@@ -71,8 +71,17 @@
 
 import com.google.common.collect.Maps;
 import com.google.inject.Provider;
+import com.metaphacts.lookup.api.LookupService;
+import com.metaphacts.lookup.api.LookupServiceManager;
+import com.metaphacts.lookup.impl.AbstractLookupService;
+import com.metaphacts.lookup.impl.LookupStatistics;
+import com.metaphacts.querycatalog.QaasServiceStatistics;
+import com.metaphacts.querycatalog.QueryCatalogRESTService;
+import com.metaphacts.querycatalog.QueryCatalogRESTServiceRegistry;
+import com.metaphacts.repository.RepositoryManager;
 import com.metaphacts.rest.feature.CacheControl.NoCache;
 import com.metaphacts.security.Permissions.SYSTEM;
+import com.metaphacts.trace.RequestTracer;
 import com.metaphacts.util.SystemPropUtils;
 
 /**
@@ -85,6 +94,18 @@ public class SystemAdminEndpoint {
     @Inject
     private Provider<ServletContext> sc;
 
+    @Inject
+    private RequestTracer requestTracer;
+
+    @Inject
+    private RepositoryManager repositoryManager;
+
+    @Inject
+    private QueryCatalogRESTServiceRegistry queryCatalogRegistry;
+
+    @Inject
+    private LookupServiceManager lookupServiceManager;
+
     private static final Logger logger = LogManager.getLogger(SystemAdminEndpoint.class);
 
     @GET()
@@ -119,6 +140,56 @@ public Response getJvmProperties() {
         return Response.ok().entity(new TreeMap<String, String>(filteredProperties)).build();
     }
 
+    @GET()
+    @Path("slow-requests")
+    @NoCache
+    @RequiresAuthentication
+    @RequiresPermissions(SYSTEM.REQUEST_TRACES)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSlowRequests() {
+        return Response.ok().entity(requestTracer.getSlowRequests()).build();
+    }
+
+    @GET()
+    @Path("sparql-http-statistics")
+    @NoCache
+    @RequiresAuthentication
+    @RequiresPermissions(SYSTEM.HTTP_STATISTICS)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSparqlHttpStatistics() {
+        return Response.ok().entity(repositoryManager.getClientSessionManager().getEndpointStatistics()).build();
+    }
+
+    @GET()
+    @Path("qaas-statistics")
+    @NoCache
+    @RequiresAuthentication
+    @RequiresPermissions(SYSTEM.QAAS_STATISTICS)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getQaasStatistics() {
+        Map<String, QaasServiceStatistics> statistics = new TreeMap<>();
+        for (QueryCatalogRESTService service : queryCatalogRegistry.getServices()) {
+            statistics.put(service.getId(), service.getStatistics());
+        }
+        return Response.ok().entity(statistics).build();
+    }
+
+    @GET()
+    @Path("lookup-statistics")
+    @NoCache
+    @RequiresAuthentication
+    @RequiresPermissions(SYSTEM.LOOKUP_STATISTICS)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getLookupStatistics() {
+        Map<String, LookupStatistics> statistics = new TreeMap<>();
+        for (Map.Entry<String, LookupService> entry : lookupServiceManager.getLookupServices().entrySet()) {
+            if (entry.getValue() instanceof AbstractLookupService) {
+                statistics.put(entry.getKey(), ((AbstractLookupService<?>) entry.getValue()).getStatistics());
+            }
+        }
+        return Response.ok().entity(statistics).build();
+    }
+
     @POST()
     @Path("restart")
     @NoCache
@@ -53,6 +53,8 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -125,6 +127,7 @@
 import com.metaphacts.services.storage.api.PlatformStorage;
 import com.metaphacts.services.storage.api.StorageException;
 import com.metaphacts.services.storage.api.StoragePath;
+import com.metaphacts.services.storage.api.StorageTransaction;
 import com.metaphacts.templates.MetaphactsHandlebars;
 import com.metaphacts.templates.PageViewConfig;
 import com.metaphacts.templates.PageViewConfigManager;
@@ -755,19 +758,20 @@ public List< TemplateInfo> getAllInfo() throws IOException, URISyntaxException {
         Collection<PlatformStorage.FindResult> templateObjects =
             platformStorage.findAll(ObjectKind.TEMPLATE).values();
 
+        Map<IRI, PlatformStorage.FindResult> templates = new LinkedHashMap<>();
+        for (PlatformStorage.FindResult result : templateObjects) {
+            Optional<IRI> iri = TemplateByIriLoader.templateIriFromPath(result.getRecord().getPath());
+            if (iri.isPresent()) {
+                templates.put(iri.get(), result);
+            }
+        }
+
         List<TemplateInfo> list = new ArrayList<>();
 
-        for (PlatformStorage.FindResult result : templateObjects) {
+        for (IRI iri : PermissionUtil.filterTemplateActionPermitted(templates.keySet(), PAGES.Action.INFO_VIEW)) {
+            PlatformStorage.FindResult result = templates.get(iri);
             ObjectRecord record = result.getRecord();
             ObjectMetadata metadata = record.getMetadata();
-            Optional<IRI> iri = TemplateByIriLoader.templateIriFromPath(record.getPath());
-            if (!iri.isPresent()) {
-                continue;
-            }
-
-            if (!PermissionUtil.hasTemplateActionPermission(iri.get(), PAGES.Action.INFO_VIEW)) {
-                continue;
-            }
 
             String creationDate = null;
             if (metadata.getCreationDate() != null) {
@@ -775,7 +779,7 @@ public List< TemplateInfo> getAllInfo() throws IOException, URISyntaxException {
             }
             TemplateInfo info = new TemplateInfo(
                 result.getAppId(),
-                iri.get().stringValue(),
+                iri.stringValue(),
                 record.getRevision(),
                 metadata.getAuthor(),
                 creationDate
@@ -829,13 +833,16 @@ public Response exportRevisions(List<RevisionInfo> selected) throws IOException
         if (selected.isEmpty()) {
             return Response.status(Status.NOT_ACCEPTABLE).build();
         }
+        Set<IRI> permitted = new HashSet<>(PermissionUtil.filterTemplateActionPermitted(
+                selected.stream().map(info -> vf.createIRI(info.iri)).collect(Collectors.toList()),
+                PAGES.Action.INFO_EXPORT));
         StreamingOutput stream = new StreamingOutput() {
             @Override
             public void write(OutputStream output) throws IOException, WebApplicationException {
                 try(ZipOutputStream zos = new ZipOutputStream(output)){
                     for (RevisionInfo info : selected) {
                         IRI iri = vf.createIRI(info.iri);
-                        if (!PermissionUtil.hasTemplateActionPermission(iri, PAGES.Action.INFO_EXPORT)) {
+                        if (!permitted.contains(iri)) {
                             throw new SecurityException("No permission to export the " + info.iri + " template");
                         }
 
@@ -896,23 +903,32 @@ private String getExportFileName(){
     @Consumes("application/json")
     @RequiresAuthentication
     public void deleteRevisions(List<RevisionInfo> selected) throws IOException, WebApplicationException {
-        for (RevisionInfo info : selected) {
-            IRI iri = vf.createIRI(info.iri);
-            if (!PermissionUtil.hasTemplateActionPermission(iri, PAGES.Action.INFO_DELETE)) {
+        List<IRI> iris = selected.stream().map(info -> vf.createIRI(info.iri)).collect(Collectors.toList());
+        Set<IRI> permitted = new HashSet<>(
+                PermissionUtil.filterTemplateActionPermitted(iris, PAGES.Action.INFO_DELETE));
+        for (IRI iri : iris) {
+            if (!permitted.contains(iri)) {
                 throw new WebApplicationException("No permission to delete the template: " + iri.stringValue(), Status.FORBIDDEN);
             }
         }
 
-        for (RevisionInfo info : selected) {
-            IRI iri = vf.createIRI(info.iri);
-            StoragePath objectId = TemplateByIriLoader.templatePathFromIri(iri);
-            ObjectStorage storage = platformStorage.getStorage(info.appId);
+        // delete all templates of an app as a single revision
+        Map<String, List<RevisionInfo>> selectedByApp = selected.stream()
+                .collect(Collectors.groupingBy(info -> info.appId, LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<String, List<RevisionInfo>> appSelection : selectedByApp.entrySet()) {
+            ObjectStorage storage = platformStorage.getStorage(appSelection.getKey());
             if (!storage.isMutable()) {
-                throw new WebApplicationException("Failed to delete page '" + info.iri + "': storage is read only",
-                        Status.INTERNAL_SERVER_ERROR);
+                throw new WebApplicationException("Failed to delete page '" + appSelection.getValue().get(0).iri
+                        + "': storage is read only", Status.INTERNAL_SERVER_ERROR);
+            }
+            try (StorageTransaction tx = StorageUtils.beginTransaction(storage,
+                    platformStorage.getDefaultMetadata())) {
+                for (RevisionInfo info : appSelection.getValue()) {
+                    IRI iri = vf.createIRI(info.iri);
+                    tx.deleteObject(TemplateByIriLoader.templatePathFromIri(iri));
+                }
+                tx.commit();
             }
-            storage.deleteObject(
-                objectId, platformStorage.getDefaultMetadata());
         }
 
         // invalidate the page render cache
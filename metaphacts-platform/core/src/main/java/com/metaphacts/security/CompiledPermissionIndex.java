@@ -0,0 +1,210 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.security;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.shiro.authz.Permission;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compiled representation of the effective permissions of a subject.
+ * <p>
+ * Instead of evaluating {@link Permission#implies(Permission)} for every
+ * permission of the subject, the permissions are organized in a trie keyed by
+ * the leading literal parts of the permission string (i.e. domain, action,
+ * ...). A permission is attached to the trie node at which its first
+ * non-literal part (wildcard, multiple sub-parts, regex filter) occurs. A
+ * check only needs to evaluate the permissions attached to the nodes along the
+ * path of the requested permission, which for typical role definitions with
+ * many (regex based) <code>pages:</code> permissions is a small fraction of
+ * all permissions.
+ * </p>
+ * <p>
+ * In addition recent decisions are memorized. Instances are immutable with
+ * respect to the compiled permissions and must be discarded when the
+ * underlying permissions change, see {@link CompiledPermissionIndexCache}.
+ * </p>
+ */
+class CompiledPermissionIndex {
+
+    /**
+     * Maximum number of memorized permission check decisions
+     */
+    static final int MAX_DECISION_MEMO_SIZE = 1000;
+
+    private static final String WILDCARD_TOKEN = "*";
+
+    private final Node root = new Node();
+
+    /**
+     * All permissions in their original order, used for requested permissions
+     * that cannot be looked up in the trie
+     */
+    private final List<Permission> permissions;
+
+    private final Cache<String, Boolean> decisionMemo = CacheBuilder.newBuilder()
+            .maximumSize(MAX_DECISION_MEMO_SIZE).build();
+
+    public CompiledPermissionIndex(Collection<Permission> permissions) {
+        this.permissions = permissions == null ? Collections.emptyList() : ImmutableList.copyOf(permissions);
+        for (Permission p : this.permissions) {
+            add(p);
+        }
+    }
+
+    private void add(Permission p) {
+        Node node = root;
+        if (p instanceof WildcardPermission) {
+            WildcardPermission wp = (WildcardPermission) p;
+            for (Set<String> part : wp.getParts()) {
+                String token = literalToken(part);
+                if (token == null || wp.regexPatterns.containsKey(token)) {
+                    break;
+                }
+                node = node.children.computeIfAbsent(token, t -> new Node());
+            }
+        }
+        node.candidates.add(p);
+    }
+
+    /**
+     * 
+     * @param permission the requested permission
+     * @return <code>true</code> if any of the compiled permissions implies the
+     *         requested permission
+     */
+    public boolean implies(Permission permission) {
+        String key = memoKey(permission);
+        if (key == null) {
+            return evaluate(permission);
+        }
+        Boolean decision = decisionMemo.getIfPresent(key);
+        if (decision == null) {
+            decision = evaluate(permission);
+            decisionMemo.put(key, decision);
+        }
+        return decision;
+    }
+
+    protected boolean evaluate(Permission permission) {
+        if (!(permission instanceof WildcardPermission)) {
+            // no structural information available: fall back to linear scan
+            for (Permission p : permissions) {
+                if (p.implies(permission)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Node node = root;
+        if (anyImplies(node.candidates, permission)) {
+            return true;
+        }
+        for (Set<String> part : ((WildcardPermission) permission).getParts()) {
+            // a literal part in the compiled permissions can only imply a
+            // requested part consisting of exactly this single token
+            String token = literalToken(part);
+            if (token == null) {
+                break;
+            }
+            node = node.children.get(token);
+            if (node == null) {
+                break;
+            }
+            if (anyImplies(node.candidates, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyImplies(List<Permission> candidates, Permission permission) {
+        for (Permission p : candidates) {
+            if (p.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the single token of the given part or <code>null</code> if the
+     *         part is a wildcard or consists of multiple sub-parts
+     */
+    private static String literalToken(Set<String> part) {
+        if (part.size() != 1) {
+            return null;
+        }
+        String token = part.iterator().next();
+        return WILDCARD_TOKEN.equals(token) ? null : token;
+    }
+
+    private static String memoKey(Permission permission) {
+        if (permission instanceof WildcardPermission) {
+            // the parts reflect the case sensitivity of the permission
+            return ((WildcardPermission) permission).getParts().toString();
+        }
+        return null;
+    }
+
+    /**
+     * 
+     * @return the number of memorized decisions
+     */
+    long getMemoSize() {
+        return decisionMemo.size();
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = Maps.newHashMap();
+        private final List<Permission> candidates = Lists.newArrayList();
+    }
+}
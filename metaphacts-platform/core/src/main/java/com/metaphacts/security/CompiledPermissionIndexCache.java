@@ -0,0 +1,92 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.security;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Holds the {@link CompiledPermissionIndex} for {@link AuthorizationInfo}
+ * instances of a realm.
+ * <p>
+ * Entries are weakly keyed by the identity of the {@link AuthorizationInfo},
+ * i.e. they are released together with the (cached) authorization info of a
+ * subject. As some realms update the permissions of existing
+ * {@link AuthorizationInfo} instances in place (e.g. when role definitions are
+ * updated through {@link PlatformRoleManager#updateRoles(java.util.Map, java.util.Set)}),
+ * the realm must call {@link #invalidateAll()} whenever permissions change.
+ * </p>
+ */
+class CompiledPermissionIndexCache {
+
+    private final Cache<AuthorizationInfo, CompiledPermissionIndex> cache = CacheBuilder.newBuilder()
+            .weakKeys().build();
+
+    /**
+     * 
+     * @param info                the authorization info of the subject
+     * @param permissionsResolver function to resolve the effective permissions
+     *                            of the authorization info
+     * @return the compiled permissions for the given {@link AuthorizationInfo}
+     */
+    public CompiledPermissionIndex get(AuthorizationInfo info,
+            Function<AuthorizationInfo, Collection<Permission>> permissionsResolver) {
+        try {
+            return cache.get(info, () -> new CompiledPermissionIndex(permissionsResolver.apply(info)));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to compile permissions: " + e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Discard all compiled permissions, e.g. after role definitions have been
+     * updated.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
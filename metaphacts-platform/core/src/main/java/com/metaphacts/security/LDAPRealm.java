@@ -167,6 +167,8 @@ public LDAPRealm(){
 
     private RolePermissionResolver oneTimeRolePermissionResolver;
 
+    private final CompiledPermissionIndexCache compiledPermissions = new CompiledPermissionIndexCache();
+
     public void setGroupRolesMap(Map<String, String> groupRolesMap) {
         this.groupRolesMap = groupRolesMap;
     }
@@ -533,4 +535,21 @@ public List<UserMetadata> getUsersMetadata() {
     public void setOneTimeRolePermissionResolver(RolePermissionResolver rpr) {
         this.oneTimeRolePermissionResolver = rpr;
     }
+
+    @Override
+    public void updateRoleDefinitions() {
+        compiledPermissions.invalidateAll();
+    }
+
+    /**
+     * Evaluates the permission check against the compiled permissions of the
+     * {@link AuthorizationInfo}, see {@link CompiledPermissionIndex}.
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if (info == null) {
+            return false;
+        }
+        return compiledPermissions.get(info, this::getPermissions).implies(permission);
+    }
 }
@@ -39,15 +39,25 @@
  */
 package com.metaphacts.security;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.authz.Authorizer;
+import org.apache.shiro.mgt.RealmSecurityManager;
+import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.realm.Realm;
+import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.Subject;
 import org.eclipse.rdf4j.model.IRI;
 
+import com.google.common.collect.Lists;
 import com.metaphacts.api.sparql.SparqlUtil.SparqlOperation;
 import com.metaphacts.repository.RepositoryManager;
 import com.metaphacts.security.Permissions.PAGES;
@@ -90,6 +100,84 @@ public static boolean hasGraphStorePermission(String graphStoreAction, @Nullable
     public static boolean hasTemplateActionPermission(IRI iri, PAGES.Action action) {
         return (SecurityUtils.getSubject().isPermitted(PAGES.templateOperationPermission(iri, action)));
     }
+
+    /**
+     * Bulk variant of {@link #hasTemplateActionPermission(IRI, PAGES.Action)}.
+     * 
+     * @param iris   the template IRIs to check
+     * @param action the template action
+     * @return the IRIs for which the current user has the permission to perform
+     *         the action, in the iteration order of the input
+     */
+    public static List<IRI> filterTemplateActionPermitted(Collection<IRI> iris, PAGES.Action action) {
+        return filterPermitted(iris, iri -> PAGES.templateOperationPermission(iri, action));
+    }
+
+    /**
+     * Filter the given items to those for which the current user has the
+     * permission as computed by the provided function.
+     * 
+     * @param items              the items to check
+     * @param permissionFunction function computing the required permission string
+     *                           for an item
+     * @return the permitted items, in the iteration order of the input
+     * @see #isPermitted(List)
+     */
+    public static <T> List<T> filterPermitted(Collection<T> items, Function<T, String> permissionFunction) {
+        List<T> itemList = Lists.newArrayList(items);
+        boolean[] permitted = isPermitted(
+                itemList.stream().map(permissionFunction).collect(Collectors.toList()));
+        List<T> result = Lists.newArrayListWithCapacity(itemList.size());
+        for (int i = 0; i < permitted.length; i++) {
+            if (permitted[i]) {
+                result.add(itemList.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check a list of permissions for the current user.
+     * <p>
+     * In contrast to calling {@link Subject#isPermitted(String)} for each
+     * permission, the subject and its authorization information are resolved
+     * only once per realm for the whole list.
+     * </p>
+     * 
+     * @param permissions the permission strings
+     * @return an array of the same size as the input, indicating for each
+     *         permission whether it is granted
+     */
+    public static boolean[] isPermitted(List<String> permissions) {
+        if (permissions.isEmpty()) {
+            return new boolean[0];
+        }
+        Subject subject = SecurityUtils.getSubject();
+        // permission strings are resolved by each realm, exactly as for Subject#isPermitted(String)
+        String[] resolved = permissions.toArray(new String[0]);
+
+        PrincipalCollection principals = subject.getPrincipals();
+        SecurityManager securityManager = SecurityUtils.getSecurityManager();
+        Collection<Realm> realms = securityManager instanceof RealmSecurityManager
+                ? ((RealmSecurityManager) securityManager).getRealms()
+                : null;
+        if (principals == null || principals.isEmpty() || realms == null) {
+            return subject.isPermitted(resolved);
+        }
+
+        // same semantics as ModularRealmAuthorizer: permitted if any realm grants it
+        boolean[] result = new boolean[resolved.length];
+        for (Realm realm : realms) {
+            if (!(realm instanceof Authorizer)) {
+                continue;
+            }
+            boolean[] permitted = ((Authorizer) realm).isPermitted(principals, resolved);
+            for (int i = 0; i < result.length; i++) {
+                result[i] |= permitted[i];
+            }
+        }
+        return result;
+    }
     
     /**
      * First part of the regular expression checks the permission type i.e. Check if it contains only alphanumeric characters.
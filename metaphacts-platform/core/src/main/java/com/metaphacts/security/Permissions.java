@@ -503,6 +503,14 @@ public static class SYSTEM {
         public static final String RESTART = "system:restart";
         @PermissionsDocField(desc = "Grants permission to read the jvm properties.")
         public static final String JVM_PROPERTIES = "system:jvm-properties";
+        @PermissionsDocField(desc = "Grants permission to view the timings of recent slow requests.")
+        public static final String REQUEST_TRACES = "system:request-traces";
+        @PermissionsDocField(desc = "Grants permission to view connection and latency statistics of SPARQL endpoints.")
+        public static final String HTTP_STATISTICS = "system:http-statistics";
+        @PermissionsDocField(desc = "Grants permission to view invocation statistics of the Query as a Service (QaaS) services.")
+        public static final String QAAS_STATISTICS = "system:qaas-statistics";
+        @PermissionsDocField(desc = "Grants permission to view cache and request statistics of the lookup services.")
+        public static final String LOOKUP_STATISTICS = "system:lookup-statistics";
     }
 
     @PermissionsDocGroup(desc = "Permissions for managing apps.")
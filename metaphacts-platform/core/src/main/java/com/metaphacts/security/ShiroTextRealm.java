@@ -55,6 +55,7 @@
 import org.apache.shiro.authc.Account;
 import org.apache.shiro.authc.SimpleAccount;
 import org.apache.shiro.authc.credential.CredentialsMatcher;
+import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleRole;
 import org.apache.shiro.authz.permission.RolePermissionResolver;
@@ -110,6 +111,8 @@ public ShiroTextRealm(Configuration config,CredentialsMatcher passwordMatcher) {
 
     private RolePermissionResolver oneTimeRolePermissionResolver;
 
+    private final CompiledPermissionIndexCache compiledPermissions = new CompiledPermissionIndexCache();
+
     private Ini getIniFromConfig(Configuration config) {
         SecurityConfigRecord record = config.getEnvironmentConfig()
             .getSecurityConfig(SecurityConfigType.ShiroConfig);
@@ -171,6 +174,7 @@ public void addAccount(String username, String password, String... roles) {
             permissions.addAll(roleManager.getRole(r).getPermissions());
         }
         getUser(username).setObjectPermissions(permissions);
+        compiledPermissions.invalidateAll();
         
         SimplePrincipalCollection principals = new SimplePrincipalCollection();
         principals.add("username", this.getName());
@@ -198,6 +202,7 @@ public void deleteAccount(String username){
         } finally {
             USERS_LOCK.writeLock().unlock();
         }
+        compiledPermissions.invalidateAll();
         
         Ini ini = getIni();
         Ini.Section usersSection = ini.getSection(USERS_SECTION_NAME);
@@ -286,5 +291,19 @@ public void updateRoleDefinitions() {
 
             account.setObjectPermissions(newPermissions);
         }
+
+        compiledPermissions.invalidateAll();
+    }
+
+    /**
+     * Evaluates the permission check against the compiled permissions of the
+     * {@link AuthorizationInfo}, see {@link CompiledPermissionIndex}.
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if (info == null) {
+            return false;
+        }
+        return compiledPermissions.get(info, this::getPermissions).implies(permission);
     }
 }
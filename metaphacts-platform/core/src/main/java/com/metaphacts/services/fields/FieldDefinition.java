@@ -45,6 +45,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -53,6 +54,7 @@
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.metaphacts.data.json.JsonUtil;
 import com.metaphacts.vocabulary.XsdUtils;
@@ -102,6 +104,9 @@ public final class FieldDefinition {
     @Nullable
     private OrderedWith orderedWith;
 
+    @Nullable
+    private ParsedFieldPatterns parsedPatterns;
+
     public IRI getIri() {
         return iri;
     }
@@ -238,6 +243,45 @@ public void setOrderedWith(OrderedWith orderedWith) {
         this.orderedWith = orderedWith;
     }
 
+    /**
+     * @return the pre-parsed patterns of this field definition or empty if the
+     *         patterns have not been parsed in advance
+     */
+    @JsonIgnore
+    public Optional<ParsedFieldPatterns> getParsedPatterns() {
+        return Optional.ofNullable(parsedPatterns);
+    }
+
+    public void setParsedPatterns(@Nullable ParsedFieldPatterns parsedPatterns) {
+        this.parsedPatterns = parsedPatterns;
+    }
+
+    /**
+     * @return a copy of this field definition which can be modified without
+     *         affecting this instance. The immutable parsed patterns are shared.
+     */
+    public FieldDefinition copy() {
+        FieldDefinition copy = new FieldDefinition();
+        copy.iri = iri;
+        copy.description = description;
+        copy.minOccurs = minOccurs;
+        copy.maxOccurs = maxOccurs;
+        copy.xsdDatatype = xsdDatatype;
+        copy.domain = new HashSet<>(domain);
+        copy.range = new HashSet<>(range);
+        copy.defaultValues = new HashSet<>(defaultValues);
+        copy.selectPattern = selectPattern;
+        copy.insertPattern = insertPattern;
+        copy.deletePattern = deletePattern;
+        copy.askPattern = askPattern;
+        copy.autosuggestionPattern = autosuggestionPattern;
+        copy.valueSetPattern = valueSetPattern;
+        copy.treePatterns = treePatterns;
+        copy.orderedWith = orderedWith;
+        copy.parsedPatterns = parsedPatterns;
+        return copy;
+    }
+
     public Map<String, Object> toJson() {
         Map<String, Object> json = new HashMap<>();
         if (getIri() != null) {
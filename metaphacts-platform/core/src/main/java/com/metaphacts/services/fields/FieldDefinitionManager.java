@@ -45,6 +45,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -64,22 +66,51 @@
 
 import com.metaphacts.api.sparql.SparqlOperationBuilder;
 import com.metaphacts.cache.CacheManager;
+import com.metaphacts.cache.PlatformCache;
 import com.metaphacts.config.Configuration;
+import com.metaphacts.config.NamespaceRegistry;
 import com.metaphacts.data.rdf.container.FieldDefinitionContainer;
 import com.metaphacts.repository.RepositoryManager;
 import com.metaphacts.vocabulary.FIELDS;
 
-public class FieldDefinitionManager implements FieldDefinitionGenerator {
+/**
+ * {@link FieldDefinitionGenerator} for field definitions stored in the
+ * {@link FieldDefinitionContainer} of the assets repository.
+ * 
+ * <p>
+ * All field definitions are loaded with a single query on first access and kept
+ * in memory, indexed by IRI and with their patterns pre-parsed (see
+ * {@link ParsedFieldPatterns}). The loaded definitions are dropped whenever the
+ * {@link FieldDefinitionContainer} or one of the contained fields is modified (see
+ * {@link #invalidate(Set)}) or the platform caches are invalidated. Each
+ * invalidation increments a version counter, so definitions loaded concurrently
+ * with an invalidation are never served afterwards. Callers receive copies of
+ * the loaded definitions, which they may modify.
+ * </p>
+ */
+public class FieldDefinitionManager implements FieldDefinitionGenerator, PlatformCache {
 
     private static final Logger logger = LogManager.getLogger(FieldDefinitionManager.class);
 
+    public static final String CACHE_ID = "platform.FieldDefinitionManager";
+
     private final RepositoryManager repositoryManager;
 
+    private final NamespaceRegistry namespaceRegistry;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Object loadLock = new Object();
+
+    @Nullable
+    private volatile LoadedFieldDefinitions loadedFieldDefinitions;
+
     @Inject
-    public FieldDefinitionManager(RepositoryManager repositoryManager, CacheManager cacheManager,
-            Configuration config) {
+    public FieldDefinitionManager(RepositoryManager repositoryManager, NamespaceRegistry namespaceRegistry,
+            CacheManager cacheManager, Configuration config) {
         this.repositoryManager = repositoryManager;
-
+        this.namespaceRegistry = namespaceRegistry;
+        cacheManager.register(this);
     }
 
     /**
@@ -88,14 +119,22 @@ public FieldDefinitionManager(RepositoryManager repositoryManager, CacheManager
     @Deprecated
     public Map<IRI, FieldDefinition> queryFieldDefinitions(Iterable<? extends IRI> fieldIris) {
         logger.trace("Querying field definitions: {}", fieldIris);
-        Map<IRI, Optional<FieldDefinition>> found = loadFieldDefinitions(fieldIris);
-        return flattenOptionMap(found);
+        Map<IRI, FieldDefinition> fieldDefinitions = getFieldDefinitions().fieldDefinitions;
+        Map<IRI, FieldDefinition> result = new HashMap<>();
+        for (IRI iri : fieldIris) {
+            FieldDefinition field = fieldDefinitions.get(iri);
+            if (field != null) {
+                result.put(iri, field.copy());
+            }
+        }
+        return result;
     }
 
     @Override
     public Optional<FieldDefinition> generate(IRI fieldIdentifier) {
         logger.trace("Querying field definition: {}", fieldIdentifier);
-        return loadFieldDefinitions(Collections.singletonList(fieldIdentifier)).get(fieldIdentifier);
+        return Optional.ofNullable(getFieldDefinitions().fieldDefinitions.get(fieldIdentifier))
+                .map(FieldDefinition::copy);
     }
 
     @Override
@@ -112,8 +151,59 @@ public Map<IRI, FieldDefinition> generateAll(Collection<IRI> iris) {
     @Deprecated
     public Map<IRI, FieldDefinition> queryAllFieldDefinitions() {
         logger.trace("Querying all field definitions");
-        Map<IRI, Optional<FieldDefinition>> found = loadFieldDefinitions(null);
-        return flattenOptionMap(found);
+        Map<IRI, FieldDefinition> result = new HashMap<>();
+        getFieldDefinitions().fieldDefinitions.forEach((iri, field) -> result.put(iri, field.copy()));
+        return result;
+    }
+
+    @Override
+    public void invalidate() {
+        version.incrementAndGet();
+        loadedFieldDefinitions = null;
+    }
+
+    /**
+     * Invalidates all field definitions if any of the provided IRIs is the
+     * {@link FieldDefinitionContainer} or a known field definition.
+     */
+    @Override
+    public void invalidate(Set<IRI> iris) {
+        LoadedFieldDefinitions current = loadedFieldDefinitions;
+        if (current == null) {
+            return;
+        }
+        for (IRI iri : iris) {
+            if (FieldDefinitionContainer.IRI.equals(iri) || current.fieldDefinitions.containsKey(iri)) {
+                invalidate();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String getId() {
+        return CACHE_ID;
+    }
+
+    private LoadedFieldDefinitions getFieldDefinitions() {
+        LoadedFieldDefinitions current = loadedFieldDefinitions;
+        if (current != null && current.version == version.get()) {
+            return current;
+        }
+        synchronized (loadLock) {
+            current = loadedFieldDefinitions;
+            long currentVersion = version.get();
+            if (current != null && current.version == currentVersion) {
+                return current;
+            }
+            Map<IRI, FieldDefinition> fieldDefinitions = flattenOptionMap(loadFieldDefinitions(null));
+            fieldDefinitions.values().forEach(field -> field
+                    .setParsedPatterns(ParsedFieldPatterns.parse(field, namespaceRegistry::prependSparqlPrefixes)));
+            logger.debug("Loaded {} field definitions", fieldDefinitions.size());
+            current = new LoadedFieldDefinitions(currentVersion, fieldDefinitions);
+            loadedFieldDefinitions = current;
+            return current;
+        }
     }
 
     private static <K, V> Map<K, V> flattenOptionMap(Map<K, Optional<V>> map) {
@@ -300,6 +390,20 @@ private static RuntimeException makeInvalidFieldPropertyError(Statement st, Stri
             );
     }
 
+    /**
+     * Field definitions loaded for a specific version of the
+     * {@link FieldDefinitionManager}.
+     */
+    private static class LoadedFieldDefinitions {
+        private final long version;
+        private final Map<IRI, FieldDefinition> fieldDefinitions;
+
+        LoadedFieldDefinitions(long version, Map<IRI, FieldDefinition> fieldDefinitions) {
+            this.version = version;
+            this.fieldDefinitions = Collections.unmodifiableMap(fieldDefinitions);
+        }
+    }
+
     /**
      * @deprecated use {@link FieldDefinition#toJson()} instead.
      */
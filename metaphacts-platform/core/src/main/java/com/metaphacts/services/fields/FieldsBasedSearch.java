@@ -196,9 +196,14 @@ public SearchRelation relationFromField(FieldDefinition field, String label) {
         String queryPattern;
         String rangePattern = null;
         try {
-            queryPattern = transformFieldInsertQueryToRelationPattern(kind, field.getInsertPattern());
+            Optional<ParsedFieldPatterns> parsedPatterns = field.getParsedPatterns();
+            List<UpdateExpr> insertPattern = parsedPatterns.flatMap(ParsedFieldPatterns::getInsertPattern)
+                .orElseGet(() -> parseUpdateExprs(field.getInsertPattern()));
+            queryPattern = transformFieldInsertQueryToRelationPattern(kind, insertPattern);
             if (field.getSelectPattern() != null) {
-                rangePattern = transformFieldSelectQueryToCategoryPattern(field.getSelectPattern());
+                TupleExpr selectPattern = parsedPatterns.flatMap(ParsedFieldPatterns::getSelectPattern)
+                    .orElseGet(() -> parseTupleExpr(field.getSelectPattern()));
+                rangePattern = transformFieldSelectQueryToCategoryPattern(selectPattern);
             }
         } catch (MalformedQueryException ex) {
             String message = String.format(
@@ -229,11 +234,17 @@ public SearchRelation relationFromField(FieldDefinition field, String label) {
         return relation;
     }
 
-    private String transformFieldInsertQueryToRelationPattern(RelationKind kind, String insertQuery) {
-        String query = namespaceRegistry.prependSparqlPrefixes(insertQuery);
+    private List<UpdateExpr> parseUpdateExprs(String updateQuery) {
+        String query = namespaceRegistry.prependSparqlPrefixes(updateQuery);
+        return QueryParserUtil.parseUpdate(QueryLanguage.SPARQL, query, null).getUpdateExprs();
+    }
 
-        List<UpdateExpr> updates = QueryParserUtil.parseUpdate(QueryLanguage.SPARQL, query, null)
-            .getUpdateExprs();
+    private TupleExpr parseTupleExpr(String selectQuery) {
+        String query = namespaceRegistry.prependSparqlPrefixes(selectQuery);
+        return QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+    }
+
+    private String transformFieldInsertQueryToRelationPattern(RelationKind kind, List<UpdateExpr> updates) {
         if (!(updates.size() == 1 && updates.get(0) instanceof Modify)) {
             throw new RuntimeException("Insert query should contain only single modify operation");
         }
@@ -267,9 +278,7 @@ private TupleExpr mapRelationPattern(RelationKind kind, TupleExpr pattern) {
         }
     }
 
-    private String transformFieldSelectQueryToCategoryPattern(String selectQuery) {
-        String query = namespaceRegistry.prependSparqlPrefixes(selectQuery);
-        TupleExpr queryExpr = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+    private String transformFieldSelectQueryToCategoryPattern(TupleExpr queryExpr) {
         queryExpr.visit(new VarRenameVisitor("value", "__value__"));
         return renderTupleExpression(queryExpr);
     }
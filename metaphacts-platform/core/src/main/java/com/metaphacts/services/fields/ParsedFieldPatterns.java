@@ -0,0 +1,156 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.services.fields;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UpdateExpr;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.ParsedUpdate;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+
+/**
+ * Pre-parsed select, insert, delete and value-set patterns of a {@link FieldDefinition}.
+ * 
+ * <p>
+ * Patterns are parsed once when the field definition is loaded. Accessors return
+ * copies of the parsed algebra, so callers may freely modify the result. A pattern
+ * which is not defined or cannot be parsed is returned as empty: callers should
+ * fall back to the textual pattern of the {@link FieldDefinition} in that case,
+ * e.g. to report the parse error.
+ * </p>
+ */
+public final class ParsedFieldPatterns {
+
+    private static final Logger logger = LogManager.getLogger(ParsedFieldPatterns.class);
+
+    @Nullable
+    private final ParsedTupleQuery selectPattern;
+
+    @Nullable
+    private final ParsedUpdate insertPattern;
+
+    @Nullable
+    private final ParsedUpdate deletePattern;
+
+    @Nullable
+    private final ParsedTupleQuery valueSetPattern;
+
+    private ParsedFieldPatterns(FieldDefinition field, Function<String, String> prefixer) {
+        this.selectPattern = parse(field, "select", field.getSelectPattern(), prefixer,
+                query -> QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, query, null));
+        this.insertPattern = parse(field, "insert", field.getInsertPattern(), prefixer,
+                query -> QueryParserUtil.parseUpdate(QueryLanguage.SPARQL, query, null));
+        this.deletePattern = parse(field, "delete", field.getDeletePattern(), prefixer,
+                query -> QueryParserUtil.parseUpdate(QueryLanguage.SPARQL, query, null));
+        this.valueSetPattern = parse(field, "value set", field.getValueSetPattern(), prefixer,
+                query -> QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, query, null));
+    }
+
+    /**
+     * Parse the patterns of the given field definition.
+     * 
+     * @param field    the field definition
+     * @param prefixer function to prepend prefix declarations to a pattern
+     *                 before parsing, e.g.
+     *                 {@link com.metaphacts.config.NamespaceRegistry#prependSparqlPrefixes(String)}
+     * @return the parsed patterns
+     */
+    public static ParsedFieldPatterns parse(FieldDefinition field, Function<String, String> prefixer) {
+        return new ParsedFieldPatterns(field, prefixer);
+    }
+
+    /**
+     * @return a copy of the parsed select pattern
+     */
+    public Optional<TupleExpr> getSelectPattern() {
+        return Optional.ofNullable(selectPattern).map(query -> query.getTupleExpr().clone());
+    }
+
+    /**
+     * @return a copy of the update expressions of the parsed insert pattern
+     */
+    public Optional<List<UpdateExpr>> getInsertPattern() {
+        return Optional.ofNullable(insertPattern).map(ParsedFieldPatterns::copyUpdateExprs);
+    }
+
+    /**
+     * @return a copy of the update expressions of the parsed delete pattern
+     */
+    public Optional<List<UpdateExpr>> getDeletePattern() {
+        return Optional.ofNullable(deletePattern).map(ParsedFieldPatterns::copyUpdateExprs);
+    }
+
+    /**
+     * @return a copy of the parsed value set pattern
+     */
+    public Optional<TupleExpr> getValueSetPattern() {
+        return Optional.ofNullable(valueSetPattern).map(query -> query.getTupleExpr().clone());
+    }
+
+    private static List<UpdateExpr> copyUpdateExprs(ParsedUpdate update) {
+        return update.getUpdateExprs().stream().map(UpdateExpr::clone).collect(Collectors.toList());
+    }
+
+    @Nullable
+    private static <T> T parse(FieldDefinition field, String patternName, @Nullable String pattern,
+            Function<String, String> prefixer, Function<String, T> parser) {
+        if (pattern == null) {
+            return null;
+        }
+        try {
+            return parser.apply(prefixer.apply(pattern));
+        } catch (Exception e) {
+            logger.warn("Failed to parse {} pattern of field definition {}: {}", patternName, field.getIri(),
+                    e.getMessage());
+            logger.debug("Details: ", e);
+            return null;
+        }
+    }
+}
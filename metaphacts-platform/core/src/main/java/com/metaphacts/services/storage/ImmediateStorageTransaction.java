@@ -0,0 +1,94 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.services.storage;
+
+import java.io.InputStream;
+
+import com.metaphacts.services.storage.api.ObjectMetadata;
+import com.metaphacts.services.storage.api.ObjectStorage;
+import com.metaphacts.services.storage.api.StorageException;
+import com.metaphacts.services.storage.api.StoragePath;
+import com.metaphacts.services.storage.api.StorageTransaction;
+
+/**
+ * {@link StorageTransaction} for storages without support for revisions. Each
+ * change is directly applied to the underlying {@link ObjectStorage}, i.e.
+ * changes are neither atomic nor can they be discarded.
+ */
+class ImmediateStorageTransaction implements StorageTransaction {
+
+    private final ObjectStorage storage;
+    private final ObjectMetadata metadata;
+    private boolean committed = false;
+
+    ImmediateStorageTransaction(ObjectStorage storage, ObjectMetadata metadata) {
+        this.storage = storage;
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void appendObject(StoragePath path, InputStream content, long contentLength) throws StorageException {
+        assertActive();
+        storage.appendObject(path, metadata, content, contentLength);
+    }
+
+    @Override
+    public void deleteObject(StoragePath path) throws StorageException {
+        assertActive();
+        storage.deleteObject(path, metadata);
+    }
+
+    @Override
+    public void commit() throws StorageException {
+        assertActive();
+        committed = true;
+    }
+
+    @Override
+    public void close() {
+        // changes are already applied
+    }
+
+    private void assertActive() {
+        if (committed) {
+            throw new IllegalStateException("Transaction is already committed");
+        }
+    }
+}
@@ -78,6 +78,8 @@
 import com.metaphacts.services.storage.api.StoragePath;
 import com.metaphacts.services.storage.api.StorageRegistry;
 import com.metaphacts.services.storage.file.NonVersionedFileStorage;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 
 /**
  * Main {@link PlatformStorage} implementation for the platform.
@@ -349,6 +351,13 @@ private void addStorageAsFirstInSearchOrder(StorageDescription description) {
 
     @Override
     public Optional<FindResult> findObject(StoragePath path) throws StorageException {
+        Span span = RequestTrace.span("storage.findObject");
+        try (span) {
+            return findObjectInternal(path);
+        }
+    }
+
+    private Optional<FindResult> findObjectInternal(StoragePath path) throws StorageException {
         logger.trace("Searching for single object at: {}", path);
         for (String appId : appSearchOrder) {
             StorageDescription description = storageForId(appId);
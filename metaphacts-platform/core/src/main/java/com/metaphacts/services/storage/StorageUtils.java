@@ -52,8 +52,12 @@
 
 import com.metaphacts.config.Configuration;
 import com.metaphacts.security.SecurityService;
+import com.metaphacts.services.storage.api.ObjectMetadata;
 import com.metaphacts.services.storage.api.ObjectRecord;
+import com.metaphacts.services.storage.api.ObjectStorage;
 import com.metaphacts.services.storage.api.StorageException;
+import com.metaphacts.services.storage.api.StorageTransaction;
+import com.metaphacts.services.storage.api.VersionedObjectStorage;
 
 public final class StorageUtils {
     private StorageUtils() {}
@@ -87,6 +91,26 @@ public static void throwIfNonMutable(boolean isMutable) throws StorageException
         }
     }
 
+    /**
+     * Starts a {@link StorageTransaction} on the given storage. For a
+     * {@link VersionedObjectStorage} all changes are written as a single
+     * revision, other storages apply each change immediately.
+     *
+     * @param storage  the target storage
+     * @param metadata the metadata used for all changes of the transaction
+     * @return the new transaction, to be closed by the caller
+     * @throws StorageException if the storage is not mutable
+     * @see VersionedObjectStorage#beginTransaction(ObjectMetadata)
+     */
+    public static StorageTransaction beginTransaction(ObjectStorage storage, ObjectMetadata metadata)
+            throws StorageException {
+        if (storage instanceof VersionedObjectStorage) {
+            return ((VersionedObjectStorage) storage).beginTransaction(metadata);
+        }
+        throwIfNonMutable(storage.isMutable());
+        return new ImmediateStorageTransaction(storage, metadata);
+    }
+
     /**
      * Create the folder in the given location.
      * <p>
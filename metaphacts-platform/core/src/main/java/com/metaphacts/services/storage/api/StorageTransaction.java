@@ -0,0 +1,101 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.services.storage.api;
+
+import java.io.InputStream;
+
+/**
+ * A set of object changes which are staged and then written to an
+ * {@link ObjectStorage} at once.
+ * <p>
+ * For a {@link VersionedObjectStorage} all staged changes are persisted as a
+ * single revision on {@link #commit()}, see
+ * {@link VersionedObjectStorage#beginTransaction(ObjectMetadata)}. A
+ * transaction which is closed without being committed discards all staged
+ * changes.
+ * </p>
+ * 
+ * <pre>
+ * try (StorageTransaction tx = StorageUtils.beginTransaction(storage, metadata)) {
+ *     tx.appendObject(path1, content1, length1);
+ *     tx.deleteObject(path2);
+ *     tx.commit();
+ * }
+ * </pre>
+ */
+public interface StorageTransaction extends AutoCloseable {
+
+    /**
+     * Stages a new revision of the object at the given path. If the same path is
+     * staged multiple times, the last change wins.
+     * 
+     * @param path          target object path
+     * @param content       new object revision content; automatically closed in
+     *                      either case of successful or failed operation
+     * @param contentLength must be equal to content size in bytes
+     * @throws StorageException if the content cannot be staged
+     */
+    public void appendObject(StoragePath path, InputStream content, long contentLength) throws StorageException;
+
+    /**
+     * Stages the deletion of the object at the given path. Deleting an object
+     * which does not exist is not an error.
+     * 
+     * @param path target object path
+     * @throws StorageException if the deletion cannot be staged
+     */
+    public void deleteObject(StoragePath path) throws StorageException;
+
+    /**
+     * Writes all staged changes to the storage. The transaction cannot be used
+     * after it has been committed.
+     * 
+     * @throws StorageException if writing the changes failed, in which case none
+     *                          of the changes are applied
+     */
+    public void commit() throws StorageException;
+
+    /**
+     * Discards all changes staged since the transaction was started, unless
+     * {@link #commit()} has been called. This method is a no-op after a commit.
+     */
+    @Override
+    public void close() throws StorageException;
+}
@@ -74,4 +74,15 @@ public interface VersionedObjectStorage extends ObjectStorage {
      * @return the existing tags, empty if there are no tags
      */
     public List<Tag> getTags() throws StorageException;
+
+    /**
+     * Starts a new {@link StorageTransaction} to write multiple objects as a
+     * single revision, e.g. a single commit in the case of Git.
+     * 
+     * @param metadata the {@link ObjectMetadata} of the resulting revision, the
+     *                 comment (if any) is used as revision message
+     * @return the new transaction, to be closed by the caller
+     * @throws StorageException if the storage is not mutable
+     */
+    public StorageTransaction beginTransaction(ObjectMetadata metadata) throws StorageException;
 }
@@ -46,8 +46,11 @@
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.concurrent.ExecutorService;
@@ -76,6 +79,7 @@
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEditor;
 import org.eclipse.jgit.dircache.DirCacheEntry;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.InvalidObjectIdException;
@@ -127,6 +131,7 @@
 import com.metaphacts.services.storage.api.StorageException;
 import com.metaphacts.services.storage.api.StorageLocation;
 import com.metaphacts.services.storage.api.StoragePath;
+import com.metaphacts.services.storage.api.StorageTransaction;
 import com.metaphacts.services.storage.api.Tag;
 import com.metaphacts.services.storage.api.VersionedObjectStorage;
 
@@ -524,7 +529,7 @@ public ObjectRecord appendObject(
 
             try {
                 commit = performAttemptsToCommitAndPushChanges(
-                    objectPath, insertedBlobId, author, message
+                    Collections.singletonMap(objectPath, insertedBlobId), author, message
                 );
             } catch (IOException | GitAPIException e) {
                 throw new StorageException(e);
@@ -559,7 +564,8 @@ public void deleteObject(
 
         try {
             lock.writeLock().lock();
-            performAttemptsToCommitAndPushChanges(objectPath, null, author, message);
+            performAttemptsToCommitAndPushChanges(
+                Collections.singletonMap(objectPath, null), author, message);
         } catch (IOException | GitAPIException e) {
             throw new StorageException(e);
         } finally {
@@ -567,6 +573,108 @@ public void deleteObject(
         }
     }
 
+    /**
+     * Starts a transaction which writes all staged changes as a single commit.
+     * <p>
+     * Object contents are inserted into the Git object database while staging,
+     * the index is built and the commit is created only once on
+     * {@link StorageTransaction#commit()}. If a remote is configured the commit
+     * is pushed once in the background.
+     * </p>
+     */
+    @Override
+    public StorageTransaction beginTransaction(ObjectMetadata metadata) throws StorageException {
+        StorageUtils.throwIfNonMutable(config.isMutable());
+        return new GitStorageTransaction(metadata);
+    }
+
+    private final class GitStorageTransaction implements StorageTransaction {
+        private final ObjectMetadata metadata;
+        /** staged changes as mapped path to blob id, where null denotes a deletion */
+        private final Map<StoragePath, ObjectId> changes = new LinkedHashMap<>();
+        private boolean finished = false;
+
+        public GitStorageTransaction(ObjectMetadata metadata) {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public void appendObject(StoragePath path, InputStream content, long contentLength)
+                throws StorageException {
+            assertActive();
+            StoragePath objectPath = mapPath(path);
+
+            try (InputStream stream = content;
+                 ObjectInserter inserter = repository.newObjectInserter()) {
+                ObjectId insertedBlobId = inserter.insert(Constants.OBJ_BLOB, contentLength, stream);
+                inserter.flush();
+                changes.put(objectPath, insertedBlobId);
+            } catch (IOException e) {
+                throw new StorageException(
+                    "Failed to insert object content into Git object database", e);
+            }
+        }
+
+        @Override
+        public void deleteObject(StoragePath path) throws StorageException {
+            assertActive();
+            changes.put(mapPath(path), null);
+        }
+
+        @Override
+        public void commit() throws StorageException {
+            assertActive();
+            finished = true;
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            String message = metadata.getComment() != null ? metadata.getComment() : createCommitMessage();
+            PersonIdent author = createAuthorFromMetadata(metadata.withCurrentDate());
+            try {
+                lock.writeLock().lock();
+                performAttemptsToCommitAndPushChanges(changes, author, message);
+            } catch (IOException | GitAPIException e) {
+                throw new StorageException(e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!finished) {
+                // inserted blobs are unreferenced and eventually removed by Git gc
+                logger.debug("Discarding {} uncommitted change(s) of Git storage transaction", changes.size());
+                finished = true;
+            }
+        }
+
+        private StoragePath mapPath(StoragePath path) throws StorageException {
+            return paths.mapForward(path).orElseThrow(() ->
+                new StorageException(String.format("Cannot map object path: %s", path)));
+        }
+
+        private String createCommitMessage() {
+            if (changes.size() == 1) {
+                Map.Entry<StoragePath, ObjectId> change = changes.entrySet().iterator().next();
+                return (change.getValue() != null ? "Append: " : "Delete: ") + change.getKey();
+            }
+            StringBuilder message = new StringBuilder("Update " + changes.size() + " objects\n");
+            for (Map.Entry<StoragePath, ObjectId> change : changes.entrySet()) {
+                message.append("\n").append(change.getValue() != null ? "Append: " : "Delete: ")
+                    .append(change.getKey());
+            }
+            return message.toString();
+        }
+
+        private void assertActive() {
+            if (finished) {
+                throw new IllegalStateException("Transaction is already committed or closed");
+            }
+        }
+    }
+
     /**
      * Tag a given revision
      * 
@@ -684,9 +792,14 @@ private PersonIdent createAuthorFromMetadata(ObjectMetadata metadataWithDate) {
         );
     }
 
+    /**
+     * Commits the given changes as a single commit on top of HEAD.
+     * 
+     * @param changes mapped object paths to the new blob id, or to {@code null} if
+     *                the object is to be deleted
+     */
     private RevCommit performAttemptsToCommitAndPushChanges(
-        StoragePath objectPath,
-        @Nullable ObjectId newBlobId,
+        Map<StoragePath, ObjectId> changes,
         PersonIdent author,
         String commitMessage
     ) throws IOException, GitAPIException {
@@ -703,7 +816,7 @@ private RevCommit performAttemptsToCommitAndPushChanges(
 
         RevCommit committedChanges;
         try {
-            committedChanges = commitChanges(head, objectPath, newBlobId, author, commitMessage);
+            committedChanges = commitChanges(head, changes, author, commitMessage);
         } catch (Exception e) {
             performRollback(headCommitId);
             throw e;
@@ -720,8 +833,7 @@ private RevCommit performAttemptsToCommitAndPushChanges(
 
     private RevCommit commitChanges(
         Ref head,
-        StoragePath objectPath,
-        @Nullable ObjectId newBlobId,
+        Map<StoragePath, ObjectId> changes,
         PersonIdent author,
         String commitMessage
     ) throws IOException, GitAPIException {
@@ -736,21 +848,11 @@ private RevCommit commitChanges(
                 readIndexFromTree(newIndex, headCommit.getTree());
             }
 
-            Optional<DirCacheEntry> targetEntry = addOrRemoveIndexEntry(newIndex, objectPath, newBlobId);
-            if (!targetEntry.isPresent()) {
-                // index entry is unchanged
+            if (!applyIndexChanges(newIndex, changes, author.getWhen().toInstant())) {
+                // index entries are unchanged
                 return headCommit;
             }
 
-            DirCacheEntry entry = targetEntry.get();
-            if (newBlobId != null) {
-                entry.setObjectId(newBlobId);
-                entry.setFileMode(FileMode.REGULAR_FILE);
-                Instant commitTime = author.getWhen().toInstant();
-                entry.setCreationTime(commitTime.toEpochMilli());
-                entry.setLastModified(commitTime);
-            }
-
             ObjectId insertedTreeId = newIndex.writeTree(inserter);
             inserter.flush();
 
@@ -930,40 +1032,44 @@ private void readIndexFromTree(DirCache index, RevTree tree) throws IOException
         builder.finish();
     }
 
-    private Optional<DirCacheEntry> addOrRemoveIndexEntry(
+    /**
+     * Applies all changes to the index with a single {@link DirCacheEditor} pass.
+     * 
+     * @return {@code true} if at least one index entry was changed
+     */
+    private boolean applyIndexChanges(
         DirCache index,
-        StoragePath objectPath,
-        @Nullable ObjectId newBlobId
+        Map<StoragePath, ObjectId> changes,
+        Instant commitTime
     ) {
-        DirCacheEntry entry = index.getEntry(objectPath.toString());
-        boolean unchanged = (
-            entry == null && newBlobId == null ||
-            entry != null && entry.getObjectId().equals(newBlobId)
-        );
-        if (unchanged) {
-            return Optional.empty();
-        }
-        if (entry == null) {
-            DirCacheBuilder builder = index.builder();
-            for (int i = 0; i < index.getEntryCount(); i++) {
-                builder.add(index.getEntry(i));
-            }
-            entry = new DirCacheEntry(objectPath.toString());
-            entry.setFileMode(FileMode.REGULAR_FILE);
-            builder.add(entry);
-            builder.finish();
-        } else if (newBlobId == null) {
-            DirCacheBuilder builder = index.builder();
-            for (int i = 0; i < index.getEntryCount(); i++) {
-                DirCacheEntry existing = index.getEntry(i);
-                if (existing != entry) {
-                    // add all entries except the removed one
-                    builder.add(index.getEntry(i));
+        DirCacheEditor editor = index.editor();
+        boolean changed = false;
+        for (Map.Entry<StoragePath, ObjectId> change : changes.entrySet()) {
+            String path = change.getKey().toString();
+            ObjectId newBlobId = change.getValue();
+            DirCacheEntry existing = index.getEntry(path);
+            if (newBlobId == null) {
+                if (existing != null) {
+                    editor.add(new DirCacheEditor.DeletePath(path));
+                    changed = true;
                 }
+            } else if (existing == null || !existing.getObjectId().equals(newBlobId)) {
+                editor.add(new DirCacheEditor.PathEdit(path) {
+                    @Override
+                    public void apply(DirCacheEntry entry) {
+                        entry.setObjectId(newBlobId);
+                        entry.setFileMode(FileMode.REGULAR_FILE);
+                        entry.setCreationTime(commitTime.toEpochMilli());
+                        entry.setLastModified(commitTime);
+                    }
+                });
+                changed = true;
             }
-            builder.finish();
         }
-        return Optional.of(entry);
+        if (changed) {
+            editor.finish();
+        }
+        return changed;
     }
 
     private void performRollback(ObjectId rollbackTo) throws GitAPIException {
@@ -0,0 +1,302 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.servlet;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.metaphacts.config.Configuration;
+import com.metaphacts.di.SubsystemLifecycle;
+import com.metaphacts.security.PlatformTaskWrapper;
+import com.metaphacts.trace.RequestTrace;
+
+/**
+ * Bounded executor for processing long running requests outside of the
+ * container's request threads.
+ * 
+ * <p>
+ * Servlets use {@link #execute(HttpServletRequest, HttpServletResponse, ServletTask)}
+ * to run a task in Servlet 3.1 async mode, JAX-RS resources use
+ * {@link #resume(AsyncResponse, Callable)} together with a
+ * {@code @Suspended} {@link AsyncResponse}. In both cases the container thread is
+ * released while the task waits on I/O (e.g. a remote triplestore). The Shiro
+ * security context and the logging context of the calling thread are
+ * propagated to the task.
+ * </p>
+ * 
+ * <p>
+ * If all threads are busy and the queue is full, requests are rejected with
+ * {@code 503 Service Unavailable}. The same status is returned for requests
+ * exceeding {@code asyncRequestTimeoutSecs}. The pool is configured via
+ * {@code asyncRequestThreads} and {@code asyncRequestQueueSize} in the
+ * environment configuration.
+ * </p>
+ */
+public class AsyncRequestExecutor implements SubsystemLifecycle {
+
+    private static final Logger logger = LogManager.getLogger(AsyncRequestExecutor.class);
+
+    private final Configuration config;
+
+    private final ThreadPoolExecutor executor;
+
+    @Inject
+    public AsyncRequestExecutor(Configuration config) {
+        this.config = config;
+        int threads = config.getEnvironmentConfig().getAsyncRequestThreads();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getEnvironmentConfig().getAsyncRequestQueueSize()),
+                new ThreadFactoryBuilder().setNameFormat("async-request-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Task processing a servlet request.
+     */
+    @FunctionalInterface
+    public interface ServletTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs the given task asynchronously if the request supports async
+     * processing, and synchronously on the calling thread otherwise.
+     * 
+     * <p>
+     * The async context is completed once the task is finished. Exceptions of the
+     * task are reported as {@code 500 Internal Server Error} if the response is
+     * not yet committed. Requests exceeding the configured
+     * {@code asyncRequestTimeoutSecs} are aborted with
+     * {@code 503 Service Unavailable}.
+     * </p>
+     */
+    public void execute(HttpServletRequest req, HttpServletResponse resp, ServletTask task) throws IOException {
+        execute(req, resp, CompletableFuture.completedFuture(null), task);
+    }
+
+    /**
+     * Like {@link #execute(HttpServletRequest, HttpServletResponse, ServletTask)},
+     * but submits the task only once the given permit is completed (normally or
+     * exceptionally). No thread is occupied while waiting for the permit.
+     * 
+     * <p>
+     * The task obtains the permit from the (then completed) future and is
+     * responsible for closing it. If the task is never run, e.g. because the
+     * request timed out or the executor is busy, the permit is closed by this
+     * executor.
+     * </p>
+     */
+    public void execute(HttpServletRequest req, HttpServletResponse resp,
+            CompletableFuture<? extends AutoCloseable> permit, ServletTask task) throws IOException {
+        if (!req.isAsyncSupported()) {
+            task.run();
+            return;
+        }
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Future<?>> running = new AtomicReference<>();
+        asyncContext.setTimeout(TimeUnit.SECONDS.toMillis(Math.max(0, config.getEnvironmentConfig().getAsyncRequestTimeoutSecs())));
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (!done.compareAndSet(false, true)) {
+                    return;
+                }
+                logger.warn("Aborting async request {} after timeout", req.getRequestURI());
+                Future<?> future = running.get();
+                if (future != null) {
+                    future.cancel(true);
+                }
+                if (!resp.isCommitted()) {
+                    resp.sendError(Status.SERVICE_UNAVAILABLE.getStatusCode(), "Request timed out.");
+                }
+                asyncContext.complete();
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        // the permit may be completed on an arbitrary thread (e.g. while another
+        // request releases its permit), hence the context is captured here
+        Callable<Void> wrappedTask = wrap(() -> {
+            if (done.get()) {
+                closeQuietly(permit.getNow(null));
+                return null;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.warn("Failed to process async request {}: {}", req.getRequestURI(), t.getMessage());
+                logger.debug("Details: ", t);
+                if (!done.get() && !resp.isCommitted()) {
+                    resp.sendError(Status.INTERNAL_SERVER_ERROR.getStatusCode(), t.getMessage());
+                }
+            } finally {
+                if (done.compareAndSet(false, true)) {
+                    asyncContext.complete();
+                }
+            }
+            return null;
+        });
+        permit.whenComplete((acquired, error) -> {
+            if (done.get()) {
+                closeQuietly(acquired);
+                return;
+            }
+            try {
+                running.set(submit(wrappedTask));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Rejected async request {}: {}", req.getRequestURI(), e.getMessage());
+                closeQuietly(acquired);
+                if (done.compareAndSet(false, true)) {
+                    try {
+                        resp.sendError(Status.SERVICE_UNAVAILABLE.getStatusCode(),
+                                "Server is busy. Please try again later.");
+                    } catch (IOException ioe) {
+                        logger.debug("Failed to reject async request: {}", ioe.getMessage());
+                    } finally {
+                        asyncContext.complete();
+                    }
+                }
+            }
+        });
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            logger.warn("Failed to release resource of async request: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Computes the response of a suspended JAX-RS request using the given task
+     * and resumes the {@link AsyncResponse} with the result (or the thrown
+     * exception).
+     */
+    public void resume(AsyncResponse asyncResponse, Callable<?> task) {
+        int timeout = config.getEnvironmentConfig().getAsyncRequestTimeoutSecs();
+        if (timeout > 0) {
+            asyncResponse.setTimeoutHandler(response -> response.resume(Response.status(Status.SERVICE_UNAVAILABLE)
+                    .type("text/plain").entity("Request timed out.").build()));
+            asyncResponse.setTimeout(timeout, TimeUnit.SECONDS);
+        }
+        try {
+            submit(wrap(() -> {
+                try {
+                    asyncResponse.resume(task.call());
+                } catch (Throwable t) {
+                    asyncResponse.resume(t);
+                }
+                return null;
+            }));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Rejected async request: {}", e.getMessage());
+            asyncResponse.resume(Response.status(Status.SERVICE_UNAVAILABLE)
+                    .type("text/plain").entity("Server is busy. Please try again later.").build());
+        }
+    }
+
+    /**
+     * Binds the task to the Shiro subject, the logging context and the request
+     * trace of the calling thread.
+     */
+    private static Callable<Void> wrap(Callable<Void> task) {
+        Callable<Void> securedTask = PlatformTaskWrapper.INSTANCE.wrap(task);
+        Map<String, String> loggingContext = ThreadContext.getImmutableContext();
+        RequestTrace trace = RequestTrace.current();
+        return () -> {
+            ThreadContext.putAll(loggingContext);
+            RequestTrace.activate(trace);
+            try {
+                return securedTask.call();
+            } finally {
+                RequestTrace.activate(null);
+                ThreadContext.clearMap();
+            }
+        };
+    }
+
+    private Future<Void> submit(Callable<Void> wrappedTask) {
+        return executor.submit(wrappedTask);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.servlet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.shiro.subject.Subject;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandler;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.CountingOutputStream;
+import com.google.inject.Inject;
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.groups.EnvironmentConfiguration;
+
+/**
+ * Governs the execution of queries received through the {@link SparqlServlet}.
+ * 
+ * <p>
+ * The governor limits the number of queries a single user may run concurrently
+ * (queueing additional queries without blocking a thread up to a configurable
+ * timeout), provides the
+ * default maximum execution time per role and enforces row and byte limits
+ * while results are streamed to the client.
+ * </p>
+ * 
+ * <p>
+ * All settings are read from the {@link EnvironmentConfiguration} on each
+ * request, see e.g.
+ * {@link EnvironmentConfiguration#getSparqlMaxConcurrentQueriesPerUser()}.
+ * </p>
+ */
+public class SparqlQueryGovernor {
+
+    private static final Logger logger = LogManager.getLogger(SparqlQueryGovernor.class);
+
+    /**
+     * Number of streamed results after which the output is flushed, such that a
+     * closed client connection is detected and the evaluation is aborted.
+     */
+    static final int FLUSH_INTERVAL = 1000;
+
+    private static final QueryPermit UNLIMITED_PERMIT = () -> {
+    };
+
+    private final Configuration config;
+
+    private final ConcurrentMap<String, UserSlots> slotsPerUser = new ConcurrentHashMap<>();
+
+    @Inject
+    public SparqlQueryGovernor(Configuration config) {
+        this.config = config;
+    }
+
+    /**
+     * Acquires a permit to run a query for the given subject. If the concurrent
+     * query limit of the user is reached, the query is queued until a slot
+     * becomes available or the configured queue timeout is exceeded. No thread is
+     * blocked while waiting.
+     * 
+     * @param subject the subject executing the query
+     * @return the future permit, which must be closed once the query is
+     *         finished. The future fails with a {@link QueryRejectedException} if
+     *         no slot became available in time.
+     */
+    public CompletableFuture<QueryPermit> acquire(Subject subject) {
+        Optional<Integer> limit = getConcurrentQueryLimit(subject);
+        if (!limit.isPresent()) {
+            return CompletableFuture.completedFuture(UNLIMITED_PERMIT);
+        }
+        String user = String.valueOf(subject.getPrincipal());
+        Waiter waiter = new Waiter(limit.get());
+        slotsPerUser.compute(user, (k, existing) -> {
+            UserSlots slots = existing != null ? existing : new UserSlots();
+            if (slots.waiting.isEmpty() && slots.running < waiter.limit) {
+                slots.running++;
+                waiter.granted = true;
+            } else {
+                slots.waiting.add(waiter);
+            }
+            return slots;
+        });
+        if (waiter.granted) {
+            return CompletableFuture.completedFuture(newPermit(user));
+        }
+        long timeout = TimeUnit.SECONDS.toMillis(config.getEnvironmentConfig().getSparqlQueueTimeoutSecs());
+        CompletableFuture.delayedExecutor(Math.max(0, timeout), TimeUnit.MILLISECONDS)
+                .execute(() -> expire(user, waiter));
+        return waiter.permit;
+    }
+
+    private QueryPermit newPermit(String user) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                release(user);
+            }
+        };
+    }
+
+    /**
+     * Frees the slot of a finished query and hands it over to the next waiting
+     * query (if any). The {@link UserSlots} of the user are removed once no
+     * query is running or waiting anymore.
+     */
+    private void release(String user) {
+        List<Waiter> granted = Lists.newArrayListWithCapacity(1);
+        slotsPerUser.computeIfPresent(user, (k, slots) -> {
+            slots.running--;
+            while (!slots.waiting.isEmpty() && slots.running < slots.waiting.peek().limit) {
+                slots.running++;
+                granted.add(slots.waiting.poll());
+            }
+            return slots.isIdle() ? null : slots;
+        });
+        // complete outside of the map operation, dependent actions may acquire or release permits
+        for (Waiter waiter : granted) {
+            QueryPermit permit = newPermit(user);
+            if (!waiter.permit.complete(permit)) {
+                permit.close();
+            }
+        }
+    }
+
+    /**
+     * Rejects the given query if it is still waiting for a slot.
+     */
+    private void expire(String user, Waiter waiter) {
+        AtomicBoolean removed = new AtomicBoolean();
+        slotsPerUser.computeIfPresent(user, (k, slots) -> {
+            removed.set(slots.waiting.remove(waiter));
+            return slots.isIdle() ? null : slots;
+        });
+        if (removed.get()) {
+            waiter.permit.completeExceptionally(new QueryRejectedException("Too many concurrent queries for user \""
+                    + user + "\" (limit: " + waiter.limit + "). Please try again later."));
+        }
+    }
+
+    /**
+     * @return the number of users with running or waiting queries
+     */
+    int getTrackedUsers() {
+        return slotsPerUser.size();
+    }
+
+    /**
+     * Returns the number of queries the given subject may run concurrently, i.e.
+     * the highest limit of all its roles or the global default if no role
+     * specific limit is defined.
+     * 
+     * @param subject the subject executing the query
+     * @return the limit or {@link Optional#empty()} if unlimited
+     */
+    public Optional<Integer> getConcurrentQueryLimit(Subject subject) {
+        EnvironmentConfiguration envConfig = config.getEnvironmentConfig();
+        Optional<Integer> roleLimit = getRoleValues(subject, envConfig.getSparqlRoleConcurrentQueries())
+                .stream().reduce(Math::max);
+        Integer limit = roleLimit.orElse(envConfig.getSparqlMaxConcurrentQueriesPerUser());
+        if (limit == null || limit <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(limit);
+    }
+
+    /**
+     * Returns the maximum execution time (in seconds) for queries of the given
+     * subject. If the subject has several roles with a defined value, the most
+     * permissive one applies.
+     * 
+     * @param subject the subject executing the query
+     * @return the maximum execution time in seconds, 0 means no limit
+     */
+    public int getMaxExecutionTime(Subject subject) {
+        EnvironmentConfiguration envConfig = config.getEnvironmentConfig();
+        List<Integer> roleValues = getRoleValues(subject, envConfig.getSparqlRoleMaxExecutionTime());
+        if (roleValues.isEmpty()) {
+            return Math.max(0, envConfig.getSparqlMaxExecutionTime());
+        }
+        if (roleValues.stream().anyMatch(value -> value <= 0)) {
+            return 0;
+        }
+        return roleValues.stream().reduce(0, Math::max);
+    }
+
+    /**
+     * Creates a {@link ResultLimiter} for streaming a single query result to the
+     * given output stream using the configured row and byte limits.
+     * 
+     * <p>
+     * If a limit is configured, it is announced to the client with the
+     * {@value SparqlServlet#HEADER_MPH_RESULT_LIMIT} header. A truncation is
+     * reported with the {@value SparqlServlet#HEADER_MPH_RESULT_TRUNCATED} header
+     * as long as the response is not yet committed.
+     * </p>
+     * 
+     * @param resp the response, must not yet be committed
+     * @param out  the output stream of the response
+     * @return the limiter
+     */
+    public ResultLimiter newResultLimiter(HttpServletResponse resp, OutputStream out) {
+        EnvironmentConfiguration envConfig = config.getEnvironmentConfig();
+        ResultLimiter limiter = new ResultLimiter(out, toLimit(envConfig.getSparqlMaxResultRows()),
+                toLimit(envConfig.getSparqlMaxResultBytes()));
+        limiter.response = resp;
+        String limits = limiter.describeLimits();
+        if (!limits.isEmpty()) {
+            resp.setHeader(SparqlServlet.HEADER_MPH_RESULT_LIMIT, limits);
+        }
+        return limiter;
+    }
+
+    private static long toLimit(Integer value) {
+        return (value == null || value <= 0) ? Long.MAX_VALUE : value;
+    }
+
+    /**
+     * Extracts the values of all <code>role:value</code> entries for which the
+     * subject has the role.
+     */
+    private List<Integer> getRoleValues(Subject subject, List<String> entries) {
+        List<Integer> values = Lists.newArrayList();
+        for (String entry : entries) {
+            String role = StringUtils.substringBeforeLast(entry, ":").trim();
+            String value = StringUtils.substringAfterLast(entry, ":").trim();
+            if (role.isEmpty() || value.isEmpty()) {
+                logger.warn("Ignoring invalid role specific SPARQL setting \"{}\", expected <role>:<value>.", entry);
+                continue;
+            }
+            if (!subject.hasRole(role)) {
+                continue;
+            }
+            try {
+                values.add(Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid role specific SPARQL setting \"{}\": {}", entry, e.getMessage());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Permit for running a single query, see {@link SparqlQueryGovernor#acquire(Subject)}.
+     */
+    public interface QueryPermit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Thrown if a query cannot be executed because the concurrent query limit of
+     * the user is exhausted.
+     */
+    public static class QueryRejectedException extends Exception {
+        private static final long serialVersionUID = -2395170829475710384L;
+
+        public QueryRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown by the {@link ResultLimiter} to stop the query evaluation once a
+     * limit is reached. At this point the (truncated) result has been completed
+     * properly.
+     */
+    public static class ResultLimitReachedException extends TupleQueryResultHandlerException {
+        private static final long serialVersionUID = 5178003414290823160L;
+
+        public ResultLimitReachedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Counts the rows and bytes of a streamed query result and stops the
+     * evaluation once a limit is reached.
+     * 
+     * <p>
+     * The output is flushed periodically (see {@link #FLUSH_INTERVAL}) such that
+     * a closed client connection surfaces as {@link IOException}, which in turn
+     * closes the query result and thus aborts the underlying evaluation.
+     * </p>
+     */
+    public static class ResultLimiter {
+
+        private final CountingOutputStream out;
+        private final long maxRows;
+        private final long maxBytes;
+
+        private HttpServletResponse response;
+
+        private long rows = 0;
+        private boolean truncated = false;
+
+        ResultLimiter(OutputStream out, long maxRows, long maxBytes) {
+            this.out = new CountingOutputStream(out);
+            this.maxRows = maxRows;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @return the output stream the result writer must write to
+         */
+        public OutputStream getOutputStream() {
+            return out;
+        }
+
+        /**
+         * Registers the next result row.
+         * 
+         * @return <code>true</code> if the row may be written, <code>false</code>
+         *         if a limit is reached and the result must be truncated
+         * @throws IOException if the client connection has been closed
+         */
+        public boolean acceptResult() throws IOException {
+            if (rows >= maxRows || out.getCount() >= maxBytes) {
+                truncated = true;
+                if (response != null && !response.isCommitted()) {
+                    response.setHeader(SparqlServlet.HEADER_MPH_RESULT_TRUNCATED, "true");
+                }
+                return false;
+            }
+            rows++;
+            if (rows % FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+            return true;
+        }
+
+        /**
+         * @return the configured limits in the form
+         *         <code>rows=&lt;n&gt;; bytes=&lt;n&gt;</code>, or an empty string if
+         *         the result is not limited
+         */
+        String describeLimits() {
+            List<String> limits = Lists.newArrayList();
+            if (maxRows != Long.MAX_VALUE) {
+                limits.add("rows=" + maxRows);
+            }
+            if (maxBytes != Long.MAX_VALUE) {
+                limits.add("bytes=" + maxBytes);
+            }
+            return String.join("; ", limits);
+        }
+
+        /**
+         * @return <code>true</code> if the result was truncated due to a limit
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        /**
+         * Wraps the given handler such that the result is completed and the
+         * evaluation is stopped with a {@link ResultLimitReachedException} once a
+         * limit is reached.
+         */
+        public TupleQueryResultHandler limit(TupleQueryResultHandler delegate) {
+            return new TupleQueryResultHandler() {
+
+                @Override
+                public void handleBoolean(boolean value) throws QueryResultHandlerException {
+                    delegate.handleBoolean(value);
+                }
+
+                @Override
+                public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+                    delegate.handleLinks(linkUrls);
+                }
+
+                @Override
+                public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+                    delegate.startQueryResult(bindingNames);
+                }
+
+                @Override
+                public void endQueryResult() throws TupleQueryResultHandlerException {
+                    delegate.endQueryResult();
+                }
+
+                @Override
+                public void handleSolution(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+                    boolean accepted;
+                    try {
+                        accepted = acceptResult();
+                    } catch (IOException e) {
+                        throw new TupleQueryResultHandlerException(e);
+                    }
+                    if (!accepted) {
+                        delegate.endQueryResult();
+                        throw new ResultLimitReachedException(
+                                "Result limit reached after " + rows + " rows and " + out.getCount() + " bytes");
+                    }
+                    delegate.handleSolution(bindingSet);
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts the running queries of a single user and queues the queries waiting
+     * for a slot. Only modified within the map operations on
+     * {@link SparqlQueryGovernor#slotsPerUser}, which are atomic per user.
+     */
+    private static class UserSlots {
+        private int running = 0;
+        private final Deque<Waiter> waiting = new ArrayDeque<>();
+
+        boolean isIdle() {
+            return running == 0 && waiting.isEmpty();
+        }
+    }
+
+    /**
+     * A query waiting for a slot. The limit is captured on acquisition so that
+     * configuration changes apply immediately.
+     */
+    private static class Waiter {
+        private final int limit;
+        private final CompletableFuture<QueryPermit> permit = new CompletableFuture<>();
+        private boolean granted = false;
+
+        Waiter(int limit) {
+            this.limit = limit;
+        }
+    }
+}
@@ -45,6 +45,8 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
 
 import javax.servlet.ServletException;
@@ -56,6 +58,8 @@
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.subject.Subject;
 import org.eclipse.rdf4j.common.io.IOUtil;
 import org.eclipse.rdf4j.common.lang.FileFormat;
 import org.eclipse.rdf4j.http.protocol.Protocol;
@@ -97,12 +101,22 @@
 import com.metaphacts.api.sparql.SparqlUtil;
 import com.metaphacts.api.sparql.SparqlUtil.SparqlOperation;
 import com.metaphacts.cache.CacheManager;
+import com.metaphacts.cache.SparqlResultCache;
+import com.metaphacts.cache.SparqlResultCache.CacheKey;
+import com.metaphacts.cache.SparqlResultCache.CachedResult;
+import com.metaphacts.cache.SparqlResultCache.ResultRecorder;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.config.NamespaceRegistry;
 import com.metaphacts.di.MainGuiceModule.MainTemplateProvider;
 import com.metaphacts.repository.RepositoryManager;
+import com.metaphacts.repository.sparql.MpSPARQLProtocolSession;
 import com.metaphacts.security.PermissionUtil;
+import com.metaphacts.servlet.SparqlQueryGovernor.QueryPermit;
+import com.metaphacts.servlet.SparqlQueryGovernor.ResultLimitReachedException;
+import com.metaphacts.servlet.SparqlQueryGovernor.ResultLimiter;
 import com.metaphacts.servlet.SparqlRequestHandler.SparqlRequestContext;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 import com.metaphacts.util.ExceptionUtils;
 import com.metaphacts.util.LanguageHelper;
 
@@ -128,9 +142,38 @@ public class SparqlServlet extends HttpServlet {
      */
     public static final String HEADER_MPH_USER_PREFERRED_LANGUAGE = "MPH-UserPreferredLanguage";
 
+    /**
+     * Response header announcing support for the compact binary tuple query
+     * result format ({@link TupleQueryResultFormat#BINARY}). Platform SPARQL
+     * clients prefer this format once they have seen the header, see
+     * {@link MpSPARQLProtocolSession}.
+     */
+    public static final String HEADER_MPH_BINARY_RESULTS = MpSPARQLProtocolSession.HEADER_MPH_BINARY_RESULTS;
+
+    /**
+     * Response header announcing the row and byte limits applied to a SELECT,
+     * CONSTRUCT or DESCRIBE result, e.g. <code>rows=10000; bytes=1048576</code>.
+     * Only present if a limit is configured, see {@link SparqlQueryGovernor}.
+     */
+    public static final String HEADER_MPH_RESULT_LIMIT = "MPH-Result-Limit";
+
+    /**
+     * Response header set to <code>true</code> if a result has been truncated due
+     * to the {@link #HEADER_MPH_RESULT_LIMIT result limits}. The header can only
+     * be sent if the truncation happens before the response is committed, for
+     * larger results clients need to compare the number of results with the
+     * announced limit.
+     */
+    public static final String HEADER_MPH_RESULT_TRUNCATED = "MPH-Result-Truncated";
+
 
     private static final long serialVersionUID = 9086920765942724466L;
 
+    /**
+     * HTTP status for rejected queries, see {@link SparqlQueryGovernor}.
+     */
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
     private static final Logger logger = LogManager.getLogger(SparqlServlet.class);
 
     private static final Set<String> allRegisteredMimeTypes = getAllRegisteredWriterMimeTypes();
@@ -150,6 +193,15 @@ public class SparqlServlet extends HttpServlet {
     @Inject
     private Configuration configuration;
 
+    @Inject
+    private SparqlQueryGovernor governor;
+
+    @Inject
+    private SparqlResultCache resultCache;
+
+    @Inject
+    private AsyncRequestExecutor asyncExecutor;
+
     @Inject(optional=true)
     SparqlRequestHandler sparqlHandler;
 
@@ -329,12 +381,34 @@ protected void processOperation(Optional<String> query, HttpServletRequest req,
         Dataset dataset = getDatasetForTheRequest(req);
         
         SparqlRequestContext context = new SparqlRequestContext(repId, dataset, queryString, preferredMimeTypeString);
-        if ((sparqlHandler != null) && sparqlHandler.canHandle(context)) {
-            if (sparqlHandler.processOperation(context, req, resp)) {
-                return;
+        // evaluate outside of the container thread, which is released while waiting on the repository
+        // queries exceeding the user's concurrency limit wait for a slot before they occupy a thread
+        CompletableFuture<QueryPermit> permit = governor.acquire(SecurityUtils.getSubject());
+        asyncExecutor.execute(req, resp, permit, () -> processGovernedOperation(context, permit, req, resp));
+    }
+
+    private void processGovernedOperation(SparqlRequestContext context, CompletableFuture<QueryPermit> permit,
+            HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        QueryPermit acquired;
+        try {
+            acquired = permit.join();
+        } catch (CompletionException e) {
+            logger.debug("Rejected query with hash \"{}\": {}", context.getQueryString().hashCode(),
+                    e.getCause().getMessage());
+            resp.sendError(SC_TOO_MANY_REQUESTS, e.getCause().getMessage());
+            return;
+        }
+        try (acquired) {
+            if ((sparqlHandler != null) && sparqlHandler.canHandle(context)) {
+                if (sparqlHandler.processOperation(context, req, resp)) {
+                    return;
+                }
+            }
+            Span span = RequestTrace.span("sparql.evaluate");
+            try (span) {
+                processOperationInternal(context, req, resp);
             }
         }
-        processOperationInternal(context, req, resp);
     }
     
     protected void processOperationInternal(SparqlRequestContext context, HttpServletRequest req, HttpServletResponse resp) throws IOException{
@@ -351,6 +425,7 @@ protected void processOperationInternal(SparqlRequestContext context, HttpServle
                       .resolveUserPreferredLanguage(userPreferredLanguageOrSystem(req))
                       .build(con);
             SparqlOperation operationType = SparqlUtil.getOperationType(sparqlOperation);
+            applyMaxExecutionTime(sparqlOperation, SecurityUtils.getSubject());
             if (logger.isTraceEnabled()) {
                 logger.trace("Query with hash \"{}\" is of type \"{}\"",queryString.hashCode(), operationType);
             }
@@ -368,17 +443,26 @@ protected void processOperationInternal(SparqlRequestContext context, HttpServle
             FileFormat rdfFormat ;
             switch(operationType){
                 case SELECT:{
+                    resp.setHeader(HEADER_MPH_BINARY_RESULTS, "true");
                     TupleQueryResultWriterRegistry resultWriterRegistry = TupleQueryResultWriterRegistry.getInstance();
                     rdfFormat = resultWriterRegistry
                             .getFileFormatForMIMEType(preferredMimeTypeString)
                             .orElse(TupleQueryResultFormat.SPARQL);
+                    CacheKey cacheKey = resultCache.createKey(repId, queryString, sparqlOperation, rdfFormat,
+                            SecurityUtils.getSubject());
+                    if (writeCachedResult(cacheKey, resp)) {
+                        return;
+                    }
                     Optional<TupleQueryResultWriterFactory> writerFactory = resultWriterRegistry.get((QueryResultFormat) rdfFormat);
-                    TupleQueryResultWriter writer = writerFactory.get().getWriter(resp.getOutputStream());
+                    ResultRecorder recorder = resultCache.newRecorder(cacheKey, resp.getOutputStream());
+                    ResultLimiter limiter = governor.newResultLimiter(resp, recorder.getOutputStream());
+                    TupleQueryResultWriter writer = writerFactory.get().getWriter(limiter.getOutputStream());
                     writer.getWriterConfig().set(BasicWriterSettings.ENCODE_RDF_STAR, false);
                     addNamespaces(writer);
                     logger.trace("Evaluating query with hash \"{}\" as TupleQuery using \"{}\"", queryString.hashCode(), writer.getClass());
                     setContentType(resp,rdfFormat);
-                    ((TupleQuery) sparqlOperation).evaluate(writer);
+                    ((TupleQuery) sparqlOperation).evaluate(limiter.limit(writer));
+                    recorder.commit(toContentType(rdfFormat));
                     return;
                 }
                 case DESCRIBE:
@@ -387,18 +471,31 @@ protected void processOperationInternal(SparqlRequestContext context, HttpServle
                     rdfFormat = resultWriterRegistry
                             .getFileFormatForMIMEType(preferredMimeTypeString)
                             .orElse(RDFFormat.TURTLE);
+                    CacheKey cacheKey = resultCache.createKey(repId, queryString, sparqlOperation, rdfFormat,
+                            SecurityUtils.getSubject());
+                    if (writeCachedResult(cacheKey, resp)) {
+                        return;
+                    }
                     Optional<RDFWriterFactory> writerFactory = resultWriterRegistry.get((RDFFormat) rdfFormat);
-                    RDFWriter writer = writerFactory.get().getWriter(resp.getOutputStream());
+                    ResultRecorder recorder = resultCache.newRecorder(cacheKey, resp.getOutputStream());
+                    ResultLimiter limiter = governor.newResultLimiter(resp, recorder.getOutputStream());
+                    RDFWriter writer = writerFactory.get().getWriter(limiter.getOutputStream());
                     addNamespaces(writer);
                     logger.trace("Evaluating query with hash \"{}\" as GraphQuery using \"{}\"", queryString.hashCode(), writer.getClass());
                     setContentType(resp,rdfFormat);
                     writer.startRDF();
+                    // closing the result (also on a closed client connection) aborts the evaluation
                     try(GraphQueryResult result = ((GraphQuery) sparqlOperation).evaluate()){
-                        while(result.hasNext()){
+                        while(result.hasNext() && limiter.acceptResult()){
                             writer.handleStatement(result.next());
                         }
                     }
                     writer.endRDF();
+                    if (limiter.isTruncated()) {
+                        logger.debug("Truncated result of query with hash \"{}\" due to result limits.", queryString.hashCode());
+                    } else {
+                        recorder.commit(toContentType(rdfFormat));
+                    }
                     return;
                 }
                 case ASK:{
@@ -427,7 +524,16 @@ protected void processOperationInternal(SparqlRequestContext context, HttpServle
                 }
 
         }catch(Exception e){
-            
+            if (isResultLimitReached(e)) {
+                logger.debug("Truncated result of query with hash \"{}\" due to result limits.", queryString.hashCode());
+                return;
+            }
+            if (resp.isCommitted()) {
+                // most likely the client has closed the connection while streaming
+                logger.debug("Aborted streaming of query with hash \"{}\": {}", queryString.hashCode(), e.getMessage());
+                logger.trace("Details: {}", e);
+                return;
+            }
             logger.debug("Exception during Query Execution: {}", e.getMessage());
             logger.trace("Details: {}", e);
             String message = ExceptionUtils.extractSparqlExceptionMessage(e);
@@ -437,6 +543,45 @@ protected void processOperationInternal(SparqlRequestContext context, HttpServle
 
     }
 
+    /**
+     * Writes the cached result for the given key (if any) to the response.
+     * 
+     * @return <code>true</code> if a cached result has been written
+     */
+    private boolean writeCachedResult(CacheKey cacheKey, HttpServletResponse resp) throws IOException {
+        Optional<CachedResult> cached = resultCache.get(cacheKey);
+        if (!cached.isPresent()) {
+            return false;
+        }
+        resp.setContentType(cached.get().getContentType());
+        cached.get().writeTo(resp.getOutputStream());
+        return true;
+    }
+
+    /**
+     * Applies the default maximum execution time of the subject's roles (see
+     * {@link SparqlQueryGovernor#getMaxExecutionTime(Subject)}) if the operation
+     * does not define one yet.
+     */
+    protected void applyMaxExecutionTime(Operation operation, Subject subject) {
+        if (operation.getMaxExecutionTime() > 0) {
+            return;
+        }
+        int maxExecutionTime = governor.getMaxExecutionTime(subject);
+        if (maxExecutionTime > 0) {
+            operation.setMaxExecutionTime(maxExecutionTime);
+        }
+    }
+
+    private static boolean isResultLimitReached(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ResultLimitReachedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Resolve to the request's <i>{@value #HEADER_MPH_USER_PREFERRED_LANGUAGE}</i>
      * header, and resort to the system preferred language as fallback.
@@ -463,7 +608,11 @@ protected Supplier<String> userPreferredLanguageOrSystem(HttpServletRequest requ
      * @param rdfFormat
      */
     private void setContentType(HttpServletResponse resp, FileFormat rdfFormat) {
-        resp.setContentType(rdfFormat.getDefaultMIMEType()+";charset="+Charsets.UTF_8);
+        resp.setContentType(toContentType(rdfFormat));
+    }
+
+    private static String toContentType(FileFormat rdfFormat) {
+        return rdfFormat.getDefaultMIMEType()+";charset="+Charsets.UTF_8;
     }
 
     private void addNamespaces(QueryResultWriter writer) {
@@ -0,0 +1,285 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.servlet.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.inject.Inject;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import com.google.inject.Singleton;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.RequestTracer;
+
+/**
+ * Filter which traces sampled requests (see {@link RequestTracer}) and reports
+ * the recorded timings in a <code>Server-Timing</code> response header. The
+ * header is only added for subjects permitted to view request traces (see
+ * {@link RequestTracer#canViewTimings()}).
+ * 
+ * <p>
+ * As the header has to be sent before the response body, it contains the
+ * timings recorded up to the first byte written. The complete trace is
+ * available through the list of recent slow requests.
+ * </p>
+ */
+@Singleton
+public class TracingFilter implements Filter {
+
+    public static final String HEADER_SERVER_TIMING = "Server-Timing";
+
+    private final RequestTracer tracer;
+
+    @Inject
+    public TracingFilter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (!tracer.shouldTrace(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RequestTrace trace = new RequestTrace(httpRequest.getMethod(), httpRequest.getRequestURI());
+        ServerTimingResponse tracedResponse = tracer.canViewTimings()
+                ? new ServerTimingResponse((HttpServletResponse) response, trace)
+                : null;
+        RequestTrace previous = RequestTrace.activate(trace);
+        try {
+            chain.doFilter(request, tracedResponse != null ? tracedResponse : response);
+        } finally {
+            RequestTrace.activate(previous);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new TraceCompletionListener(trace, tracedResponse));
+            } else {
+                complete(trace, tracedResponse);
+            }
+        }
+    }
+
+    private void complete(RequestTrace trace, ServerTimingResponse response) {
+        if (response != null) {
+            response.addServerTimingHeader();
+        }
+        trace.finish();
+        tracer.completed(trace);
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private class TraceCompletionListener implements AsyncListener {
+        private final RequestTrace trace;
+        private final ServerTimingResponse response;
+
+        TraceCompletionListener(RequestTrace trace, ServerTimingResponse response) {
+            this.trace = trace;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete(trace, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * Response wrapper adding the <code>Server-Timing</code> header right before
+     * the response is committed.
+     */
+    static class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestTrace trace;
+        private boolean headerAdded = false;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        synchronized void addServerTimingHeader() {
+            if (headerAdded || isCommitted()) {
+                return;
+            }
+            headerAdded = true;
+            setHeader(HEADER_SERVER_TIMING, trace.toServerTiming());
+        }
+
+        @Override
+        public synchronized ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new ServerTimingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public synchronized PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void write(int c) {
+                        addServerTimingHeader();
+                        super.write(c);
+                    }
+
+                    @Override
+                    public void write(char[] buf, int off, int len) {
+                        addServerTimingHeader();
+                        super.write(buf, off, len);
+                    }
+
+                    @Override
+                    public void write(String s, int off, int len) {
+                        addServerTimingHeader();
+                        super.write(s, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                        addServerTimingHeader();
+                        super.flush();
+                    }
+                };
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTimingHeader();
+            super.sendRedirect(location);
+        }
+
+        private class ServerTimingOutputStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+
+            ServerTimingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                addServerTimingHeader();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                addServerTimingHeader();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                addServerTimingHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                addServerTimingHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
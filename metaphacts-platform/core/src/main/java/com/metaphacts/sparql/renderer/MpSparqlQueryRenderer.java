@@ -39,10 +39,29 @@
  */
 package com.metaphacts.sparql.renderer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.AbstractAggregateOperator;
+import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
+import org.eclipse.rdf4j.query.algebra.BNodeGenerator;
+import org.eclipse.rdf4j.query.algebra.GroupConcat;
+import org.eclipse.rdf4j.query.algebra.ProjectionElem;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.Service;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UnaryValueOperator;
 import org.eclipse.rdf4j.query.algebra.UpdateExpr;
 import org.eclipse.rdf4j.query.algebra.ValueExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
 import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
 import org.eclipse.rdf4j.query.parser.ParsedOperation;
@@ -53,6 +72,8 @@
 import org.eclipse.rdf4j.queryrender.QueryRenderer;
 import org.eclipse.rdf4j.queryrender.sparql.SPARQLQueryRenderer;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.metaphacts.util.QueryUtil;
 
 /**
@@ -64,6 +85,12 @@
  * <li>subqueries</li>
  * </ul>
  *
+ * <p>
+ * A renderer instance does not keep state between calls and can be shared across threads. Optionally, rendered
+ * queries can be memoized: the cache is keyed by the (structurally compared) algebra tree, so repeatedly rendering an
+ * unchanged tree only costs computing its hash code. Update operations are never cached.
+ * </p>
+ *
  * @author Andriy Nikolov <an@metaphacts.com>
  *
  * @deprecated use {@link QueryUtil} instead.
@@ -73,7 +100,22 @@
 @Deprecated
 public class MpSparqlQueryRenderer extends BaseTupleExprRenderer implements QueryRenderer {
 
+    private final Cache<RenderKey, String> renderCache;
+
+    /**
+     * Creates a renderer which does not memoize rendered queries.
+     */
     public MpSparqlQueryRenderer() {
+        this(0);
+    }
+
+    /**
+     * Creates a renderer which memoizes up to <code>cacheSize</code> rendered queries.
+     *
+     * @param cacheSize the maximum number of memoized queries, <code>0</code> to disable memoization
+     */
+    public MpSparqlQueryRenderer(int cacheSize) {
+        this.renderCache = cacheSize > 0 ? CacheBuilder.newBuilder().maximumSize(cacheSize).build() : null;
     }
 
     @Override
@@ -83,6 +125,21 @@ public QueryLanguage getLanguage() {
 
     @Override
     public String render(ParsedQuery theQuery) throws Exception {
+        if (renderCache == null) {
+            return doRender(theQuery);
+        }
+        RenderKey key = new RenderKey(theQuery.getClass(), theQuery.getTupleExpr(), theQuery.getDataset());
+        String rendered = renderCache.getIfPresent(key);
+        if (rendered == null) {
+            // the key must not share nodes with the tree: the preprocessor may re-arrange the latter
+            key = key.detach();
+            rendered = doRender(theQuery);
+            renderCache.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    private String doRender(ParsedQuery theQuery) throws Exception {
         if (theQuery instanceof ParsedTupleQuery) {
             ParsedQueryPreprocessor parserVisitor = new ParsedQueryPreprocessor();
             PreprocessedQuerySerializer serializerVisitor = new PreprocessedQuerySerializer();
@@ -135,6 +192,20 @@ private String renderUpdate(ParsedUpdate theUpdate) throws Exception {
 
     @Override
     public String render(TupleExpr theExpr) throws Exception {
+        if (renderCache == null) {
+            return doRender(theExpr);
+        }
+        RenderKey key = new RenderKey(TupleExpr.class, theExpr, null);
+        String rendered = renderCache.getIfPresent(key);
+        if (rendered == null) {
+            key = key.detach();
+            rendered = doRender(theExpr);
+            renderCache.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    private String doRender(TupleExpr theExpr) throws Exception {
         ParsedQueryPreprocessor parserVisitor = new ParsedQueryPreprocessor();
         PreprocessedQuerySerializer serializerVisitor = new PreprocessedQuerySerializer();
         SerializableParsedTupleQuery toSerialize = parserVisitor.transformToSerialize(theExpr);
@@ -148,4 +219,122 @@ public String renderValueExpr(ValueExpr theExpr) throws Exception {
         return serializerVisitor.builder.toString();
     }
 
-}
\ No newline at end of file
+    /**
+     * Cache key of a rendered algebra tree. Relies on the structural <code>equals</code> and <code>hashCode</code> of
+     * the RDF4J query model nodes, complemented by the node properties which are relevant for rendering but are not
+     * considered by <code>equals</code> (see {@link RenderRelevantProperties}).
+     */
+    private static final class RenderKey {
+        private final Class<?> type;
+        private final TupleExpr expr;
+        private final List<Object> properties;
+        private final Set<IRI> defaultGraphs;
+        private final Set<IRI> namedGraphs;
+        private final int hashCode;
+
+        RenderKey(Class<?> type, TupleExpr expr, Dataset dataset) {
+            this(type, expr, RenderRelevantProperties.collect(expr),
+                    dataset != null ? dataset.getDefaultGraphs() : Collections.emptySet(),
+                    dataset != null ? dataset.getNamedGraphs() : Collections.emptySet());
+        }
+
+        private RenderKey(Class<?> type, TupleExpr expr, List<Object> properties, Set<IRI> defaultGraphs,
+                Set<IRI> namedGraphs) {
+            this.type = type;
+            this.expr = expr;
+            this.properties = properties;
+            this.defaultGraphs = defaultGraphs;
+            this.namedGraphs = namedGraphs;
+            this.hashCode = Objects.hash(type, expr, properties, defaultGraphs, namedGraphs);
+        }
+
+        /**
+         * Returns an equal key which does not reference any node of the original tree.
+         */
+        RenderKey detach() {
+            List<Object> detachedProperties = properties.stream()
+                    .map(p -> p instanceof QueryModelNode ? ((QueryModelNode) p).clone() : p)
+                    .collect(Collectors.toList());
+            return new RenderKey(type, expr.clone(), detachedProperties, Set.copyOf(defaultGraphs),
+                    Set.copyOf(namedGraphs));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof RenderKey)) {
+                return false;
+            }
+            RenderKey other = (RenderKey) obj;
+            return hashCode == other.hashCode && type == other.type && expr.equals(other.expr)
+                    && properties.equals(other.properties) && defaultGraphs.equals(other.defaultGraphs)
+                    && namedGraphs.equals(other.namedGraphs);
+        }
+    }
+
+    /**
+     * Collects, in visiting order, the node properties which affect the rendered query but are ignored by the
+     * <code>equals</code> implementations of RDF4J 3.6 (e.g. <code>SERVICE SILENT</code>, <code>DISTINCT</code> in
+     * aggregates or the <code>+</code> and <code>*</code> path modifiers).
+     */
+    private static final class RenderRelevantProperties extends AbstractQueryModelVisitor<RuntimeException> {
+        private final List<Object> properties = new ArrayList<>();
+
+        static List<Object> collect(TupleExpr expr) {
+            RenderRelevantProperties visitor = new RenderRelevantProperties();
+            expr.visit(visitor);
+            return visitor.properties;
+        }
+
+        @Override
+        public void meet(Service node) {
+            properties.add(node.isSilent());
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(ArbitraryLengthPath node) {
+            properties.add(node.getMinLength());
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(GroupConcat node) {
+            properties.add(node.getSeparator());
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(BNodeGenerator node) {
+            properties.add(node.getNodeIdExpr());
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(ProjectionElem node) {
+            properties.add(node.getSourceExpression() != null ? node.getSourceExpression().getExpr() : null);
+            super.meet(node);
+        }
+
+        @Override
+        protected void meetUnaryValueOperator(UnaryValueOperator node) {
+            if (node instanceof AbstractAggregateOperator) {
+                properties.add(((AbstractAggregateOperator) node).isDistinct());
+            }
+            super.meetUnaryValueOperator(node);
+        }
+
+        @Override
+        public void meet(Var node) {
+            properties.add(node.isConstant());
+            super.meet(node);
+        }
+    }
+}
@@ -186,6 +186,18 @@ public static boolean contains(String token) {
     
     protected boolean insideFunction = false;
 
+    /**
+     * Upper bound for the capacity of a buffer that is kept for reuse. Buffers which grew beyond this size while
+     * rendering a very large query are dropped to not pin the memory.
+     */
+    private static final int MAX_POOLED_BUFFER_CAPACITY = 64 * 1024;
+
+    /**
+     * Per-thread buffer reused across {@link #serialize} calls. The slot is emptied while the buffer is in use, so
+     * that nested serializations (e.g. triggered while rendering a sub-query) allocate their own buffer.
+     */
+    private static final ThreadLocal<StringBuilder> pooledBuffer = new ThreadLocal<>();
+
     public PreprocessedQuerySerializer() {
         this.builder = new StringBuilder();
     }
@@ -199,13 +211,16 @@ public PreprocessedQuerySerializer() {
      */
     public String serialize(SerializableParsedTupleQuery query) {
 
-        this.builder = new StringBuilder();
-
-        this.queriesByProjection.putAll(query.subQueriesByProjection);
+        this.builder = acquireBuffer();
+        try {
+            this.queriesByProjection.putAll(query.subQueriesByProjection);
 
-        processTupleQuery(query);
+            processTupleQuery(query);
 
-        return builder.toString().trim();
+            return trimmedResult();
+        } finally {
+            releaseBuffer();
+        }
     }
     
     
@@ -217,36 +232,80 @@ public String serialize(SerializableParsedTupleQuery query) {
      */
     public String serialize(SerializableParsedBooleanQuery query) {
 
-        this.builder = new StringBuilder();
-
-        this.queriesByProjection.putAll(query.subQueriesByProjection);
+        this.builder = acquireBuffer();
+        try {
+            this.queriesByProjection.putAll(query.subQueriesByProjection);
 
-        processBooleanQuery(query);
+            processBooleanQuery(query);
 
-        return builder.toString().trim();
+            return trimmedResult();
+        } finally {
+            releaseBuffer();
+        }
     }
     
     
     public String serialize(SerializableParsedConstructQuery query) {
-        this.builder = new StringBuilder();
-        this.queriesByProjection.putAll(query.subQueriesByProjection);
-        if (query.describe) {
-            processDescribeQuery(query);
-        } else {
-            processConstructQuery(query);
+        this.builder = acquireBuffer();
+        try {
+            this.queriesByProjection.putAll(query.subQueriesByProjection);
+            if (query.describe) {
+                processDescribeQuery(query);
+            } else {
+                processConstructQuery(query);
+            }
+
+            return trimmedResult();
+        } finally {
+            releaseBuffer();
         }
-        
-        return builder.toString().trim();
     }
     
     
     public String serialize(SerializableParsedUpdate update) {
-        this.builder = new StringBuilder();
-        this.queriesByProjection.putAll(update.subQueriesByProjection);
-        
-        processUpdate(update);
-        
-        return builder.toString().trim();
+        this.builder = acquireBuffer();
+        try {
+            this.queriesByProjection.putAll(update.subQueriesByProjection);
+
+            processUpdate(update);
+
+            return trimmedResult();
+        } finally {
+            releaseBuffer();
+        }
+    }
+
+    private static StringBuilder acquireBuffer() {
+        StringBuilder buffer = pooledBuffer.get();
+        if (buffer == null) {
+            return new StringBuilder(256);
+        }
+        pooledBuffer.set(null);
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private void releaseBuffer() {
+        if (builder.capacity() <= MAX_POOLED_BUFFER_CAPACITY) {
+            pooledBuffer.set(builder);
+        }
+        // do not hand out the pooled buffer through this (possibly still referenced) instance
+        this.builder = new StringBuilder(0);
+    }
+
+    /**
+     * Equivalent to <code>builder.toString().trim()</code> without the intermediate copy.
+     */
+    private String trimmedResult() {
+        int start = 0;
+        int end = builder.length();
+        while (start < end && builder.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && builder.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return builder.substring(start, end);
     }
     
     private void processDatasetClause(Dataset dataset) {
@@ -984,12 +1043,12 @@ public void meet(MultiProjection node) throws RuntimeException {
                 if (valueMap.containsKey(elem.getSourceName())) {
                     ValueExpr expr = valueMap.get(elem.getSourceName());
                     if (expr instanceof BNodeGenerator) {
-                        builder.append("_:" + elem.getSourceName());
+                        builder.append("_:").append(elem.getSourceName());
                     } else {
                         valueMap.get(elem.getSourceName()).visit(this);
                     }
                 } else {
-                    builder.append("?" + elem.getSourceName());
+                    builder.append('?').append(elem.getSourceName());
                 }
                 builder.append(" ");
                 // elem.getSourceExpression().getExpr().visit(this);
@@ -1135,6 +1194,9 @@ public void meet(Sample node) throws RuntimeException {
     @Override
     public void meet(Service node) throws RuntimeException {
         builder.append("SERVICE ");
+        if (node.isSilent()) {
+            builder.append("SILENT ");
+        }
         node.getServiceRef().visit(this);
         builder.append(" { \n");
         node.getServiceExpr().visit(this);
@@ -39,6 +39,10 @@
  */
 package com.metaphacts.templates;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import javax.inject.Inject;
 
 import org.apache.logging.log4j.LogManager;
@@ -55,6 +59,8 @@
 import com.metaphacts.config.NamespaceRegistry;
 import com.metaphacts.services.storage.api.PlatformStorage;
 import com.metaphacts.templates.helper.DocumentationHelper;
+import com.metaphacts.trace.RequestTrace;
+import com.metaphacts.trace.Span;
 
 /**
  * @author Johannes Trame <jt@metaphacts.com>
@@ -68,6 +74,12 @@ public class MetaphactsHandlebars extends Handlebars{
     public static final String startDelimiter="[[";
     public static final String endDelimiter="]]";
 
+    /**
+     * Names of the platform helpers whose execution is recorded in the
+     * {@link RequestTrace} of the current request.
+     */
+    private Set<String> tracedHelpers = Set.of();
+
     @Inject
     public MetaphactsHandlebars(PlatformStorage platformStorage, NamespaceRegistry ns, HandlebarsHelperRegistry helperRegistry) {
         this(new TemplateByIriLoader(platformStorage, ns), helperRegistry);
@@ -106,16 +118,48 @@ public CharSequence apply(final Object context, final Options options) throws Mi
     }
 
     private void registerMetaphactsHelper(HandlebarsHelperRegistry helperRegistry) {
+        Set<String> builtinHelpers = helperNames();
         helperRegistry.getHelpers().forEach(this::registerHelpers);
         this.registerHelpers(ConditionalHelpers.class);
+        for (ConditionalHelpers helper : ConditionalHelpers.values()) {
+            builtinHelpers.add(helper.name());
+        }
         helperRegistry.getNamedHelpers().entrySet().forEach(entry ->
             registerHelper(entry.getKey(), entry.getValue()));
 
         // register DocumentationHelper
         registerHelper("documentation", new DocumentationHelper());
 
+        Set<String> platformHelpers = helperNames();
+        platformHelpers.removeAll(builtinHelpers);
+        this.tracedHelpers = Set.copyOf(platformHelpers);
+
         if (logger.isDebugEnabled()) {
             logger.debug("Registered the following handlebars template helper: \n" + this.helpers());
         }
     }
+
+    private Set<String> helperNames() {
+        return this.helpers().stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the helper with the given name. Platform helpers are wrapped such
+     * that their execution is recorded as span of the current
+     * {@link RequestTrace}, if any.
+     */
+    @Override
+    public <C> Helper<C> helper(String name) {
+        Helper<C> helper = super.helper(name);
+        if (helper == null || !tracedHelpers.contains(name)) {
+            return helper;
+        }
+        String spanName = "helper." + name;
+        return (context, options) -> {
+            Span span = RequestTrace.span(spanName);
+            try (span) {
+                return helper.apply(context, options);
+            }
+        };
+    }
 }
@@ -40,6 +40,7 @@
 package com.metaphacts.templates;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -49,12 +50,16 @@
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.metaphacts.cache.CacheManager;
 import com.metaphacts.cache.PlatformCache;
 import com.metaphacts.cache.TemplateIncludeCache;
@@ -74,11 +79,20 @@ public class PageViewConfigManager implements PlatformCache {
 
     public static final String CACHE_ID = "platform.PageViewConfigCache";
 
+    public static final String TEMPLATE_CACHE_ID = "platform.PageViewTemplateCache";
+
     /**
      * Cache key is defined in {@link #createCacheKey(IRI, Repository)}
      */
     private Cache<String, PageViewConfig> cache;
 
+    /**
+     * Resolved templates per (ordered) set of include types, see
+     * {@link #resolveTemplates(IRI, TemplateContext)}. Resources sharing the same
+     * types share the same entry, independent of the repository.
+     */
+    private Cache<List<Resource>, ResolvedTemplates> typeSetCache;
+
     private NamespaceRegistry ns;
 
     private RepositoryManager repositoryManager;
@@ -106,6 +120,7 @@ public PageViewConfigManager(NamespaceRegistry ns,
         this.configuration = configuration;
         this.pageRenderConfiguration = pageRenderConfiguration;
         this.cache = initializeCache();
+        this.typeSetCache = initializeTypeSetCache();
         cacheManager.register(this);
     }
 
@@ -136,6 +151,11 @@ private Cache<String, PageViewConfig> initializeCache() {
         String spec = configuration.getCacheConfig().getPageViewConfigCacheSpec();
         return CacheBuilder.from(spec).build();
     }
+
+    private Cache<List<Resource>, ResolvedTemplates> initializeTypeSetCache() {
+        String spec = configuration.getCacheConfig().getPageViewTemplateCacheSpec();
+        return CacheBuilder.from(spec).build();
+    }
     
     public PageViewConfig computePageRenderInfo(IRI iri, Optional<String> repositoryId) {
         Repository repository = resolveRepository(repositoryId);
@@ -189,12 +209,9 @@ public PageViewConfig computePageRenderInfo(IRI iri, Repository repository) {
         }
 
         // IRI represents an RDF node
-        // now check if IRI is a typed node => used template include identifiers
-        LinkedHashSet<String> resourceTemplates = TemplateUtil.getRdfTemplateIncludeIdentifiers(iri, tc, includeCache);
-
-        // find the first existing template
-        Optional<String> firstExistingTemplate = TemplateUtil.findFirstExistingTemplate(handlebars.getLoader(),
-                resourceTemplates);
+        // now check if IRI is a typed node => find the first existing template for its types
+        ResolvedTemplates resolvedTemplates = resolveTemplates(iri, tc);
+        Optional<String> firstExistingTemplate = resolvedTemplates.getPageViewTemplate();
 
         PageViewConfigBuilder builder = PageViewConfigBuilder.createDefault(iri, pageRenderConfiguration);
         // if template exists, take it. Otherwise use initialize template from defaults
@@ -204,11 +221,8 @@ public PageViewConfig computePageRenderInfo(IRI iri, Repository repository) {
             builder.withBreadcrumbsTemplateIri(DEFAULT_BREADCRUMBS_TEMPLATE);
         }
 
-        // resolve the knowledge panel template to be used (if exist) and find the first
-        // existing panel template
-        Optional<String> firstExistingPanelTemplate = resolveKnowledgePanelTemplateIfExist(iri, tc);
-
-        // apply the panel template to the config
+        // apply the knowledge panel template (if exist) to the config
+        Optional<String> firstExistingPanelTemplate = resolvedTemplates.getKnowledgePanelTemplate();
         if (firstExistingPanelTemplate.isPresent()) {
             builder.withKnowledgePanelTemplateIri(firstExistingPanelTemplate.get());
         }
@@ -234,25 +248,48 @@ protected boolean isRDFNode(IRI iri, Repository repository) {
 
 
     protected Optional<String> resolveKnowledgePanelTemplateIfExist(IRI iri, TemplateContext tc) {
+        return resolveTemplates(iri, tc).getKnowledgePanelTemplate();
+    }
 
-        // compute the knowledge panel template to be used (if exist)
-        LinkedHashSet<String> knowledgePanelTemplates = TemplateUtil.getRdfKnowledgePanelTemplateIncludeIdentifiers(iri,
-                tc, includeCache);
-
-        // find the first existing panel template
-        return TemplateUtil.findFirstExistingTemplate(handlebars.getLoader(), knowledgePanelTemplates);
+    /**
+     * Resolve the first existing page view and knowledge panel templates for the
+     * include types of the given resource (see
+     * {@link TemplateIncludeCache#getTypesForIncludeScheme(Repository, IRI, Optional)}).
+     * 
+     * <p>
+     * The decision only depends on the ordered set of types, so it is cached per
+     * type set: resources sharing their types are resolved with a single type lookup
+     * and without probing the storage for the candidate templates.
+     * </p>
+     */
+    protected ResolvedTemplates resolveTemplates(IRI iri, TemplateContext tc) {
+        LinkedHashSet<Resource> types = includeCache.getTypesForIncludeScheme(tc.getRepository(), iri,
+                tc.getNamespaceRegistry());
+        try {
+            return typeSetCache.get(ImmutableList.copyOf(types), () -> new ResolvedTemplates(
+                    TemplateUtil.findFirstExistingTemplate(handlebars.getLoader(),
+                            TemplateUtil.convertResourcesToTemplateIdentifiers(types)),
+                    TemplateUtil.findFirstExistingTemplate(handlebars.getLoader(),
+                            TemplateUtil.convertResourcesToKnowledgePanelTemplateIdentifiers(types))));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     @Override
     public void invalidate() {
         cache.invalidateAll();
+        typeSetCache.invalidateAll();
         // create a new instance to allow changing cache configuration at runtime
         cache = initializeCache();
+        typeSetCache = initializeTypeSetCache();
     }
 
     @Override
     public void invalidate(Set<IRI> iris) {
         cache.invalidateAll();
+        typeSetCache.invalidateAll();
     }
 
     @Override
@@ -270,4 +307,25 @@ String createRepositoryId(@Nullable Repository repository) {
         }
         return repository.getClass().getSimpleName() + "-" + System.identityHashCode(repository);
     }
-}
\ No newline at end of file
+
+    /**
+     * Page view and knowledge panel templates resolved for a set of types.
+     */
+    protected static class ResolvedTemplates {
+        private final Optional<String> pageViewTemplate;
+        private final Optional<String> knowledgePanelTemplate;
+
+        public ResolvedTemplates(Optional<String> pageViewTemplate, Optional<String> knowledgePanelTemplate) {
+            this.pageViewTemplate = pageViewTemplate;
+            this.knowledgePanelTemplate = knowledgePanelTemplate;
+        }
+
+        public Optional<String> getPageViewTemplate() {
+            return pageViewTemplate;
+        }
+
+        public Optional<String> getKnowledgePanelTemplate() {
+            return knowledgePanelTemplate;
+        }
+    }
+}
@@ -55,6 +55,7 @@
 
 import com.google.common.collect.Iterables;
 import com.metaphacts.cache.CacheManager;
+import com.metaphacts.cache.CompactValues;
 import com.metaphacts.cache.ResourcePropertyCache;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.config.NamespaceRegistry;
@@ -111,7 +112,7 @@ protected Map<IRI, Optional<Value>> queryAll(Repository repository, Iterable<? e
                 Map<IRI, Optional<Value>> thumbnails = new HashMap<>();
                 for (IRI iri : iris) {
                     Optional<Value> thumbnail = flattenProperties(iriToPredicateToThumbnail.get(iri))
-                        .stream().findFirst();
+                        .stream().findFirst().map(CompactValues::compact);
                     thumbnails.put(iri, thumbnail);
                 }
 
@@ -143,6 +144,6 @@ public String getThumbnailServiceName() {
 
     @Override
     public Map<IRI, Optional<Value>> getThumbnails(Repository repository, Iterable<? extends IRI> resourceIRIs) {
-        return cache.getAll(repository, resourceIRIs);
+        return cache.getAll(repository, Iterables.transform(resourceIRIs, CompactValues::compact));
     }
 }
@@ -0,0 +1,213 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.trace;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Timing information of a single (sampled) request. Durations of spans with
+ * the same name are aggregated.
+ * 
+ * <p>
+ * The trace of the current request is bound to the request thread by the
+ * {@link com.metaphacts.servlet.filter.TracingFilter} and propagated to
+ * worker threads processing the request asynchronously (see
+ * {@link #activate(RequestTrace)}). Spans opened on threads without a trace
+ * are no-ops, so instrumented code paths do not have to check whether the
+ * request is traced.
+ * </p>
+ */
+public class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String path;
+    private final long startTime;
+    private final long startNanos;
+    private volatile long durationNanos = -1;
+
+    private final Map<String, SpanStatistics> spans = Maps.newLinkedHashMap();
+
+    public RequestTrace(String method, String path) {
+        this.method = method;
+        this.path = path;
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts a span with the given name for the request traced on the current
+     * thread.
+     * 
+     * @param name the name of the span, must be a valid
+     *             <code>Server-Timing</code> metric name (e.g.
+     *             <code>sparql.evaluate</code>)
+     * @return the span, {@link Span#NOOP} if the current request is not traced
+     */
+    public static Span span(String name) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return Span.NOOP;
+        }
+        long start = System.nanoTime();
+        return () -> trace.record(name, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the trace bound to the current thread or <code>null</code>
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the given trace to the current thread.
+     * 
+     * @param trace the trace, may be <code>null</code> to unbind the current one
+     * @return the previously bound trace (if any) to be restored afterwards
+     */
+    public static RequestTrace activate(RequestTrace trace) {
+        RequestTrace previous = CURRENT.get();
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+        return previous;
+    }
+
+    private synchronized void record(String name, long nanos) {
+        SpanStatistics statistics = spans.computeIfAbsent(name, SpanStatistics::new);
+        statistics.count++;
+        statistics.nanos += nanos;
+    }
+
+    /**
+     * Marks the request as completed.
+     */
+    public void finish() {
+        durationNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the duration of the request, or the time elapsed so far if the
+     *         request is not completed yet
+     */
+    public double getDurationMillis() {
+        long nanos = durationNanos >= 0 ? durationNanos : System.nanoTime() - startNanos;
+        return toMillis(nanos);
+    }
+
+    public synchronized List<SpanStatistics> getSpans() {
+        return spans.values().stream().map(SpanStatistics::copy).collect(Collectors.toList());
+    }
+
+    /**
+     * Renders the spans recorded so far as value of a <code>Server-Timing</code>
+     * response header.
+     */
+    public String toServerTiming() {
+        StringBuilder sb = new StringBuilder();
+        for (SpanStatistics span : getSpans()) {
+            sb.append(span.name).append(";dur=").append(formatMillis(span.getDurationMillis()))
+                    .append(";desc=\"").append(span.count).append("x\", ");
+        }
+        sb.append("total;dur=").append(formatMillis(getDurationMillis()));
+        return sb.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+
+    /**
+     * Aggregated durations of all spans with the same name.
+     */
+    public static class SpanStatistics {
+        private final String name;
+        private int count;
+        private long nanos;
+
+        private SpanStatistics(String name) {
+            this.name = name;
+        }
+
+        private SpanStatistics copy() {
+            SpanStatistics copy = new SpanStatistics(name);
+            copy.count = count;
+            copy.nanos = nanos;
+            return copy;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getDurationMillis() {
+            return toMillis(nanos);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.trace;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.UnavailableSecurityManagerException;
+
+import com.google.common.collect.Lists;
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.groups.EnvironmentConfiguration;
+import com.metaphacts.security.Permissions.SYSTEM;
+
+/**
+ * Decides which requests are traced and keeps the most recent slow requests.
+ * 
+ * <p>
+ * A request is traced if it carries the {@value #HEADER_MPH_TRACE} header and
+ * the subject has the {@link SYSTEM#REQUEST_TRACES} permission, or if it is
+ * sampled according to
+ * {@link EnvironmentConfiguration#getRequestTracingSampleRate()}. Traced
+ * requests taking longer than
+ * {@link EnvironmentConfiguration#getRequestTracingSlowThreshold()} are kept
+ * for inspection through the admin REST API.
+ * </p>
+ */
+public class RequestTracer {
+
+    private static final Logger logger = LogManager.getLogger(RequestTracer.class);
+
+    /**
+     * Request header to enable tracing for an individual request.
+     */
+    public static final String HEADER_MPH_TRACE = "MPH-Trace";
+
+    private final Configuration config;
+
+    private final Deque<RequestTrace> slowRequests = new ArrayDeque<>();
+
+    @Inject
+    public RequestTracer(Configuration config) {
+        this.config = config;
+    }
+
+    /**
+     * @return <code>true</code> if the given request is to be traced
+     */
+    public boolean shouldTrace(HttpServletRequest request) {
+        if ("true".equalsIgnoreCase(request.getHeader(HEADER_MPH_TRACE)) && canViewTimings()) {
+            return true;
+        }
+        int sampleRate = config.getEnvironmentConfig().getRequestTracingSampleRate();
+        return sampleRate > 0 && ThreadLocalRandom.current().nextInt(100) < sampleRate;
+    }
+
+    /**
+     * @return <code>true</code> if the current subject may view the timings of
+     *         its requests, i.e. has the {@link SYSTEM#REQUEST_TRACES} permission
+     */
+    public boolean canViewTimings() {
+        try {
+            return SecurityUtils.getSubject().isPermitted(SYSTEM.REQUEST_TRACES);
+        } catch (UnavailableSecurityManagerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the given (finished) trace if the request has been slow.
+     */
+    public void completed(RequestTrace trace) {
+        EnvironmentConfiguration envConfig = config.getEnvironmentConfig();
+        if (trace.getDurationMillis() < envConfig.getRequestTracingSlowThreshold()) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Slow request {} {} ({} ms): {}", trace.getMethod(), trace.getPath(),
+                    Math.round(trace.getDurationMillis()), trace.toServerTiming());
+        }
+        int limit = envConfig.getRequestTracingSlowRequestsLimit();
+        synchronized (slowRequests) {
+            slowRequests.addFirst(trace);
+            while (slowRequests.size() > Math.max(limit, 0)) {
+                slowRequests.removeLast();
+            }
+        }
+    }
+
+    /**
+     * @return the most recent slow requests, latest first
+     */
+    public List<RequestTrace> getSlowRequests() {
+        synchronized (slowRequests) {
+            return Lists.newArrayList(slowRequests);
+        }
+    }
+}
@@ -54,6 +54,11 @@
 @SuppressWarnings("deprecation")
 public class QueryUtil {
 
+    /**
+     * Shared renderer, memoizing recently rendered queries (e.g. the algebra of repeatedly executed query templates).
+     */
+    private static final MpSparqlQueryRenderer renderer = new MpSparqlQueryRenderer(1000);
+
     /**
      * render the supplied {@link TupleExpr} as a SPARQL string.
      *
@@ -61,7 +66,7 @@ public class QueryUtil {
      * @return a SPARQL string representation of the supplied {@link TupleExpr}
      */
     public static String toSPARQL(TupleExpr tupleExpression) throws Exception {
-        return new MpSparqlQueryRenderer().render(tupleExpression);
+        return renderer.render(tupleExpression);
     }
 
     /**
@@ -71,7 +76,7 @@ public static String toSPARQL(TupleExpr tupleExpression) throws Exception {
      * @return a SPARQL string representation of the supplied {@link ParsedOperation}.
      */
     public static String toSPARQL(ParsedOperation operation) throws Exception {
-        return new MpSparqlQueryRenderer().render(operation);
+        return renderer.render(operation);
     }
 
     /**
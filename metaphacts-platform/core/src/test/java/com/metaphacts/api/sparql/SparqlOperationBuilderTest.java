@@ -44,6 +44,8 @@
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
@@ -130,6 +132,28 @@ public void testTuple() throws Exception{
         }
     }
     
+    @Test
+    public void testParsedQueryCache() throws Exception {
+        ParsedQueryCache cache = new ParsedQueryCache(10);
+        String query = "SELECT ?subject WHERE { ?subject a foaf:Organization ; foaf:name ?name . FILTER(?subject = ??) }";
+        try (RepositoryConnection con = repositoryRule.getRepository().getConnection()) {
+            for (int i = 0; i < 2; i++) {
+                TupleQuery op = SparqlOperationBuilder.<TupleQuery>create(query, TupleQuery.class)
+                        .setNamespaces(Collections.singletonMap("foaf", FOAF.NAMESPACE))
+                        .resolveThis(metaphactsURI)
+                        .setParsedQueryCache(cache)
+                        .build(con);
+                List<BindingSet> result = QueryResults.asList(op.evaluate());
+                assertEquals(1, result.size());
+                assertEquals(metaphactsURI, result.get(0).getValue("subject"));
+                // bindings must not leak into the cached algebra
+                op.setBinding("name", vf.createLiteral("other"));
+                assertTrue(QueryResults.asList(op.evaluate()).isEmpty());
+            }
+        }
+        assertEquals(1, cache.size());
+    }
+
     @Test
     public void testBoolean() throws Exception{
         SparqlOperationBuilder<BooleanQuery> builder = SparqlOperationBuilder.<BooleanQuery> create("ASK {?subject a <http://xmlns.com/foaf/0.1/Organization>}", BooleanQuery.class);
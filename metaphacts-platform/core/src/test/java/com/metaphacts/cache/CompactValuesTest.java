@@ -0,0 +1,138 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.junit.Test;
+
+public class CompactValuesTest {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    @Test
+    public void testCompactIRI() {
+        IRI iri = vf.createIRI("http://example.org/ns#Äpfel");
+        IRI compact = CompactValues.compact(iri);
+
+        assertNotSame(iri, compact);
+        assertEquals(iri, compact);
+        assertEquals(compact, iri);
+        assertEquals(iri.hashCode(), compact.hashCode());
+        assertEquals("http://example.org/ns#", compact.getNamespace());
+        assertEquals("Äpfel", compact.getLocalName());
+        assertEquals(iri.stringValue(), compact.stringValue());
+        assertEquals(compact, CompactValues.compact(vf.createIRI(iri.stringValue())));
+        assertSame(compact, CompactValues.compact(compact));
+    }
+
+    @Test
+    public void testCompactLiteral() {
+        List<Literal> literals = Arrays.asList(vf.createLiteral("Alice"), vf.createLiteral("Alice", "en"),
+                vf.createLiteral("Ålice ✓", "de-CH"), vf.createLiteral("42", XSD.INTEGER),
+                vf.createLiteral(""));
+        for (Literal literal : literals) {
+            Literal compact = CompactValues.compact(literal);
+            assertNotSame(literal, compact);
+            assertEquals(literal, compact);
+            assertEquals(compact, literal);
+            assertEquals(literal.hashCode(), compact.hashCode());
+            assertEquals(literal.getLabel(), compact.getLabel());
+            assertEquals(literal.getLanguage(), compact.getLanguage());
+            assertEquals(literal.getDatatype(), compact.getDatatype());
+        }
+        assertEquals(RDF.LANGSTRING, CompactValues.compact(vf.createLiteral("Alice", "en")).getDatatype());
+        assertEquals(42, CompactValues.compact(vf.createLiteral("42", XSD.INTEGER)).intValue());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        List<Value> values = Arrays.asList(CompactValues.compact(vf.createIRI("http://example.org/alice")),
+                CompactValues.compact(vf.createLiteral("Alice", "en")));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(values));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(values, in.readObject());
+        }
+    }
+
+    @Test
+    public void testIntern() {
+        IRI type = CompactValues.intern(vf.createIRI("http://example.org/Person"));
+        assertSame(type, CompactValues.intern(vf.createIRI("http://example.org/Person")));
+        assertEquals(vf.createIRI("http://example.org/Person"), type);
+
+        List<String> languages = CompactValues.internLanguages(new ArrayList<>(Arrays.asList("de", "en")));
+        assertSame(languages, CompactValues.internLanguages(Arrays.asList("de", "en")));
+        assertEquals(Arrays.asList("de", "en"), languages);
+    }
+
+    @Test
+    public void testLiteralCacheKey() {
+        IRI iri = vf.createIRI("http://example.org/alice");
+        LiteralCacheKey key = new LiteralCacheKey(iri, new ArrayList<>(Arrays.asList("de", "en")));
+        LiteralCacheKey other = new LiteralCacheKey(iri, Arrays.asList("de", "fr"));
+
+        assertEquals(key, other);
+        assertEquals(key.hashCode(), other.hashCode());
+        assertEquals(iri, key.getIri());
+        assertSame(key.getPreferredLanguages(),
+                new LiteralCacheKey(iri, Arrays.asList("de", "en")).getPreferredLanguages());
+    }
+}
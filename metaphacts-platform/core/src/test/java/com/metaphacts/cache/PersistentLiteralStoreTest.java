@@ -0,0 +1,267 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.metaphacts.config.NamespaceRegistry;
+
+public class PersistentLiteralStoreTest {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+    private static final List<String> LANGUAGES = Arrays.asList("en");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final Repository repository = new SailRepository(new MemoryStore());
+    private final IRI alice = vf.createIRI("http://example.org/alice");
+    private final IRI bob = vf.createIRI("http://example.org/bob");
+
+    private File file;
+    private String repositoryVersion = "1";
+    private PersistentLiteralStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(tempFolder.newFolder(), "literals.db");
+        store = createStore();
+    }
+
+    @After
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    private PersistentLiteralStore createStore() {
+        return new PersistentLiteralStore(true, file, 1000, 60_000, repo -> Optional.of("default"),
+                repositoryId -> repositoryVersion);
+    }
+
+    private Optional<SecondLevelCache<LiteralCacheKey, Literal>> labels() {
+        return store.forCache("labels", () -> Arrays.asList("rdfs:label"));
+    }
+
+    private static LiteralCacheKey key(IRI iri) {
+        return new LiteralCacheKey(iri, LANGUAGES);
+    }
+
+    @Test
+    public void testEncoding() {
+        List<Optional<Literal>> literals = Arrays.asList(Optional.empty(), Optional.of(vf.createLiteral("Alice")),
+                Optional.of(vf.createLiteral("Alice", "en")), Optional.of(vf.createLiteral("Ålice ✓", "de-CH")),
+                Optional.of(vf.createLiteral("42", XSD.INTEGER)), Optional.of(vf.createLiteral("")));
+        for (Optional<Literal> literal : literals) {
+            assertEquals(literal, PersistentLiteralStore.decode(PersistentLiteralStore.encode(literal)));
+        }
+    }
+
+    @Test
+    public void testEntryEncoding() {
+        Map<String, PersistentLiteralStore.StoredLiteral> literals = Map.of(
+                "en", new PersistentLiteralStore.StoredLiteral(2000,
+                        PersistentLiteralStore.encode(Optional.of(vf.createLiteral("Alice", "en")))),
+                "de", new PersistentLiteralStore.StoredLiteral(1000,
+                        PersistentLiteralStore.encode(Optional.empty())));
+        byte[] entry = PersistentLiteralStore.encodeEntry(literals);
+
+        Map<String, PersistentLiteralStore.StoredLiteral> decoded = PersistentLiteralStore.decodeEntry(entry, 0);
+        assertEquals(literals.keySet(), decoded.keySet());
+        assertEquals(Optional.of(vf.createLiteral("Alice", "en")),
+                PersistentLiteralStore.decode(decoded.get("en").bytes));
+        assertEquals(Optional.empty(), PersistentLiteralStore.decode(decoded.get("de").bytes));
+
+        // literals written before the given time are expired
+        assertEquals(Set.of("en"), PersistentLiteralStore.decodeEntry(entry, 1500).keySet());
+    }
+
+    @Test
+    public void testDisabled() {
+        PersistentLiteralStore disabled = new PersistentLiteralStore(false, file, 1000, 60_000,
+                repo -> Optional.of("default"), repositoryId -> repositoryVersion);
+        assertFalse(disabled.forCache("labels", () -> Arrays.asList("rdfs:label")).isPresent());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testSurvivesRestart() {
+        labels().get().putAll(repository, Map.of(key(alice), Optional.of(vf.createLiteral("Alice", "en")),
+                key(bob), Optional.empty()));
+        store.shutdown();
+
+        store = createStore();
+        Map<LiteralCacheKey, Optional<Literal>> result = labels().get().getAll(repository,
+                Arrays.asList(key(alice), key(bob), key(vf.createIRI("http://example.org/carol"))));
+        assertEquals(2, result.size());
+        assertEquals(Optional.of(vf.createLiteral("Alice", "en")), result.get(key(alice)));
+        assertEquals(Optional.empty(), result.get(key(bob)));
+    }
+
+    @Test
+    public void testVersionChangeClearsEntries() {
+        labels().get().putAll(repository, Map.of(key(alice), Optional.of(vf.createLiteral("Alice"))));
+        store.shutdown();
+
+        repositoryVersion = "2";
+        store = createStore();
+        assertTrue(labels().get().getAll(repository, Arrays.asList(key(alice))).isEmpty());
+    }
+
+    @Test
+    public void testInvalidate() {
+        SecondLevelCache<LiteralCacheKey, Literal> labels = labels().get();
+        labels.putAll(repository, Map.of(key(alice), Optional.of(vf.createLiteral("Alice")), key(bob),
+                Optional.of(vf.createLiteral("Bob"))));
+
+        labels.invalidate(Set.of(alice));
+        Map<LiteralCacheKey, Optional<Literal>> result = labels.getAll(repository,
+                Arrays.asList(key(alice), key(bob)));
+        assertEquals(1, result.size());
+        assertTrue(result.containsKey(key(bob)));
+
+        labels.invalidateAll();
+        assertTrue(labels.getAll(repository, Arrays.asList(key(alice), key(bob))).isEmpty());
+    }
+
+    @Test
+    public void testInvalidateRemovesAllLanguages() {
+        SecondLevelCache<LiteralCacheKey, Literal> labels = labels().get();
+        LiteralCacheKey aliceDe = new LiteralCacheKey(alice, Arrays.asList("de"));
+        labels.putAll(repository, Map.of(key(alice), Optional.of(vf.createLiteral("Alice", "en")), key(bob),
+                Optional.of(vf.createLiteral("Bob", "en"))));
+        labels.putAll(repository, Map.of(aliceDe, Optional.of(vf.createLiteral("Alicia", "de"))));
+
+        // literals of other language tags are kept on updates of a resource
+        Map<LiteralCacheKey, Optional<Literal>> result = labels.getAll(repository,
+                Arrays.asList(key(alice), aliceDe, key(bob)));
+        assertEquals(3, result.size());
+        assertEquals(Optional.of(vf.createLiteral("Alicia", "de")), result.get(aliceDe));
+
+        labels.invalidate(Set.of(alice));
+        result = labels.getAll(repository, Arrays.asList(key(alice), aliceDe, key(bob)));
+        assertEquals(Set.of(key(bob)), result.keySet());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        SecondLevelCache<LiteralCacheKey, Literal> labels = labels().get();
+        labels.putAll(repository, Map.of(key(alice), Optional.of(vf.createLiteral("Alice"))));
+        labels.invalidateAll();
+        assertTrue(labels.getAll(repository, Arrays.asList(key(alice), key(bob))).isEmpty());
+    }
+
+    @Test
+    public void testLiteralCacheUsesPersistentStore() {
+        Literal label = vf.createLiteral("Alice", "en");
+        try (RepositoryConnection con = repository.getConnection()) {
+            con.add(alice, RDFS.LABEL, label);
+        }
+        assertEquals(Optional.of(label), createLiteralCache().getLiteral(alice, repository, "en"));
+
+        try (RepositoryConnection con = repository.getConnection()) {
+            con.clear();
+        }
+        // a cold in-memory cache is populated from the persistent store
+        assertEquals(Optional.of(label), createLiteralCache().getLiteral(alice, repository, "en"));
+    }
+
+    private LiteralCache createLiteralCache() {
+        NamespaceRegistry namespaceRegistry = mock(NamespaceRegistry.class);
+        when(namespaceRegistry.prependSparqlPrefixes(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        Optional<SecondLevelCache<LiteralCacheKey, Literal>> persistent = labels();
+        return new LiteralCache("labels", namespaceRegistry) {
+            @Override
+            protected List<String> getPreferredProperties() {
+                return Arrays.asList("<" + RDFS.LABEL + ">");
+            }
+
+            @Override
+            protected List<String> resolvePreferredLanguages(String preferredLanguage) {
+                return Arrays.asList(preferredLanguage);
+            }
+
+            @Override
+            protected Optional<SecondLevelCache<LiteralCacheKey, Literal>> secondLevelCache() {
+                return persistent;
+            }
+        };
+    }
+
+    @Test
+    public void testUncleanShutdownDiscardsStore() {
+        labels().get().putAll(repository, Map.of(key(alice), Optional.of(vf.createLiteral("Alice"))));
+        // simulate a crash: the store is not closed, a second instance opens the file
+        PersistentLiteralStore crashed = store;
+        store = createStore();
+        try {
+            assertTrue(labels().get().getAll(repository, Arrays.asList(key(alice))).isEmpty());
+        } finally {
+            crashed.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Inject;
+import com.metaphacts.api.dto.querytemplate.QueryTemplate;
+import com.metaphacts.data.rdf.container.LDPApiInternal;
+import com.metaphacts.junit.AbstractIntegrationTest;
+
+public class QueryTemplateCacheTest extends AbstractIntegrationTest {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private static final String TEMPLATE_NS = "http://localhost:10214/container/queryTemplateContainer/";
+
+    private static final IRI TEST_QUERY = vf.createIRI("http://localhost:10214/container/queryContainer/test-query");
+
+    @Inject
+    private QueryTemplateCache queryTemplateCache;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Before
+    public void setup() throws Exception {
+        cacheManager.deregisterAllCaches();
+        try (RepositoryConnection con = repositoryRule.getAssetRepository().getConnection()) {
+            con.add(LDPApiInternal.class.getResourceAsStream("testQueryTemplateContainer.trig"), "",
+                    RDFFormat.TRIG);
+        }
+        queryTemplateCache.invalidate();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        queryTemplateCache.invalidate();
+        repositoryRule.delete();
+    }
+
+    @Test
+    public void testPreloadAll() throws Exception {
+        assertEquals(5, queryTemplateCache.preloadAll());
+
+        QueryTemplate<?> template = queryTemplateCache.getQueryTemplate(template("test-query"));
+        assertEquals(TEST_QUERY, template.getQuery().getId());
+        assertEquals(1, template.getArguments().size());
+        assertSame(template, queryTemplateCache.getQueryTemplate(template("test-query")));
+
+        // preloaded templates are equivalent to the ones loaded on demand
+        QueryTemplate<?> preloaded = queryTemplateCache.getQueryTemplate(template("test-query-label"));
+        queryTemplateCache.invalidate();
+        QueryTemplate<?> loaded = queryTemplateCache.getQueryTemplate(template("test-query-label"));
+        assertNotSame(preloaded, loaded);
+        assertEquals(loaded.getQuery().getQueryString(), preloaded.getQuery().getQueryString());
+        assertEquals(loaded.getArguments().size(), preloaded.getArguments().size());
+    }
+
+    @Test
+    public void testConcurrentLoadIsSingleFlight() throws Exception {
+        IRI iri = template("test-query");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<QueryTemplate<?>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                tasks.add(() -> queryTemplateCache.getQueryTemplate(iri));
+            }
+            List<Future<QueryTemplate<?>>> results = executor.invokeAll(tasks);
+            QueryTemplate<?> first = results.get(0).get();
+            for (Future<QueryTemplate<?>> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidateByQueryBody() throws Exception {
+        queryTemplateCache.preloadAll();
+        QueryTemplate<?> dependent = queryTemplateCache.getQueryTemplate(template("test-query2"));
+        QueryTemplate<?> unrelated = queryTemplateCache.getQueryTemplate(template("test-query-label"));
+
+        queryTemplateCache.invalidate(Collections.singleton(TEST_QUERY));
+
+        assertNotSame(dependent, queryTemplateCache.getQueryTemplate(template("test-query2")));
+        assertSame(unrelated, queryTemplateCache.getQueryTemplate(template("test-query-label")));
+    }
+
+
+    private static IRI template(String name) {
+        return vf.createIRI(TEMPLATE_NS + name);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+public class RemoteLiteralCacheTest {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private final RemoteLiteralCache cache = new RemoteLiteralCache("test.remoteLiterals",
+            new RemoteServiceConfiguration("http://localhost:1/", null, null, null, 1)) {
+
+        @Override
+        protected List<String> resolvePreferredLanguages(String preferredLanguage) {
+            return Collections.singletonList(preferredLanguage);
+        }
+
+        @Override
+        protected Map<LiteralCacheKey, Optional<Literal>> queryAllBatched(String batchPreferredLanguage,
+                Iterable<LiteralCacheKey> batch) {
+            if (batchPreferredLanguage.equals("en")) {
+                throw new IllegalStateException("Remote service failed");
+            }
+            try {
+                // complete after the failed batch
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<LiteralCacheKey, Optional<Literal>> results = Maps.newHashMap();
+            for (LiteralCacheKey key : batch) {
+                results.put(key, Optional.of(vf.createLiteral("label", batchPreferredLanguage)));
+            }
+            return results;
+        }
+    };
+
+    @After
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    public void testFailedBatchDoesNotDropOtherBatches() {
+        IRI iri = vf.createIRI("http://example.org/resource");
+        LiteralCacheKey en = new LiteralCacheKey(iri, Collections.singletonList("en"));
+        LiteralCacheKey de = new LiteralCacheKey(iri, Collections.singletonList("de"));
+        LiteralCacheKey fr = new LiteralCacheKey(iri, Collections.singletonList("fr"));
+        List<LiteralCacheKey> keys = Arrays.asList(en, de, fr);
+
+        Map<LiteralCacheKey, Optional<Literal>> results = cache.queryAll(null, keys);
+
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals(Optional.empty(), results.get(en));
+        Assert.assertEquals(Optional.of(vf.createLiteral("label", "de")), results.get(de));
+        Assert.assertEquals(Optional.of(vf.createLiteral("label", "fr")), results.get(fr));
+    }
+}
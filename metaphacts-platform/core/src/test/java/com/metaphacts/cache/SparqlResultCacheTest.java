@@ -0,0 +1,106 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.cache;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.apache.shiro.subject.Subject;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.groups.CacheConfiguration;
+
+public class SparqlResultCacheTest {
+
+    @Test
+    public void testNormalizeQueryCollapsesWhitespace() {
+        Assert.assertEquals("SELECT * WHERE { ?a ?b ?c } LIMIT 10",
+                SparqlResultCache.normalizeQuery("  SELECT *\n\tWHERE {   ?a ?b ?c }\r\n LIMIT 10 "));
+    }
+
+    @Test
+    public void testNormalizeQueryRemovesComments() {
+        Assert.assertEquals("SELECT * WHERE { ?a ?b ?c }",
+                SparqlResultCache.normalizeQuery("# comment\nSELECT * WHERE { ?a ?b ?c } # trailing"));
+    }
+
+    @Test
+    public void testNormalizeQueryKeepsLiteralsAndIris() {
+        String query = "SELECT * WHERE { ?a <http://example.org/a#b> \"x  # y\\\"  z\" . FILTER(?a < 5) }";
+        Assert.assertEquals(query, SparqlResultCache.normalizeQuery(query));
+        Assert.assertEquals("SELECT * WHERE { ?a ?b 'a  b' }",
+                SparqlResultCache.normalizeQuery("SELECT  *  WHERE { ?a ?b 'a  b' }"));
+    }
+
+    @Test
+    public void testKeyIsScopedToPrincipal() {
+        Configuration config = mock(Configuration.class);
+        CacheConfiguration cacheConfig = mock(CacheConfiguration.class);
+        when(config.getCacheConfig()).thenReturn(cacheConfig);
+        when(cacheConfig.isSparqlResultCacheEnabled()).thenReturn(true);
+        when(cacheConfig.getSparqlResultCacheMaxBytes()).thenReturn(1024);
+        when(cacheConfig.getSparqlResultCacheTTL()).thenReturn(60);
+        when(cacheConfig.getSparqlResultCacheRepositoryTTL()).thenReturn(List.of());
+        SparqlResultCache cache = new SparqlResultCache(config, new CacheManager());
+
+        TupleQuery query = mock(TupleQuery.class);
+        when(query.getBindings()).thenReturn(EmptyBindingSet.getInstance());
+        String queryString = "SELECT * WHERE { SERVICE <http://example.org/service> { ?a ?b ?c } }";
+        Assert.assertEquals(
+                cache.createKey("default", queryString, query, TupleQueryResultFormat.JSON, subject("alice")),
+                cache.createKey("default", queryString, query, TupleQueryResultFormat.JSON, subject("alice")));
+        Assert.assertNotEquals(
+                cache.createKey("default", queryString, query, TupleQueryResultFormat.JSON, subject("alice")),
+                cache.createKey("default", queryString, query, TupleQueryResultFormat.JSON, subject("bob")));
+    }
+
+    private static Subject subject(String principal) {
+        Subject subject = mock(Subject.class);
+        when(subject.getPrincipal()).thenReturn(principal);
+        return subject;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.config;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IriCompactorTest {
+
+    private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private final IriCompactor compactor = new IriCompactor(Arrays.asList(
+            new NamespaceRecord("", "http://example.com/"),
+            new NamespaceRecord("ex", "http://example.com/"),
+            new NamespaceRecord("sub", "http://example.com/sub/"),
+            new NamespaceRecord("onto", "http://example.com/ontology#"),
+            new NamespaceRecord("term", "http://example.com/ontology#Term"),
+            new NamespaceRecord("urn", "urn:example:")));
+
+    @Test
+    public void testCompact() {
+        Assert.assertEquals(Optional.of(":Start"), compactor.compact(vf.createIRI("http://example.com/Start")));
+        Assert.assertEquals(Optional.of("sub:Page"), compactor.compact(vf.createIRI("http://example.com/sub/Page")));
+        Assert.assertEquals(Optional.of("onto:Class"),
+                compactor.compact(vf.createIRI("http://example.com/ontology#Class")));
+        Assert.assertEquals(Optional.of("urn:a"), compactor.compact(vf.createIRI("urn:example:a")));
+    }
+
+    @Test
+    public void testLongestNamespaceMatch() {
+        // namespaces longer than IRI#getNamespace() are accepted
+        Assert.assertEquals(Optional.of("term:Label"),
+                compactor.compact(vf.createIRI("http://example.com/ontology#TermLabel")));
+        Assert.assertEquals(Optional.of("sub:"), compactor.compact(vf.createIRI("http://example.com/sub/")));
+    }
+
+    @Test
+    public void testNoMatch() {
+        // the local name must not contain the namespace delimiter
+        Assert.assertEquals(Optional.empty(), compactor.compact(vf.createIRI("http://example.com/other/Page")));
+        Assert.assertEquals(Optional.empty(), compactor.compact(vf.createIRI("http://other.com/Page")));
+        Assert.assertEquals(Optional.empty(), compactor.compact("http://example.com"));
+    }
+
+    @Test
+    public void testInvalidLocalNameFallsBackToFullIri() {
+        Assert.assertEquals(Optional.of("<http://example.com/ontology#Class?x=1>"),
+                compactor.compact(vf.createIRI("http://example.com/ontology#Class?x=1")));
+        Assert.assertEquals(Optional.of("<http://example.com/ontology#-Class>"),
+                compactor.compact(vf.createIRI("http://example.com/ontology#-Class")));
+        Assert.assertEquals(Optional.of("<http://example.com/Page.>"),
+                compactor.compact(vf.createIRI("http://example.com/Page.")));
+        Assert.assertEquals(Optional.of("<http://example.com/ontology#Class#a>"),
+                compactor.compact(vf.createIRI("http://example.com/ontology#Class#a")));
+    }
+
+    @Test
+    public void testIsValidLocalName() {
+        Assert.assertTrue(IriCompactor.isValidLocalName(""));
+        Assert.assertTrue(IriCompactor.isValidLocalName("1a.b-c:d"));
+        Assert.assertTrue(IriCompactor.isValidLocalName("a%20b"));
+        Assert.assertTrue(IriCompactor.isValidLocalName("Ünïcödé"));
+        Assert.assertFalse(IriCompactor.isValidLocalName("-a"));
+        Assert.assertFalse(IriCompactor.isValidLocalName(".a"));
+        Assert.assertFalse(IriCompactor.isValidLocalName("a."));
+        Assert.assertFalse(IriCompactor.isValidLocalName("a/b"));
+        Assert.assertFalse(IriCompactor.isValidLocalName("a%2"));
+        Assert.assertFalse(IriCompactor.isValidLocalName("a%zz"));
+    }
+}
@@ -325,6 +325,32 @@ public void testPrefixExtraction() throws Exception {
         
     }
     
+    @Test
+    public void testPrefixedIRIRendering() throws Exception {
+
+        final NamespaceRegistry ns = getNamespaceRegistry();
+
+        Assert.assertFalse(ns.getPrefixedIRI(vf.createIRI(DUMMY_IRI1)).isPresent());
+
+        namespaceRule.set(DUMMY_PREFIX1, DUMMY_NAMESPACE1);
+        namespaceRule.set(DUMMY_PREFIX3, DUMMY_NAMESPACE3 + "abc/");
+
+        Assert.assertEquals(DUMMY_IRI1_AS_PREFIXED_IRI, ns.getPrefixedIRI(vf.createIRI(DUMMY_IRI1)).get());
+        Assert.assertEquals(DUMMY_PREFIX3 + ":def", ns.getPrefixedIRI(vf.createIRI(DUMMY_IRI3)).get());
+        // the empty prefix is registered first for the default namespace
+        Assert.assertEquals(":Start",
+                ns.getPrefixedIRI(vf.createIRI(NamespaceRegistry.DFLT_DEFAULT_NAMESPACE + "Start")).get());
+        // longest matching namespace is used
+        Assert.assertEquals(RuntimeNamespace.ADMIN + ":Page",
+                ns.getPrefixedIRI(vf.createIRI(NamespaceRegistry.DFLT_ADMIN_NAMESPACE + "Page")).get());
+
+        // snapshots are updated on change
+        Assert.assertEquals(DUMMY_NAMESPACE1, ns.getPrefixMap().get(DUMMY_PREFIX1));
+        namespaceRule.delete(DUMMY_PREFIX1);
+        Assert.assertFalse(ns.getPrefixMap().containsKey(DUMMY_PREFIX1));
+        Assert.assertFalse(ns.getPrefixedIRI(vf.createIRI(DUMMY_IRI1)).isPresent());
+    }
+
     @Test
     public void testSpecialTemplatePrefixedIRI() throws Exception {
         testSpecialPrefixedIRI("Template:");
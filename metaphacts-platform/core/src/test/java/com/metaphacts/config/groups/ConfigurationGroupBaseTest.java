@@ -41,6 +41,7 @@
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -116,6 +117,20 @@ public void testSetParameter() throws Exception {
         Assert.assertEquals("Updated Value", v.getValue());
     }
 
+    @Test
+    public void testSetParameters() throws Exception {
+
+        MyTestConfiguration config = createConfiguration();
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        values.put("testString", Arrays.asList("Updated Value"));
+        values.put("newParameter", Arrays.asList("Updated Parameter"));
+        config.setParameters(values, "runtime");
+
+        Assert.assertEquals("Updated Value", config.getTestString());
+        Assert.assertEquals("Updated Parameter", config.newParameter());
+        Assert.assertEquals("[Updated Value]", config.updateHookValue);
+    }
+
     @Test
     public void testConfigurationParameterHook() throws Exception {
 
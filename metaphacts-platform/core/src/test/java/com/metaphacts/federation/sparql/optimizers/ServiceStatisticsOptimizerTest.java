@@ -0,0 +1,176 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.sparql.optimizers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.EmptySet;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.Service;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Union;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryJoinOptimizer;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.federation.statistics.ServiceStatistics;
+
+public class ServiceStatisticsOptimizerTest {
+
+    private static final String EX = "http://example.org/";
+
+    private final Map<String, ServiceStatistics> statistics = new HashMap<>();
+
+    private Optional<ServiceStatistics> lookup(Value serviceRef) {
+        String id = serviceRef.stringValue().substring(NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE.length());
+        return Optional.ofNullable(statistics.get(id));
+    }
+
+    private void addStatistics(String id, boolean exhaustive, Map<String, Long> predicates,
+            Map<String, Long> classes) {
+        long triples = predicates.values().stream().mapToLong(Long::longValue).sum();
+        statistics.put(id, new ServiceStatistics(id, System.currentTimeMillis(), exhaustive, triples, predicates,
+                classes));
+    }
+
+    private static String service(String id, String body) {
+        return "SERVICE <" + NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE + id + "> { " + body + " }";
+    }
+
+    private TupleExpr optimize(String where) {
+        TupleExpr expr = QueryParserUtil
+                .parseTupleQuery(QueryLanguage.SPARQL, "SELECT * WHERE { " + where + " }", null).getTupleExpr();
+        new ServiceStatisticsOptimizer(this::lookup).optimize(expr, null, EmptyBindingSet.getInstance());
+        return expr;
+    }
+
+    private static <T extends QueryModelNode> List<T> collect(TupleExpr expr, Class<T> type) {
+        List<T> nodes = new ArrayList<>();
+        expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            protected void meetNode(QueryModelNode node) {
+                if (type.isInstance(node)) {
+                    nodes.add(type.cast(node));
+                }
+                super.meetNode(node);
+            }
+        });
+        return nodes;
+    }
+
+    @Test
+    public void testPruneUnionAlternative() {
+        addStatistics("labels", true, ImmutableMap.of(RDFS.LABEL.stringValue(), 100L), ImmutableMap.of());
+        addStatistics("comments", true, ImmutableMap.of(RDFS.COMMENT.stringValue(), 100L), ImmutableMap.of());
+
+        TupleExpr expr = optimize("{ " + service("labels", "?s <" + RDFS.LABEL + "> ?l") + " } UNION { "
+                + service("comments", "?s <" + RDFS.LABEL + "> ?l") + " }");
+
+        List<Service> services = collect(expr, Service.class);
+        assertEquals(1, services.size());
+        assertTrue(services.get(0).getServiceRef().getValue().stringValue().endsWith("labels"));
+        assertTrue(collect(expr, Union.class).isEmpty());
+    }
+
+    @Test
+    public void testPruneMissingClass() {
+        addStatistics("things", true, ImmutableMap.of(RDF.TYPE.stringValue(), 10L, RDFS.LABEL.stringValue(), 10L),
+                ImmutableMap.of(EX + "Thing", 10L));
+
+        TupleExpr expr = optimize("?s <" + RDFS.COMMENT + "> ?c . "
+                + service("things", "?s a <" + EX + "Person> ; <" + RDFS.LABEL + "> ?l"));
+
+        assertTrue(collect(expr, Service.class).isEmpty());
+        assertEquals(1, collect(expr, EmptySet.class).size());
+
+        // an OPTIONAL pattern does not restrict the results
+        expr = optimize(service("things", "?s a <" + EX + "Thing> OPTIONAL { ?s <" + RDFS.COMMENT + "> ?c }"));
+        assertEquals(1, collect(expr, Service.class).size());
+    }
+
+    @Test
+    public void testKeepWithoutExhaustiveStatistics() {
+        addStatistics("rest", false, ImmutableMap.of(RDFS.LABEL.stringValue(), ServiceStatistics.UNKNOWN),
+                ImmutableMap.of());
+
+        TupleExpr expr = optimize(service("rest", "?s <" + RDFS.COMMENT + "> ?c") + " "
+                + service("unknown", "?s <" + RDFS.COMMENT + "> ?c"));
+
+        assertEquals(2, collect(expr, Service.class).size());
+    }
+
+    @Test
+    public void testSelectiveServiceFirst() {
+        addStatistics("large", true, ImmutableMap.of(RDFS.LABEL.stringValue(), 1_000_000L), ImmutableMap.of());
+        addStatistics("small", true, ImmutableMap.of(RDF.TYPE.stringValue(), 1_000L),
+                ImmutableMap.of(EX + "Rare", 5L));
+
+        TupleExpr expr = optimize(service("large", "?s <" + RDFS.LABEL + "> ?l") + " "
+                + service("small", "?s a <" + EX + "Rare>"));
+        EvaluationStatistics evaluationStatistics = new ServiceStatisticsEvaluationStatistics(
+                new EvaluationStatistics(), this::lookup);
+        new QueryJoinOptimizer(evaluationStatistics).optimize(expr, null, EmptyBindingSet.getInstance());
+
+        Join join = collect(expr, Join.class).get(0);
+        Service first = (Service) join.getLeftArg();
+        assertTrue(first.getServiceRef().getValue().stringValue().endsWith("small"));
+        assertEquals(5.0, evaluationStatistics.getCardinality(first), 0.0);
+        assertEquals(1_000_000.0, evaluationStatistics.getCardinality(join.getRightArg()), 0.0);
+        assertFalse(ServiceStatisticsOptimizer.isEmpty(first.getArg(), statistics.get("small")));
+    }
+}
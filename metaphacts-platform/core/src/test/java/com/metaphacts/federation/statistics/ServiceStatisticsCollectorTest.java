@@ -0,0 +1,193 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.federation.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.config.MemoryStoreConfig;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.sdorra.shiro.ShiroRule;
+import com.github.sdorra.shiro.SubjectAware;
+import com.google.inject.Inject;
+import com.metaphacts.cache.CacheManager;
+import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.junit.AbstractIntegrationTest;
+import com.metaphacts.junit.PlatformStorageRule;
+import com.metaphacts.junit.TestPlatformStorage;
+
+public class ServiceStatisticsCollectorTest extends AbstractIntegrationTest {
+
+    private static final String SHIRO_CONFIG = "classpath:com/metaphacts/security/shiro-repositories-rights.ini";
+
+    private static final String EX = "http://example.org/";
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    @Rule
+    public ShiroRule shiroRule = new ShiroRule();
+
+    @Inject
+    @Rule
+    public PlatformStorageRule storage;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    private Repository main;
+
+    private Repository other;
+
+    @Before
+    public void setup() throws Exception {
+        setStatisticsRepositories("other");
+        main = repositoryRule.addRepository("main", new MemoryStoreConfig());
+        other = repositoryRule.addRepository("other", new MemoryStoreConfig());
+        try (RepositoryConnection con = main.getConnection();
+                RepositoryConnection otherCon = other.getConnection()) {
+            for (int i = 0; i < 10; i++) {
+                IRI thing = vf.createIRI(EX + "thing" + i);
+                con.add(thing, RDF.TYPE, vf.createIRI(EX + "Thing"));
+                otherCon.add(thing, RDF.TYPE, vf.createIRI(EX + "Labeled"));
+                otherCon.add(thing, RDFS.LABEL, vf.createLiteral("Thing " + i));
+            }
+        }
+    }
+
+    private void setStatisticsRepositories(String... repositoryIds) throws Exception {
+        config.getEnvironmentConfig().setParameter("federatedServiceStatisticsRepositories",
+                Arrays.asList(repositoryIds), TestPlatformStorage.STORAGE_ID);
+    }
+
+    private List<BindingSet> query(String servicePattern) {
+        String query = "SELECT * WHERE { ?s a <" + EX + "Thing> . SERVICE <"
+                + NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE + "other> { " + servicePattern + " } }";
+        try (RepositoryConnection con = main.getConnection()) {
+            return QueryResults.asList(con.prepareTupleQuery(query).evaluate());
+        }
+    }
+
+    @Test
+    public void testCollectAndPersist() throws Exception {
+        ServiceStatisticsCollector collector = repositoryRule.getRepositoryManager().getServiceStatisticsCollector();
+        ServiceStatistics statistics = collector.refresh("other");
+
+        assertEquals(20, statistics.getTriples());
+        assertEquals(10, statistics.getPredicateCardinality(RDFS.LABEL));
+        assertEquals(10, statistics.getClassCardinality(vf.createIRI(EX + "Labeled")));
+        assertEquals(0, statistics.getPredicateCardinality(RDFS.COMMENT));
+        assertTrue(statistics.isExhaustive());
+
+        // statistics are loaded from the storage on startup
+        ServiceStatisticsCollector restarted = new ServiceStatisticsCollector(
+                repositoryRule.getRepositoryManager(), config, storage.getPlatformStorage());
+        ServiceStatistics persisted = restarted
+                .getStatistics(vf.createIRI(NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE + "other")).get();
+        assertEquals(statistics.getPredicates(), persisted.getPredicates());
+        assertEquals(statistics.getClasses(), persisted.getClasses());
+    }
+
+    @Test
+    @SubjectAware(username = "admin", password = "admin", configuration = SHIRO_CONFIG)
+    public void testServiceEvaluationUsesStatistics() throws Exception {
+        assertEquals(10, query("?s <" + RDFS.LABEL + "> ?label").size());
+
+        repositoryRule.getRepositoryManager().getServiceStatisticsCollector().refresh("other");
+        assertEquals(10, query("?s <" + RDFS.LABEL + "> ?label").size());
+
+        // data added after the statistics were collected is not considered
+        try (RepositoryConnection con = other.getConnection()) {
+            con.add(vf.createIRI(EX + "thing0"), RDFS.COMMENT, vf.createLiteral("comment"));
+        }
+        assertTrue(query("?s <" + RDFS.COMMENT + "> ?comment").isEmpty());
+
+        repositoryRule.getRepositoryManager().getServiceStatisticsCollector().refresh("other");
+        assertFalse(query("?s <" + RDFS.COMMENT + "> ?comment").isEmpty());
+    }
+
+    @Test
+    @SubjectAware(username = "admin", password = "admin", configuration = SHIRO_CONFIG)
+    public void testPlatformWriteInvalidatesStatistics() throws Exception {
+        ServiceStatisticsCollector collector = repositoryRule.getRepositoryManager().getServiceStatisticsCollector();
+        collector.refresh("other");
+        assertTrue(collector.getStatistics("other").isPresent());
+        try (RepositoryConnection con = other.getConnection()) {
+            con.add(vf.createIRI(EX + "thing0"), RDFS.COMMENT, vf.createLiteral("comment"));
+        }
+        assertTrue(query("?s <" + RDFS.COMMENT + "> ?comment").isEmpty());
+
+        // a write through the platform disables the statistics until they are collected again
+        Thread.sleep(5);
+        cacheManager.invalidateAll();
+        assertFalse(collector.getStatistics("other").isPresent());
+        assertFalse(query("?s <" + RDFS.COMMENT + "> ?comment").isEmpty());
+
+        collector.refreshOutdated();
+        assertTrue(collector.getStatistics("other").isPresent());
+    }
+
+    @Test
+    public void testStatisticsOnlyForConfiguredRepositories() throws Exception {
+        ServiceStatisticsCollector collector = repositoryRule.getRepositoryManager().getServiceStatisticsCollector();
+        collector.refresh("other");
+        assertTrue(collector.getStatistics("other").isPresent());
+
+        setStatisticsRepositories();
+        assertFalse(collector.getStatistics("other").isPresent());
+        assertFalse(collector.getStatistics(vf.createIRI(NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE + "other"))
+                .isPresent());
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.junit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.glassfish.jersey.test.DeploymentContext;
+import org.glassfish.jersey.test.spi.TestContainer;
+import org.glassfish.jersey.test.spi.TestContainerFactory;
+
+/**
+ * In-memory test container which, unlike the default in-memory container of
+ * the Jersey test framework, supports suspended (asynchronous) responses. The
+ * connector blocks until the response has been committed by whichever thread
+ * resumes it.
+ */
+public class AsyncInMemoryTestContainerFactory implements TestContainerFactory {
+
+    /**
+     * Maximum time to wait for a suspended response to be resumed.
+     */
+    private static final long RESPONSE_TIMEOUT_SECONDS = 60;
+
+    @Override
+    public TestContainer create(URI baseUri, DeploymentContext context) {
+        return new AsyncInMemoryTestContainer(baseUri, context);
+    }
+
+    private static class AsyncInMemoryTestContainer implements TestContainer {
+        private final URI baseUri;
+        private final ApplicationHandler appHandler;
+
+        AsyncInMemoryTestContainer(URI baseUri, DeploymentContext context) {
+            this.baseUri = UriBuilder.fromUri(baseUri).path(context.getContextPath()).build();
+            this.appHandler = new ApplicationHandler(context.getResourceConfig());
+        }
+
+        @Override
+        public ClientConfig getClientConfig() {
+            return new ClientConfig().connectorProvider(
+                    (client, runtimeConfig) -> new AsyncInMemoryConnector(baseUri, appHandler));
+        }
+
+        @Override
+        public URI getBaseUri() {
+            return baseUri;
+        }
+
+        @Override
+        public void start() {
+            // nothing to start
+        }
+
+        @Override
+        public void stop() {
+            // nothing to stop
+        }
+    }
+
+    private static class AsyncInMemoryConnector implements Connector {
+        private final URI baseUri;
+        private final ApplicationHandler appHandler;
+
+        AsyncInMemoryConnector(URI baseUri, ApplicationHandler appHandler) {
+            this.baseUri = baseUri;
+            this.appHandler = appHandler;
+        }
+
+        @Override
+        public ClientResponse apply(ClientRequest clientRequest) {
+            ContainerRequest containerRequest = new ContainerRequest(baseUri, clientRequest.getUri(),
+                    clientRequest.getMethod(), null, new MapPropertiesDelegate(),
+                    appHandler.getConfiguration());
+
+            ByteArrayOutputStream requestEntity = new ByteArrayOutputStream();
+            if (clientRequest.getEntity() != null) {
+                clientRequest.setStreamProvider(contentLength -> requestEntity);
+                clientRequest.enableBuffering();
+                try {
+                    clientRequest.writeEntity();
+                } catch (IOException e) {
+                    throw new ProcessingException("Failed to write request entity.", e);
+                }
+            }
+            containerRequest.getHeaders().putAll(clientRequest.getStringHeaders());
+            containerRequest.setEntityStream(new ByteArrayInputStream(requestEntity.toByteArray()));
+            containerRequest.setSecurityContext(new InMemorySecurityContext());
+
+            ResponseWriter writer = new ResponseWriter();
+            containerRequest.setWriter(writer);
+            appHandler.handle(containerRequest);
+            writer.awaitCompletion();
+
+            ClientResponse clientResponse = new ClientResponse(writer.statusInfo, clientRequest);
+            clientResponse.getHeaders().putAll(writer.headers);
+            clientResponse.setEntityStream(new ByteArrayInputStream(writer.entity.toByteArray()));
+            return clientResponse;
+        }
+
+        @Override
+        public Future<?> apply(ClientRequest clientRequest, AsyncConnectorCallback callback) {
+            CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+            try {
+                ClientResponse response = apply(clientRequest);
+                callback.response(response);
+                future.complete(response);
+            } catch (Throwable t) {
+                callback.failure(t);
+                future.completeExceptionally(t);
+            }
+            return future;
+        }
+
+        @Override
+        public String getName() {
+            return "Async In-Memory Connector";
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+    private static class ResponseWriter implements ContainerResponseWriter {
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        private volatile Response.StatusType statusInfo;
+        private volatile MultivaluedMap<String, String> headers;
+        private volatile Throwable error;
+
+        @Override
+        public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse response) {
+            this.statusInfo = response.getStatusInfo();
+            this.headers = response.getStringHeaders();
+            return entity;
+        }
+
+        @Override
+        public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
+            return true;
+        }
+
+        @Override
+        public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) {
+            // timeouts are bounded by RESPONSE_TIMEOUT_SECONDS
+        }
+
+        @Override
+        public void commit() {
+            completed.countDown();
+        }
+
+        @Override
+        public void failure(Throwable error) {
+            this.error = error;
+            completed.countDown();
+        }
+
+        @Override
+        public boolean enableResponseBuffering() {
+            return false;
+        }
+
+        void awaitCompletion() {
+            try {
+                if (!completed.await(RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new ProcessingException("Timed out waiting for the response to be resumed.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException("Interrupted while waiting for the response.", e);
+            }
+            if (error != null) {
+                throw new ProcessingException("Server-side request processing failed with an error.", error);
+            }
+        }
+    }
+
+    private static class InMemorySecurityContext implements SecurityContext {
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return false;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public String getAuthenticationScheme() {
+            return null;
+        }
+    }
+}
@@ -68,6 +68,7 @@
 import com.metaphacts.cache.LookupBasedResourceInformationService;
 import com.metaphacts.cache.ResourceDescriptionCache;
 import com.metaphacts.cache.ResourceDescriptionCacheHolder;
+import com.metaphacts.cache.SparqlResultCache;
 import com.metaphacts.cache.TemplateIncludeCache;
 import com.metaphacts.config.Configuration;
 import com.metaphacts.config.NamespaceRegistry;
@@ -101,6 +102,8 @@
 import com.metaphacts.services.fields.SimpleFieldDefinitionGeneratorChain;
 import com.metaphacts.services.storage.api.PlatformStorage;
 import com.metaphacts.services.storage.api.StorageRegistry;
+import com.metaphacts.servlet.AsyncRequestExecutor;
+import com.metaphacts.servlet.SparqlQueryGovernor;
 import com.metaphacts.servlet.SparqlServlet;
 import com.metaphacts.templates.MetaphactsHandlebars;
 import com.metaphacts.templates.PageViewConfigManager;
@@ -108,6 +111,7 @@
 import com.metaphacts.templates.index.TemplateIndexManager;
 import com.metaphacts.thumbnails.DefaultThumbnailService;
 import com.metaphacts.thumbnails.ThumbnailServiceRegistry;
+import com.metaphacts.trace.RequestTracer;
 import com.metaphacts.ui.templates.MainTemplate;
 
 /**
@@ -159,11 +163,16 @@ protected void configure() {
         bind(ResourceDescriptionService.class).to(DefaultResourceDescriptionService.class).in(TestSingleton.class);
         bind(ResourceDescriptionCache.class).in(TestSingleton.class);
         bind(TemplateIncludeCache.class).in(TestSingleton.class);
+        bind(SparqlResultCache.class).in(TestSingleton.class);
+        bind(AsyncRequestExecutor.class).in(TestSingleton.class);
+        bind(SparqlQueryGovernor.class).in(TestSingleton.class);
+        bind(RequestTracer.class).in(TestSingleton.class);
         bind(SparqlServlet.class).in(TestSingleton.class);
         bind(ThumbnailServiceRegistry.class).in(TestSingleton.class);
         bind(DefaultThumbnailService.class).in(TestEagerSingleton.class);
         bind(MainTemplate.class).in(TestSingleton.class);
         bind(MpSparqlServiceRegistry.class).in(TestSingleton.class);
+        bind(FieldDefinitionManager.class).in(TestSingleton.class);
         bind(FieldDefinitionGeneratorChain.class).to(SimpleFieldDefinitionGeneratorChain.class);
         bind(PageViewConfigSettings.class).in(TestSingleton.class);
         bind(TemplateIndexManager.class).in(TestSingleton.class);
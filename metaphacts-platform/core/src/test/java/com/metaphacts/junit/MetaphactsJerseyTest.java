@@ -49,6 +49,7 @@
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.test.DeploymentContext;
 import org.glassfish.jersey.test.JerseyTestNg;
+import org.glassfish.jersey.test.spi.TestContainerFactory;
 import org.jukito.UseModules;
 import org.junit.After;
 import org.junit.Before;
@@ -145,6 +146,15 @@ protected void configure() {
         return context;
     }
     
+    /**
+     * Uses an in-memory container which supports suspended responses, as some
+     * endpoints process their requests asynchronously.
+     */
+    @Override
+    protected TestContainerFactory getTestContainerFactory() {
+        return new AsyncInMemoryTestContainerFactory();
+    }
+
     @Override
     protected Application configure() {
         // we configure the DeploymentContext directly
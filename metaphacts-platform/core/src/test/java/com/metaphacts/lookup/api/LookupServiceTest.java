@@ -54,6 +54,11 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -541,6 +546,88 @@ public void testLookupServiceScoreBoosting_simpleBoosting()  throws Exception {
         assertEquals(-8.4, candidates.get(0).getScore(), 0.01);
     }
 
+    @Test
+    public void testLookupServiceCachePrefixReuse() throws Exception {
+        AtomicInteger callCounter = new AtomicInteger();
+        CommonLookupConfig config = new CommonLookupConfig();
+        config.setLookupCachePrefixReuse(true);
+        AbstractLookupService<CommonLookupConfig> service = createMockLookupService(callCounter, config);
+        repositoryRule.addRepoWithLookupService("prefix-repo", service);
+        LookupService lookupService = lookupServiceManager.getLookupServiceByName("prefix-repo").get();
+
+        // complete result (below the limit) for the prefix query
+        List<LookupCandidate> candidates = lookupService
+                .lookup(new LookupRequest(queryId(), new LookupQuery("Cand", 10, null, null, null, null)))
+                .getResult();
+        assertEquals(1, callCounter.get());
+        assertEquals(5, candidates.size());
+
+        // longer query is derived from the cached prefix result
+        candidates = lookupService
+                .lookup(new LookupRequest(queryId(), new LookupQuery("Candidate3", 10, null, null, null, null)))
+                .getResult();
+        assertEquals(1, callCounter.get());
+        assertEquals(1, candidates.size());
+        assertEquals("Candidate3", candidates.get(0).getId());
+        assertEquals(1, service.getStatistics().getPrefixReusedLookups());
+
+        // a truncated prefix result (limit reached) must not be reused
+        lookupService.lookup(new LookupRequest(queryId(), new LookupQuery("Alice", 5, null, null, null, null)));
+        assertEquals(2, callCounter.get());
+        lookupService.lookup(new LookupRequest(queryId(), new LookupQuery("Alice1", 5, null, null, null, null)));
+        assertEquals(3, callCounter.get());
+        assertEquals(3, service.getStatistics().getExecutedLookups());
+    }
+
+    @Test
+    public void testLookupServiceCoalescingWithoutCache() throws Exception {
+        AtomicInteger callCounter = new AtomicInteger();
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        CommonLookupConfig config = new CommonLookupConfig();
+        config.setLookupCacheConfig(AbstractLookupService.CACHE_SPEC_NOCACHE);
+        AbstractLookupService<CommonLookupConfig> service = new AbstractLookupService<CommonLookupConfig>(config) {
+            @Override
+            protected LookupResponse doLookup(LookupRequest request) throws LookupProcessingException {
+                callCounter.incrementAndGet();
+                lookupStarted.countDown();
+                try {
+                    releaseLookup.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new LookupProcessingException(e.getMessage(), e);
+                }
+                return new LookupResponse(request.getQueryId(), Collections
+                        .singletonList(new LookupCandidate("Alice", "Alice", null, 1.0, true, null, null)));
+            }
+        };
+        repositoryRule.addRepoWithLookupService("coalescing-repo", service);
+        LookupService lookupService = lookupServiceManager.getLookupServiceByName("coalescing-repo").get();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<LookupResponse> first = executor.submit(() -> lookupService
+                    .lookup(new LookupRequest("q1", new LookupQuery("Alice", 3, null, null, null, null))));
+            assertTrue(lookupStarted.await(10, TimeUnit.SECONDS));
+            Future<LookupResponse> second = executor.submit(() -> lookupService
+                    .lookup(new LookupRequest("q2", new LookupQuery("Alice", 3, null, null, null, null))));
+            // wait until the second request joined the in-flight lookup
+            long deadline = System.currentTimeMillis() + 10000;
+            while (service.getStatistics().getCoalescedLookups() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            releaseLookup.countDown();
+
+            assertEquals("q1", first.get().getQueryId());
+            assertEquals("q2", second.get().getQueryId());
+            assertEquals(1, second.get().getResult().size());
+            assertEquals(1, callCounter.get());
+            assertEquals(1, service.getStatistics().getExecutedLookups());
+            assertEquals(1, service.getStatistics().getCoalescedLookups());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     static class CacheKeyCreatingLookupService extends AbstractLookupService<CommonLookupConfig> {
         protected CacheKeyCreatingLookupService(CommonLookupConfig config) {
             super(config);
@@ -561,7 +648,15 @@ protected String queryId() {
 
     protected Optional<LookupService> setupMockLookupService(AtomicInteger callCounter, String repositoryId,
             CommonLookupConfig config) {
-        repositoryRule.addRepoWithLookupService(repositoryId, new AbstractLookupService<CommonLookupConfig>(config) {
+        repositoryRule.addRepoWithLookupService(repositoryId, createMockLookupService(callCounter, config));
+
+        Optional<LookupService> lookupService = lookupServiceManager.getLookupServiceByName(repositoryId);
+        return lookupService;
+    }
+
+    protected AbstractLookupService<CommonLookupConfig> createMockLookupService(AtomicInteger callCounter,
+            CommonLookupConfig config) {
+        return new AbstractLookupService<CommonLookupConfig>(config) {
             @Override
             protected LookupResponse doLookup(LookupRequest request) throws LookupProcessingException {
                 callCounter.incrementAndGet();
@@ -582,10 +677,7 @@ protected LookupResponse doLookup(LookupRequest request) throws LookupProcessing
 
                 return new LookupResponse(request.getQueryId(), candidates);
             }
-        });
-
-        Optional<LookupService> lookupService = lookupServiceManager.getLookupServiceByName(repositoryId);
-        return lookupService;
+        };
     }
 
     private String clearOutUUIDs(String query, Map<String, Value> bindings) {
@@ -0,0 +1,157 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.querycatalog;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+public class QaasServiceGuardTest {
+
+    private static class FakeTicker extends Ticker {
+        long nanos = 0;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos += unit.toNanos(duration);
+        }
+    }
+
+    private final FakeTicker ticker = new FakeTicker();
+    private final QaasServiceGuard guard = new QaasServiceGuard("test", ticker);
+
+    @Test
+    public void testRateLimitPerUser() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            guard.checkRateLimit("alice", 3);
+        }
+        QaasLimitExceededException e = assertThrows(QaasLimitExceededException.class,
+                () -> guard.checkRateLimit("alice", 3));
+        assertEquals(429, e.getResponse().getStatus());
+        assertEquals("20", e.getResponse().getHeaderString("Retry-After"));
+
+        // other users have their own bucket
+        guard.checkRateLimit("bob", 3);
+
+        // one token is refilled every 20 seconds
+        ticker.advance(20, TimeUnit.SECONDS);
+        guard.checkRateLimit("alice", 3);
+        assertThrows(QaasLimitExceededException.class, () -> guard.checkRateLimit("alice", 3));
+
+        // no limit
+        for (int i = 0; i < 10; i++) {
+            guard.checkRateLimit("alice", 0);
+        }
+        assertEquals(2, guard.getStatistics().getRateLimitedInvocations());
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        QaasServiceGuard.Permit first = guard.acquire(2);
+        try (QaasServiceGuard.Permit second = guard.acquire(2)) {
+            assertThrows(QaasLimitExceededException.class, () -> guard.acquire(2));
+        }
+        guard.acquire(2).close();
+        first.close();
+        assertEquals(1, guard.getStatistics().getThrottledInvocations());
+    }
+
+    @Test
+    public void testResultCache() throws Exception {
+        byte[] result = "result".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QaasServiceGuard.ResultCapture capture = guard.capture(out);
+        capture.write(result);
+        guard.putCachedResult("key", 60, capture);
+        assertArrayEquals(result, out.toByteArray());
+
+        assertArrayEquals(result, guard.getCachedResult("key", 60).get());
+        assertFalse(guard.getCachedResult("other", 60).isPresent());
+        assertEquals(1, guard.getStatistics().getCachedInvocations());
+
+        ticker.advance(61, TimeUnit.SECONDS);
+        assertFalse(guard.getCachedResult("key", 60).isPresent());
+
+        guard.putCachedResult("key", 60, capture);
+        guard.invalidateResults();
+        assertFalse(guard.getCachedResult("key", 60).isPresent());
+
+        // caching disabled
+        guard.putCachedResult("key", 0, capture);
+        assertFalse(guard.getCachedResult("key", 0).isPresent());
+    }
+
+    @Test
+    public void testLargeResultIsNotCaptured() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QaasServiceGuard.ResultCapture capture = guard.capture(out);
+        capture.write(new byte[QaasServiceGuard.MAX_CACHED_RESULT_BYTES]);
+        assertTrue(capture.getCapturedBytes() != null);
+        capture.write(1);
+        assertNull(capture.getCapturedBytes());
+        assertEquals(QaasServiceGuard.MAX_CACHED_RESULT_BYTES + 1, out.size());
+    }
+
+    @Test
+    public void testExecutionStatistics() {
+        QaasServiceStatistics statistics = guard.getStatistics();
+        statistics.recordExecution(TimeUnit.MILLISECONDS.toNanos(10), true);
+        statistics.recordExecution(TimeUnit.MILLISECONDS.toNanos(30), false);
+        assertEquals(2, statistics.getExecutedInvocations());
+        assertEquals(1, statistics.getFailedInvocations());
+        assertEquals(20, statistics.getAverageExecutionTimeMillis());
+        assertEquals(30, statistics.getMaxExecutionTimeMillis());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.querycatalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.sdorra.shiro.ShiroRule;
+import com.github.sdorra.shiro.SubjectAware;
+import com.google.inject.Inject;
+import com.metaphacts.cache.CacheManager;
+import com.metaphacts.data.rdf.container.LDPApiInternal;
+import com.metaphacts.junit.AbstractIntegrationTest;
+import com.metaphacts.repository.RepositoryManager;
+
+public class QueryCatalogRESTServiceRegistryTest extends AbstractIntegrationTest {
+
+    private static final String SHIRO_CONFIG = "classpath:com/metaphacts/security/shiro-repositories-rights.ini";
+
+    private static final String SERVICE_ID = "test-service";
+
+    private static final String TEMPLATE_IRI = "http://localhost:10214/container/queryTemplateContainer/test-query";
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    @Rule
+    public ShiroRule shiroRule = new ShiroRule();
+
+    @Inject
+    @Rule
+    public QueryCatalogRESTServiceRegistryRule registryRule;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Before
+    public void setup() throws Exception {
+        registryRule.setLDPRepository(RepositoryManager.ASSET_REPOSITORY_ID);
+        try (RepositoryConnection con = repositoryRule.getAssetRepository().getConnection()) {
+            con.add(LDPApiInternal.class.getResourceAsStream("testQueryTemplateContainer.trig"), "",
+                    RDFFormat.TRIG);
+        }
+        addPerson("alice");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        registryRule.deleteAll();
+        repositoryRule.delete();
+    }
+
+    @Test
+    @SubjectAware(username = "admin", password = "admin", configuration = SHIRO_CONFIG)
+    public void testResultCache() throws Exception {
+        registerService();
+        registryRule.setServiceParameter(SERVICE_ID, QaasField.RESULT_CACHE_TTL, "60");
+        QueryCatalogRESTService service = registryRule.getRegistry().getService(SERVICE_ID).get();
+
+        String first = invoke(service, FOAF.PERSON.stringValue());
+        addPerson("bob");
+        // served from the cache
+        assertEquals(first, invoke(service, FOAF.PERSON.stringValue()));
+        // different arguments are evaluated
+        invoke(service, FOAF.AGENT.stringValue());
+
+        QaasServiceStatistics statistics = service.getStatistics();
+        assertEquals(2, statistics.getExecutedInvocations());
+        assertEquals(1, statistics.getCachedInvocations());
+
+        // changes of the template drop the cached results
+        cacheManager.invalidateResources(Collections.singleton(vf.createIRI(TEMPLATE_IRI)));
+        assertNotEquals(first, invoke(service, FOAF.PERSON.stringValue()));
+    }
+
+    @Test
+    @SubjectAware(username = "admin", password = "admin", configuration = SHIRO_CONFIG)
+    public void testRateAndConcurrencyLimit() throws Exception {
+        registerService();
+        registryRule.setServiceParameter(SERVICE_ID, QaasField.RATE_LIMIT, "2");
+        QueryCatalogRESTService service = registryRule.getRegistry().getService(SERVICE_ID).get();
+
+        invoke(service, FOAF.PERSON.stringValue());
+        invoke(service, FOAF.PERSON.stringValue());
+        assertThrows(QaasLimitExceededException.class, () -> invoke(service, FOAF.PERSON.stringValue()));
+        assertEquals(1, service.getStatistics().getRateLimitedInvocations());
+
+        registryRule.setServiceParameter(SERVICE_ID, QaasField.RATE_LIMIT, "0");
+        registryRule.setServiceParameter(SERVICE_ID, QaasField.MAX_CONCURRENT_INVOCATIONS, "1");
+        assertEquals(1, service.getMaxConcurrentInvocations());
+        invoke(service, FOAF.PERSON.stringValue());
+        assertEquals(3, service.getStatistics().getExecutedInvocations());
+    }
+
+    private void registerService() throws Exception {
+        registryRule.setServiceParameter(SERVICE_ID, QaasField.IRI, TEMPLATE_IRI);
+        registryRule.setServiceParameter(SERVICE_ID, QaasField.ACL, "qaas:execute:" + SERVICE_ID);
+    }
+
+    private String invoke(QueryCatalogRESTService service, String type) throws Exception {
+        MultivaluedMap<String, String> arguments = new MultivaluedHashMap<>();
+        arguments.putSingle("type", type);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.invoke(arguments, out, Optional.of(MediaType.valueOf("text/csv")));
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private void addPerson(String name) {
+        try (RepositoryConnection con = repositoryRule.getRepository().getConnection()) {
+            con.add(vf.createIRI("http://example.org/" + name), RDF.TYPE, FOAF.PERSON);
+        }
+    }
+}
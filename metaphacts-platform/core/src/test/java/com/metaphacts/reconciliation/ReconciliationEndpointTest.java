@@ -324,6 +324,26 @@ public void remoteReconciliationEndpointTest() throws Exception {
         this.sendRemoteManifestRequest();
     }
 
+    @Test
+    public void remoteReconciliationEndpointBatchTest() throws Exception {
+        SecurityUtils.getSubject().login(new UsernamePasswordToken("legacy-admin", "password"));
+        RemoteLookupConfig config = new RemoteLookupConfig();
+        config.setRemoteServiceUrl(REMOTE_BASE_URI + REMOTE_ENDPOINT_PATH);
+        config.setQueryMethod(QueryMethod.postRawJson);
+        config.setRemoteBatchSize(10);
+        setupLookupService(LOOKUP_REPOSITORY_2, config);
+
+        int requestsBefore = RemoteTestReconciliationEndpoint.lookupRequestCounter.get();
+        Response response = this.sendReconciliationQuery(QueryMethod.postRawJson, MULTIPLE_QUERY, false);
+        Map<String, LookupResponse> responseMap = this.getResponseAsMap(response);
+
+        // both queries are sent to the remote endpoint in a single request
+        assertEquals(requestsBefore + 1, RemoteTestReconciliationEndpoint.lookupRequestCounter.get());
+        assertEquals(2, responseMap.size());
+        assertEquals("http://www.wikidata.org/entity/Q929", responseMap.get("q0").getResult().get(0).getId());
+        assertEquals(0, responseMap.get("q1").getResult().size());
+    }
+
     @Test
     public void lookupWithPreferredLanguage() throws Exception {
         Response response = this.sendReconciliationQuery(QueryMethod.postRawJson, MULTI_LINGUAL_QUERY, false);
@@ -43,6 +43,7 @@
 import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
@@ -66,6 +67,11 @@
 @Singleton
 public class RemoteTestReconciliationEndpoint {
 
+    /**
+     * Number of lookup requests received by this endpoint.
+     */
+    public static final AtomicInteger lookupRequestCounter = new AtomicInteger();
+
     private static String getRemoteManifest() {
         var manifest = new LookupServiceManifest(
             "mp-reconciliation",
@@ -144,6 +150,7 @@ private static String getRemoteManifest() {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces({"application/javascript", MediaType.APPLICATION_JSON})
     public Response lookupBodyPart(Map<String, LookupQuery> queries) throws TimeoutException {
+        lookupRequestCounter.incrementAndGet();
         return Response.ok().entity(RESPONSE).type(MediaType.APPLICATION_JSON).build();
     }
 
@@ -151,6 +158,7 @@ public Response lookupBodyPart(Map<String, LookupQuery> queries) throws TimeoutE
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
     @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
     public Response lookupUrlEncodedFormData(@FormParam("queries") String queries) {
+        lookupRequestCounter.incrementAndGet();
         return Response.ok().entity(RESPONSE).type(MediaType.APPLICATION_JSON).build();
     }
 
@@ -160,6 +168,7 @@ public Response lookupOrGetManifest(@QueryParam("queries") String stringQueries)
         if (stringQueries == null) {
             return Response.ok().entity(getRemoteManifest()).type(MediaType.APPLICATION_JSON).build();
         }
+        lookupRequestCounter.incrementAndGet();
         return Response.ok().entity(RESPONSE).type(MediaType.APPLICATION_JSON).build();
     }
 
@@ -0,0 +1,162 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelServiceIterationTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static List<BindingSet> bindings(int count) {
+        List<BindingSet> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("i", SimpleValueFactory.getInstance().createLiteral(i));
+            result.add(bs);
+        }
+        return result;
+    }
+
+    private static CloseableIteration<BindingSet, QueryEvaluationException> iteration(List<BindingSet> bindings) {
+        return new CloseableIteratorIteration<>(bindings.iterator());
+    }
+
+    @Test
+    public void testResultsKeepBlockOrder() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        List<BindingSet> input = bindings(20);
+        ParallelServiceIteration iter = new ParallelServiceIteration(iteration(input), 3, 4, executor, block -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                // let the first blocks overlap and finish in reverse order
+                started.await(5, TimeUnit.SECONDS);
+                int blockIndex = Integer.parseInt(block.get(0).getValue("i").stringValue()) / 3;
+                Thread.sleep(5L * (7 - blockIndex));
+            } catch (InterruptedException e) {
+                throw new QueryEvaluationException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+            return iteration(block);
+        });
+        assertEquals(input, Iterations.asList(iter));
+        assertTrue("Blocks are evaluated concurrently", maxRunning.get() > 1);
+    }
+
+    @Test
+    public void testSingleBlockIsEvaluatedOnCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        List<BindingSet> input = bindings(3);
+        ParallelServiceIteration iter = new ParallelServiceIteration(iteration(input), 5, 4, executor, block -> {
+            assertEquals(caller, Thread.currentThread());
+            return iteration(block);
+        });
+        assertEquals(input, Iterations.asList(iter));
+    }
+
+    @Test
+    public void testNestedEvaluationIsSequential() throws Exception {
+        AtomicBoolean nestedOnWorker = new AtomicBoolean();
+        ParallelServiceIteration iter = new ParallelServiceIteration(iteration(bindings(10)), 2, 4, executor,
+                block -> {
+                    nestedOnWorker.compareAndSet(false, ParallelServiceIteration.isWorkerThread());
+                    return iteration(block);
+                });
+        assertEquals(10, Iterations.asList(iter).size());
+        assertTrue(nestedOnWorker.get());
+        assertFalse(ParallelServiceIteration.isWorkerThread());
+    }
+
+    @Test(expected = QueryEvaluationException.class)
+    public void testErrorIsPropagated() throws Exception {
+        ParallelServiceIteration iter = new ParallelServiceIteration(iteration(bindings(10)), 2, 4, executor,
+                block -> {
+                    throw new QueryEvaluationException("failed");
+                });
+        Iterations.asList(iter);
+    }
+
+    @Test
+    public void testCloseClosesInput() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        CloseableIteration<BindingSet, QueryEvaluationException> input = new CloseableIteratorIteration<>(
+                bindings(10).iterator()) {
+            @Override
+            protected void handleClose() throws QueryEvaluationException {
+                closed.set(true);
+                super.handleClose();
+            }
+        };
+        ParallelServiceIteration iter = new ParallelServiceIteration(input, 2, 2, executor, block -> iteration(block));
+        iter.next();
+        iter.close();
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.config.MemoryStoreConfig;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.sdorra.shiro.ShiroRule;
+import com.github.sdorra.shiro.SubjectAware;
+import com.google.inject.Inject;
+import com.metaphacts.config.NamespaceRegistry;
+import com.metaphacts.junit.AbstractIntegrationTest;
+import com.metaphacts.junit.PlatformStorageRule;
+import com.metaphacts.junit.TestPlatformStorage;
+
+public class PlatformRepositoryFederatedServiceTest extends AbstractIntegrationTest {
+
+    private static final String SHIRO_CONFIG = "classpath:com/metaphacts/security/shiro-repositories-rights.ini";
+
+    private static final String EX = "http://example.org/";
+
+    private static final int THINGS = 100;
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    @Rule
+    public ShiroRule shiroRule = new ShiroRule();
+
+    @Inject
+    @Rule
+    public PlatformStorageRule storage;
+
+    private Repository main;
+
+    @Before
+    public void setup() throws Exception {
+        main = repositoryRule.addRepository("main", new MemoryStoreConfig());
+        Repository other = repositoryRule.addRepository("other", new MemoryStoreConfig());
+        try (RepositoryConnection con = main.getConnection();
+                RepositoryConnection otherCon = other.getConnection()) {
+            for (int i = 0; i < THINGS; i++) {
+                IRI thing = vf.createIRI(EX + "thing" + i);
+                con.add(thing, RDF.TYPE, vf.createIRI(EX + "Thing"));
+                otherCon.add(thing, RDFS.LABEL, vf.createLiteral("Thing " + i));
+            }
+        }
+    }
+
+    private void setParameter(String name, String... values) throws Exception {
+        config.getEnvironmentConfig().setParameter(name, Arrays.asList(values), TestPlatformStorage.STORAGE_ID);
+    }
+
+    private List<BindingSet> query(String serviceKeyword) {
+        String query = "SELECT ?s ?label WHERE { ?s a <" + EX + "Thing> . "
+                + serviceKeyword + " <" + NamespaceRegistry.DFLT_REPOSITORY_NAMESPACE + "other> { "
+                + "?s <" + RDFS.LABEL + "> ?label } }";
+        try (RepositoryConnection con = main.getConnection()) {
+            return QueryResults.asList(con.prepareTupleQuery(query).evaluate());
+        }
+    }
+
+    private static Set<String> labels(List<BindingSet> result) {
+        return result.stream().map(bs -> bs.getValue("label").stringValue()).collect(Collectors.toSet());
+    }
+
+    private static Set<String> expectedLabels() {
+        Set<String> labels = new HashSet<>();
+        for (int i = 0; i < THINGS; i++) {
+            labels.add("Thing " + i);
+        }
+        return labels;
+    }
+
+    @Test
+    @SubjectAware(username = "admin", password = "admin", configuration = SHIRO_CONFIG)
+    public void testParallelBindJoin() throws Exception {
+        setParameter("federatedServiceBoundJoinBlockSize", "7");
+        setParameter("federatedServiceParallelBlocks", "4");
+        List<BindingSet> result = query("SERVICE");
+        assertEquals(THINGS, result.size());
+        assertEquals(expectedLabels(), labels(result));
+    }
+
+    @Test
+    @SubjectAware(username = "admin", password = "admin", configuration = SHIRO_CONFIG)
+    public void testSequentialBindJoin() throws Exception {
+        setParameter("federatedServiceParallelBlocks", "1");
+        assertEquals(expectedLabels(), labels(query("SERVICE")));
+
+        setParameter("federatedServiceBoundJoinBlockSize", "0");
+        assertEquals(expectedLabels(), labels(query("SERVICE")));
+    }
+
+    @Test
+    @SubjectAware(username = "sparqldefault", password = "sparql", configuration = SHIRO_CONFIG)
+    public void testNotPermitted() throws Exception {
+        assertThrows(QueryEvaluationException.class, () -> query("SERVICE"));
+        assertEquals(0, query("SERVICE SILENT").size());
+    }
+}
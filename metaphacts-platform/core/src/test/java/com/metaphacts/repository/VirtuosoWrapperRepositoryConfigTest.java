@@ -121,6 +121,30 @@ public void testSerializeConfiguration() throws Exception {
         assertTrue(Models.isomorphic(fileModel, model));
     }
 
+    @Test
+    public void testBatchingAndPagingParameters() throws Exception {
+        RepositoryConfig config = createVirtuosoWrapperConfig(delegateRepositoryId);
+        VirtuosoWrapperRepositoryConfig impl = (VirtuosoWrapperRepositoryConfig) config.getRepositoryImplConfig();
+        impl.setUpdateBatchSize(100);
+        impl.setMaxUpdateLength(5000);
+        impl.setFetchSize(9000);
+
+        Model model = new LinkedHashModel();
+        config.export(model, Values.bnode());
+        RepositoryConfig parsed = RepositoryConfigUtils.createRepositoryConfig(model);
+        parsed.validate();
+        VirtuosoWrapperRepositoryConfig parsedImpl = (VirtuosoWrapperRepositoryConfig) parsed
+                .getRepositoryImplConfig();
+        assertEquals(100, parsedImpl.getUpdateBatchSize());
+        assertEquals(5000, parsedImpl.getMaxUpdateLength());
+        assertEquals(9000, parsedImpl.getFetchSize());
+
+        impl.setFetchSize(-1);
+        MpAssert.assertThrows("The fetch size must not be negative.", RepositoryConfigException.class, () -> {
+            config.validate();
+        });
+    }
+
     private void assertConfig(RepositoryConfig config) {
         assertEquals("test-virtuoso-wrapper", config.getID());
         assertEquals("Test Virtuoso SPARQL repository wrapper", config.getTitle());
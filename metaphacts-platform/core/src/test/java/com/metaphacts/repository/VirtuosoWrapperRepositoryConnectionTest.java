@@ -0,0 +1,233 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.metaphacts.repository.sparql.virtuoso.VirtuosoPagedTupleQuery;
+import com.metaphacts.repository.sparql.virtuoso.VirtuosoUpdateBatch;
+import com.metaphacts.repository.sparql.virtuoso.VirtuosoWrapperRepositoryConnection;
+
+/**
+ * Tests update batching and result paging of the
+ * {@link VirtuosoWrapperRepositoryConnection} against an in-memory delegate.
+ */
+public class VirtuosoWrapperRepositoryConnectionTest {
+
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+    private static final String NS = "http://example.org/";
+
+    private SailRepository repository;
+    private RepositoryConnection delegate;
+
+    @Before
+    public void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.init();
+        delegate = spy(repository.getConnection());
+    }
+
+    @After
+    public void tearDown() {
+        delegate.close();
+        repository.shutDown();
+    }
+
+    @Test
+    public void testAddIsSentInChunks() {
+        try (RepositoryConnection con = new VirtuosoWrapperRepositoryConnection(repository, delegate, 2,
+                1_000_000, 0)) {
+            con.add(createStatements(5));
+            // 5 statements with a batch size of 2
+            verify(delegate, times(3)).prepareUpdate(eq(QueryLanguage.SPARQL), anyString());
+            assertEquals(5, delegate.size());
+        }
+    }
+
+    @Test
+    public void testRequestLengthLimit() {
+        VirtuosoUpdateBatch batch = new VirtuosoUpdateBatch(1000, 150);
+        createStatements(5).forEach(st -> batch.add(st));
+        List<String> requests = batch.drain();
+        assertTrue(requests.size() > 1);
+        requests.forEach(request -> assertTrue(request, request.length() <= 150));
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testOperationOrderIsRetained() {
+        IRI graph = vf.createIRI(NS, "graph");
+        try (RepositoryConnection con = new VirtuosoWrapperRepositoryConnection(repository, delegate, 100,
+                1_000_000, 0)) {
+            con.begin();
+            con.add(vf.createIRI(NS, "a"), RDFS.LABEL, vf.createLiteral("first \"quoted\"\nline", "en"), graph);
+            con.remove(vf.createIRI(NS, "a"), RDFS.LABEL, null, graph);
+            con.add(vf.createIRI(NS, "a"), RDFS.LABEL, vf.createLiteral("second"), graph);
+            // nothing is sent before commit
+            verify(delegate, times(0)).prepareUpdate(eq(QueryLanguage.SPARQL), anyString());
+            con.commit();
+
+            verify(delegate, times(3)).prepareUpdate(eq(QueryLanguage.SPARQL), anyString());
+            assertEquals(1, delegate.size(graph));
+            assertTrue(delegate.hasStatement(null, RDFS.LABEL, vf.createLiteral("second"), false, graph));
+        }
+    }
+
+    @Test
+    public void testClearIsDelegated() {
+        IRI graph = vf.createIRI(NS, "graph");
+        IRI otherGraph = vf.createIRI(NS, "otherGraph");
+        delegate.add(createStatements(3), otherGraph);
+        try (RepositoryConnection con = new VirtuosoWrapperRepositoryConnection(repository, delegate, 100,
+                1_000_000, 0)) {
+            con.begin();
+            con.add(createStatements(3), graph);
+            con.clear(graph);
+            // pending updates are sent before the graph is cleared
+            verify(delegate, times(1)).prepareUpdate(eq(QueryLanguage.SPARQL), anyString());
+            verify(delegate).clear(graph);
+            con.commit();
+
+            assertFalse(delegate.isEmpty());
+            assertEquals(0, delegate.size(graph));
+            assertEquals(3, delegate.size(otherGraph));
+
+            con.clear();
+            verify(delegate).clear();
+            assertTrue(delegate.isEmpty());
+        }
+    }
+
+    @Test
+    public void testRollbackDiscardsPendingUpdates() {
+        try (RepositoryConnection con = new VirtuosoWrapperRepositoryConnection(repository, delegate, 100,
+                1_000_000, 0)) {
+            con.begin();
+            con.add(createStatements(3));
+            con.rollback();
+            assertTrue(delegate.isEmpty());
+        }
+    }
+
+    @Test
+    public void testSelectIsFetchedInPages() {
+        delegate.add(createStatements(7));
+        try (RepositoryConnection con = new VirtuosoWrapperRepositoryConnection(repository, delegate, 100,
+                1_000_000, 3)) {
+            String query = "SELECT ?s ?o WHERE { ?s <" + RDFS.LABEL + "> ?o } ORDER BY ?o";
+            TupleQuery tupleQuery = con.prepareTupleQuery(query);
+            assertTrue(tupleQuery instanceof VirtuosoPagedTupleQuery);
+            List<BindingSet> result = QueryResults.asList(tupleQuery.evaluate());
+            assertEquals(7, result.size());
+            for (int i = 0; i < 7; i++) {
+                assertEquals("label " + i, result.get(i).getValue("o").stringValue());
+            }
+            // pages of 3, 3 and 1 rows
+            verify(delegate, times(3)).prepareTupleQuery(eq(QueryLanguage.SPARQL), anyString(), eq(null));
+
+            List<BindingSet> sliced = QueryResults
+                    .asList(con.prepareTupleQuery(query + " LIMIT 4 OFFSET 2").evaluate());
+            assertEquals(4, sliced.size());
+            assertEquals("label 2", sliced.get(0).getValue("o").stringValue());
+            assertEquals("label 5", sliced.get(3).getValue("o").stringValue());
+
+            assertFalse(con.prepareTupleQuery(query + " LIMIT 3") instanceof VirtuosoPagedTupleQuery);
+        }
+    }
+
+    @Test
+    public void testPagesKeepOriginalQueryString() {
+        delegate.add(createStatements(5));
+        try (RepositoryConnection con = new VirtuosoWrapperRepositoryConnection(repository, delegate, 100,
+                1_000_000, 3)) {
+            String query = "PREFIX rdfs: <" + RDFS.NAMESPACE + ">\n"
+                    + "SELECT ?s ?o WHERE { ?s rdfs:label ?o } ORDER BY ?o LIMIT 4 OFFSET 1 # comment";
+            List<BindingSet> result = QueryResults.asList(con.prepareTupleQuery(query).evaluate());
+            assertEquals(4, result.size());
+            assertEquals("label 1", result.get(0).getValue("o").stringValue());
+            assertEquals("label 4", result.get(3).getValue("o").stringValue());
+
+            // no trailing slice due to the comment: pages are rendered from the algebra
+            verify(delegate, never()).prepareTupleQuery(eq(QueryLanguage.SPARQL), startsWith("PREFIX"), eq(null));
+
+            String unsliced = "PREFIX rdfs: <" + RDFS.NAMESPACE + ">\n"
+                    + "SELECT ?s ?o WHERE { ?s rdfs:label ?o } ORDER BY ?o";
+            assertEquals(5, QueryResults.asList(con.prepareTupleQuery(unsliced).evaluate()).size());
+            verify(delegate).prepareTupleQuery(QueryLanguage.SPARQL, unsliced + "\nLIMIT 3 OFFSET 0", null);
+            verify(delegate).prepareTupleQuery(QueryLanguage.SPARQL, unsliced + "\nLIMIT 3 OFFSET 3", null);
+        }
+    }
+
+    private Model createStatements(int count) {
+        Model model = new LinkedHashModel();
+        for (int i = 0; i < count; i++) {
+            model.add(vf.createIRI(NS, "s" + i), RDFS.LABEL, vf.createLiteral("label " + i));
+        }
+        return model;
+    }
+}
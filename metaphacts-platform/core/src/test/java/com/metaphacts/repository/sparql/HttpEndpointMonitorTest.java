@@ -0,0 +1,155 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.repository.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpEndpointMonitorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/fail", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testParseEndpointLimits() {
+        Map<String, Integer> limits = HttpEndpointMonitor.parseEndpointLimits(
+                Arrays.asList("Query.Wikidata.org=2", "localhost:10035 = 20", "invalid", "negative=-1", "nan=x"));
+        assertEquals(2, limits.size());
+        assertEquals(Integer.valueOf(2), limits.get("query.wikidata.org"));
+        assertEquals(Integer.valueOf(20), limits.get("localhost:10035"));
+    }
+
+    @Test
+    public void testStatisticsAndEndpointLimit() throws Exception {
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+        cm.setMaxTotal(10);
+        cm.setDefaultMaxPerRoute(10);
+        HttpEndpointMonitor monitor = new HttpEndpointMonitor(cm,
+                HttpEndpointMonitor.parseEndpointLimits(Arrays.asList("localhost=3")));
+
+        try (CloseableHttpClient client = createClient(cm, monitor)) {
+            execute(client, baseUrl + "/ok");
+            execute(client, baseUrl + "/ok");
+            execute(client, baseUrl + "/fail");
+        }
+
+        Map<String, HttpEndpointStatistics> statistics = monitor.getStatistics();
+        assertEquals(1, statistics.size());
+        HttpEndpointStatistics stats = statistics.get(baseUrl);
+        assertEquals(3, stats.getRequests());
+        assertEquals(1, stats.getErrors());
+        assertEquals(0, stats.getIoErrors());
+        assertEquals(3, stats.getMaxConnections());
+        assertEquals(3L, stats.getLatencyHistogram().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(stats.getMaxLatencyMillis() >= stats.getAverageLatencyMillis());
+    }
+
+    @Test
+    public void testIoErrors() throws Exception {
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+        HttpEndpointMonitor monitor = new HttpEndpointMonitor(cm, Map.of());
+        String url = baseUrl + "/ok";
+        server.stop(0);
+
+        try (CloseableHttpClient client = createClient(cm, monitor)) {
+            execute(client, url);
+        } catch (IOException e) {
+            // expected, the endpoint is not available
+        }
+
+        HttpEndpointStatistics stats = monitor.getStatistics().get(baseUrl);
+        assertEquals(0, stats.getRequests());
+        assertEquals(1, stats.getIoErrors());
+    }
+
+    private static CloseableHttpClient createClient(PoolingHttpClientConnectionManager cm,
+            HttpEndpointMonitor monitor) {
+        return HttpClientBuilder.create().setConnectionManager(cm)
+                .addInterceptorFirst(monitor.requestInterceptor())
+                .addInterceptorLast(monitor.responseInterceptor())
+                .setRetryHandler(monitor.retryHandler(DefaultHttpRequestRetryHandler.INSTANCE)).build();
+    }
+
+    private static void execute(CloseableHttpClient client, String url) throws IOException {
+        try (CloseableHttpResponse response = client.execute(new HttpGet(url))) {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+}
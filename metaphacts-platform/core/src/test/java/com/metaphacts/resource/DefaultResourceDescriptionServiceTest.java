@@ -46,6 +46,9 @@
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -127,6 +130,39 @@ public void testSimpleDescription() throws Exception {
                 equalTo("Alice (en) (Person): Researcher (1980), married to Charlie (en)"));
     }
 
+    @Test
+    public void testBatchedDescriptions() throws Exception {
+        Repository repository = repositoryRule.getRepository();
+        List<IRI> resources = Arrays.asList(ALICE, BOB, CHARLIE, DONALD);
+
+        Map<IRI, Optional<Literal>> descriptions = descriptionService.getDescriptions(resources, repository, "en");
+        assertEquals(resources.size(), descriptions.size());
+        assertThat(descriptions.get(ALICE).get().stringValue(),
+                equalTo("Alice (en) (Person): Researcher (1980), married to Charlie (en)"));
+        assertFalse("There should be no description for Donald", descriptions.get(DONALD).isPresent());
+
+        // descriptions generated in a batch must match those generated one by one
+        cacheManager.invalidateAll();
+        for (IRI resource : resources) {
+            assertEquals("description for " + resource, descriptions.get(resource),
+                    descriptionService.getDescription(resource, repository, "en"));
+        }
+    }
+
+    @Test
+    public void testBatchedSelectPattern() {
+        Optional<String> batched = descriptionService.createBatchedSelectPattern(
+                "SELECT ?value WHERE { ?subject <http://example.org/occupation> ?value }", Arrays.asList(ALICE, BOB));
+        assertTrue("pattern should be batched", batched.isPresent());
+        assertTrue(batched.get(), batched.get().contains("VALUES"));
+        assertTrue(batched.get(), batched.get().contains("<http://example.org/Bob>"));
+
+        // per-resource limits cannot be applied to a batch
+        assertFalse(descriptionService.createBatchedSelectPattern(
+                "SELECT ?value WHERE { ?subject <http://example.org/occupation> ?value } LIMIT 1",
+                Arrays.asList(ALICE, BOB)).isPresent());
+    }
+
     @Test
     public void testCaching() {
         Repository repository = repositoryRule.getRepository();
@@ -217,6 +217,35 @@ public void testWithoutPermissionsCantGet() throws Exception {
         Assert.assertEquals(Status.FORBIDDEN.getStatusCode(), response.getStatus());
     }
 
+    /**
+     * Check that a user with container based permissions can export a list of resources.
+     */
+    @Test
+    @SubjectAware(username = "editor1", password = "editor1", configuration = queryContainerPermissionsShiroFile)
+    public void testExportList() throws Exception {
+        Response response = exportRequest("http://localhost:10214/container/queryContainer/test-query",
+                "http://localhost:10214/container/queryContainer/test-query2");
+        Assert.assertEquals(Status.OK.getStatusCode(), response.getStatus());
+        String body = response.readEntity(String.class);
+        Assert.assertTrue(body.contains("http://localhost:10214/container/queryContainer/test-query>"));
+        Assert.assertTrue(body.contains("http://localhost:10214/container/queryContainer/test-query2>"));
+    }
+
+    /**
+     * Check that the export of a list fails if one of the resources must not be exported.
+     */
+    @Test
+    @SubjectAware(username = "guest", password = "guest", configuration = queryContainerPermissionsShiroFile)
+    public void testExportListWithoutPermissions() throws Exception {
+        Response response = exportRequest("http://localhost:10214/container/queryContainer/test-query",
+                "http://localhost:10214/container/queryContainer/test-query2");
+        Assert.assertNotEquals(Status.OK.getStatusCode(), response.getStatus());
+    }
+
+    private Response exportRequest(String... resources) {
+        return target("/exportResource").queryParam("iris", (Object[]) resources).request().get();
+    }
+
     private Response getResourceRequest(String resource) {
         return target("/").queryParam("uri", resource).request().accept(RDFFormat.TURTLE.getDefaultMIMEType()).get();
     }
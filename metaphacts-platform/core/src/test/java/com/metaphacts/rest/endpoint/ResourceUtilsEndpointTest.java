@@ -48,6 +48,7 @@
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -71,6 +72,7 @@
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
 import com.metaphacts.junit.AbstractRepositoryBackedIntegrationTest;
 import com.metaphacts.junit.MetaphactsJerseyTest;
@@ -205,6 +207,49 @@ public void testFetchTypes() throws IOException, InterruptedException, Execution
         assertThat(values.get(CHARLIE.stringValue()), containsInAnyOrder(EXAMPLE_PERSON.stringValue()));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFetchResourceCards() throws IOException {
+        List<IRI> iris = Arrays.asList(ALICE, BOB, CHARLIE);
+        Entity<String> entity = Entity.entity(createJSONArrayForIRIs(iris), MediaType.APPLICATION_JSON_TYPE);
+
+        Response response = target("data/rdf/utils/getResourceCards")
+                .queryParam("preferredLanguage", "de")
+                .queryParam("facets", "label,types,description")
+                .request().accept(ResourceUtilsEndpoint.APPLICATION_NDJSON).post(entity);
+        assertEquals(200, response.getStatus());
+
+        // one line per facet in the order of completion
+        Map<String, Map<String, Object>> facets = new HashMap<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : response.readEntity(String.class).split("\n")) {
+            Map<String, Object> facet = mapper.readValue(line, Map.class);
+            facets.put((String) facet.get("facet"), (Map<String, Object>) facet.get("values"));
+        }
+        assertThat(facets.keySet(), containsInAnyOrder("label", "types", "description"));
+
+        assertThat(facets.get("label").get(ALICE.stringValue()), is(equalTo("Alice (de)")));
+        assertThat(facets.get("label").get(BOB.stringValue()), is(equalTo("Bob")));
+        assertThat((List<String>) facets.get("types").get(BOB.stringValue()),
+                containsInAnyOrder(EXAMPLE_PERSON.stringValue(), FOAF.PERSON.stringValue()));
+        assertThat(facets.get("description").get(BOB.stringValue()), is(equalTo("Bob is a nice guy")));
+        assertNull(facets.get("description").get(CHARLIE.stringValue()));
+    }
+
+    @Test
+    public void testFetchResourceCardsInvalidFacets() {
+        Entity<String> entity = Entity.entity(createJSONArrayForIRIs(Arrays.asList(ALICE)),
+                MediaType.APPLICATION_JSON_TYPE);
+
+        Response response = target("data/rdf/utils/getResourceCards").queryParam("facets", "label,unknown")
+                .request().post(entity);
+        assertEquals(400, response.getStatus());
+
+        response = target("data/rdf/utils/getResourceCards").queryParam("facets", "thumbnail")
+                .queryParam("thumbnailService", "non-existing").request().post(entity);
+        assertEquals(404, response.getStatus());
+    }
+
     static class TypesResult {
 
     }
@@ -0,0 +1,154 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class CompiledPermissionIndexTest {
+
+    private static final List<String> PERMISSIONS = Arrays.asList(
+            "pages:view:*",
+            "pages:edit:save:regex(<http://www.metaphacts.com/resource/admin/.*>)",
+            "pages:edit:save:<http://www.metaphacts.com/resource/Start>",
+            "pages:<http://www.metaphacts.com/resource/permitted/Page>:save:regex(<http://example.com/.*>)",
+            "sparql:graphstore:get,head",
+            "sparql:query:select",
+            "api:config",
+            "ui:page:view:*:*",
+            "dummy:edit:save:regex(<http://www.metaphacts.com/resource/admin/.*>)");
+
+    private static final List<String> REQUESTS = Arrays.asList(
+            "pages:view:<http://www.metaphacts.com/resource/Start>",
+            "pages:view",
+            "pages:*",
+            "pages:edit:save:<http://www.metaphacts.com/resource/admin/RepositoryManager>",
+            "pages:edit:save:<http://www.metaphacts.com/resource/Start>",
+            "pages:edit:save:<http://www.metaphacts.com/resource/Other>",
+            "pages:edit:save",
+            "pages:<http://www.metaphacts.com/resource/permitted/Page>:save:<http://example.com/x>",
+            "pages:<http://www.metaphacts.com/resource/permitted/Page>:save:<http://other.com/x>",
+            "sparql:graphstore:get",
+            "sparql:graphstore:get,head",
+            "sparql:graphstore:get,post",
+            "sparql:graphstore:post",
+            "sparql:query:select:<http://example.com/graph>",
+            "sparql:query",
+            "api:config:read",
+            "api:*",
+            "ui:page:view",
+            "ui:page:view:a",
+            "ui:page:view:a:b",
+            "ui:page:view:a:b:c",
+            "dummy:edit:save:<http://www.metaphacts.com/resource/admin/RepositoryManager>",
+            "unknown:domain");
+
+    @Test
+    public void testEquivalentToLinearEvaluation() {
+        List<Permission> permissions = permissions(PERMISSIONS);
+        CompiledPermissionIndex index = new CompiledPermissionIndex(permissions);
+
+        for (String request : REQUESTS) {
+            Permission requested = new WildcardPermission(request);
+            boolean expected = permissions.stream().anyMatch(p -> p.implies(requested));
+            Assert.assertEquals("Unexpected decision for " + request, expected, index.implies(requested));
+            // second evaluation is served from the memo
+            Assert.assertEquals("Unexpected memorized decision for " + request, expected,
+                    index.implies(requested));
+        }
+        Assert.assertEquals(REQUESTS.size(), index.getMemoSize());
+    }
+
+    @Test
+    public void testRegexPermissions() {
+        CompiledPermissionIndex index = new CompiledPermissionIndex(permissions(PERMISSIONS));
+
+        Assert.assertTrue(index.implies(new WildcardPermission(
+                "pages:edit:save:<http://www.metaphacts.com/resource/admin/RepositoryManager>")));
+        Assert.assertFalse(index.implies(new WildcardPermission(
+                "pages:edit:save:<http://www.metaphacts.com/resource/Other>")));
+        // regex permissions must only apply for the templates domain
+        Assert.assertFalse(index.implies(new WildcardPermission(
+                "dummy:edit:save:<http://www.metaphacts.com/resource/admin/RepositoryManager>")));
+    }
+
+    @Test
+    public void testAllPermission() {
+        CompiledPermissionIndex index = new CompiledPermissionIndex(permissions(Arrays.asList("*")));
+        Assert.assertTrue(index.implies(new WildcardPermission("pages:edit:save:<http://example.com>")));
+        Assert.assertTrue(index.implies(new WildcardPermission("api")));
+
+        index = new CompiledPermissionIndex(null);
+        Assert.assertFalse(index.implies(new WildcardPermission("api")));
+    }
+
+    @Test
+    public void testCacheInvalidation() {
+        CompiledPermissionIndexCache cache = new CompiledPermissionIndexCache();
+        SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+        info.setObjectPermissions(Sets.newHashSet(permissions(Arrays.asList("api:config"))));
+
+        Permission requested = new WildcardPermission("api:config:read");
+        Assert.assertTrue(cache.get(info, i -> i.getObjectPermissions()).implies(requested));
+
+        // update permissions in place: compiled permissions are kept until invalidated
+        info.setObjectPermissions(Sets.newHashSet(permissions(Arrays.asList("api:other"))));
+        Assert.assertTrue(cache.get(info, i -> i.getObjectPermissions()).implies(requested));
+
+        cache.invalidateAll();
+        Assert.assertFalse(cache.get(info, i -> i.getObjectPermissions()).implies(requested));
+    }
+
+    private static List<Permission> permissions(List<String> permissionStrings) {
+        List<Permission> res = Lists.newArrayList();
+        for (String p : permissionStrings) {
+            res.add(new WildcardPermission(p));
+        }
+        return res;
+    }
+}
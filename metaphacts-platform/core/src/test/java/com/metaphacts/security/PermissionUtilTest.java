@@ -43,6 +43,8 @@
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -51,6 +53,8 @@
 import org.apache.shiro.authz.Permission;
 import org.apache.shiro.config.Ini;
 import org.apache.shiro.util.PermissionUtils;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -61,6 +65,7 @@
 import com.metaphacts.api.sparql.SparqlUtil.SparqlOperation;
 import com.metaphacts.junit.AbstractIntegrationTest;
 import com.metaphacts.repository.RepositoryManager;
+import com.metaphacts.security.Permissions.PAGES;
 
 /**
  * @author Johannes Trame <jt@metaphacts.com>
@@ -68,6 +73,11 @@
  */
 public class PermissionUtilTest extends AbstractIntegrationTest {
     private final String sparqlPermissionShiroFile = "classpath:com/metaphacts/security/shiro-query-rights.ini";
+    private final String pagesPermissionShiroFile = "classpath:com/metaphacts/security/shiro-pages-rights.ini";
+
+    private static final IRI START = SimpleValueFactory.getInstance().createIRI("http://www.metaphacts.com/resource/Start");
+    private static final IRI ADMIN_PAGE = SimpleValueFactory.getInstance().createIRI("http://www.metaphacts.com/resource/admin/Page");
+    private static final IRI OTHER_PAGE = SimpleValueFactory.getInstance().createIRI("http://www.metaphacts.com/resource/Other");
 
     @Rule
     public ShiroRule shiroRule = new ShiroRule();
@@ -208,4 +218,48 @@ public void testNonLoggedIn() throws Exception {
         Assert.assertFalse(PermissionUtil.hasSparqlPermission(SparqlOperation.UPDATE, RepositoryManager.ASSET_REPOSITORY_ID));
     }
 
-}
\ No newline at end of file
+    @Test
+    @SubjectAware(
+            username="guest",
+            password="guest",
+            configuration = pagesPermissionShiroFile
+            )
+    public void testFilterTemplateActionPermittedGuest() throws Exception {
+        List<IRI> iris = Arrays.asList(OTHER_PAGE, START, ADMIN_PAGE);
+        Assert.assertEquals(Arrays.asList(START),
+                PermissionUtil.filterTemplateActionPermitted(iris, PAGES.Action.VIEW));
+        Assert.assertEquals(Arrays.asList(ADMIN_PAGE),
+                PermissionUtil.filterTemplateActionPermitted(iris, PAGES.Action.INFO_VIEW));
+
+        // bulk check must be consistent with the individual checks
+        for (PAGES.Action action : PAGES.Action.values()) {
+            for (IRI iri : iris) {
+                Assert.assertEquals(PermissionUtil.hasTemplateActionPermission(iri, action),
+                        PermissionUtil.filterTemplateActionPermitted(Arrays.asList(iri), action).contains(iri));
+            }
+        }
+    }
+
+    @Test
+    @SubjectAware(
+            username="admin",
+            password="admin",
+            configuration = pagesPermissionShiroFile
+            )
+    public void testFilterTemplateActionPermittedAdmin() throws Exception {
+        List<IRI> iris = Arrays.asList(OTHER_PAGE, START, ADMIN_PAGE);
+        Assert.assertEquals(iris, PermissionUtil.filterTemplateActionPermitted(iris, PAGES.Action.INFO_DELETE));
+        Assert.assertEquals(Collections.emptyList(),
+                PermissionUtil.filterTemplateActionPermitted(Collections.emptyList(), PAGES.Action.VIEW));
+    }
+
+    @Test
+    @SubjectAware(
+            configuration = pagesPermissionShiroFile
+            )
+    public void testFilterTemplateActionPermittedNonLoggedIn() throws Exception {
+        List<IRI> iris = Arrays.asList(OTHER_PAGE, START, ADMIN_PAGE);
+        Assert.assertEquals(Collections.emptyList(),
+                PermissionUtil.filterTemplateActionPermitted(iris, PAGES.Action.VIEW));
+    }
+}
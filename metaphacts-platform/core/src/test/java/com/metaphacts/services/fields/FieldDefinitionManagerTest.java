@@ -0,0 +1,160 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.services.fields;
+
+import static org.eclipse.rdf4j.model.util.Values.iri;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.vocabulary.LDP;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.SP;
+import org.eclipse.rdf4j.query.algebra.Modify;
+import org.eclipse.rdf4j.repository.util.Repositories;
+import org.junit.Test;
+
+import com.metaphacts.cache.CacheManager;
+import com.metaphacts.data.rdf.container.FieldDefinitionContainer;
+import com.metaphacts.junit.AbstractRepositoryBackedIntegrationTest;
+import com.metaphacts.vocabulary.FIELDS;
+
+public class FieldDefinitionManagerTest extends AbstractRepositoryBackedIntegrationTest {
+
+    private static final IRI FIELD1 = iri("http://example.org/field1");
+    private static final IRI FIELD2 = iri("http://example.org/field2");
+
+    @Inject
+    private FieldDefinitionManager fieldDefinitionManager;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Test
+    public void testParsedPatterns() throws Exception {
+        addField(FIELD1, "SELECT ?value WHERE { $subject <http://example.org/name> ?value }",
+                "INSERT { $subject <http://example.org/name> $value } WHERE {}");
+
+        FieldDefinition field = fieldDefinitionManager.generate(FIELD1).get();
+        assertTrue(field.getParsedPatterns().isPresent());
+        ParsedFieldPatterns patterns = field.getParsedPatterns().get();
+        assertTrue(patterns.getSelectPattern().isPresent());
+        assertTrue(patterns.getInsertPattern().get().get(0) instanceof Modify);
+        assertFalse(patterns.getDeletePattern().isPresent());
+
+        // callers get their own copy of the parsed pattern
+        assertTrue(patterns.getSelectPattern().get() != patterns.getSelectPattern().get());
+    }
+
+    @Test
+    public void testUnparsablePattern() throws Exception {
+        addField(FIELD1, "SELECT ?value WHERE { $subject", "INSERT { $subject <http://example.org/name> $value } WHERE {}");
+
+        ParsedFieldPatterns patterns = fieldDefinitionManager.generate(FIELD1).get().getParsedPatterns().get();
+        assertFalse(patterns.getSelectPattern().isPresent());
+        assertTrue(patterns.getInsertPattern().isPresent());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        addField(FIELD1, "SELECT ?value WHERE { $subject <http://example.org/name> ?value }", null);
+        assertEquals(1, fieldDefinitionManager.generateAll(Collections.emptyList()).size());
+
+        // field definitions are loaded once, changes bypassing the container are not visible
+        addField(FIELD2, "SELECT ?value WHERE { $subject <http://example.org/age> ?value }", null);
+        assertFalse(fieldDefinitionManager.generate(FIELD2).isPresent());
+
+        // unrelated resources do not invalidate the field definitions
+        cacheManager.invalidateResources(Collections.singleton(iri("http://example.org/other")));
+        assertFalse(fieldDefinitionManager.generate(FIELD2).isPresent());
+
+        cacheManager.invalidateResources(Collections.singleton(FieldDefinitionContainer.IRI));
+        assertTrue(fieldDefinitionManager.generate(FIELD2).isPresent());
+        assertEquals(2, fieldDefinitionManager.generateAll(Collections.emptyList()).size());
+
+        // modifying a known field invalidates all field definitions
+        Repositories.consume(repositoryRule.getAssetRepository(), conn -> conn.remove(FIELD1, null, null));
+        cacheManager.invalidateResources(Collections.singleton(FIELD1));
+        assertFalse(fieldDefinitionManager.generate(FIELD1).isPresent());
+        assertTrue(fieldDefinitionManager.generate(FIELD2).isPresent());
+    }
+
+    @Test
+    public void testCallersReceiveCopies() throws Exception {
+        addField(FIELD1, "SELECT ?value WHERE { $subject <http://example.org/name> ?value }", null);
+        FieldDefinition field = fieldDefinitionManager.generate(FIELD1).get();
+        field.setDefaultValues(Set.of(iri("http://example.org/Type")));
+        field.getDomain().add(iri("http://example.org/Domain"));
+
+        FieldDefinition other = fieldDefinitionManager.generate(FIELD1).get();
+        assertTrue(other.getDefaultValues().isEmpty());
+        assertTrue(other.getDomain().isEmpty());
+        assertTrue(other.getParsedPatterns().isPresent());
+        assertTrue(fieldDefinitionManager.generateAll(Collections.emptyList()).get(FIELD1).getDefaultValues()
+                .isEmpty());
+    }
+
+    private void addField(IRI field, String selectPattern, String insertPattern) {
+        ModelBuilder builder = new ModelBuilder()
+                .subject(FieldDefinitionContainer.IRI)
+                .add(LDP.CONTAINS, field)
+                .subject(field)
+                .add(RDF.TYPE, FIELDS.FIELD_TYPE)
+                .add(FIELDS.SELECT_PATTERN, iri(field.stringValue() + "/select"))
+                .subject(iri(field.stringValue() + "/select"))
+                .add(SP.TEXT_PROPERTY, selectPattern);
+        if (insertPattern != null) {
+            builder.subject(field)
+                    .add(FIELDS.INSERT_PATTERN, iri(field.stringValue() + "/insert"))
+                    .subject(iri(field.stringValue() + "/insert"))
+                    .add(SP.TEXT_PROPERTY, insertPattern);
+        }
+        Model model = builder.build();
+        Repositories.consume(repositoryRule.getAssetRepository(), conn -> conn.add(model));
+    }
+}
@@ -99,6 +99,7 @@
 import com.metaphacts.services.storage.api.PathMapping;
 import com.metaphacts.services.storage.api.StorageException;
 import com.metaphacts.services.storage.api.StoragePath;
+import com.metaphacts.services.storage.api.StorageTransaction;
 import com.metaphacts.services.storage.api.Tag;
 
 public class GitStorageTest {
@@ -193,6 +194,54 @@ public void testGetRevisionsOfDeletedObject() throws Exception {
         }
     }
 
+    @Test
+    public void testTransactionWritesSingleCommit() throws Exception {
+        try (GitStorage git = createGitStorage(remoteUrl())) {
+            StoragePath readmePath = StoragePath.parse("readme.txt");
+            StoragePath otherPath = StoragePath.parse("folder/other.txt");
+            StoragePath removedPath = StoragePath.parse("removed.txt");
+            storeContent(git, removedPath, "To be removed");
+
+            try (StorageTransaction tx = git.beginTransaction(defaultMetadata())) {
+                stageContent(tx, readmePath, "Hello World");
+                stageContent(tx, otherPath, "Other");
+                tx.deleteObject(removedPath);
+                tx.commit();
+            }
+
+            assertObjectExists(git, readmePath, "Hello World");
+            assertObjectExists(git, otherPath, "Other");
+            Assert.assertFalse(git.getObject(removedPath, null).isPresent());
+            assertFileExists(localGitFolder, "folder/other.txt", "Other");
+            assertFileNotExists(localGitFolder, "removed.txt", "To be removed");
+
+            Assert.assertEquals(
+                git.getObject(readmePath, null).get().getRevision(),
+                git.getObject(otherPath, null).get().getRevision());
+        }
+
+        AtomicInteger commitsLocal = new AtomicInteger(0);
+        localGit.log().call().forEach(r -> commitsLocal.incrementAndGet());
+        Assert.assertEquals(2, commitsLocal.get());
+    }
+
+    @Test
+    public void testTransactionDiscardedOnClose() throws Exception {
+        try (GitStorage git = createGitStorage()) {
+            StoragePath readmePath = StoragePath.parse("readme.txt");
+            storeContent(git, readmePath, "Hello World");
+
+            try (StorageTransaction tx = git.beginTransaction(defaultMetadata())) {
+                stageContent(tx, readmePath, "Hello World Updated");
+                stageContent(tx, StoragePath.parse("other.txt"), "Other");
+            }
+
+            assertObjectExists(git, readmePath, "Hello World");
+            Assert.assertFalse(git.getObject(StoragePath.parse("other.txt"), null).isPresent());
+            Assert.assertEquals(1, git.getRevisions(readmePath).size());
+        }
+    }
+
     @Test
     public void testPushToRemote() throws Exception {
         try (GitStorage git = createGitStorage(remoteUrl())) {
@@ -890,6 +939,12 @@ private ObjectRecord storeContent(GitStorage storage, StoragePath targetPath, St
         return storage.appendObject(targetPath, metadata, new ByteArrayInputStream(bytes), bytes.length);
     }
 
+    private void stageContent(StorageTransaction tx, StoragePath targetPath, String content)
+            throws StorageException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        tx.appendObject(targetPath, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
     private void assertObjectExists(GitStorage storage, StoragePath path, String expectedContent) {
         try {
             Optional<ObjectRecord> record = storage.getObject(path, null);
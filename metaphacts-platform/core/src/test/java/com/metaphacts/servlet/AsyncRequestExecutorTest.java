@@ -0,0 +1,168 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.servlet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.inject.Inject;
+import com.metaphacts.junit.AbstractIntegrationTest;
+import com.metaphacts.junit.PlatformStorageRule;
+import com.metaphacts.junit.TestPlatformStorage;
+
+public class AsyncRequestExecutorTest extends AbstractIntegrationTest {
+
+    @Inject
+    @Rule
+    public PlatformStorageRule storage;
+
+    private AsyncRequestExecutor executor;
+
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+    private AsyncContext asyncContext;
+
+    @Before
+    public void setUp() throws Exception {
+        config.getEnvironmentConfig().setParameter("asyncRequestTimeoutSecs", Arrays.asList("60"),
+                TestPlatformStorage.STORAGE_ID);
+        executor = new AsyncRequestExecutor(config);
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        asyncContext = mock(AsyncContext.class);
+        when(req.isAsyncSupported()).thenReturn(true);
+        when(req.startAsync(req, resp)).thenReturn(asyncContext);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testTaskWaitsForPermit() throws Exception {
+        CompletableFuture<AutoCloseable> permit = new CompletableFuture<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(req, resp, permit, finished::countDown);
+
+        verify(asyncContext).setTimeout(TimeUnit.SECONDS.toMillis(60));
+        Assert.assertFalse("Task must not run before the permit is granted", finished.await(100, TimeUnit.MILLISECONDS));
+
+        permit.complete(() -> {
+        });
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        verify(asyncContext, timeout(5000)).complete();
+    }
+
+    @Test
+    public void testTimeoutReleasesLatePermit() throws Exception {
+        CompletableFuture<AutoCloseable> permit = new CompletableFuture<>();
+        AtomicBoolean ran = new AtomicBoolean();
+        executor.execute(req, resp, permit, () -> ran.set(true));
+
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+        verify(resp).sendError(eq(HttpServletResponse.SC_SERVICE_UNAVAILABLE), anyString());
+        verify(asyncContext).complete();
+
+        // a permit granted after the timeout is released without running the task
+        CountDownLatch released = new CountDownLatch(1);
+        permit.complete(released::countDown);
+        Assert.assertTrue(released.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(ran.get());
+        verify(resp, never()).sendError(eq(HttpServletResponse.SC_INTERNAL_SERVER_ERROR), any());
+    }
+
+    @Test
+    public void testContextOfCallingThreadIsPropagated() throws Exception {
+        CompletableFuture<AutoCloseable> permit = new CompletableFuture<>();
+        AtomicReference<String> user = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        ThreadContext.put("user", "alice");
+        try {
+            executor.execute(req, resp, permit, () -> {
+                user.set(ThreadContext.get("user"));
+                finished.countDown();
+            });
+        } finally {
+            ThreadContext.clearMap();
+        }
+
+        // the permit is granted on a thread of another request
+        Thread other = new Thread(() -> {
+            ThreadContext.put("user", "bob");
+            permit.complete(() -> {
+            });
+        });
+        other.start();
+        other.join();
+
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("alice", user.get());
+    }
+}
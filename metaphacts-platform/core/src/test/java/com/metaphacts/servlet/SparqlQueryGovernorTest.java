@@ -0,0 +1,202 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.servlet;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.shiro.subject.Subject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.inject.Inject;
+import com.metaphacts.junit.AbstractIntegrationTest;
+import com.metaphacts.junit.PlatformStorageRule;
+import com.metaphacts.junit.TestPlatformStorage;
+import com.metaphacts.servlet.SparqlQueryGovernor.QueryPermit;
+import com.metaphacts.servlet.SparqlQueryGovernor.QueryRejectedException;
+import com.metaphacts.servlet.SparqlQueryGovernor.ResultLimiter;
+
+public class SparqlQueryGovernorTest extends AbstractIntegrationTest {
+
+    @Inject
+    @Rule
+    public PlatformStorageRule storage;
+
+    @Inject
+    private SparqlQueryGovernor governor;
+
+    private Subject subject(String principal, String... roles) {
+        Subject subject = mock(Subject.class);
+        when(subject.getPrincipal()).thenReturn(principal);
+        for (String role : roles) {
+            when(subject.hasRole(role)).thenReturn(true);
+        }
+        return subject;
+    }
+
+    private void setParameter(String name, String... values) throws Exception {
+        config.getEnvironmentConfig().setParameter(name, Arrays.asList(values), TestPlatformStorage.STORAGE_ID);
+    }
+
+    @Test
+    public void testUnlimitedByDefault() throws Exception {
+        Subject user = subject("user");
+        Assert.assertEquals(Optional.empty(), governor.getConcurrentQueryLimit(user));
+        Assert.assertEquals(0, governor.getMaxExecutionTime(user));
+
+        try (QueryPermit p1 = governor.acquire(user).join(); QueryPermit p2 = governor.acquire(user).join()) {
+            // no limit applies
+        }
+    }
+
+    @Test
+    public void testConcurrentQueryLimit() throws Exception {
+        setParameter("sparqlMaxConcurrentQueriesPerUser", "1");
+        setParameter("sparqlQueueTimeoutSecs", "0");
+        Subject user = subject("user");
+        Subject otherUser = subject("otherUser");
+
+        try (QueryPermit permit = governor.acquire(user).join()) {
+            try {
+                governor.acquire(user).get(5, TimeUnit.SECONDS);
+                Assert.fail("Expected the second query of the same user to be rejected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof QueryRejectedException);
+                Assert.assertTrue(e.getCause().getMessage().contains("user"));
+            }
+            // limits are tracked per user
+            governor.acquire(otherUser).join().close();
+        }
+        // slot is available again after closing the permit
+        governor.acquire(user).join().close();
+        // no state is kept for users without running or waiting queries
+        Assert.assertEquals(0, governor.getTrackedUsers());
+    }
+
+    @Test
+    public void testQueuedQueryProceedsOnRelease() throws Exception {
+        setParameter("sparqlMaxConcurrentQueriesPerUser", "1");
+        setParameter("sparqlQueueTimeoutSecs", "10");
+        Subject user = subject("user");
+
+        QueryPermit permit = governor.acquire(user).join();
+        CompletableFuture<QueryPermit> queued = governor.acquire(user);
+        // waiting does not block the caller
+        Assert.assertFalse(queued.isDone());
+
+        permit.close();
+        // closing a permit twice must not free another slot
+        permit.close();
+        CompletableFuture<QueryPermit> next;
+        try (QueryPermit p = queued.get(5, TimeUnit.SECONDS)) {
+            next = governor.acquire(user);
+            Assert.assertFalse(next.isDone());
+        }
+        next.get(5, TimeUnit.SECONDS).close();
+        Assert.assertEquals(0, governor.getTrackedUsers());
+    }
+
+    @Test
+    public void testRoleSpecificSettings() throws Exception {
+        setParameter("sparqlMaxConcurrentQueriesPerUser", "1");
+        setParameter("sparqlRoleConcurrentQueries", "admin:10", "editor:3");
+        setParameter("sparqlMaxExecutionTime", "20");
+        setParameter("sparqlRoleMaxExecutionTime", "admin:0", "editor:60", "guest:5");
+
+        Assert.assertEquals(Optional.of(10), governor.getConcurrentQueryLimit(subject("a", "admin", "editor")));
+        Assert.assertEquals(Optional.of(3), governor.getConcurrentQueryLimit(subject("e", "editor")));
+        Assert.assertEquals(Optional.of(1), governor.getConcurrentQueryLimit(subject("u", "other")));
+
+        Assert.assertEquals(0, governor.getMaxExecutionTime(subject("a", "admin", "guest")));
+        Assert.assertEquals(60, governor.getMaxExecutionTime(subject("e", "editor", "guest")));
+        Assert.assertEquals(5, governor.getMaxExecutionTime(subject("g", "guest")));
+        Assert.assertEquals(20, governor.getMaxExecutionTime(subject("u", "other")));
+    }
+
+    @Test
+    public void testResultLimiter() throws Exception {
+        ResultLimiter limiter = new ResultLimiter(new ByteArrayOutputStream(), 2, Long.MAX_VALUE);
+        Assert.assertTrue(limiter.acceptResult());
+        Assert.assertTrue(limiter.acceptResult());
+        Assert.assertFalse(limiter.isTruncated());
+        Assert.assertFalse(limiter.acceptResult());
+        Assert.assertTrue(limiter.isTruncated());
+
+        Assert.assertEquals("rows=2", limiter.describeLimits());
+
+        limiter = new ResultLimiter(new ByteArrayOutputStream(), Long.MAX_VALUE, 4);
+        Assert.assertEquals("bytes=4", limiter.describeLimits());
+        Assert.assertTrue(limiter.acceptResult());
+        limiter.getOutputStream().write(new byte[] { 1, 2, 3, 4 });
+        Assert.assertFalse(limiter.acceptResult());
+        Assert.assertTrue(limiter.isTruncated());
+    }
+
+    @Test
+    public void testResultLimitHeaders() throws Exception {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        ResultLimiter limiter = governor.newResultLimiter(resp, new ByteArrayOutputStream());
+        verify(resp, never()).setHeader(eq(SparqlServlet.HEADER_MPH_RESULT_LIMIT), anyString());
+
+        setParameter("sparqlMaxResultRows", "1");
+        setParameter("sparqlMaxResultBytes", "100");
+        limiter = governor.newResultLimiter(resp, new ByteArrayOutputStream());
+        verify(resp).setHeader(SparqlServlet.HEADER_MPH_RESULT_LIMIT, "rows=1; bytes=100");
+
+        Assert.assertTrue(limiter.acceptResult());
+        Assert.assertFalse(limiter.acceptResult());
+        verify(resp).setHeader(SparqlServlet.HEADER_MPH_RESULT_TRUNCATED, "true");
+    }
+}
@@ -42,11 +42,14 @@
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.HttpMethod;
@@ -59,9 +62,11 @@
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.FOAF;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriterFactory;
@@ -83,9 +88,11 @@
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.metaphacts.api.sparql.SparqlOperationBuilder;
+import com.metaphacts.cache.CacheManager;
 import com.metaphacts.di.MainGuiceModule.MainTemplateProvider;
 import com.metaphacts.junit.AbstractIntegrationTest;
 import com.metaphacts.junit.PlatformStorageRule;
+import com.metaphacts.junit.TestPlatformStorage;
 import com.metaphacts.junit.TestUtils;
 import com.metaphacts.ui.templates.ST;
 
@@ -124,6 +131,9 @@ public class SparqlServletTest extends AbstractIntegrationTest  {
 
     @Inject
     Injector injector;
+
+    @Inject
+    CacheManager cacheManager;
     
     private ValueFactory vf;
     
@@ -323,6 +333,164 @@ public void testNoUpdatePermission() throws Exception {
         }
     }
 
+    @Test
+    @SubjectAware(
+            username="admin",
+            password="admin",
+            configuration = sparqlPermissionShiroFile
+          )
+    public void testResultRowLimit() throws Exception {
+        config.getEnvironmentConfig().setParameter("sparqlMaxResultRows", Lists.newArrayList("2"),
+                TestPlatformStorage.STORAGE_ID);
+        Repository rep = repositoryRule.getRepository();
+        try(RepositoryConnection con = rep.getConnection()){
+            addTestStatements(con);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        when(req.getParameter("query")).thenReturn(selectQuery);
+        when(req.getMethod()).thenReturn(HttpMethod.POST);
+        when(req.getContentType()).thenReturn(ContentType.APPLICATION_FORM_URLENCODED.toString());
+        when(req.getHeaders("Accept")).thenAnswer(TestUtils.getMimetypeAnswer(TupleQueryResultFormat.JSON.getMIMETypes()));
+        when(res.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                baos.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        sparqlServlet.doPost(req, res);
+
+        verify(res, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+        // the truncated result must still be a complete SPARQL JSON document
+        try (TupleQueryResult result = QueryResultIO.parseTuple(
+                new ByteArrayInputStream(baos.toByteArray()), TupleQueryResultFormat.JSON)) {
+            Assert.assertEquals(2, QueryResults.asList(result).size());
+        }
+    }
+
+    @Test
+    @SubjectAware(
+            username="admin",
+            password="admin",
+            configuration = sparqlPermissionShiroFile
+          )
+    public void testAsyncProcessing() throws Exception {
+        Repository rep = repositoryRule.getRepository();
+        try(RepositoryConnection con = rep.getConnection()){
+            addTestStatements(con);
+        }
+
+        AsyncContext asyncContext = Mockito.mock(AsyncContext.class);
+        when(req.isAsyncSupported()).thenReturn(true);
+        when(req.startAsync(req, res)).thenReturn(asyncContext);
+        when(req.getParameter("query")).thenReturn(selectQuery);
+        when(req.getMethod()).thenReturn(HttpMethod.POST);
+        when(req.getContentType()).thenReturn(ContentType.APPLICATION_FORM_URLENCODED.toString());
+        when(req.getHeaders("Accept")).thenAnswer(TestUtils.getMimetypeAnswer(TupleQueryResultFormat.JSON.getMIMETypes()));
+        when(res.getOutputStream()).thenReturn(outputStream);
+        sparqlServlet.doPost(req, res);
+
+        // the query is evaluated on a worker thread which completes the async context
+        verify(asyncContext, Mockito.timeout(10000)).complete();
+        verify(res).setContentType(Mockito.contains(TupleQueryResultFormat.JSON.getDefaultMIMEType()));
+        verify(res, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+    }
+
+    @Test
+    @SubjectAware(
+            username="admin",
+            password="admin",
+            configuration = sparqlPermissionShiroFile
+          )
+    public void testResultCache() throws Exception {
+        config.getCacheConfig().setParameter("sparqlResultCacheEnabled", Lists.newArrayList("true"),
+                TestPlatformStorage.STORAGE_ID);
+        Repository rep = repositoryRule.getRepository();
+        try(RepositoryConnection con = rep.getConnection()){
+            addTestStatements(con);
+        }
+        Assert.assertEquals(4, evaluateSelect(selectQuery).size());
+
+        // writes not seen by the platform are served from the cache until invalidation
+        try(RepositoryConnection con = rep.getConnection()){
+            con.add(vf.createIRI("http://www.metaphacts.com/resource/Wolfgang"), RDF.TYPE, vf.createIRI(FOAF.NAMESPACE,"Person"));
+        }
+        Assert.assertEquals(4, evaluateSelect("SELECT *\n  WHERE {?a ?b ?c}   LIMIT 10").size());
+
+        cacheManager.invalidateAll();
+        Assert.assertEquals(5, evaluateSelect(selectQuery).size());
+    }
+
+    @Test
+    @SubjectAware(
+            username="admin",
+            password="admin",
+            configuration = sparqlPermissionShiroFile
+          )
+    public void testBinaryResultFormat() throws Exception {
+        Repository rep = repositoryRule.getRepository();
+        try(RepositoryConnection con = rep.getConnection()){
+            addTestStatements(con);
+        }
+        byte[] binary = executeSelect(selectQuery, TupleQueryResultFormat.BINARY);
+        verify(res).setHeader(SparqlServlet.HEADER_MPH_BINARY_RESULTS, "true");
+        byte[] json = executeSelect(selectQuery, TupleQueryResultFormat.JSON);
+
+        try (TupleQueryResult binaryResult = QueryResultIO.parseTuple(new ByteArrayInputStream(binary),
+                TupleQueryResultFormat.BINARY);
+                TupleQueryResult jsonResult = QueryResultIO.parseTuple(new ByteArrayInputStream(json),
+                        TupleQueryResultFormat.JSON)) {
+            Assert.assertEquals(QueryResults.asSet(jsonResult), QueryResults.asSet(binaryResult));
+        }
+        Assert.assertTrue("Binary result should be more compact than JSON", binary.length < json.length);
+    }
+
+    private List<BindingSet> evaluateSelect(String query) throws Exception {
+        byte[] result = executeSelect(query, TupleQueryResultFormat.JSON);
+        try (TupleQueryResult tupleResult = QueryResultIO.parseTuple(
+                new ByteArrayInputStream(result), TupleQueryResultFormat.JSON)) {
+            return QueryResults.asList(tupleResult);
+        }
+    }
+
+    private byte[] executeSelect(String query, TupleQueryResultFormat format) throws Exception {
+        Mockito.reset(req, res);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        when(req.getParameter("query")).thenReturn(query);
+        when(req.getMethod()).thenReturn(HttpMethod.POST);
+        when(req.getContentType()).thenReturn(ContentType.APPLICATION_FORM_URLENCODED.toString());
+        when(req.getHeaders("Accept")).thenAnswer(TestUtils.getMimetypeAnswer(format.getMIMETypes()));
+        when(res.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                baos.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        sparqlServlet.doPost(req, res);
+
+        verify(res, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+        verify(res).setContentType(Mockito.contains(format.getDefaultMIMEType()));
+        return baos.toByteArray();
+    }
+
     private void addTestStatements(RepositoryConnection con) throws Exception {
             List<Statement> stmts = Lists.newArrayList(
                     vf.createStatement(vf.createIRI("http://www.metaphacts.com/resource/Johannes"), RDF.TYPE, vf.createIRI(FOAF.NAMESPACE,"Person")),
@@ -47,6 +47,7 @@
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.algebra.Modify;
 import org.eclipse.rdf4j.query.algebra.Reduced;
+import org.eclipse.rdf4j.query.algebra.Slice;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.UpdateExpr;
 import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
@@ -59,6 +60,7 @@
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.metaphacts.sparql.SparqlTestUtils;
 
@@ -1246,6 +1248,69 @@ public void testDeleteQueryWithASubqueryAndGroupBy() throws Exception {
         String query = loadQuery("deleteQueryWithASubqueryAndGroupBy");
         testSingleQuery("deleteQueryWithASubqueryAndGroupBy", query);
     }
+
+    @Test
+    public void testMemoizedRenderingMatchesUncached() throws Exception {
+        MpSparqlQueryRenderer cachingRenderer = new MpSparqlQueryRenderer(10);
+        for (String queryId : Lists.newArrayList("all", "bsbm1", "bsbm10", "artists-ghent")) {
+            String query = loadSparqlJsQuery(queryId);
+            String expected = new MpSparqlQueryRenderer().render(parse(query));
+            // the first call fills the cache, the second one (on a fresh but equal tree) is answered from it
+            Assert.assertEquals(queryId, expected, cachingRenderer.render(parse(query)));
+            Assert.assertEquals(queryId, expected, cachingRenderer.render(parse(query)));
+        }
+    }
+
+    @Test
+    public void testMemoizedRenderingAfterTreeModification() throws Exception {
+        MpSparqlQueryRenderer cachingRenderer = new MpSparqlQueryRenderer(10);
+        ParsedTupleQuery query = (ParsedTupleQuery) parse("SELECT ?s WHERE { ?s ?p ?o } LIMIT 10");
+        Assert.assertTrue(cachingRenderer.render(query).contains("LIMIT 10"));
+
+        ((Slice) query.getTupleExpr()).setLimit(20);
+        String rendered = cachingRenderer.render(query);
+        Assert.assertTrue(rendered, rendered.contains("LIMIT 20"));
+    }
+
+    @Test
+    public void testMemoizedRenderingConsidersPropertiesIgnoredByEquals() throws Exception {
+        MpSparqlQueryRenderer cachingRenderer = new MpSparqlQueryRenderer(10);
+
+        String plain = cachingRenderer.render(parse("SELECT * WHERE { SERVICE <http://example.org/sparql> { ?s ?p ?o } }"));
+        String silent = cachingRenderer
+                .render(parse("SELECT * WHERE { SERVICE SILENT <http://example.org/sparql> { ?s ?p ?o } }"));
+        Assert.assertFalse(plain, plain.contains("SILENT"));
+        Assert.assertTrue(silent, silent.contains("SILENT"));
+
+        String star = cachingRenderer.render(parse("SELECT * WHERE { ?s <http://example.org/p>* ?o }"));
+        String plus = cachingRenderer.render(parse("SELECT * WHERE { ?s <http://example.org/p>+ ?o }"));
+        Assert.assertTrue(star, star.contains("*"));
+        Assert.assertTrue(plus, plus.contains("+"));
+    }
+
+    @Test
+    public void testMemoizedRenderingConsidersDistinctAggregates() throws Exception {
+        MpSparqlQueryRenderer cachingRenderer = new MpSparqlQueryRenderer(10);
+        for (String aggregate : Lists.newArrayList("COUNT", "SUM", "AVG", "MIN", "MAX", "SAMPLE", "GROUP_CONCAT")) {
+            String distinct = cachingRenderer.render(
+                    parse("SELECT (" + aggregate + "(DISTINCT ?o) AS ?x) WHERE { ?s ?p ?o }"));
+            String plain = cachingRenderer.render(parse("SELECT (" + aggregate + "(?o) AS ?x) WHERE { ?s ?p ?o }"));
+            Assert.assertTrue(distinct, distinct.contains("DISTINCT"));
+            Assert.assertFalse(plain, plain.contains("DISTINCT"));
+        }
+    }
+
+    @Test
+    public void testServiceSilent() throws Exception {
+        String query = "SELECT * WHERE { ?s ?p ?o . SERVICE SILENT <http://example.org/sparql> { ?s ?p2 ?o2 } }";
+        String rendered = new MpSparqlQueryRenderer().render(parse(query));
+        Assert.assertTrue(rendered, rendered.contains("SERVICE SILENT <http://example.org/sparql>"));
+        testSingleQuery("serviceSilent", query);
+    }
+
+    private ParsedOperation parse(String query) {
+        return QueryParserUtil.parseOperation(QueryLanguage.SPARQL, query, null);
+    }
     
     
     private void testSingleQuery(String id, String strQuery) {
@@ -398,6 +398,36 @@ public void testPageRenderInfo_Caching_And_Permission() throws Exception {
 		Assert.assertEquals(false, pInfo.isShowKnowledgeGraphBarToggle());
 	}
 
+	@Test
+	@SubjectAware(username = "admin", password = "admin", configuration = templatePermissionShiroFile)
+	public void testPageRenderInfo_SharedTypeSet() throws Exception {
+
+		// two person instances share the template resolution for their type set
+
+		IRI bob = vf.createIRI("http://www.metaphacts.com/resource/bob");
+		IRI alice = vf.createIRI("http://www.metaphacts.com/resource/alice");
+		IRI personTemplate = vf.createIRI("Template:" + FOAF.PERSON.stringValue());
+		savePage(personTemplate, "Template for foaf:Person");
+		addType(bob, FOAF.PERSON);
+		addType(alice, FOAF.PERSON);
+
+		PageViewConfig pInfo = requestPageRenderInfo(bob);
+		Assert.assertEquals(personTemplate.stringValue(), pInfo.getPageViewTemplateIri());
+
+		// remove the template without invalidating caches => alice is resolved
+		// from the cached decision for foaf:Person without probing the storage
+		platformStorageRule.getPlatformStorage().getStorage("runtime").deleteObject(
+				TemplateByIriLoader.templatePathFromIri(personTemplate),
+				platformStorageRule.getPlatformStorage().getDefaultMetadata());
+		pInfo = requestPageRenderInfo(alice);
+		Assert.assertEquals(personTemplate.stringValue(), pInfo.getPageViewTemplateIri());
+
+		// invalidate cache => template no longer exists
+		cacheManager.invalidateAll();
+		pInfo = requestPageRenderInfo(alice);
+		Assert.assertEquals(PageViewConfigBuilder.TEMPLATE_DEFAULT_RESOURCE, pInfo.getPageViewTemplateIri());
+	}
+
 	private PageViewConfig requestPageRenderInfo(IRI pageIri) {
 		return requestPageRenderInfo(pageIri, null);
 	}
@@ -0,0 +1,110 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.trace;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.metaphacts.trace.RequestTrace.SpanStatistics;
+
+public class RequestTraceTest {
+
+    @After
+    public void tearDown() {
+        RequestTrace.activate(null);
+    }
+
+    @Test
+    public void testSpanWithoutTrace() {
+        assertNull(RequestTrace.current());
+        assertSame(Span.NOOP, RequestTrace.span("sparql.evaluate"));
+    }
+
+    @Test
+    public void testSpansAreAggregatedByName() {
+        RequestTrace trace = new RequestTrace("GET", "/resource/");
+        assertNull(RequestTrace.activate(trace));
+
+        try (Span span = RequestTrace.span("sparql.evaluate")) {
+            try (Span nested = RequestTrace.span("cache.labels")) {
+                // nothing
+            }
+        }
+        try (Span span = RequestTrace.span("sparql.evaluate")) {
+            // nothing
+        }
+        trace.finish();
+
+        List<SpanStatistics> spans = trace.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("cache.labels", spans.get(0).getName());
+        assertEquals(1, spans.get(0).getCount());
+        assertEquals("sparql.evaluate", spans.get(1).getName());
+        assertEquals(2, spans.get(1).getCount());
+
+        assertThat(trace.toServerTiming(), matchesPattern(
+                "cache\\.labels;dur=\\d+\\.\\d;desc=\"1x\", "
+                        + "sparql\\.evaluate;dur=\\d+\\.\\d;desc=\"2x\", total;dur=\\d+\\.\\d"));
+    }
+
+    @Test
+    public void testActivateRestoresPreviousTrace() {
+        RequestTrace outer = new RequestTrace("GET", "/a");
+        RequestTrace inner = new RequestTrace("GET", "/b");
+        RequestTrace.activate(outer);
+        RequestTrace previous = RequestTrace.activate(inner);
+        try (Span span = RequestTrace.span("lookup")) {
+            // nothing
+        }
+        RequestTrace.activate(previous);
+
+        assertSame(outer, RequestTrace.current());
+        assertEquals(0, outer.getSpans().size());
+        assertEquals(1, inner.getSpans().size());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * "Commons Clause" License Condition v1.0
+ *
+ * The Software is provided to you by the Licensor under the
+ * License, as defined below, subject to the following condition.
+ *
+ * Without limiting other conditions in the License, the grant
+ * of rights under the License will not include, and the
+ * License does not grant to you, the right to Sell the Software.
+ *
+ * For purposes of the foregoing, "Sell" means practicing any
+ * or all of the rights granted to you under the License to
+ * provide to third parties, for a fee or other consideration
+ * (including without limitation fees for hosting or
+ * consulting/ support services related to the Software), a
+ * product or service whose value derives, entirely or substantially,
+ * from the functionality of the Software. Any
+ * license notice or attribution required by the License must
+ * also include this Commons Clause License Condition notice.
+ *
+ * License: LGPL 2.1 or later
+ * Licensor: metaphacts GmbH
+ *
+ * Copyright (C) 2015-2021, metaphacts GmbH
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, you can receive a copy
+ * of the GNU Lesser General Public License from http://www.gnu.org/
+ */
+package com.metaphacts.trace;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.metaphacts.config.Configuration;
+import com.metaphacts.config.groups.EnvironmentConfiguration;
+import com.metaphacts.security.Permissions.SYSTEM;
+
+public class RequestTracerTest {
+
+    private RequestTracer tracer;
+    private HttpServletRequest request;
+    private Subject subject;
+
+    @Before
+    public void setUp() {
+        Configuration config = mock(Configuration.class);
+        EnvironmentConfiguration envConfig = mock(EnvironmentConfiguration.class);
+        when(config.getEnvironmentConfig()).thenReturn(envConfig);
+        when(envConfig.getRequestTracingSampleRate()).thenReturn(0);
+        tracer = new RequestTracer(config);
+
+        request = mock(HttpServletRequest.class);
+        when(request.getHeader(RequestTracer.HEADER_MPH_TRACE)).thenReturn("true");
+        subject = mock(Subject.class);
+        ThreadContext.bind(subject);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadContext.unbindSubject();
+    }
+
+    @Test
+    public void testTraceHeaderRequiresPermission() {
+        assertFalse(tracer.shouldTrace(request));
+        assertFalse(tracer.canViewTimings());
+
+        when(subject.isPermitted(SYSTEM.REQUEST_TRACES)).thenReturn(true);
+        assertTrue(tracer.shouldTrace(request));
+        assertTrue(tracer.canViewTimings());
+    }
+}